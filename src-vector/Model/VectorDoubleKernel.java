@@ -0,0 +1,95 @@
+package Model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * DoubleKernel using the Vector API (module jdk.incubator.vector).
+ * It is only loaded through DoubleKernel.getInstance, so the rest of the code runs without the module.
+ * This source root is compiled separately, with --add-modules jdk.incubator.vector, see DoubleKernel.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+final class VectorDoubleKernel extends DoubleKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public boolean isVectorized(){
+        return true;
+    }
+
+    @Override
+    public void subtractMultiple(double[] row, double factor, double[] source, double zeroTolerance){
+        assert(row.length==source.length):"The rows have to have the same length";
+        int bound = SPECIES.loopBound(row.length);
+        int j = 0;
+        for(; j < bound; j += SPECIES.length()){
+            DoubleVector s = DoubleVector.fromArray(SPECIES,source,j);
+            DoubleVector v = DoubleVector.fromArray(SPECIES,row,j).sub(s.mul(factor));
+            v.blend(0.0,v.abs().lt(zeroTolerance)).intoArray(row,j);
+        }
+        for(; j < row.length; j++){
+            double v = row[j] - factor*source[j];
+            row[j] = Math.abs(v) < zeroTolerance ? 0 : v;
+        }
+    }
+
+    @Override
+    public double minRatio(double[] alpha, double[] rhs, int length, double pivotTolerance, double shift){
+        int bound = SPECIES.loopBound(length);
+        DoubleVector min = DoubleVector.broadcast(SPECIES,Double.POSITIVE_INFINITY);
+        int i = 0;
+        for(; i < bound; i += SPECIES.length()){
+            DoubleVector a = DoubleVector.fromArray(SPECIES,alpha,i);
+            VectorMask<Double> considered = a.compare(VectorOperators.GT,pivotTolerance);
+            if(considered.anyTrue()){
+                DoubleVector ratio = DoubleVector.fromArray(SPECIES,rhs,i).add(shift).div(a);
+                min = min.blend(min.min(ratio),considered);
+            }
+        }
+        double res = min.reduceLanes(VectorOperators.MIN);
+        for(; i < length; i++){
+            if(alpha[i] > pivotTolerance){
+                double ratio = (rhs[i] + shift) / alpha[i];
+                if(ratio < res){
+                    res = ratio;
+                }
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public int indexOfMax(double[] values, int length){
+        int bound = SPECIES.loopBound(length);
+        if(bound == 0){
+            return super.indexOfMax(values,length);
+        }
+        // first pass: the largest value, second pass: its first index
+        DoubleVector max = DoubleVector.fromArray(SPECIES,values,0);
+        int c = SPECIES.length();
+        for(; c < bound; c += SPECIES.length()){
+            max = max.max(DoubleVector.fromArray(SPECIES,values,c));
+        }
+        double res = max.reduceLanes(VectorOperators.MAX);
+        for(; c < length; c++){
+            if(res < values[c]){
+                res = values[c];
+            }
+        }
+        for(c = 0; c < bound; c += SPECIES.length()){
+            VectorMask<Double> found = DoubleVector.fromArray(SPECIES,values,c).eq(res);
+            if(found.anyTrue()){
+                return c + found.firstTrue();
+            }
+        }
+        for(; c < length; c++){
+            if(values[c] == res){
+                return c;
+            }
+        }
+        return super.indexOfMax(values,length);
+    }
+}
@@ -8,6 +8,9 @@ public class Main {
         //testInfeasibleCase();
         //testExponentialCase();
         //testNotLowedBoundedVariable();
+        //testBoundedVariables();
+        //benchmarkPivotKernel();
+        //comparePricingRules();
 
         test();
     }
@@ -195,6 +198,33 @@ public class Main {
         */
     }
 
+    public static void testBoundedVariables(){
+        MLOProblem mloProblem = new MLOProblem(3);
+        mloProblem.addConstraint("-9 1 8",MLOProblem.GE,"4");
+        mloProblem.addConstraint("3 -2 4",MLOProblem.LE,"35");
+        mloProblem.setBounds(0,"-10","10");
+        mloProblem.setBounds(1,"-10","10");
+        mloProblem.setBounds(2,"-10","10");
+        mloProblem.setObjFun("1 -3 2");
+
+        Solver solver = new Solver(mloProblem);
+        System.out.println("--------SOLVING MLO_RB (BOUNDED)--------");solver.solveUsingMLO_RB(MLO_RB.ENGINE.BOUNDED);
+        System.out.println("\n--------SOLVING MLO_RB--------");solver.solveUsingMLO_RB();
+
+        /*
+        --------SOLVING MLO_RB (BOUNDED)--------
+        Value of objective function: -60
+        Value of var[0] = -10
+        Value of var[1] = 10
+        Value of var[2] = -10
+        --------SOLVING MLO_RB--------
+        Value of objective function: -60
+        Value of var[0] = -10
+        Value of var[1] = 10
+        Value of var[2] = -10
+        */
+    }
+
     public static void test(){
         MLOProblem mloProblem = new MLOProblem(3);
         mloProblem.setNotLowerBoundedVariableIndexes(1);
@@ -214,4 +244,64 @@ public class Main {
         System.out.println("\n--------LP_SOLVE--------");solver.solveUsingLPSolve();
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Times the row eliminations of a pivot on a wide double tableau, with the scalar kernel and with the kernel
+     * selected at runtime (vectorized when the jdk.incubator.vector module is added).
+     */
+    public static void benchmarkPivotKernel(){
+        int rows = 200, cols = 20000, pivots = 50;
+        java.util.Random random = new java.util.Random(42);
+        double[][] tableau = new double[rows][cols];
+        for(double[] row : tableau){
+            for(int j=0;j<cols;j++){
+                row[j] = random.nextDouble();
+            }
+        }
+
+        DoubleKernel[] kernels = {DoubleKernel.getScalar(),DoubleKernel.getInstance()};
+        for(int round=0;round<3;round++){ // the first rounds warm up the JIT
+            for(DoubleKernel kernel : kernels){
+                double[][] t = new double[rows][];
+                for(int i=0;i<rows;i++){
+                    t[i] = tableau[i].clone();
+                }
+                long start = System.nanoTime();
+                for(int p=0;p<pivots;p++){
+                    double[] pivotRow = t[p];
+                    for(int i=0;i<rows;i++){
+                        if(i!=p){
+                            kernel.subtractMultiple(t[i],1e-3,pivotRow,1e-12);
+                        }
+                    }
+                    kernel.indexOfMax(t[rows-1],cols-1);
+                }
+                long time = System.nanoTime()-start;
+                System.out.println((kernel.isVectorized()?"vector":"scalar")+" kernel: "+time/1000000+" ms");
+            }
+        }
+    }
+
+    public static void comparePricingRules(){
+        MLOProblem mloProblem = new MLOProblem(10);
+        mloProblem.addConstraint("1 0 0 0 0 0 0 0 0 0",MLOProblem.LE,"5");
+        mloProblem.addConstraint("4 1 0 0 0 0 0 0 0 0",MLOProblem.LE,"25");
+        mloProblem.addConstraint("8 4 1 0 0 0 0 0 0 0",MLOProblem.LE,"125");
+        mloProblem.addConstraint("16 8 4 1 0 0 0 0 0 0",MLOProblem.LE,"625");
+        mloProblem.addConstraint("32 16 8 4 1 0 0 0 0 0",MLOProblem.LE,"3125");
+        mloProblem.addConstraint("64 32 16 8 4 1 0 0 0 0",MLOProblem.LE,"15625");
+        mloProblem.addConstraint("128 64 32 16 8 4 1 0 0 0",MLOProblem.LE,"78125");
+        mloProblem.addConstraint("256 128 64 32 16 8 4 1 0 0",MLOProblem.LE,"390625");
+        mloProblem.addConstraint("512 256 128 64 32 16 8 4 1 0",MLOProblem.LE,"1953125");
+        mloProblem.addConstraint("1024 512 256 128 64 32 16 8 4 1",MLOProblem.LE,"9765625");
+        mloProblem.setObjFun("-512 -256 -128 -64 -32 -16 -8 -4 -2 -1");
+
+        PricingRule[] rules = {new DantzigPricing(),new DevexPricing(),new SteepestEdgePricing(),new PartialPricing(2,4)};
+        for(PricingRule rule : rules){
+            MLO_RB mlo = new MLO_RB(mloProblem);
+            mlo.setPricingRule(rule);
+            mlo.solve();
+            System.out.println(rule.getClass().getSimpleName()+": "+mlo.getIterationCount()+" iterations");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package Model;
+
+/**
+ * The operations a solver needs on its numbers, so that the same code can run in exact or in double arithmetic.
+ * RATIONAL computes on RationalNumbers. The double arithmetic tests signs and compares against a tolerance instead of zero.
+ * The double arithmetic works on boxed Doubles: each operation allocates its result and the arrays hold references,
+ * which is slower than double[] but lets the exact and the double solvers share their code and make the same pivot choices.
+ * DoubleSimplex is the solver on primitive doubles.
+ * @param <T> The type of the numbers.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+abstract class Arithmetic<T> {
+    /**
+     * Exact arithmetic on RationalNumbers.
+     */
+    static final Arithmetic<RationalNumber> RATIONAL = new Arithmetic<RationalNumber>(){
+        RationalNumber zero(){ return RationalNumber.ZERO; }
+        RationalNumber one(){ return RationalNumber.ONE; }
+        RationalNumber fromRational(RationalNumber n){ return n; }
+        RationalNumber add(RationalNumber a, RationalNumber b){ return a.add(b); }
+        RationalNumber subtract(RationalNumber a, RationalNumber b){ return a.subtract(b); }
+        RationalNumber multiply(RationalNumber a, RationalNumber b){ return a.multiply(b); }
+        RationalNumber divide(RationalNumber a, RationalNumber b){ return a.divide(b); }
+        RationalNumber negate(RationalNumber a){ return a.negate(); }
+        int signum(RationalNumber a){ return a.signum(); }
+        int compare(RationalNumber a, RationalNumber b){ return a.compareTo(b); }
+        double toDouble(RationalNumber a){ return a.toDouble(); }
+        String format(RationalNumber a){ return a.toString(); }
+        RationalNumber[] newArray(int length){ return new RationalNumber[length]; }
+    };
+
+    /**
+     * Returns a double arithmetic.
+     * @param tolerance The values within this tolerance of 0 are taken as 0, two values within it relatively are taken as equal.
+     * @return The double arithmetic.
+     * @throws AssertionError The tolerance has to be positive.
+     */
+    static Arithmetic<Double> doubles(double tolerance){
+        assert(tolerance>0):"The tolerance has to be positive";
+        return new Arithmetic<Double>(){
+            Double zero(){ return 0.0; }
+            Double one(){ return 1.0; }
+            Double fromRational(RationalNumber n){ return n.toDouble(); }
+            Double add(Double a, Double b){ return a+b; }
+            Double subtract(Double a, Double b){ return a-b; }
+            Double multiply(Double a, Double b){ return a*b; }
+            Double divide(Double a, Double b){ return a/b; }
+            Double negate(Double a){ return -a; }
+            int signum(Double a){ return Math.abs(a)<=tolerance ? 0 : (a>0 ? 1 : -1); }
+            int compare(Double a, Double b){
+                double d = a-b;
+                return Math.abs(d)<=tolerance*Math.max(1,Math.max(Math.abs(a),Math.abs(b))) ? 0 : (d>0 ? 1 : -1);
+            }
+            double toDouble(Double a){ return a; }
+            // without a negative zero, like DoubleSimplex
+            String format(Double a){ return String.valueOf(a==0 ? 0.0 : a); }
+            Double[] newArray(int length){ return new Double[length]; }
+        };
+    }
+
+    abstract T zero();
+    abstract T one();
+
+    /**
+     * Converts a RationalNumber.
+     * @param n The RationalNumber.
+     * @return The number in this arithmetic.
+     */
+    abstract T fromRational(RationalNumber n);
+
+    abstract T add(T a, T b);
+    abstract T subtract(T a, T b);
+    abstract T multiply(T a, T b);
+    abstract T divide(T a, T b);
+    abstract T negate(T a);
+
+    /**
+     * Returns the sign of a number.
+     * @param a The number.
+     * @return -1, 0 or 1 as the number is negative, zero or positive.
+     */
+    abstract int signum(T a);
+
+    /**
+     * Compares two numbers.
+     * @param a The first number.
+     * @param b The second number.
+     * @return A negative integer, zero, or a positive integer as the first number is less than, equal to, or greater than the second.
+     */
+    abstract int compare(T a, T b);
+
+    abstract double toDouble(T a);
+
+    /**
+     * Formats a number for the results.
+     * @param a The number.
+     * @return The number in a String.
+     */
+    abstract String format(T a);
+
+    /**
+     * Creates an array of numbers, filled with nulls.
+     * @param length The length of the array.
+     * @return The array.
+     */
+    abstract T[] newArray(int length);
+
+    /**
+     * Creates an array of numbers filled with 0s.
+     * @param length The length of the array.
+     * @return The array.
+     */
+    T[] zeros(int length){
+        T[] array = newArray(length);
+        T zero = zero();
+        for(int i=0;i<length;i++){
+            array[i] = zero;
+        }
+        return array;
+    }
+}
@@ -0,0 +1,296 @@
+package Model;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Fraction-free LU factorization of a square matrix of rational numbers (Bareiss elimination with row pivoting).
+ * Each row is first multiplied by the lowest common multiple of its denominators, so the elimination runs on integers.
+ * The step k computes a[i][j] = (a[k][k]*a[i][j] - a[i][k]*a[k][j]) / a[k-1][k-1], where the division is exact:
+ * every element is a minor of the matrix, so the integers never grow past the determinant's size.
+ * The factors are kept in one integer matrix: U on and above the diagonal, the multipliers a[i][k] of L below it.
+ * The right hand sides are solved against them with the same fraction-free steps, and divided once at the end.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class BareissLU {
+    private final int size;
+    // U on and above the diagonal, the multipliers of L below it, rows in pivot order
+    private final BigInteger[][] lu;
+    // perm[k] is the row of the matrix moved to the row k
+    private final int[] perm;
+    // for each row of the matrix, the integer it was multiplied by
+    private final BigInteger[] rowScales;
+    // 1 or -1 as the number of row swaps is even or odd
+    private int permutationSign = 1;
+    // number of pivots found, the matrix is singular if it is below its size
+    private int rank = 0;
+
+    /**
+     * Factorizes a dense matrix.
+     * @param matrix The matrix, it is not changed.
+     * @throws AssertionError The matrix has to be square.
+     */
+    public BareissLU(RationalNumberMatrix matrix){
+        assert(matrix.getRowNum()==matrix.getColNum()):"The matrix has to be square";
+        size = matrix.getRowNum();
+        lu = new BigInteger[size][size];
+        perm = new int[size];
+        rowScales = new BigInteger[size];
+        RationalNumber[] row = new RationalNumber[size];
+        for(int r=0;r<size;r++){
+            for(int c=0;c<size;c++){
+                row[c] = matrix.get(r,c);
+            }
+            setIntegerRow(r,row);
+        }
+        eliminate();
+    }
+
+    /**
+     * Factorizes a sparse matrix. The zero elements of a row stay 0 until a pivot row with a nonzero element reaches them.
+     * @param matrix The matrix, it is not changed.
+     * @throws AssertionError The matrix has to be square.
+     */
+    public BareissLU(SparseRationalNumberMatrix matrix){
+        assert(matrix.getRowNum()==matrix.getColNum()):"The matrix has to be square";
+        size = matrix.getRowNum();
+        lu = new BigInteger[size][size];
+        perm = new int[size];
+        rowScales = new BigInteger[size];
+        RationalNumber[] row = new RationalNumber[size];
+        for(int r=0;r<size;r++){
+            Arrays.fill(row,RationalNumber.ZERO);
+            int[] columns = matrix.getColumnIndexesOfRow(r);
+            RationalNumber[] values = matrix.getValuesOfRow(r);
+            for(int e=0;e<columns.length;e++){
+                row[columns[e]] = values[e];
+            }
+            setIntegerRow(r,row);
+        }
+        eliminate();
+    }
+
+    /**
+     * Writes a row multiplied by the lowest common multiple of its denominators.
+     * @param r The row index.
+     * @param row The row.
+     */
+    private void setIntegerRow(int r, RationalNumber[] row){
+        BigInteger scale = lcmOfDenominators(row);
+        rowScales[r] = scale;
+        for(int c=0;c<size;c++){
+            lu[r][c] = row[c].getBigNumerator().multiply(scale.divide(row[c].getBigDenominator()));
+        }
+        perm[r] = r;
+    }
+
+    /**
+     * Returns the lowest common multiple of the denominators of some numbers.
+     * @param numbers The numbers.
+     * @return The lowest common multiple, 1 if there are no numbers.
+     */
+    private static BigInteger lcmOfDenominators(RationalNumber[] numbers){
+        BigInteger lcm = BigInteger.ONE;
+        for(RationalNumber n : numbers){
+            BigInteger d = n.getBigDenominator();
+            if(!d.equals(BigInteger.ONE)){
+                lcm = lcm.divide(lcm.gcd(d)).multiply(d);
+            }
+        }
+        return lcm;
+    }
+
+    /**
+     * Runs the Bareiss elimination. A column without a nonzero pivot stops it, the matrix is then singular.
+     */
+    private void eliminate(){
+        BigInteger previous = BigInteger.ONE;
+        for(int k=0;k<size;k++){
+            // partial pivoting: the first row with a nonzero element in the column
+            int pivotRow = -1;
+            for(int r=k;r<size && pivotRow==-1;r++){
+                if(lu[r][k].signum()!=0){
+                    pivotRow = r;
+                }
+            }
+            if(pivotRow==-1){ // singular
+                return;
+            }
+            if(pivotRow!=k){
+                swapRows(k,pivotRow);
+            }
+            rank++;
+
+            BigInteger pivot = lu[k][k];
+            BigInteger[] pivotRowValues = lu[k];
+            for(int i=k+1;i<size;i++){
+                BigInteger[] row = lu[i];
+                BigInteger multiplier = row[k]; // kept as the element of L
+                for(int j=k+1;j<size;j++){
+                    boolean isZero = row[j].signum()==0;
+                    if(multiplier.signum()==0 || pivotRowValues[j].signum()==0){
+                        if(!isZero){
+                            row[j] = row[j].multiply(pivot).divide(previous);
+                        }
+                    }else{
+                        BigInteger value = isZero ? BigInteger.ZERO : row[j].multiply(pivot);
+                        row[j] = value.subtract(multiplier.multiply(pivotRowValues[j])).divide(previous);
+                    }
+                }
+            }
+            previous = pivot;
+        }
+    }
+
+    /**
+     * Swaps two rows of the factors.
+     * @param index1 The first row index.
+     * @param index2 The second row index.
+     */
+    private void swapRows(int index1, int index2){
+        BigInteger[] row = lu[index1];
+        lu[index1] = lu[index2];
+        lu[index2] = row;
+        int p = perm[index1];
+        perm[index1] = perm[index2];
+        perm[index2] = p;
+        permutationSign = -permutationSign;
+    }
+
+    /**
+     * Returns the size of the matrix.
+     * @return The number of rows, also the number of columns.
+     */
+    public int getSize(){
+        return size;
+    }
+
+    /**
+     * Tells if the matrix is singular.
+     * @return True if the matrix is singular, else false.
+     */
+    public boolean isSingular(){
+        return rank<size;
+    }
+
+    /**
+     * Returns the row moved to each row of the factors by the pivoting.
+     * @return The permutation: the element k is the row of the matrix moved to the row k.
+     */
+    public int[] getPermutation(){
+        return perm.clone();
+    }
+
+    /**
+     * Returns the determinant of the matrix.
+     * @return The determinant, 0 if the matrix is singular.
+     */
+    public RationalNumber determinant(){
+        if(isSingular()){
+            return RationalNumber.ZERO;
+        }
+        if(size==0){
+            return RationalNumber.ONE;
+        }
+        // the last pivot is the determinant of the integer matrix, whose rows were multiplied by the scales and swapped
+        BigInteger scales = BigInteger.ONE;
+        for(BigInteger s : rowScales){
+            scales = scales.multiply(s);
+        }
+        BigInteger last = lu[size-1][size-1];
+        return new RationalNumber(permutationSign<0 ? last.negate() : last,scales);
+    }
+
+    /**
+     * Solves A x = b.
+     * @param b The right hand side.
+     * @return x.
+     * @throws AssertionError The matrix has to be nonsingular and b has to have one element per row.
+     */
+    public RationalNumber[] solve(RationalNumber[] b){
+        assert(b.length==size):"The right hand side has to have one element per row";
+        assert(!isSingular()):"The matrix has to be nonsingular";
+        // the right hand side as integers, in the rows' order and scales
+        BigInteger scale = lcmOfDenominators(b);
+        BigInteger[] c = new BigInteger[size];
+        for(int k=0;k<size;k++){
+            RationalNumber value = b[perm[k]];
+            c[k] = value.getBigNumerator().multiply(scale.divide(value.getBigDenominator())).multiply(rowScales[perm[k]]);
+        }
+
+        // same steps as the elimination
+        BigInteger previous = BigInteger.ONE;
+        for(int k=0;k<size-1;k++){
+            BigInteger pivot = lu[k][k];
+            for(int i=k+1;i<size;i++){
+                BigInteger multiplier = lu[i][k];
+                if(multiplier.signum()==0){
+                    if(c[i].signum()!=0){
+                        c[i] = c[i].multiply(pivot).divide(previous);
+                    }
+                }else{
+                    c[i] = c[i].multiply(pivot).subtract(multiplier.multiply(c[k])).divide(previous);
+                }
+            }
+            previous = pivot;
+        }
+
+        // back substitution on determinant * x, which are integers
+        BigInteger det = size==0 ? BigInteger.ONE : lu[size-1][size-1];
+        BigInteger[] numerators = new BigInteger[size];
+        for(int i=size-1;i>=0;i--){
+            BigInteger value = det.multiply(c[i]);
+            for(int j=i+1;j<size;j++){
+                if(lu[i][j].signum()!=0){
+                    value = value.subtract(lu[i][j].multiply(numerators[j]));
+                }
+            }
+            numerators[i] = value.divide(lu[i][i]);
+        }
+
+        BigInteger denominator = det.multiply(scale);
+        RationalNumber[] x = new RationalNumber[size];
+        for(int i=0;i<size;i++){
+            x[i] = new RationalNumber(numerators[i],denominator);
+        }
+        return x;
+    }
+
+    /**
+     * Solves A X = B, column by column against this factorization.
+     * @param b The right hand sides, one per column.
+     * @return X, in a matrix using the storage mode of b.
+     * @throws AssertionError The matrix has to be nonsingular and b has to have one row per row of the matrix.
+     */
+    public RationalNumberMatrix solve(RationalNumberMatrix b){
+        assert(b.getRowNum()==size):"The right hand sides have to have one row per row of the matrix";
+        RationalNumberMatrix x = new RationalNumberMatrix(size,b.getColNum(),b.getStorage());
+        RationalNumber[] column = new RationalNumber[size];
+        for(int c=0;c<b.getColNum();c++){
+            for(int r=0;r<size;r++){
+                column[r] = b.get(r,c);
+            }
+            RationalNumber[] solution = solve(column);
+            for(int r=0;r<size;r++){
+                x.set(r,c,solution[r]);
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Returns the inverse of the matrix, solved against the columns of the identity.
+     * @return The inverse.
+     * @throws AssertionError The matrix has to be nonsingular.
+     */
+    public RationalNumberMatrix inverse(){
+        RationalNumberMatrix identity = new RationalNumberMatrix(size,size);
+        for(int r=0;r<size;r++){
+            for(int c=0;c<size;c++){
+                identity.set(r,c,r==c ? RationalNumber.ONE : RationalNumber.ZERO);
+            }
+        }
+        return solve(identity);
+    }
+}
@@ -0,0 +1,307 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Factorization of a basis matrix B, used by RevisedSimplex to solve B x = a (FTRAN) and B^T y = c (BTRAN).
+ * B is factorized as L U by a left-looking elimination over its sparse columns: the columns with fewer nonzero
+ * elements are eliminated first, so the columns of slack variables cost nothing. L is kept as a list of column etas,
+ * U column by column. A basis change is then added as a product form eta, B'^-1 = E B^-1, until the next factorization.
+ * The columns of B are called positions, the rows keep the indexes of the constraint rows.
+ * @param <T> The type of the numbers.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+final class BasisFactorization<T> {
+    private final Arithmetic<T> arithmetic;
+    private final int size;
+
+    // L: each eta subtracts multiples of its pivot row's value from other rows
+    private final ArrayList<int[]> lRows = new ArrayList<>();
+    private final ArrayList<T[]> lValues = new ArrayList<>();
+    private final ArrayList<Integer> lPivotRows = new ArrayList<>();
+
+    // U: step k pivots position positionOfStep[k] on row rowOfStep[k], its other elements are on the rows of earlier steps
+    private final int[] positionOfStep;
+    private final int[] rowOfStep;
+    private final T[] diagonal;
+    private final int[][] uRows;
+    private final T[][] uValues;
+
+    // product form etas: position, pivot value, and the other nonzero elements of the entering column
+    private final ArrayList<Integer> etaPositions = new ArrayList<>();
+    private final ArrayList<T> etaPivots = new ArrayList<>();
+    private final ArrayList<int[]> etaRows = new ArrayList<>();
+    private final ArrayList<T[]> etaValues = new ArrayList<>();
+
+    /**
+     * Constructor. Call factorize before solving.
+     * @param arithmetic The arithmetic to compute with.
+     * @param size The number of rows and columns of the basis.
+     */
+    @SuppressWarnings("unchecked")
+    BasisFactorization(Arithmetic<T> arithmetic, int size){
+        this.arithmetic = arithmetic;
+        this.size = size;
+        positionOfStep = new int[size];
+        rowOfStep = new int[size];
+        diagonal = arithmetic.newArray(size);
+        uRows = new int[size][];
+        uValues = (T[][])new Object[size][];
+    }
+
+    /**
+     * Factorizes a basis and drops the etas of the previous one.
+     * @param columnRows For each position, the rows of the nonzero elements of its column.
+     * @param columnValues For each position, the nonzero elements of its column.
+     * @return True if the basis was factorized, false if it is singular.
+     */
+    boolean factorize(int[][] columnRows, T[][] columnValues){
+        lRows.clear();
+        lValues.clear();
+        lPivotRows.clear();
+        etaPositions.clear();
+        etaPivots.clear();
+        etaRows.clear();
+        etaValues.clear();
+
+        // sparsest columns first
+        Integer[] order = new Integer[size];
+        for(int p=0;p<size;p++){
+            order[p] = p;
+        }
+        Arrays.sort(order,(p1,p2) -> Integer.compare(columnRows[p1].length,columnRows[p2].length));
+
+        int[] stepOfRow = new int[size];
+        Arrays.fill(stepOfRow,-1);
+        T[] w = arithmetic.zeros(size);
+        boolean[] touched = new boolean[size];
+        int[] touchedRows = new int[size];
+
+        for(int k=0;k<size;k++){
+            int position = order[k];
+            int nbTouched = 0;
+            for(int e=0;e<columnRows[position].length;e++){
+                int r = columnRows[position][e];
+                w[r] = columnValues[position][e];
+                touched[r] = true;
+                touchedRows[nbTouched++] = r;
+            }
+
+            // apply the etas of L found so far
+            for(int l=0;l<lPivotRows.size();l++){
+                T value = w[lPivotRows.get(l)];
+                if(arithmetic.signum(value)!=0){
+                    int[] rows = lRows.get(l);
+                    T[] values = lValues.get(l);
+                    for(int e=0;e<rows.length;e++){
+                        int r = rows[e];
+                        w[r] = arithmetic.subtract(w[r],arithmetic.multiply(values[e],value));
+                        if(!touched[r]){
+                            touched[r] = true;
+                            touchedRows[nbTouched++] = r;
+                        }
+                    }
+                }
+            }
+
+            // the elements on pivoted rows go to U, the largest other one is the pivot
+            int nbU = 0;
+            int pivotRow = -1;
+            double largest = 0;
+            for(int t=0;t<nbTouched;t++){
+                int r = touchedRows[t];
+                if(arithmetic.signum(w[r])!=0){
+                    if(stepOfRow[r]!=-1){
+                        nbU++;
+                    }else if(Math.abs(arithmetic.toDouble(w[r]))>largest || pivotRow==-1){
+                        largest = Math.abs(arithmetic.toDouble(w[r]));
+                        pivotRow = r;
+                    }
+                }
+            }
+            if(pivotRow==-1){ // singular
+                for(int t=0;t<nbTouched;t++){
+                    w[touchedRows[t]] = arithmetic.zero();
+                    touched[touchedRows[t]] = false;
+                }
+                return false;
+            }
+
+            T pivot = w[pivotRow];
+            int[] rows = new int[nbU];
+            T[] values = arithmetic.newArray(nbU);
+            int nbL = 0;
+            for(int t=0;t<nbTouched;t++){
+                int r = touchedRows[t];
+                if(arithmetic.signum(w[r])!=0 && stepOfRow[r]==-1 && r!=pivotRow){
+                    nbL++;
+                }
+            }
+            int[] multiplierRows = new int[nbL];
+            T[] multipliers = arithmetic.newArray(nbL);
+            int u = 0, l = 0;
+            for(int t=0;t<nbTouched;t++){
+                int r = touchedRows[t];
+                if(arithmetic.signum(w[r])!=0){
+                    if(stepOfRow[r]!=-1){
+                        rows[u] = r;
+                        values[u++] = w[r];
+                    }else if(r!=pivotRow){
+                        multiplierRows[l] = r;
+                        multipliers[l++] = arithmetic.divide(w[r],pivot);
+                    }
+                }
+                w[r] = arithmetic.zero();
+                touched[r] = false;
+            }
+
+            positionOfStep[k] = position;
+            rowOfStep[k] = pivotRow;
+            stepOfRow[pivotRow] = k;
+            diagonal[k] = pivot;
+            uRows[k] = rows;
+            uValues[k] = values;
+            if(nbL>0){
+                lPivotRows.add(pivotRow);
+                lRows.add(multiplierRows);
+                lValues.add(multipliers);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Solves B x = a.
+     * @param a The right hand side, indexed by row. It is changed by the method.
+     * @return x, indexed by position.
+     */
+    T[] ftran(T[] a){
+        // L
+        for(int l=0;l<lPivotRows.size();l++){
+            T value = a[lPivotRows.get(l)];
+            if(arithmetic.signum(value)!=0){
+                int[] rows = lRows.get(l);
+                T[] values = lValues.get(l);
+                for(int e=0;e<rows.length;e++){
+                    a[rows[e]] = arithmetic.subtract(a[rows[e]],arithmetic.multiply(values[e],value));
+                }
+            }
+        }
+
+        // U
+        T[] x = arithmetic.zeros(size);
+        for(int k=size-1;k>=0;k--){
+            T value = a[rowOfStep[k]];
+            if(arithmetic.signum(value)!=0){
+                value = arithmetic.divide(value,diagonal[k]);
+                x[positionOfStep[k]] = value;
+                int[] rows = uRows[k];
+                T[] values = uValues[k];
+                for(int e=0;e<rows.length;e++){
+                    a[rows[e]] = arithmetic.subtract(a[rows[e]],arithmetic.multiply(values[e],value));
+                }
+            }
+        }
+
+        // etas, oldest first
+        for(int t=0;t<etaPositions.size();t++){
+            int position = etaPositions.get(t);
+            if(arithmetic.signum(x[position])!=0){
+                T value = arithmetic.divide(x[position],etaPivots.get(t));
+                x[position] = value;
+                int[] rows = etaRows.get(t);
+                T[] values = etaValues.get(t);
+                for(int e=0;e<rows.length;e++){
+                    x[rows[e]] = arithmetic.subtract(x[rows[e]],arithmetic.multiply(values[e],value));
+                }
+            }
+        }
+
+        return x;
+    }
+
+    /**
+     * Solves B^T y = c.
+     * @param c The right hand side, indexed by position. It is changed by the method.
+     * @return y, indexed by row.
+     */
+    T[] btran(T[] c){
+        // etas, newest first
+        for(int t=etaPositions.size()-1;t>=0;t--){
+            int position = etaPositions.get(t);
+            T value = c[position];
+            int[] rows = etaRows.get(t);
+            T[] values = etaValues.get(t);
+            for(int e=0;e<rows.length;e++){
+                value = arithmetic.subtract(value,arithmetic.multiply(values[e],c[rows[e]]));
+            }
+            c[position] = arithmetic.divide(value,etaPivots.get(t));
+        }
+
+        // U^T
+        T[] y = arithmetic.zeros(size);
+        for(int k=0;k<size;k++){
+            T value = c[positionOfStep[k]];
+            int[] rows = uRows[k];
+            T[] values = uValues[k];
+            for(int e=0;e<rows.length;e++){
+                value = arithmetic.subtract(value,arithmetic.multiply(values[e],y[rows[e]]));
+            }
+            y[rowOfStep[k]] = arithmetic.divide(value,diagonal[k]);
+        }
+
+        // L^T
+        for(int l=lPivotRows.size()-1;l>=0;l--){
+            int pivotRow = lPivotRows.get(l);
+            T value = y[pivotRow];
+            int[] rows = lRows.get(l);
+            T[] values = lValues.get(l);
+            for(int e=0;e<rows.length;e++){
+                value = arithmetic.subtract(value,arithmetic.multiply(values[e],y[rows[e]]));
+            }
+            y[pivotRow] = value;
+        }
+
+        return y;
+    }
+
+    /**
+     * Adds the eta of a basis change: the column of a position is replaced by a column a.
+     * @param position The position whose column leaves the basis.
+     * @param alpha B^-1 a, as returned by ftran. Its element at the position has to be nonzero.
+     * @throws AssertionError The element at the position has to be nonzero.
+     */
+    void update(int position, T[] alpha){
+        assert(arithmetic.signum(alpha[position])!=0):"The pivot has to be nonzero";
+        int count = 0;
+        for(int p=0;p<size;p++){
+            if(p!=position && arithmetic.signum(alpha[p])!=0){
+                count++;
+            }
+        }
+        int[] rows = new int[count];
+        T[] values = arithmetic.newArray(count);
+        count = 0;
+        for(int p=0;p<size;p++){
+            if(p!=position && arithmetic.signum(alpha[p])!=0){
+                rows[count] = p;
+                values[count++] = alpha[p];
+            }
+        }
+        etaPositions.add(position);
+        etaPivots.add(alpha[position]);
+        etaRows.add(rows);
+        etaValues.add(values);
+    }
+
+    /**
+     * Returns the number of etas added since the last factorization.
+     * @return The number of etas.
+     */
+    int getNbUpdates(){
+        return etaPositions.size();
+    }
+}
@@ -0,0 +1,28 @@
+package Model;
+
+/**
+ * Bland's rule: the first improving column enters. It keeps no weights.
+ * With the departing row chosen among the tied ratios by the smallest basic column, the simplex method can't cycle,
+ * so Simplex and PhaseOne fall back on it when the pivots stall, see Simplex.setStallThreshold.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class BlandPricing implements PricingRule {
+    @Override
+    public void init(PricingTableau tableau){
+    }
+
+    @Override
+    public int findEnteringColumn(PricingTableau tableau){
+        for(int c = 0; c < tableau.getNbColumns(); c++){
+            if(tableau.isImproving(c)){
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void update(PricingTableau tableau, int pivotRow, int pivotColumn){
+    }
+}
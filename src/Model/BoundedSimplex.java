@@ -0,0 +1,380 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Simplex method with bounded variables: each variable keeps its bounds lower <= var <= upper, either of them may be infinite.
+ * The bounds are handled by the ratio test instead of rows, and a variable that is not lower bounded keeps a single column.
+ * A nonbasic variable sits on one of its bounds, or at 0 if it has none, so the values of the variables are kept apart from the tableau.
+ * The entering variable moves until a basic variable reaches one of its bounds and leaves the basis,
+ * or until it reaches its own other bound, which flips it without a pivot.
+ * Every row has a slack variable, fixed to 0 on a row of type =, so the slack variables make the starting basis.
+ * If some of them start out of their bounds, a phase one minimizes the sum of the infeasibilities of the basic variables
+ * on the same tableau: the entering variable then stops at the first basic variable reaching a bound, even one it was beyond,
+ * so no artificial variable is needed.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class BoundedSimplex implements SimplexEngine {
+    // the variables' columns, then one implicit slack variable's column per row
+    private final CompactTableau tableau;
+    private final int rows, cols;
+    private final int nbVariables;
+    // for each column, its bounds, null when it has none on that side, and its value
+    private final RationalNumber[] lower;
+    private final RationalNumber[] upper;
+    private final RationalNumber[] values;
+    // the coefficients of the variables in the objective function
+    private final RationalNumber[] costs;
+    // for each constraint row, its basic column; for each column, its row in the basis, or -1
+    private final int[] basis;
+    private final int[] rowOfColumn;
+    private boolean isPhaseOne;
+    // NOT_OPTIMAL until the computation ends
+    private Simplex.RESULT status = Simplex.RESULT.NOT_OPTIMAL;
+    // the step of the last ratio test, null if nothing stops the entering variable, and the bound the departing variable reaches
+    private RationalNumber step;
+    private int iterationCount = 0;
+    private int iterationLimit = Integer.MAX_VALUE;
+    private int stallThreshold = Simplex.DEFAULT_STALL_THRESHOLD;
+    // pivots in a row with a step of 0
+    private int degeneratePivots = 0;
+
+    /**
+     * Constructor.
+     * @param mloProblem The MLO problem, with the bounds of its variables.
+     */
+    public BoundedSimplex(MLOProblem mloProblem){
+        this(mloProblem,RationalNumberMatrix.STORAGE.PACKED);
+    }
+
+    /**
+     * Constructor.
+     * @param mloProblem The MLO problem, with the bounds of its variables.
+     * @param storage How the tableau's cells are stored.
+     */
+    BoundedSimplex(MLOProblem mloProblem, RationalNumberMatrix.STORAGE storage){
+        tableau = ProblemToMatrixTransformation.problemToBoundedProblemMatrix(mloProblem,storage);
+        rows = tableau.getRowNum();
+        cols = tableau.getColNum();
+        nbVariables = mloProblem.getNbVar();
+        lower = new RationalNumber[cols-1];
+        upper = new RationalNumber[cols-1];
+        values = new RationalNumber[cols-1];
+        costs = new RationalNumber[nbVariables];
+        basis = new int[rows-1];
+        rowOfColumn = new int[cols-1];
+        Arrays.fill(rowOfColumn,-1);
+
+        for(int c=0;c<nbVariables;c++){
+            lower[c] = mloProblem.getLowerBound(c);
+            upper[c] = mloProblem.getUpperBound(c);
+            // a nonbasic variable starts on its lower bound, else on its upper bound, else at 0
+            values[c] = lower[c]!=null ? lower[c] : (upper[c]!=null ? upper[c] : RationalNumber.ZERO);
+            costs[c] = tableau.get(rows-1,c).negate(); // the last row holds -c
+        }
+        for(int r=0;r<rows-1;r++){
+            int c = nbVariables+r;
+            lower[c] = RationalNumber.ZERO;
+            upper[c] = mloProblem.getTypes().get(r)==1 ? RationalNumber.ZERO : null;
+            // the right hand side minus the row at the variables' values
+            RationalNumber value = tableau.get(r,cols-1);
+            for(int v=0;v<nbVariables;v++){
+                if(values[v].signum()!=0 && tableau.signum(r,v)!=0){
+                    value = value.subtract(tableau.get(r,v).multiply(values[v]));
+                }
+            }
+            values[c] = value;
+            basis[r] = c;
+            rowOfColumn[c] = r;
+        }
+        isPhaseOne = hasInfeasibleBasicVariable();
+    }
+
+    /**
+     * Sets the number of pivots and bound flips compute may do. Once they are done, compute returns ITERATION_LIMIT.
+     * @param iterationLimit The number of iterations, unlimited by default.
+     * @throws AssertionError The limit can't be negative.
+     */
+    @Override
+    public void setIterationLimit(int iterationLimit){
+        assert(iterationLimit>=0):"The iteration limit can't be negative";
+        this.iterationLimit = iterationLimit;
+    }
+
+    /**
+     * Sets the number of degenerate iterations in a row after which Bland's rule chooses the pivots, see Simplex.setStallThreshold.
+     * @param stallThreshold The number of degenerate iterations, Simplex.DEFAULT_STALL_THRESHOLD by default.
+     * @throws AssertionError The threshold can't be negative.
+     */
+    public void setStallThreshold(int stallThreshold){
+        assert(stallThreshold>=0):"The stall threshold can't be negative";
+        this.stallThreshold = stallThreshold;
+    }
+
+    /**
+     * Returns the number of pivots and bound flips done by compute.
+     * @return The number of iterations.
+     */
+    @Override
+    public int getIterationCount(){
+        return iterationCount;
+    }
+
+    /**
+     * Computes the next iteration: a pivot or a bound flip.
+     * @return IS_OPTIMAL if the solution is optimal, UNBOUNDED if the solution is unbounded, INFEASIBLE if the problem is infeasible,
+     * ITERATION_LIMIT if the iteration limit is reached, else NOT_OPTIMAL.
+     */
+    @Override
+    public Simplex.RESULT compute(){
+        if(status!=Simplex.RESULT.NOT_OPTIMAL){
+            return status;
+        }
+        if(isPhaseOne && !hasInfeasibleBasicVariable()){
+            isPhaseOne = false;
+        }
+
+        // step 1
+        // find the entering column, the phase one's infeasibility can't decrease anymore if there is none
+        boolean isStalling = degeneratePivots>=stallThreshold;
+        RationalNumber[] rates = computeRates(isPhaseOne);
+        int pivotColumn = findEnteringColumn(rates,isStalling);
+        if(pivotColumn==-1){
+            status = isPhaseOne ? Simplex.RESULT.INFEASIBLE : Simplex.RESULT.IS_OPTIMAL;
+            return status;
+        }
+        if(iterationCount>=iterationLimit){
+            return Simplex.RESULT.ITERATION_LIMIT;
+        }
+
+        // step 2
+        // find how far the entering variable moves
+        int direction = rates[pivotColumn].signum()<0 ? 1 : -1;
+        int pivotRow = findPivotRow(pivotColumn,direction,isStalling);
+        if(step==null){
+            status = Simplex.RESULT.UNBOUNDED;
+            return status;
+        }
+
+        // step 3
+        // move the variables, then pivot unless the entering variable reached its other bound
+        RationalNumber delta = direction>0 ? step : step.negate();
+        values[pivotColumn] = values[pivotColumn].add(delta);
+        for(int r=0;r<rows-1;r++){
+            if(tableau.signum(r,pivotColumn)!=0){
+                values[basis[r]] = values[basis[r]].subtract(tableau.get(r,pivotColumn).multiply(delta));
+            }
+        }
+        if(pivotRow!=-1){
+            formNextMatrix(pivotRow,pivotColumn);
+        }
+        iterationCount++;
+        degeneratePivots = step.signum()==0 ? degeneratePivots+1 : 0;
+
+        return Simplex.RESULT.NOT_OPTIMAL;
+    }
+
+    /**
+     * Computes for each column how fast the objective changes when its variable increases.
+     * In phase two, it is the reduced cost, the opposite of the last row. In phase one, the objective is the sum of the
+     * infeasibilities: the distance of each basic variable below its lower bound or above its upper bound.
+     * @param isPhaseOne True to compute the rates of the phase one's objective, false for the problem's objective.
+     * @return The rates, negative if increasing the variable improves the objective.
+     */
+    private RationalNumber[] computeRates(boolean isPhaseOne){
+        RationalNumber[] rates = new RationalNumber[cols-1];
+        if(!isPhaseOne){
+            for(int c=0;c<cols-1;c++){
+                rates[c] = tableau.get(rows-1,c).negate();
+            }
+            return rates;
+        }
+        Arrays.fill(rates,RationalNumber.ZERO);
+        for(int r=0;r<rows-1;r++){
+            int side = infeasibility(basis[r]);
+            if(side!=0){
+                // the basic variable changes by -matrix[r][c] when the variable c increases by 1
+                for(int c=0;c<cols-1;c++){
+                    if(tableau.signum(r,c)!=0){
+                        rates[c] = side<0 ? rates[c].add(tableau.get(r,c)) : rates[c].subtract(tableau.get(r,c));
+                    }
+                }
+            }
+        }
+        return rates;
+    }
+
+    /**
+     * Finds the entering column, a nonbasic variable that can move in the direction improving the objective.
+     * Dantzig's rule takes the first one with the largest rate, Bland's rule the first one.
+     * @param rates The rates given by computeRates.
+     * @param isBland True to use Bland's rule, false to use Dantzig's rule.
+     * @return The entering column index, or -1 if the objective can't improve.
+     */
+    private int findEnteringColumn(RationalNumber[] rates, boolean isBland){
+        int location = -1;
+        for(int c=0;c<cols-1;c++){
+            if(rowOfColumn[c]==-1){
+                int sign = rates[c].signum();
+                if((sign<0 && canIncrease(c)) || (sign>0 && canDecrease(c))){
+                    if(isBland){
+                        return c;
+                    }
+                    if(location==-1 || rates[location].absoluteValue().compareTo(rates[c].absoluteValue())<0){
+                        location = c;
+                    }
+                }
+            }
+        }
+        return location;
+    }
+
+    /**
+     * Finds how far the entering variable moves: until a basic variable reaches a bound, or until it reaches its own other bound.
+     * In phase one, a basic variable beyond a bound stops it when it gets back to that bound, the first breakpoint of the infeasibility.
+     * Sets step to the distance, or to null if nothing stops the entering variable.
+     * @param column The entering column index.
+     * @param direction 1 if the entering variable increases, -1 if it decreases.
+     * @param isBland True to break the ties by the smallest basic column (Bland's rule), false to keep the first row.
+     * @return The departing row index, or -1 if the entering variable reaches its other bound first.
+     */
+    private int findPivotRow(int column, int direction, boolean isBland){
+        step = lower[column]!=null && upper[column]!=null ? upper[column].subtract(lower[column]) : null;
+        int location = -1;
+        for(int r=0;r<rows-1;r++){
+            int sign = tableau.signum(r,column);
+            if(sign!=0){
+                int b = basis[r];
+                RationalNumber x = values[b];
+                boolean decreases = (sign>0) == (direction>0);
+                RationalNumber distance = null;
+                if(decreases){
+                    if(isPhaseOne && upper[b]!=null && x.compareTo(upper[b])>0){
+                        distance = x.subtract(upper[b]);
+                    }else if(lower[b]!=null && x.compareTo(lower[b])>=0){
+                        distance = x.subtract(lower[b]);
+                    }
+                }else{
+                    if(isPhaseOne && lower[b]!=null && x.compareTo(lower[b])<0){
+                        distance = lower[b].subtract(x);
+                    }else if(upper[b]!=null && x.compareTo(upper[b])<=0){
+                        distance = upper[b].subtract(x);
+                    }
+                }
+                if(distance!=null){
+                    RationalNumber limit = distance.divide(tableau.get(r,column).absoluteValue());
+                    int comparison = step==null ? -1 : limit.compareTo(step);
+                    if(comparison<0 || (comparison==0 && isBland && location!=-1 && b<basis[location])){ // limit < step
+                        step = limit;
+                        location = r;
+                    }
+                }
+            }
+        }
+        return location;
+    }
+
+    /**
+     * Pivots the tableau and records the pivot in the basis.
+     * @param pivotRow The pivot's row index.
+     * @param pivotColumn The pivot's column index.
+     */
+    private void formNextMatrix(int pivotRow, int pivotColumn){
+        tableau.pivot(pivotRow,pivotColumn);
+        rowOfColumn[basis[pivotRow]] = -1;
+        basis[pivotRow] = pivotColumn;
+        rowOfColumn[pivotColumn] = pivotRow;
+    }
+
+    /**
+     * Tells on which side of its bounds a variable is.
+     * @param col The column index.
+     * @return -1 if the variable is below its lower bound, 1 if it is above its upper bound, else 0.
+     */
+    private int infeasibility(int col){
+        if(lower[col]!=null && values[col].compareTo(lower[col])<0){
+            return -1;
+        }
+        if(upper[col]!=null && values[col].compareTo(upper[col])>0){
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Checks if a basic variable is out of its bounds.
+     * @return True if a basic variable is out of its bounds, else false.
+     */
+    private boolean hasInfeasibleBasicVariable(){
+        for(int b : basis){
+            if(infeasibility(b)!=0){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells if a variable is below its upper bound.
+     * @param col The column index.
+     * @return True if the variable can increase, else false.
+     */
+    private boolean canIncrease(int col){
+        return upper[col]==null || values[col].compareTo(upper[col])<0;
+    }
+
+    /**
+     * Tells if a variable is above its lower bound.
+     * @param col The column index.
+     * @return True if the variable can decrease, else false.
+     */
+    private boolean canDecrease(int col){
+        return lower[col]==null || values[col].compareTo(lower[col])>0;
+    }
+
+    /**
+     * Checks if the current solution is feasible and optimal.
+     * @return True if the solution is optimal, else false.
+     */
+    @Override
+    public boolean checkOptimality(){
+        return !hasInfeasibleBasicVariable() && findEnteringColumn(computeRates(false),false)==-1;
+    }
+
+    /**
+     * Returns the current basis, kept up to date by the pivots.
+     * @return For each constraint row, the index of its basic column.
+     */
+    public int[] getBasis(){
+        return basis.clone();
+    }
+
+    /**
+     * Get the result in a String. Use it only when done computing.
+     * @return The result in a String.
+     */
+    @Override
+    public String getResult(){
+        StringBuilder str = new StringBuilder();
+        if(status==Simplex.RESULT.INFEASIBLE){
+            str.append("\n\nThe problem is infeasible\n");
+        }else if(status==Simplex.RESULT.UNBOUNDED){
+            str.append("\n\nSolution is unbounded\n");
+        }else{
+            RationalNumber objective = RationalNumber.ZERO;
+            for(int i=0;i<nbVariables;i++){
+                if(values[i].signum()!=0){
+                    objective = objective.add(costs[i].multiply(values[i]));
+                }
+            }
+            str.append("\n\nValue of objective function: ");
+            str.append(objective);
+            str.append("\n");
+            for(int i=0;i<nbVariables;i++){
+                str.append("Value of var["+i+"] = "+values[i]+"\n");
+            }
+        }
+        return str.toString();
+    }
+}
@@ -0,0 +1,393 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Tableau keeping its slack, surplus and artificial columns implicitly while they are a multiple of a unit column.
+ * The columns are, in order: the explicit columns, the block of implicit columns, the right hand side.
+ * An implicit column holds one value on its unit row and 0s elsewhere, the objective rows included.
+ * A pivot on another row leaves such a column unchanged, so it is only written in the matrix (materialized)
+ * before a pivot on its unit row; from then on the pivots update it like an explicit column.
+ * The materialized columns are stored between the explicit columns and the right hand side, the room for them grows by doubling.
+ * An implicit column can also be dropped, it is then never written and reads as 0s.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class CompactTableau {
+    private static final int INITIAL_CAPACITY = 8;
+    // slot of a dropped column
+    private static final int DROPPED = -2;
+
+    private RationalNumberMatrix matrix;
+    private final int nbExplicit;
+    // for each column of the block: the row of its value, or -1 for a column of 0s
+    private final int[] unitRows;
+    private final RationalNumber[] unitValues;
+    // for each column of the block: its column in the matrix, -1 while it is implicit, DROPPED once dropped
+    private final int[] slots;
+    private int nbMaterialized = 0;
+    // room for materialized columns in the matrix, it holds 0s until used
+    private int capacity = 0;
+
+    /**
+     * Constructor. The tableau has no implicit column.
+     * @param matrix The matrix, the tableau uses it as is.
+     */
+    public CompactTableau(RationalNumberMatrix matrix){
+        this(matrix,new int[0],new RationalNumber[0]);
+    }
+
+    /**
+     * Constructor.
+     * @param matrix The explicit columns then the right hand side, the tableau uses it as is.
+     * @param unitRows For each implicit column, the row of its value, or -1 for a column of 0s.
+     * @param unitValues For each implicit column, its value.
+     * @throws AssertionError Both arrays have to have the same length and the rows have to be in the matrix.
+     */
+    public CompactTableau(RationalNumberMatrix matrix, int[] unitRows, RationalNumber[] unitValues){
+        assert(unitRows.length==unitValues.length):"There has to be one value per implicit column";
+        this.matrix = matrix;
+        nbExplicit = matrix.getColNum()-1;
+        this.unitRows = unitRows.clone();
+        this.unitValues = unitValues.clone();
+        slots = new int[unitRows.length];
+        for(int j=0;j<unitRows.length;j++){
+            assert(unitRows[j]>=-1 && unitRows[j]<matrix.getRowNum()):"The unit rows have to be in the matrix";
+            slots[j] = -1;
+        }
+    }
+
+    /**
+     * Copy constructor.
+     * @param other The tableau to copy.
+     * @param matrix The copy of the other tableau's matrix.
+     */
+    private CompactTableau(CompactTableau other, RationalNumberMatrix matrix){
+        this.matrix = matrix;
+        nbExplicit = other.nbExplicit;
+        unitRows = other.unitRows.clone();
+        unitValues = other.unitValues.clone();
+        slots = other.slots.clone();
+        nbMaterialized = other.nbMaterialized;
+        capacity = other.capacity;
+    }
+
+    /**
+     * Returns a copy of this tableau using another storage mode.
+     * @param storage The storage mode of the copy.
+     * @return A copy of this tableau.
+     */
+    public CompactTableau copy(RationalNumberMatrix.STORAGE storage){
+        return new CompactTableau(this,matrix.copy(storage));
+    }
+
+    @Override
+    public CompactTableau clone(){
+        return new CompactTableau(this,matrix.clone());
+    }
+
+    /**
+     * Returns the matrix holding the explicit and materialized columns. It changes when the room for materialized columns grows.
+     * @return The matrix.
+     */
+    RationalNumberMatrix getMatrix(){
+        return matrix;
+    }
+
+    /**
+     * Returns the number of rows.
+     * @return The number of rows.
+     */
+    public int getRowNum(){
+        return matrix.getRowNum();
+    }
+
+    /**
+     * Returns the number of columns, the implicit ones included.
+     * @return The number of columns.
+     */
+    public int getColNum(){
+        return nbExplicit+unitRows.length+1;
+    }
+
+    /**
+     * Returns the number of explicit columns, the ones before the block of implicit columns.
+     * @return The number of explicit columns.
+     */
+    public int getNbExplicitColumns(){
+        return nbExplicit;
+    }
+
+    /**
+     * Returns the column of the matrix holding a column of the tableau.
+     * @param col The column index in the tableau.
+     * @return The column index in the matrix, or -1 if the column is implicit.
+     */
+    int physical(int col){
+        if(col<nbExplicit){
+            return col;
+        }
+        if(col==getColNum()-1){
+            return matrix.getColNum()-1;
+        }
+        return Math.max(slots[col-nbExplicit],-1);
+    }
+
+    /**
+     * Tells if a column is still implicit.
+     * @param col The column index.
+     * @return True if the column is not written in the matrix, else false.
+     */
+    public boolean isImplicit(int col){
+        return physical(col)==-1;
+    }
+
+    /**
+     * Tells if a column was dropped.
+     * @param col The column index.
+     * @return True if the column was dropped, else false.
+     */
+    public boolean isDropped(int col){
+        return col>=nbExplicit && col<getColNum()-1 && slots[col-nbExplicit]==DROPPED;
+    }
+
+    /**
+     * Returns the row of the value of an implicit column.
+     * @param col The column index.
+     * @return The row of its value, or -1 if the column is filled with 0s or is not implicit.
+     */
+    int getUnitRow(int col){
+        if(!isImplicit(col) || isDropped(col)){
+            return -1;
+        }
+        return unitRows[col-nbExplicit];
+    }
+
+    /**
+     * Returns the element at the specified position.
+     * @param row The row index.
+     * @param col The column index.
+     * @return The element.
+     */
+    public RationalNumber get(int row, int col){
+        int p = physical(col);
+        if(p!=-1){
+            return matrix.get(row,p);
+        }
+        int j = col-nbExplicit;
+        return unitRows[j]==row && slots[j]!=DROPPED ? unitValues[j] : RationalNumber.ZERO;
+    }
+
+    /**
+     * Returns the sign of an element without building it.
+     * @param row The row index.
+     * @param col The column index.
+     * @return -1, 0 or 1 as the element is negative, zero or positive.
+     */
+    public int signum(int row, int col){
+        int p = physical(col);
+        if(p!=-1){
+            return matrix.signum(row,p);
+        }
+        int j = col-nbExplicit;
+        return unitRows[j]==row && slots[j]!=DROPPED ? unitValues[j].signum() : 0;
+    }
+
+    /**
+     * Returns an element as a double without building it.
+     * @param row The row index.
+     * @param col The column index.
+     * @return The closest double to the element, within a few ulps.
+     */
+    public double getDouble(int row, int col){
+        int p = physical(col);
+        if(p!=-1){
+            return matrix.getDouble(row,p);
+        }
+        int j = col-nbExplicit;
+        return unitRows[j]==row && slots[j]!=DROPPED ? unitValues[j].toDouble() : 0;
+    }
+
+    /**
+     * Compares two elements of the same row.
+     * @param row The row index.
+     * @param col1 The column index of the first element.
+     * @param col2 The column index of the second element.
+     * @return A negative integer, zero, or a positive integer as the first element is less than, equal to, or greater than the second.
+     */
+    public int compareInRow(int row, int col1, int col2){
+        int p1 = physical(col1);
+        int p2 = physical(col2);
+        if(p1!=-1 && p2!=-1){
+            return matrix.compareInRow(row,p1,p2);
+        }
+        return get(row,col1).compareTo(get(row,col2));
+    }
+
+    /**
+     * Compares the ratios row1[numCol] / row1[denCol] and row2[numCol] / row2[denCol].
+     * Both row1[denCol] and row2[denCol] have to be positive.
+     * @param row1 The index of the first row.
+     * @param row2 The index of the second row.
+     * @param numCol The column of the numerators.
+     * @param denCol The column of the denominators.
+     * @return A negative integer, zero, or a positive integer as the first ratio is less than, equal to, or greater than the second.
+     */
+    public int compareRatios(int row1, int row2, int numCol, int denCol){
+        int pn = physical(numCol);
+        int pd = physical(denCol);
+        if(pn!=-1 && pd!=-1){
+            return matrix.compareRatios(row1,row2,pn,pd);
+        }
+        RationalNumber ratio1 = get(row1,numCol).divide(get(row1,denCol));
+        RationalNumber ratio2 = get(row2,numCol).divide(get(row2,denCol));
+        return ratio1.compareTo(ratio2);
+    }
+
+    /**
+     * Checks if a column is filled with a single 1 and 0s.
+     * @param col The column index.
+     * @return True if the column is filled with a single 1 and 0s, else false.
+     */
+    public boolean doesColumnContainOneOnly(int col){
+        int p = physical(col);
+        if(p!=-1){
+            return matrix.doesColumnContainOneOnly(p);
+        }
+        int j = col-nbExplicit;
+        return unitRows[j]!=-1 && slots[j]!=DROPPED && unitValues[j].equals(RationalNumber.ONE);
+    }
+
+    /**
+     * Writes an implicit column in the matrix, nothing is done if it already is or if it was dropped.
+     * @param col The column index.
+     */
+    void materialize(int col){
+        if(physical(col)!=-1 || isDropped(col)){
+            return;
+        }
+        if(nbMaterialized==capacity){
+            grow();
+        }
+        int j = col-nbExplicit;
+        int p = nbExplicit+nbMaterialized;
+        if(unitRows[j]!=-1){
+            matrix.set(unitRows[j],p,unitValues[j]);
+        }
+        slots[j] = p;
+        nbMaterialized++;
+    }
+
+    /**
+     * Writes in the matrix the implicit columns whose value is on a row. Call it before a pivot on that row.
+     * @param row The row index.
+     * @return The columns written.
+     */
+    int[] materializeRow(int row){
+        int[] written = new int[unitRows.length];
+        int count = 0;
+        for(int j=0;j<unitRows.length;j++){
+            if(slots[j]==-1 && unitRows[j]==row){
+                materialize(nbExplicit+j);
+                written[count++] = nbExplicit+j;
+            }
+        }
+        return Arrays.copyOf(written,count);
+    }
+
+    /**
+     * Runs an action for each row index of a range, see pivot.
+     */
+    @FunctionalInterface
+    interface RowLoop {
+        /**
+         * Runs an action for each index of a range.
+         * @param from The first index.
+         * @param to The index after the last one.
+         * @param cells The number of cells the loop touches.
+         * @param action The action, it is safe to run on different indexes at the same time.
+         */
+        void forEach(int from, int to, long cells, IntConsumer action);
+    }
+
+    /**
+     * Pivots on an element: its row is divided by it, then a multiple of its row is subtracted from each other row.
+     * The implicit columns of the pivot's row and the pivot's column are written in the matrix first.
+     * The rows that are 0 in the pivot's column and the columns where the pivot's row is 0 are skipped.
+     * @param row The pivot's row index.
+     * @param col The pivot's column index.
+     */
+    void pivot(int row, int col){
+        pivot(row,col,(from,to,cells,action) -> {
+            for(int i = from; i < to; i++){
+                action.accept(i);
+            }
+        });
+    }
+
+    /**
+     * Pivots on an element like pivot(row,col), the other rows are updated by a given loop, for example across threads.
+     * @param row The pivot's row index.
+     * @param col The pivot's column index.
+     * @param rowLoop The loop over the rows of the matrix.
+     */
+    void pivot(int row, int col, RowLoop rowLoop){
+        // the implicit columns of the departing row are changed by this pivot, the other ones are not
+        materializeRow(row);
+        materialize(col);
+        int column = physical(col);
+        matrix.multiplyRowByScalar(row,matrix.get(row,column).reciprocal());
+
+        int[] pivotRowNonZeros = matrix.getNonZeroColumns(row);
+        rowLoop.forEach(0,matrix.getRowNum(),(long)matrix.getRowNum()*pivotRowNonZeros.length,i -> {
+            if(i != row && matrix.signum(i,column)!=0){
+                matrix.subtractMultipleOfRow(i,matrix.get(i,column),row,pivotRowNonZeros);
+            }
+        });
+    }
+
+    /**
+     * Drops an implicit column: it is never written in the matrix and reads as 0s from now on.
+     * @param col The column index.
+     * @throws AssertionError The column has to be implicit.
+     */
+    void drop(int col){
+        assert(isImplicit(col) && col>=nbExplicit && col<getColNum()-1):"Only an implicit column can be dropped";
+        slots[col-nbExplicit] = DROPPED;
+    }
+
+    /**
+     * Moves the matrix to a wider one, doubling the room for materialized columns.
+     */
+    private void grow(){
+        int newCapacity = Math.min(unitRows.length,Math.max(INITIAL_CAPACITY,capacity*2));
+        int rowNum = matrix.getRowNum();
+        int colNum = nbExplicit+newCapacity+1;
+        RationalNumberMatrix m = new RationalNumberMatrix(rowNum,colNum,matrix.getStorage());
+        for(int r=0;r<rowNum;r++){
+            for(int c=0;c<colNum-1;c++){
+                m.set(r,c,c<nbExplicit+nbMaterialized ? matrix.get(r,c) : RationalNumber.ZERO);
+            }
+            m.set(r,colNum-1,matrix.get(r,matrix.getColNum()-1));
+        }
+        matrix = m;
+        capacity = newCapacity;
+    }
+
+    /**
+     * Writes the whole tableau, the implicit columns included, in a new matrix.
+     * @return The new matrix.
+     */
+    public RationalNumberMatrix toMatrix(){
+        int rowNum = getRowNum();
+        int colNum = getColNum();
+        RationalNumberMatrix m = new RationalNumberMatrix(rowNum,colNum,matrix.getStorage());
+        for(int r=0;r<rowNum;r++){
+            for(int c=0;c<colNum;c++){
+                m.set(r,c,get(r,c));
+            }
+        }
+        return m;
+    }
+}
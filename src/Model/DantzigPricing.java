@@ -0,0 +1,22 @@
+package Model;
+
+/**
+ * Dantzig's rule: the first column with the largest improvement enters. It keeps no weights.
+ * This is the rule Simplex and PhaseOne use when none is set.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class DantzigPricing implements PricingRule {
+    @Override
+    public void init(PricingTableau tableau){
+    }
+
+    @Override
+    public int findEnteringColumn(PricingTableau tableau){
+        return tableau.findLargestImprovement();
+    }
+
+    @Override
+    public void update(PricingTableau tableau, int pivotRow, int pivotColumn){
+    }
+}
@@ -0,0 +1,73 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Devex rule (Forrest and Goldfarb): the column with the largest improvement^2 / weight enters.
+ * A weight approximates the squared norm of its column over the reference framework, the columns nonbasic when the weights
+ * were last reset. A pivot only reads the pivot row to update them, and they are reset to 1 when they grow too large.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class DevexPricing implements PricingRule {
+    // weights past this value are reset
+    private static final double RESET_THRESHOLD = 1e6;
+
+    private double[] weights;
+
+    @Override
+    public void init(PricingTableau tableau){
+        weights = new double[tableau.getNbColumns()];
+        Arrays.fill(weights,1);
+    }
+
+    @Override
+    public int findEnteringColumn(PricingTableau tableau){
+        return findLargestScore(tableau,weights);
+    }
+
+    /**
+     * Finds the improving column with the largest improvement^2 / weight, the first one if several are equal.
+     * @param tableau The tableau.
+     * @param weights The weight of each column.
+     * @return The column index.
+     */
+    static int findLargestScore(PricingTableau tableau, double[] weights){
+        int location = -1;
+        double best = -1;
+        for(int c = 0; c < tableau.getNbColumns(); c++){
+            if(tableau.isImproving(c)){
+                double d = tableau.getImprovement(c);
+                double score = d*d/weights[c];
+                if(location==-1 || score > best){
+                    best = score;
+                    location = c;
+                }
+            }
+        }
+        return location;
+    }
+
+    @Override
+    public void update(PricingTableau tableau, int pivotRow, int pivotColumn){
+        double pivot = tableau.get(pivotRow,pivotColumn);
+        double weight = weights[pivotColumn];
+        int leaving = tableau.getBasicColumn(pivotRow);
+        for(int c = 0; c < tableau.getNbColumns(); c++){
+            if(c != pivotColumn){
+                double alpha = tableau.get(pivotRow,c);
+                if(alpha != 0){
+                    double ratio = alpha/pivot;
+                    weights[c] = Math.max(weights[c],ratio*ratio*weight);
+                }
+            }
+        }
+        if(leaving != -1){
+            weights[leaving] = Math.max(weight/(pivot*pivot),1);
+            if(weights[leaving] > RESET_THRESHOLD){
+                Arrays.fill(weights,1);
+            }
+        }
+        weights[pivotColumn] = 1;
+    }
+}
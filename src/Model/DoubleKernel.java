@@ -0,0 +1,134 @@
+package Model;
+
+/**
+ * The loops of a simplex pivot on double rows: row elimination, minimum ratio scan and largest reduced cost scan.
+ * This class is the scalar version. getInstance returns the vectorized version when the jdk.incubator.vector module is present,
+ * and this one otherwise.
+ * The vectorized version, VectorDoubleKernel, is in the src-vector source root so that src compiles without the incubator module.
+ * It is compiled against the classes of src and put on the same class path:
+ * javac --add-modules jdk.incubator.vector -cp out -d out src-vector/Model/VectorDoubleKernel.java,
+ * then the program runs with --add-modules jdk.incubator.vector.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class DoubleKernel {
+    private static final DoubleKernel SCALAR = new DoubleKernel();
+    private static final DoubleKernel INSTANCE = load();
+
+    /**
+     * Constructor.
+     */
+    DoubleKernel(){
+    }
+
+    /**
+     * Loads the vectorized kernel, or falls back to the scalar one.
+     * @return The kernel to use.
+     */
+    private static DoubleKernel load(){
+        try{
+            return (DoubleKernel)Class.forName("Model.VectorDoubleKernel").getDeclaredConstructor().newInstance();
+        }catch(ReflectiveOperationException | LinkageError e){
+            // module jdk.incubator.vector not present
+            return SCALAR;
+        }
+    }
+
+    /**
+     * Returns the fastest kernel available.
+     * @return The vectorized kernel if the jdk.incubator.vector module is present, else the scalar kernel.
+     */
+    public static DoubleKernel getInstance(){
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the scalar kernel.
+     * @return The scalar kernel.
+     */
+    public static DoubleKernel getScalar(){
+        return SCALAR;
+    }
+
+    /**
+     * @return True if this kernel uses the Vector API, else false.
+     */
+    public boolean isVectorized(){
+        return false;
+    }
+
+    /**
+     * Subtracts factor times source from row. The results smaller than zeroTolerance in absolute value are set to 0.
+     * @param row The row to update.
+     * @param factor The factor.
+     * @param source The row to subtract.
+     * @param zeroTolerance The zero tolerance.
+     * @throws AssertionError The rows have to have the same length.
+     */
+    public void subtractMultiple(double[] row, double factor, double[] source, double zeroTolerance){
+        assert(row.length==source.length):"The rows have to have the same length";
+        for(int j = 0; j < row.length; j++){
+            double v = row[j] - factor*source[j];
+            row[j] = Math.abs(v) < zeroTolerance ? 0 : v;
+        }
+    }
+
+    /**
+     * Computes the smallest (rhs[i] + shift) / alpha[i] over the entries where alpha[i] > pivotTolerance.
+     * @param alpha The pivot column values.
+     * @param rhs The right hand side values.
+     * @param length The number of entries to scan.
+     * @param pivotTolerance The smallest value an entry of alpha can have to be considered.
+     * @param shift The value added to each right hand side value.
+     * @return The smallest ratio, or Double.POSITIVE_INFINITY if no entry is considered.
+     */
+    public double minRatio(double[] alpha, double[] rhs, int length, double pivotTolerance, double shift){
+        double min = Double.POSITIVE_INFINITY;
+        for(int i = 0; i < length; i++){
+            if(alpha[i] > pivotTolerance){
+                double ratio = (rhs[i] + shift) / alpha[i];
+                if(ratio < min){
+                    min = ratio;
+                }
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Finds the first largest alpha[i] over the entries where alpha[i] > pivotTolerance and rhs[i] / alpha[i] <= maxRatio.
+     * @param alpha The pivot column values.
+     * @param rhs The right hand side values.
+     * @param length The number of entries to scan.
+     * @param pivotTolerance The smallest value an entry of alpha can have to be considered.
+     * @param maxRatio The largest ratio allowed.
+     * @return The index of the entry, or -1 if no entry is considered.
+     */
+    public int largestPivotWithin(double[] alpha, double[] rhs, int length, double pivotTolerance, double maxRatio){
+        int location = -1;
+        double largestPivot = 0;
+        for(int i = 0; i < length; i++){
+            if(alpha[i] > pivotTolerance && rhs[i] / alpha[i] <= maxRatio && alpha[i] > largestPivot){
+                largestPivot = alpha[i];
+                location = i;
+            }
+        }
+        return location;
+    }
+
+    /**
+     * Finds the first largest value.
+     * @param values The values.
+     * @param length The number of values to scan, at least 1.
+     * @return The index of the first largest value.
+     */
+    public int indexOfMax(double[] values, int length){
+        int location = 0;
+        for(int c = 1; c < length; c++){
+            if(values[location] < values[c]){
+                location = c;
+            }
+        }
+        return location;
+    }
+}
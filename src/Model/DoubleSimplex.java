@@ -0,0 +1,301 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Simplex method on a double tableau, for jobs where an answer within the tolerances is enough.
+ * It uses the same matrix and the same conventions as Simplex.
+ * Signs are tested against tolerances instead of zero, and the departing row is chosen with the two-pass Harris ratio test.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class DoubleSimplex implements SimplexEngine {
+    public static final double DEFAULT_FEASIBILITY_TOLERANCE = 1e-9;
+    public static final double DEFAULT_OPTIMALITY_TOLERANCE = 1e-9;
+    // entries below this value are never used as pivots
+    private static final double PIVOT_TOLERANCE = 1e-9;
+    // entries below this value are set to 0 after a pivot
+    private static final double ZERO_TOLERANCE = 1e-12;
+
+    private final DoubleKernel kernel = DoubleKernel.getInstance();
+    private double[][] tableau;
+    // the pivot column and the right hand side, gathered for the ratio test
+    private double[] alpha, rhs;
+    private int[] basis;
+    private int rows, cols;
+    private boolean solutionIsUnbounded = false;
+    private int nbVariables;
+    private boolean isDual;
+    // the variables that are not lower bounded, split in two columns
+    private BitSet notLowerBounded;
+    private double feasibilityTolerance;
+    private double optimalityTolerance;
+    private int iterationCount = 0;
+    private int iterationLimit = Integer.MAX_VALUE;
+
+    /**
+     * Constructor. Uses the default tolerances.
+     * @param m The beginning matrix of the method.
+     * @param nbVariables The number of variables in the problem.
+     * @param isDual True if we are solving the dual method, false else.
+     * @param notLowerBoundedVariableIndexes The indexes of the variables that are not lower bounded, or null.
+     */
+    public DoubleSimplex(RationalNumberMatrix m, int nbVariables, boolean isDual, Integer[] notLowerBoundedVariableIndexes){
+        this(m,nbVariables,isDual,notLowerBoundedVariableIndexes,DEFAULT_FEASIBILITY_TOLERANCE,DEFAULT_OPTIMALITY_TOLERANCE);
+    }
+
+    /**
+     * Constructor.
+     * @param m The beginning matrix of the method.
+     * @param nbVariables The number of variables in the problem.
+     * @param isDual True if we are solving the dual method, false else.
+     * @param notLowerBoundedVariableIndexes The indexes of the variables that are not lower bounded, or null.
+     * @param feasibilityTolerance How far below 0 a right hand side value may go in the ratio test.
+     * @param optimalityTolerance How far above 0 a value of the last row may be in an optimal matrix.
+     * @throws AssertionError The tolerances have to be positive.
+     */
+    public DoubleSimplex(RationalNumberMatrix m, int nbVariables, boolean isDual, Integer[] notLowerBoundedVariableIndexes,
+                         double feasibilityTolerance, double optimalityTolerance){
+        assert(feasibilityTolerance>0 && optimalityTolerance>0):"The tolerances have to be positive";
+        tableau = m.toDouble();
+        rows = m.getRowNum();
+        cols = m.getColNum();
+        this.nbVariables = nbVariables;
+        this.isDual = isDual;
+        notLowerBounded = MLOProblem.toIndexSet(notLowerBoundedVariableIndexes);
+        this.feasibilityTolerance = feasibilityTolerance;
+        this.optimalityTolerance = optimalityTolerance;
+        alpha = new double[rows-1];
+        rhs = new double[rows-1];
+        initBasis();
+    }
+
+    /**
+     * Finds the starting basis: the columns filled with a single 1 and 0s.
+     */
+    private void initBasis(){
+        basis = new int[rows-1];
+        Arrays.fill(basis,-1);
+        for(int c=0;c<cols-1;c++){
+            int rowOfOne = -1;
+            boolean isUnit = true;
+            for(int r=0;r<rows && isUnit;r++){
+                if(tableau[r][c]==1 && rowOfOne==-1 && r<rows-1){
+                    rowOfOne = r;
+                }else if(tableau[r][c]!=0){
+                    isUnit = false;
+                }
+            }
+            if(isUnit && rowOfOne!=-1 && basis[rowOfOne]==-1){
+                basis[rowOfOne] = c;
+            }
+        }
+    }
+
+    /**
+     * Sets the number of pivots compute may do. Once they are done, compute returns ITERATION_LIMIT
+     * unless the matrix is optimal.
+     * @param iterationLimit The number of pivots, unlimited by default.
+     * @throws AssertionError The limit can't be negative.
+     */
+    @Override
+    public void setIterationLimit(int iterationLimit){
+        assert(iterationLimit>=0):"The iteration limit can't be negative";
+        this.iterationLimit = iterationLimit;
+    }
+
+    /**
+     * Returns the number of pivots done by compute.
+     * @return The number of iterations.
+     */
+    @Override
+    public int getIterationCount(){
+        return iterationCount;
+    }
+
+    /**
+     * Computes the current matrix.
+     * @return IS_OPTIMAL if the solution is optimal, UNBOUNDED if the solution is unbounded,
+     * ITERATION_LIMIT if the iteration limit is reached, else NOT_OPTIMAL.
+     */
+    @Override
+    public Simplex.RESULT compute(){
+        // step 1
+        if(checkOptimality()){
+            return Simplex.RESULT.IS_OPTIMAL; // solution is optimal
+        }
+        if(iterationCount>=iterationLimit){
+            return Simplex.RESULT.ITERATION_LIMIT;
+        }
+
+        // step 2
+        // find the entering column
+        int pivotColumn = findEnteringColumn();
+
+        // step 3
+        // find departing value
+        int pivotRow = findPivotRow(pivotColumn);
+        if(solutionIsUnbounded)
+            return Simplex.RESULT.UNBOUNDED;
+
+        // step 4
+        // form the next matrix
+        formNextMatrix(pivotRow, pivotColumn);
+        iterationCount++;
+
+        // since we formed a new table so return NOT_OPTIMAL
+        return Simplex.RESULT.NOT_OPTIMAL;
+    }
+
+    /**
+     * Forms a new matrix from precomputed pivot values.
+     * @param pivotRow The pivot's row index.
+     * @param pivotColumn The pivot's column index.
+     */
+    private void formNextMatrix(int pivotRow, int pivotColumn){
+        double[] rowNew = tableau[pivotRow];
+        double pivotValue = rowNew[pivotColumn];
+
+        // divide values in pivot row by pivot value
+        for(int j = 0; j < cols; j++){
+            rowNew[j] /= pivotValue;
+        }
+        rowNew[pivotColumn] = 1;
+
+        // subtract from each of the other rows
+        for(int i = 0; i < rows; i++){
+            if(i != pivotRow){
+                double[] row = tableau[i];
+                double c = row[pivotColumn];
+                if(c != 0){
+                    kernel.subtractMultiple(row,c,rowNew,ZERO_TOLERANCE);
+                    row[pivotColumn] = 0;
+                }
+            }
+        }
+
+        basis[pivotRow] = pivotColumn;
+    }
+
+    /**
+     * Finds the departing row with the Harris ratio test.
+     * The first pass computes the largest step keeping every right hand side value above -feasibilityTolerance.
+     * The second pass chooses, among the rows whose ratio is within this step, the one with the largest pivot.
+     * @param column The pivot's column index.
+     * @return The pivot's row index.
+     */
+    private int findPivotRow(int column){
+        for(int i = 0; i < rows-1; i++){
+            alpha[i] = tableau[i][column];
+            rhs[i] = tableau[i][cols-1];
+        }
+
+        double maxStep = kernel.minRatio(alpha,rhs,rows-1,PIVOT_TOLERANCE,feasibilityTolerance);
+        if(maxStep == Double.POSITIVE_INFINITY){
+            solutionIsUnbounded = true;
+            return -1;
+        }
+
+        return kernel.largestPivotWithin(alpha,rhs,rows-1,PIVOT_TOLERANCE,maxStep);
+    }
+
+    /**
+     * Finds the next entering column, the one with the largest value in the last row.
+     * @return The next entering column index.
+     */
+    private int findEnteringColumn(){
+        return kernel.indexOfMax(tableau[rows-1],cols-1);
+    }
+
+    /**
+     * Checks if the matrix is optimal, within the optimality tolerance.
+     * @return True if the matrix is optimal, else false.
+     */
+    @Override
+    public boolean checkOptimality(){
+        double[] objective = tableau[rows-1];
+        for(int i = 0; i < cols-1; i++){
+            if(objective[i] > optimalityTolerance){
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the basis: for each constraint row, the index of its basic column, or -1.
+     * @return The basis.
+     */
+    public int[] getBasis(){
+        return basis.clone();
+    }
+
+    /**
+     * Formats a value, without a negative zero.
+     */
+    private static String format(double value){
+        return String.valueOf(value == 0 ? 0.0 : value);
+    }
+
+    /**
+     * Get the result in a String. Use it only when done computing.
+     * @return The result in a String.
+     */
+    @Override
+    public String getResult(){
+        StringBuilder str = new StringBuilder();
+
+        if(!isDual){
+            if(!solutionIsUnbounded){
+                str.append("\n\nValue of objective function: ");
+                str.append(format(tableau[rows-1][cols-1]));
+                str.append("\n");
+                double[] res = new double[nbVariables];
+                // variables' values
+                for(int r=0;r<rows-1;r++){
+                    if(basis[r]!=-1 && basis[r]<nbVariables){
+                        res[basis[r]] = tableau[r][cols-1];
+                    }
+                }
+                int countVar = 0;
+                for(int i=0;i<nbVariables;i++){
+                    if(notLowerBounded.get(countVar)){
+                        str.append("Value of var["+countVar+"] = "+format(res[i]-res[i+1])+"\n");
+                        i++;
+                    }else{
+                        str.append("Value of var["+countVar+"] = "+format(res[i])+"\n");
+                    }
+                    countVar++;
+                }
+            }else{ // solution is unbounded
+                str.append("\n\nSolution is unbounded\n");
+            }
+        }else{ // isDual = true
+            if(solutionIsUnbounded){
+                str.append("\n\nThe problem is infeasible\n");
+            }else{
+                double[] objective = tableau[rows-1];
+                str.append("\n\nValue of objective function: ");
+                str.append(format(-objective[cols-1]));
+                str.append("\n");
+
+                int count = 0;
+                // variables' values
+                for(int i=nbVariables;count<rows-1;i++){
+                    if(notLowerBounded.get(count)){
+                        str.append("Value of var["+count+"] = "+format(-(objective[i]-objective[i+1]))+"\n");
+                        i++;
+                    }else{
+                        str.append("Value of var["+count+"] = "+format(-objective[i])+"\n");
+                    }
+
+                    count++;
+                }
+            }
+        }
+
+        return str.toString();
+    }
+}
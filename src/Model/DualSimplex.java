@@ -0,0 +1,307 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Dual simplex method on the primal tableau, for a problem whose objective function has no negative coefficient.
+ * The slack variables make the starting basis: its last row is already optimal, but the rows of type >= changed sign
+ * so their right hand side values may be negative. Each iteration takes a row whose basic variable is out of its bounds
+ * as the departing row, then the entering column keeps the last row optimal (dual ratio test).
+ * The method stops when every basic variable is within its bounds, so the rows of type >= need no artificial variable.
+ * The slack variable of a row of type = is fixed to 0: it starts in the basis and never enters it again once it left.
+ * Since the basis stays dual feasible when a right hand side value changes, changeRightHandSide re-optimizes from the current basis.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class DualSimplex implements SimplexEngine {
+    // the variables' columns, then one implicit slack variable's column per row, the bounds of the variables being rows
+    private final CompactTableau tableau;
+    private final int rows, cols;
+    private final int nbVariables;
+    // the variables that are not lower bounded, split in two columns
+    private final BitSet notLowerBounded;
+    // the slack variables' columns of the rows of type =
+    private final BitSet fixed;
+    // for each constraint row, -1 if it changed sign, else 1, and its right hand side value in the starting tableau
+    private final int[] rowSigns;
+    private final RationalNumber[] rightHandSides;
+    // for each constraint row, its basic column; for each column, its row in the basis, or -1
+    private final int[] basis;
+    private final int[] rowOfColumn;
+    // NOT_OPTIMAL until the computation ends
+    private Simplex.RESULT status = Simplex.RESULT.NOT_OPTIMAL;
+    private int iterationCount = 0;
+    private int iterationLimit = Integer.MAX_VALUE;
+    private int stallThreshold = Simplex.DEFAULT_STALL_THRESHOLD;
+    // pivots in a row on a value of 0 of the last row, which left the objective value unchanged
+    private int degeneratePivots = 0;
+
+    /**
+     * Constructor. The bounds of the variables are given as constraints.
+     * @param mloProblem The MLO problem.
+     * @throws AssertionError The objective function can't have a negative coefficient, or one on a variable that is not lower bounded.
+     */
+    public DualSimplex(MLOProblem mloProblem){
+        this(mloProblem,RationalNumberMatrix.STORAGE.PACKED);
+    }
+
+    /**
+     * Constructor. The bounds of the variables are given as constraints.
+     * @param mloProblemP The MLO problem.
+     * @param storage How the tableau's cells are stored.
+     * @throws AssertionError The objective function can't have a negative coefficient, or one on a variable that is not lower bounded.
+     */
+    DualSimplex(MLOProblem mloProblemP, RationalNumberMatrix.STORAGE storage){
+        MLOProblem mloProblem = mloProblemP.withBoundsAsConstraints();
+        tableau = ProblemToMatrixTransformation.problemToDualSimplexMatrix(mloProblem,storage);
+        rows = tableau.getRowNum();
+        cols = tableau.getColNum();
+        nbVariables = tableau.getNbExplicitColumns();
+        notLowerBounded = MLOProblem.toIndexSet(mloProblem.getNotLowerBoundedVariableIndexes());
+        for(int c=0;c<cols-1;c++){
+            assert(tableau.signum(rows-1,c)<=0):"The objective function can't have a negative coefficient, or one on a variable that is not lower bounded";
+        }
+
+        fixed = new BitSet();
+        rowSigns = new int[rows-1];
+        rightHandSides = new RationalNumber[rows-1];
+        basis = new int[rows-1];
+        rowOfColumn = new int[cols-1];
+        Arrays.fill(rowOfColumn,-1);
+        for(int r=0;r<rows-1;r++){
+            int type = mloProblem.getTypes().get(r);
+            if(type==1){ // =
+                fixed.set(nbVariables+r);
+            }
+            rowSigns[r] = type==2 ? -1 : 1;
+            rightHandSides[r] = tableau.get(r,cols-1);
+            basis[r] = nbVariables+r;
+            rowOfColumn[nbVariables+r] = r;
+        }
+    }
+
+    /**
+     * Sets the number of pivots compute may do. Once they are done, compute returns ITERATION_LIMIT.
+     * @param iterationLimit The number of pivots, unlimited by default.
+     * @throws AssertionError The limit can't be negative.
+     */
+    @Override
+    public void setIterationLimit(int iterationLimit){
+        assert(iterationLimit>=0):"The iteration limit can't be negative";
+        this.iterationLimit = iterationLimit;
+    }
+
+    /**
+     * Sets the number of degenerate pivots in a row after which Bland's rule chooses the pivots, see Simplex.setStallThreshold.
+     * @param stallThreshold The number of degenerate pivots, Simplex.DEFAULT_STALL_THRESHOLD by default.
+     * @throws AssertionError The threshold can't be negative.
+     */
+    public void setStallThreshold(int stallThreshold){
+        assert(stallThreshold>=0):"The stall threshold can't be negative";
+        this.stallThreshold = stallThreshold;
+    }
+
+    /**
+     * Returns the number of pivots done by compute.
+     * @return The number of iterations.
+     */
+    @Override
+    public int getIterationCount(){
+        return iterationCount;
+    }
+
+    /**
+     * Changes the right hand side value of a constraint. The last row is not changed, so the current basis stays dual feasible
+     * and the next calls to compute re-optimize from it. The right hand side column moves by the change times the column of
+     * the row's slack variable, which holds the row of the basis' inverse.
+     * @param row The constraint's index.
+     * @param b The new right hand side value.
+     * @throws AssertionError The row has to be a constraint row.
+     */
+    public void changeRightHandSide(int row, String b){
+        assert(row>=0 && row<rows-1):"The row has to be a constraint row";
+        RationalNumber value = new RationalNumber(b);
+        if(rowSigns[row]<0){
+            value = value.negate();
+        }
+        RationalNumber delta = value.subtract(rightHandSides[row]);
+        rightHandSides[row] = value;
+        if(delta.signum()==0){
+            return;
+        }
+
+        RationalNumberMatrix matrix = tableau.getMatrix();
+        int rhs = tableau.physical(cols-1);
+        int slack = nbVariables+row;
+        for(int i=0;i<rows;i++){
+            if(tableau.signum(i,slack)!=0){
+                matrix.set(i,rhs,matrix.get(i,rhs).add(delta.multiply(tableau.get(i,slack))));
+            }
+        }
+        status = Simplex.RESULT.NOT_OPTIMAL;
+        degeneratePivots = 0;
+    }
+
+    /**
+     * Computes the next pivot.
+     * @return IS_OPTIMAL if the solution is optimal, INFEASIBLE if the problem is infeasible,
+     * ITERATION_LIMIT if the iteration limit is reached, else NOT_OPTIMAL.
+     */
+    @Override
+    public Simplex.RESULT compute(){
+        if(status!=Simplex.RESULT.NOT_OPTIMAL){
+            return status;
+        }
+
+        // step 1
+        // find the departing row, the solution is optimal if there is none
+        boolean isStalling = degeneratePivots>=stallThreshold;
+        int pivotRow = findPivotRow(isStalling);
+        if(pivotRow==-1){
+            status = Simplex.RESULT.IS_OPTIMAL;
+            return status;
+        }
+        if(iterationCount>=iterationLimit){
+            return Simplex.RESULT.ITERATION_LIMIT;
+        }
+
+        // step 2
+        // find the entering column, the row can't be satisfied if there is none
+        int pivotColumn = findPivotColumn(pivotRow);
+        if(pivotColumn==-1){
+            status = Simplex.RESULT.INFEASIBLE;
+            return status;
+        }
+
+        // step 3
+        // form the next matrix
+        boolean isDegenerate = tableau.signum(rows-1,pivotColumn)==0;
+        formNextMatrix(pivotRow,pivotColumn);
+        iterationCount++;
+        degeneratePivots = isDegenerate ? degeneratePivots+1 : 0;
+
+        return Simplex.RESULT.NOT_OPTIMAL;
+    }
+
+    /**
+     * Tells on which side of its bounds the basic variable of a row is.
+     * @param row The row index.
+     * @return -1 if it is negative, 1 if it is the positive slack variable of a row of type =, else 0.
+     */
+    private int infeasibility(int row){
+        int sign = tableau.signum(row,cols-1);
+        if(sign<0 || (sign>0 && fixed.get(basis[row]))){
+            return sign;
+        }
+        return 0;
+    }
+
+    /**
+     * Finds the departing row: the first row whose basic variable is the farthest from its bounds,
+     * or with Bland's rule the row with the smallest basic column among those out of their bounds.
+     * @param isBland True to use Bland's rule, false else.
+     * @return The pivot's row index, or -1 if every basic variable is within its bounds.
+     */
+    private int findPivotRow(boolean isBland){
+        int location = -1;
+        double maximum = 0;
+        for(int r=0;r<rows-1;r++){
+            if(infeasibility(r)!=0){
+                double distance = Math.abs(tableau.getDouble(r,cols-1));
+                if(location==-1 || (isBland ? basis[r]<basis[location] : distance>maximum)){
+                    location = r;
+                    maximum = distance;
+                }
+            }
+        }
+        return location;
+    }
+
+    /**
+     * Finds the entering column with the dual ratio test: among the columns that move the departing variable
+     * toward its bound, the first one with the smallest ratio of its value in the last row to its value in the departing row.
+     * The first column is also the one Bland's rule takes.
+     * @param row The departing row index.
+     * @return The pivot's column index, or -1 if no column moves the departing variable toward its bound.
+     */
+    private int findPivotColumn(int row){
+        int sign = infeasibility(row);
+        int location = -1;
+        RationalNumber minimum = null;
+        for(int c=0;c<cols-1;c++){
+            if(rowOfColumn[c]==-1 && !fixed.get(c) && tableau.signum(row,c)==sign){
+                if(tableau.signum(rows-1,c)==0){ // a ratio of 0 is the minimum
+                    return c;
+                }
+                RationalNumber ratio = tableau.get(rows-1,c).divide(tableau.get(row,c)).absoluteValue();
+                if(location==-1 || ratio.compareTo(minimum)<0){ // ratio < minimum
+                    location = c;
+                    minimum = ratio;
+                }
+            }
+        }
+        return location;
+    }
+
+    /**
+     * Pivots the tableau and records the pivot in the basis.
+     * @param pivotRow The pivot's row index.
+     * @param pivotColumn The pivot's column index.
+     */
+    private void formNextMatrix(int pivotRow, int pivotColumn){
+        tableau.pivot(pivotRow,pivotColumn);
+        rowOfColumn[basis[pivotRow]] = -1;
+        basis[pivotRow] = pivotColumn;
+        rowOfColumn[pivotColumn] = pivotRow;
+    }
+
+    /**
+     * Checks if every basic variable is within its bounds, the last row being optimal all along.
+     * @return True if the solution is optimal, else false.
+     */
+    @Override
+    public boolean checkOptimality(){
+        return findPivotRow(false)==-1;
+    }
+
+    /**
+     * Returns the current basis, kept up to date by the pivots.
+     * @return For each constraint row, the index of its basic column.
+     */
+    public int[] getBasis(){
+        return basis.clone();
+    }
+
+    /**
+     * Get the result in a String. Use it only when done computing.
+     * @return The result in a String.
+     */
+    @Override
+    public String getResult(){
+        StringBuilder str = new StringBuilder();
+        if(status==Simplex.RESULT.INFEASIBLE){
+            str.append("\n\nThe problem is infeasible\n");
+        }else{
+            str.append("\n\nValue of objective function: ");
+            str.append(tableau.get(rows-1,cols-1));
+            str.append("\n");
+            RationalNumber[] res = new RationalNumber[nbVariables];
+            // variables' values: the right hand side value of the row of a basic variable, else 0
+            for(int i=0;i<nbVariables;i++){
+                res[i] = rowOfColumn[i]!=-1 ? tableau.get(rowOfColumn[i],cols-1) : RationalNumber.ZERO;
+            }
+            int countVar = 0;
+            for(int i=0;i<nbVariables;i++){
+                if(notLowerBounded.get(countVar)){
+                    str.append("Value of var["+countVar+"] = "+res[i].subtract(res[i+1])+"\n");
+                    i++;
+                }else{
+                    str.append("Value of var["+countVar+"] = "+res[i]+"\n");
+                }
+                countVar++;
+            }
+        }
+        return str.toString();
+    }
+}
@@ -0,0 +1,342 @@
+package Model;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Simplex method on an integer tableau using fraction-free (Bareiss) pivoting.
+ * Each row is scaled to integers once. After that, every pivot divides exactly by the previous pivot,
+ * so no cell is ever reduced with a gcd. The rational value of a cell is tableau[i][j] / (divisor * rowScale[i]).
+ * The scale of a row drops to 1 once the row has been a pivot row.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class FractionFreeSimplex implements SimplexEngine {
+    private BigInteger[][] tableau;
+    private BigInteger[] rowScale;
+    private BigInteger divisor = BigInteger.ONE;
+    private int rows, cols;
+    private boolean solutionIsUnbounded = false;
+    private int nbVariables;
+    private boolean isDual;
+    // the variables that are not lower bounded, split in two columns
+    private BitSet notLowerBounded;
+    // for each constraint row, its basic column, or -1
+    private int[] basis;
+    private int iterationCount = 0;
+    private int iterationLimit = Integer.MAX_VALUE;
+    private int stallThreshold = Simplex.DEFAULT_STALL_THRESHOLD;
+    // pivots in a row on a right hand side value of 0, which left the objective value unchanged
+    private int degeneratePivots = 0;
+
+    /**
+     * Constructor.
+     * @param m The beginning matrix of the method.
+     * @param nbVariables The number of variables in the problem.
+     * @param isDual True if we are solving the dual method, false else.
+     * @param notLowerBoundedVariableIndexes The indexes of the variables that are not lower bounded, or null.
+     */
+    public FractionFreeSimplex(RationalNumberMatrix m, int nbVariables, boolean isDual, Integer[] notLowerBoundedVariableIndexes){
+        rows = m.getRowNum();
+        cols = m.getColNum();
+        this.nbVariables = nbVariables;
+        this.isDual = isDual;
+        notLowerBounded = MLOProblem.toIndexSet(notLowerBoundedVariableIndexes);
+
+        // scale each row by the lcm of its denominators
+        tableau = new BigInteger[rows][cols];
+        rowScale = new BigInteger[rows];
+        for(int i=0;i<rows;i++){
+            BigInteger lcm = BigInteger.ONE;
+            for(int j=0;j<cols;j++){
+                BigInteger den = m.get(i,j).getBigDenominator();
+                lcm = lcm.divide(lcm.gcd(den)).multiply(den);
+            }
+            rowScale[i] = lcm;
+            for(int j=0;j<cols;j++){
+                RationalNumber n = m.get(i,j);
+                tableau[i][j] = n.getBigNumerator().multiply(lcm.divide(n.getBigDenominator()));
+            }
+        }
+
+        // the columns filled with a single 1 and 0s start in the basis, the slack variables' ones first like in Simplex
+        basis = new int[rows-1];
+        Arrays.fill(basis,-1);
+        for(int k=0;k<cols-1;k++){
+            int c = (nbVariables+k)%(cols-1);
+            int r = findUnitRow(c);
+            if(r!=-1 && r<rows-1 && basis[r]==-1){
+                basis[r] = c;
+            }
+        }
+    }
+
+    /**
+     * Sets the number of pivots compute may do. Once they are done, compute returns ITERATION_LIMIT
+     * unless the matrix is optimal.
+     * @param iterationLimit The number of pivots, unlimited by default.
+     * @throws AssertionError The limit can't be negative.
+     */
+    @Override
+    public void setIterationLimit(int iterationLimit){
+        assert(iterationLimit>=0):"The iteration limit can't be negative";
+        this.iterationLimit = iterationLimit;
+    }
+
+    /**
+     * Sets the number of degenerate pivots in a row after which Bland's rule chooses the pivots, see Simplex.setStallThreshold.
+     * @param stallThreshold The number of degenerate pivots, Simplex.DEFAULT_STALL_THRESHOLD by default.
+     * @throws AssertionError The threshold can't be negative.
+     */
+    public void setStallThreshold(int stallThreshold){
+        assert(stallThreshold>=0):"The stall threshold can't be negative";
+        this.stallThreshold = stallThreshold;
+    }
+
+    /**
+     * Returns the number of pivots done by compute.
+     * @return The number of iterations.
+     */
+    @Override
+    public int getIterationCount(){
+        return iterationCount;
+    }
+
+    /**
+     * Computes the current matrix.
+     * @return IS_OPTIMAL if the solution is optimal, UNBOUNDED if the solution is unbounded,
+     * ITERATION_LIMIT if the iteration limit is reached, else NOT_OPTIMAL.
+     */
+    @Override
+    public Simplex.RESULT compute(){
+        // step 1
+        if(checkOptimality()){
+            return Simplex.RESULT.IS_OPTIMAL; // solution is optimal
+        }
+        if(iterationCount>=iterationLimit){
+            return Simplex.RESULT.ITERATION_LIMIT;
+        }
+
+        // step 2
+        // find the entering column
+        boolean isStalling = degeneratePivots>=stallThreshold;
+        int pivotColumn = findEnteringColumn(isStalling);
+
+        // step 3
+        // find departing value
+        int pivotRow = findPivotRow(pivotColumn,isStalling);
+        if(solutionIsUnbounded)
+            return Simplex.RESULT.UNBOUNDED;
+
+        // step 4
+        // form the next matrix
+        boolean isDegenerate = tableau[pivotRow][cols-1].signum()==0;
+        formNextMatrix(pivotRow, pivotColumn);
+        iterationCount++;
+        degeneratePivots = isDegenerate ? degeneratePivots+1 : 0;
+
+        // since we formed a new table so return NOT_OPTIMAL
+        return Simplex.RESULT.NOT_OPTIMAL;
+    }
+
+    /**
+     * Forms a new matrix with a fraction-free pivot.
+     * The pivot row is kept as is, the other rows become (p * a[i][j] - a[i][c] * a[r][j]) / previous pivot.
+     * @param pivotRow The pivot's row index.
+     * @param pivotColumn The pivot's column index.
+     */
+    private void formNextMatrix(int pivotRow, int pivotColumn){
+        BigInteger pivotValue = tableau[pivotRow][pivotColumn];
+        BigInteger[] pivotRowVals = tableau[pivotRow];
+
+        for(int i = 0; i < rows; i++){
+            if(i != pivotRow){
+                BigInteger c = tableau[i][pivotColumn];
+                BigInteger[] row = tableau[i];
+                for(int j = 0; j < cols; j++){
+                    BigInteger n = row[j].multiply(pivotValue);
+                    if(c.signum()!=0 && pivotRowVals[j].signum()!=0){
+                        n = n.subtract(c.multiply(pivotRowVals[j]));
+                    }
+                    // exact division
+                    row[j] = n.divide(divisor);
+                }
+            }
+        }
+
+        rowScale[pivotRow] = BigInteger.ONE;
+        divisor = pivotValue;
+        basis[pivotRow] = pivotColumn;
+    }
+
+    /**
+     * Finds the departing row with the minimum ratio test. Ratios are compared as integer fractions,
+     * the divisor and the row scales cancel out.
+     * @param column The pivot's column index.
+     * @param isBland True to break the ties by the smallest basic column (Bland's rule), false to keep the first row.
+     * @return The pivot's row index.
+     */
+    private int findPivotRow(int column, boolean isBland){
+        int location = -1;
+        int firstPositive = -1;
+        int firstZeroRatio = -1;
+        for(int i = 0; i < rows-1; i++){
+            BigInteger entry = tableau[i][column];
+            if(entry.signum()>0){
+                if(firstPositive==-1){
+                    firstPositive = i;
+                }
+                BigInteger rhs = tableau[i][cols-1];
+                if(rhs.signum()==0 && (firstZeroRatio==-1 || (isBland && basis[i]<basis[firstZeroRatio]))){
+                    firstZeroRatio = i;
+                }
+                if(rhs.signum()>0){ // ratio > 0
+                    int comparison = location==-1 ? -1 : rhs.multiply(tableau[location][column]).compareTo(tableau[location][cols-1].multiply(entry));
+                    if(comparison<0 || (comparison==0 && isBland && basis[i]<basis[location])){ // ratio < minimum
+                        location = i;
+                    }
+                }
+            }
+        }
+
+        if(firstPositive==-1){
+            solutionIsUnbounded = true;
+        }else if(firstZeroRatio!=-1){ // a degenerate row is the minimum
+            location = firstZeroRatio;
+        }else if(location==-1){
+            location = firstPositive;
+        }
+
+        return location;
+    }
+
+    /**
+     * Finds the next entering column. All the objective row shares the same positive denominator.
+     * @param isBland True to take the first column with a positive value (Bland's rule), false to take the first one with the largest value.
+     * @return The next entering column index.
+     */
+    private int findEnteringColumn(boolean isBland){
+        int location = 0;
+        BigInteger[] objective = tableau[rows-1];
+        if(isBland){
+            while(objective[location].signum()<=0){
+                location++;
+            }
+            return location;
+        }
+
+        for(int c = 1; c < cols-1; c++){
+            if(objective[location].compareTo(objective[c])<0){
+                location = c;
+            }
+        }
+
+        return location;
+    }
+
+    /**
+     * Checks if the matrix is optimal.
+     * @return True if the matrix is optimal, else false.
+     */
+    @Override
+    public boolean checkOptimality(){
+        for(int i = 0; i < cols-1; i++){
+            if(tableau[rows-1][i].signum()>0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the rational value of a cell.
+     * @param row The row index.
+     * @param col The column index.
+     * @return The rational value of the cell.
+     */
+    private RationalNumber get(int row, int col){
+        return new RationalNumber(tableau[row][col],divisor.multiply(rowScale[row]));
+    }
+
+    /**
+     * Checks if a column is filled with a single 1 and 0s.
+     * @param index The index of the column.
+     * @return The row of the 1, or -1 if the column is not filled with a single 1 and 0s.
+     */
+    private int findUnitRow(int index){
+        int rowOfOne = -1;
+        for(int r=0;r<rows;r++){
+            BigInteger n = tableau[r][index];
+            if(n.signum()!=0){
+                if(rowOfOne!=-1 || !n.equals(divisor.multiply(rowScale[r]))){
+                    return -1;
+                }
+                rowOfOne = r;
+            }
+        }
+        return rowOfOne;
+    }
+
+    /**
+     * Get the result in a String. Use it only when done computing.
+     * @return The result in a String.
+     */
+    @Override
+    public String getResult(){
+        StringBuilder str = new StringBuilder();
+
+        if(!isDual){
+            if(!solutionIsUnbounded){
+                str.append("\n\nValue of objective function: ");
+                str.append(get(rows-1,cols-1));
+                str.append("\n");
+                RationalNumber[] res = new RationalNumber[nbVariables];
+                // variables' values
+                for(int i=0;i<nbVariables;i++){
+                    int r = findUnitRow(i);
+                    if(r!=-1){
+                        res[i] = get(r,cols-1);
+                    }else{
+                        res[i] = RationalNumber.ZERO;
+                    }
+                }
+                int countVar = 0;
+                for(int i=0;i<nbVariables;i++){
+                    if(notLowerBounded.get(countVar)){
+                        str.append("Value of var["+countVar+"] = "+res[i].subtract(res[i+1])+"\n");
+                        i++;
+                    }else{
+                        str.append("Value of var["+countVar+"] = "+res[i]+"\n");
+                    }
+                    countVar++;
+                }
+            }else{ // solution is unbounded
+                str.append("\n\nSolution is unbounded\n");
+            }
+        }else{ // isDual = true
+            if(solutionIsUnbounded){
+                str.append("\n\nThe problem is infeasible\n");
+            }else{
+                str.append("\n\nValue of objective function: ");
+                str.append(get(rows-1,cols-1).negate());
+                str.append("\n");
+
+                int count = 0;
+                // variables' values
+                for(int i=nbVariables;count<rows-1;i++){
+                    if(notLowerBounded.get(count)){
+                        str.append("Value of var["+count+"] = "+get(rows-1,i).subtract(get(rows-1,i+1)).negate()+"\n");
+                        i++;
+                    }else{
+                        str.append("Value of var["+count+"] = "+get(rows-1,i).negate()+"\n");
+                    }
+
+                    count++;
+                }
+            }
+        }
+
+        return str.toString();
+    }
+}
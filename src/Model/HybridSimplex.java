@@ -0,0 +1,138 @@
+package Model;
+
+/**
+ * Simplex method solving in double first and giving the exact answer of Simplex.
+ * The matrix is solved with DoubleSimplex, then the exact matrix is pivoted onto its final basis.
+ * If this basic solution is feasible, Simplex goes on from it: no pivot is needed when the double basis was optimal,
+ * else a few exact pivots finish the job. If it is not feasible, Simplex starts over from the beginning matrix.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class HybridSimplex implements SimplexEngine {
+    private RationalNumberMatrix matrixStart;
+    private int nbVariables;
+    private boolean isDual;
+    private Integer[] notLowerBoundedVariableIndexes;
+    private double feasibilityTolerance;
+    private double optimalityTolerance;
+    private Simplex exact;
+    private boolean basisRecovered;
+    private int iterationLimit = Integer.MAX_VALUE;
+
+    /**
+     * Constructor. The double run uses the default tolerances.
+     * @param m The beginning matrix of the method.
+     * @param nbVariables The number of variables in the problem.
+     * @param isDual True if we are solving the dual method, false else.
+     * @param notLowerBoundedVariableIndexes The indexes of the variables that are not lower bounded, or null.
+     */
+    public HybridSimplex(RationalNumberMatrix m, int nbVariables, boolean isDual, Integer[] notLowerBoundedVariableIndexes){
+        this(m,nbVariables,isDual,notLowerBoundedVariableIndexes,DoubleSimplex.DEFAULT_FEASIBILITY_TOLERANCE,DoubleSimplex.DEFAULT_OPTIMALITY_TOLERANCE);
+    }
+
+    /**
+     * Constructor.
+     * @param m The beginning matrix of the method.
+     * @param nbVariables The number of variables in the problem.
+     * @param isDual True if we are solving the dual method, false else.
+     * @param notLowerBoundedVariableIndexes The indexes of the variables that are not lower bounded, or null.
+     * @param feasibilityTolerance The feasibility tolerance of the double run.
+     * @param optimalityTolerance The optimality tolerance of the double run.
+     */
+    public HybridSimplex(RationalNumberMatrix m, int nbVariables, boolean isDual, Integer[] notLowerBoundedVariableIndexes,
+                         double feasibilityTolerance, double optimalityTolerance){
+        matrixStart = m;
+        this.nbVariables = nbVariables;
+        this.isDual = isDual;
+        this.notLowerBoundedVariableIndexes = notLowerBoundedVariableIndexes;
+        this.feasibilityTolerance = feasibilityTolerance;
+        this.optimalityTolerance = optimalityTolerance;
+    }
+
+    /**
+     * Runs the double simplex and pivots the exact matrix onto its final basis, once.
+     */
+    private void repair(){
+        if(exact != null){
+            return;
+        }
+
+        DoubleSimplex approx = new DoubleSimplex(matrixStart,nbVariables,isDual,notLowerBoundedVariableIndexes,feasibilityTolerance,optimalityTolerance);
+        // the double run may cycle on degenerate problems, so it is stopped after a while
+        int maxIterations = 50*(matrixStart.getRowNum()+matrixStart.getColNum());
+        Simplex.RESULT res = Simplex.RESULT.NOT_OPTIMAL;
+        for(int i = 0; i < maxIterations && res == Simplex.RESULT.NOT_OPTIMAL; i++){
+            res = approx.compute();
+        }
+
+        exact = new Simplex(matrixStart,nbVariables,isDual,notLowerBoundedVariableIndexes);
+        basisRecovered = exact.moveToBasis(approx.getBasis());
+        if(!basisRecovered){
+            exact = new Simplex(matrixStart,nbVariables,isDual,notLowerBoundedVariableIndexes);
+        }
+        exact.setIterationLimit(iterationLimit);
+    }
+
+    /**
+     * Sets the number of exact pivots compute may do after the repair. The double run is stopped by its own limit.
+     * @param iterationLimit The number of pivots, unlimited by default.
+     * @throws AssertionError The limit can't be negative.
+     */
+    @Override
+    public void setIterationLimit(int iterationLimit){
+        assert(iterationLimit>=0):"The iteration limit can't be negative";
+        this.iterationLimit = iterationLimit;
+        if(exact != null){
+            exact.setIterationLimit(iterationLimit);
+        }
+    }
+
+    /**
+     * Returns the number of exact pivots done by compute after the repair.
+     * The pivots of the double run and the ones moving the exact matrix onto its final basis are not counted.
+     * @return The number of iterations.
+     */
+    @Override
+    public int getIterationCount(){
+        return exact != null ? exact.getIterationCount() : 0;
+    }
+
+    /**
+     * Computes the current matrix. The first call runs the double simplex and the repair.
+     * @return IS_OPTIMAL if the solution is optimal, UNBOUNDED if the solution is unbounded,
+     * ITERATION_LIMIT if the iteration limit is reached, else NOT_OPTIMAL.
+     */
+    @Override
+    public Simplex.RESULT compute(){
+        repair();
+        return exact.compute();
+    }
+
+    /**
+     * Checks if the exact matrix is optimal.
+     * @return True if the matrix is optimal, else false.
+     */
+    @Override
+    public boolean checkOptimality(){
+        repair();
+        return exact.checkOptimality();
+    }
+
+    /**
+     * Tells if the exact matrix could start from the basis of the double run. Use it only after compute.
+     * @return True if the basis of the double run was used, false if the exact run started over.
+     */
+    public boolean isBasisRecovered(){
+        return basisRecovered;
+    }
+
+    /**
+     * Get the result in a String. Use it only when done computing.
+     * @return The result in a String.
+     */
+    @Override
+    public String getResult(){
+        repair();
+        return exact.getResult();
+    }
+}
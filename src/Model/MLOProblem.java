@@ -1,5 +1,7 @@
 package Model;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.LinkedList;
 
 /**
@@ -12,7 +14,9 @@ public class MLOProblem {
     private LinkedList<Integer> types;
     private String objFun;
     private int nbVar;
-    private Integer[] notLowerBoundedVariableIndexes;
+    // for each variable, its bounds, null when it has none on that side
+    private RationalNumber[] lowerBounds;
+    private RationalNumber[] upperBounds;
     public static Integer LE = 0;
     public static Integer EQ = 1;
     public static Integer GE = 2;
@@ -27,7 +31,9 @@ public class MLOProblem {
         B = new LinkedList<>();
         types = new LinkedList<>();
         this.nbVar = nbVar;
-        notLowerBoundedVariableIndexes = null;
+        lowerBounds = new RationalNumber[nbVar];
+        Arrays.fill(lowerBounds,RationalNumber.ZERO);
+        upperBounds = new RationalNumber[nbVar];
     }
 
     /**
@@ -98,15 +104,136 @@ public class MLOProblem {
         return B.size();
     }
 
+    /**
+     * Sets the variables that are not lower bounded, the other variables' lower bounds that were removed are set back to 0.
+     * The engines other than BoundedSimplex split such a variable in two columns.
+     * @param indexes The indexes of the variables.
+     * @throws AssertionError All the indexes have to be between 0 and n-1.
+     */
     public void setNotLowerBoundedVariableIndexes(Integer... indexes){
         for(int i : indexes){
             assert(i>=0 && i<nbVar):"All the indexes have to be between 0 and n-1";
         }
-        notLowerBoundedVariableIndexes = indexes;
+        for(int i=0;i<nbVar;i++){
+            if(lowerBounds[i]==null){
+                lowerBounds[i] = RationalNumber.ZERO;
+            }
+        }
+        for(int i : indexes){
+            lowerBounds[i] = null;
+        }
     }
 
+    /**
+     * Gets the variables that are not lower bounded.
+     * @return The indexes of the variables in increasing order, or null if all the variables are lower bounded.
+     */
     public Integer[] getNotLowerBoundedVariableIndexes(){
-        return notLowerBoundedVariableIndexes;
+        int count = 0;
+        for(RationalNumber lower : lowerBounds){
+            if(lower==null){
+                count++;
+            }
+        }
+        if(count==0){
+            return null;
+        }
+        Integer[] indexes = new Integer[count];
+        count = 0;
+        for(int i=0;i<nbVar;i++){
+            if(lowerBounds[i]==null){
+                indexes[count++] = i;
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Tells if a variable is not lower bounded.
+     * @param index The index of the variable.
+     * @return True if the variable has no lower bound, else false.
+     */
+    public boolean isNotLowerBounded(int index){
+        return lowerBounds[index]==null;
+    }
+
+    /**
+     * Sets the bounds of a variable, lower <= var <= upper. By default a variable is between 0 and infinity.
+     * @param index The index of the variable.
+     * @param lower A String that contains the lower bound, or null if the variable has no lower bound.
+     * @param upper A String that contains the upper bound, or null if the variable has no upper bound.
+     * @throws AssertionError The index has to be between 0 and n-1 and the lower bound can't be greater than the upper bound.
+     */
+    public void setBounds(int index, String lower, String upper){
+        assert(index>=0 && index<nbVar):"The index has to be between 0 and n-1";
+        RationalNumber l = lower!=null ? new RationalNumber(lower) : null;
+        RationalNumber u = upper!=null ? new RationalNumber(upper) : null;
+        assert(l==null || u==null || l.isLessThanOrEqualTo(u)):"The lower bound can't be greater than the upper bound";
+        lowerBounds[index] = l;
+        upperBounds[index] = u;
+    }
+
+    /**
+     * Gets the lower bound of a variable.
+     * @param index The index of the variable.
+     * @return The lower bound, or null if the variable has no lower bound.
+     */
+    public RationalNumber getLowerBound(int index){
+        return lowerBounds[index];
+    }
+
+    /**
+     * Gets the upper bound of a variable.
+     * @param index The index of the variable.
+     * @return The upper bound, or null if the variable has no upper bound.
+     */
+    public RationalNumber getUpperBound(int index){
+        return upperBounds[index];
+    }
+
+    /**
+     * Returns the same problem, with the bounds written as constraints for the engines that only know variables >= 0.
+     * An upper bound becomes a row of type <=, a lower bound other than 0 a row of type >=.
+     * A variable with a negative lower bound is then not lower bounded.
+     * @return The new problem, only its variables without lower bounds keep their bounds.
+     */
+    public MLOProblem withBoundsAsConstraints(){
+        MLOProblem newPb = clone();
+        for(int i=0;i<nbVar;i++){
+            RationalNumber lower = lowerBounds[i];
+            RationalNumber upper = upperBounds[i];
+            if((lower==null || lower.signum()==0) && upper==null){
+                continue;
+            }
+            StringBuilder row = new StringBuilder();
+            for(int v=0;v<nbVar;v++){
+                row.append(v==i ? "1" : "0").append(v<nbVar-1 ? " " : "");
+            }
+            if(lower!=null && lower.signum()!=0){
+                newPb.addConstraint(row.toString(),GE,lower.toString());
+                newPb.lowerBounds[i] = lower.signum()<0 ? null : RationalNumber.ZERO;
+            }
+            if(upper!=null){
+                newPb.addConstraint(row.toString(),LE,upper.toString());
+                newPb.upperBounds[i] = null;
+            }
+        }
+        return newPb;
+    }
+
+    /**
+     * Turns indexes of variables into a set, so that looking one up takes constant time.
+     * @param indexes The indexes, or null.
+     * @return The set of the indexes, empty if they are null.
+     */
+    static BitSet toIndexSet(Integer[] indexes){
+        BitSet set = new BitSet();
+        if(indexes!=null){
+            for(int i : indexes){
+                set.set(i);
+            }
+        }
+        return set;
     }
 
     @Override
@@ -116,11 +243,8 @@ public class MLOProblem {
         newPb.B = (LinkedList<String>) B.clone();
         newPb.types = (LinkedList<Integer>) types.clone();
         newPb.objFun = objFun;
-        if(notLowerBoundedVariableIndexes!=null){
-            newPb.notLowerBoundedVariableIndexes = notLowerBoundedVariableIndexes.clone();
-        }else{
-            newPb.notLowerBoundedVariableIndexes = null;
-        }
+        newPb.lowerBounds = lowerBounds.clone();
+        newPb.upperBounds = upperBounds.clone();
 
 
         return newPb;
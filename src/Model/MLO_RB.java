@@ -6,55 +6,236 @@ package Model;
  */
 public class MLO_RB {
     private MLOProblem mloProblem;
+    private ENGINE engine;
+    private RationalNumberMatrix.STORAGE storage = RationalNumberMatrix.STORAGE.PACKED;
+    private double feasibilityTolerance = DoubleSimplex.DEFAULT_FEASIBILITY_TOLERANCE;
+    private double optimalityTolerance = DoubleSimplex.DEFAULT_OPTIMALITY_TOLERANCE;
+    private int parallelism = 1;
+    private PricingRule pricingRule = new DantzigPricing();
+    // pivots of the last solve or checkFeasibility, -1 before the first one
+    private int iterationCount = -1;
+    private int iterationLimit = Integer.MAX_VALUE;
 
     /**
-     * Constructor.
+     * The simplex implementations MLO_RB can solve with.
+     * RATIONAL uses Simplex, FRACTION_FREE uses FractionFreeSimplex, DOUBLE uses DoubleSimplex, HYBRID uses HybridSimplex.
+     * REVISED and REVISED_DOUBLE use RevisedSimplex, in exact and in double arithmetic.
+     * BOUNDED uses BoundedSimplex, which keeps the bounds of the variables out of the tableau and starts from infeasible problems.
+     * The other engines get the bounds as constraints, see MLOProblem.withBoundsAsConstraints.
+     */
+    public enum ENGINE{
+        RATIONAL,
+        FRACTION_FREE,
+        DOUBLE,
+        HYBRID,
+        REVISED,
+        REVISED_DOUBLE,
+        BOUNDED
+    };
+
+    /**
+     * Constructor. The problem is solved with the RATIONAL engine.
      */
     public MLO_RB(MLOProblem mloProblem) {
+        this(mloProblem,ENGINE.RATIONAL);
+    }
+
+    /**
+     * Constructor.
+     * @param mloProblem The MLO problem.
+     * @param engine The simplex implementation to solve with.
+     */
+    public MLO_RB(MLOProblem mloProblem, ENGINE engine) {
         this.mloProblem = mloProblem;
+        this.engine = engine;
     }
 
     /**
-     * Solves the MLO problem using the simplex method and prints the solution in the standard ouput.
-     * The MLO problem has to be feasible.
+     * Sets the simplex implementation to solve with.
+     * @param engine The simplex implementation to solve with.
+     */
+    public void setEngine(ENGINE engine){
+        this.engine = engine;
+    }
+
+    /**
+     * Sets how the tableau's cells are stored while solving and checking the feasibility. The tableau is built in that storage.
+     * OFF_HEAP and MAPPED keep the tableau outside of the heap. OFF_HEAP allocates direct buffers, which are limited by
+     * -XX:MaxDirectMemorySize, by default the maximum heap size: when they run out the tableau is mapped on a temporary file
+     * like MAPPED. The REVISED and REVISED_DOUBLE engines keep their own storage.
+     * @param storage How the tableau's cells are stored.
      */
-    public void solve(){
-        RationalNumberMatrix matrixStart = ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(mloProblem);
+    public void setStorage(RationalNumberMatrix.STORAGE storage){
+        this.storage = storage;
+    }
+
+    /**
+     * Sets the tolerances used by the DOUBLE, HYBRID and REVISED_DOUBLE engines.
+     * REVISED_DOUBLE tests every sign against the optimality tolerance.
+     * @param feasibilityTolerance How far below 0 a right hand side value may go in the ratio test.
+     * @param optimalityTolerance How far above 0 a value of the last row may be in an optimal matrix.
+     * @throws AssertionError The tolerances have to be positive.
+     */
+    public void setTolerances(double feasibilityTolerance, double optimalityTolerance){
+        assert(feasibilityTolerance>0 && optimalityTolerance>0):"The tolerances have to be positive";
+        this.feasibilityTolerance = feasibilityTolerance;
+        this.optimalityTolerance = optimalityTolerance;
+    }
+
+    /**
+     * Sets the number of threads the RATIONAL engine pivots with.
+     * Small matrices are still solved on one thread, see Simplex.setParallelThreshold.
+     * @param parallelism The number of threads, 1 by default.
+     * @throws AssertionError The parallelism has to be at least 1.
+     */
+    public void setParallelism(int parallelism){
+        assert(parallelism>=1):"The parallelism has to be at least 1";
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the rule choosing the entering column in the RATIONAL engine and in checkFeasibility.
+     * The other engines and DualSimplex keep their own rule.
+     * @param pricingRule The rule, DantzigPricing by default.
+     * @throws AssertionError The rule can't be null.
+     */
+    public void setPricingRule(PricingRule pricingRule){
+        assert(pricingRule!=null):"The pricing rule can't be null";
+        this.pricingRule = pricingRule;
+    }
+
+    /**
+     * Sets the number of pivots solve and checkFeasibility may do, so that a degenerate problem stops in a predictable time.
+     * The limit is given to the engine, which still reports an optimal matrix reached with the last pivot allowed.
+     * The HYBRID engine only counts the exact pivots after its double run.
+     * The exact engines, RevisedSimplex in doubles and PhaseOne also switch to Bland's rule when their pivots stall, see Simplex.setStallThreshold.
+     * @param iterationLimit The number of iterations, unlimited by default.
+     * @throws AssertionError The limit can't be negative.
+     */
+    public void setIterationLimit(int iterationLimit){
+        assert(iterationLimit>=0):"The iteration limit can't be negative";
+        this.iterationLimit = iterationLimit;
+    }
 
+    /**
+     * Returns the number of pivots of the last solve or checkFeasibility.
+     * @return The number of iterations, or -1 before the first solve or checkFeasibility.
+     */
+    public int getIterationCount(){
+        return iterationCount;
+    }
+
+    /**
+     * Solves the MLO problem using the simplex method and prints the solution in the standard ouput.
+     * The MLO problem has to be feasible, unless it is solved with the BOUNDED engine or with the dual simplex method.
+     * @return IS_OPTIMAL if the solution is optimal, UNBOUNDED if the solution is unbounded, INFEASIBLE if the BOUNDED engine
+     * or DualSimplex found the problem infeasible, ITERATION_LIMIT if the iteration limit was reached.
+     */
+    public Simplex.RESULT solve(){
         boolean quit = false;
 
-        // check if all the coefficients in the objective function are negative
-        // if so, we solve the dual problem.
-        boolean flag = true;
-        for(int c=0;c<matrixStart.getColNum()-1 && flag;c++){
-            flag = matrixStart.get(matrixStart.getRowNum() - 1,c).isLessThanOrEqualTo(RationalNumber.ZERO);
-        }
+        SimplexEngine simplex;
+        if(engine==ENGINE.BOUNDED){
+            simplex = new BoundedSimplex(mloProblem,storage);
+        }else{
+            MLOProblem mloProblem = this.mloProblem.withBoundsAsConstraints();
+            // check if no coefficient in the objective function is negative
+            // if so, we solve the dual problem.
+            boolean flag = solvesDual(mloProblem);
 
-        Simplex simplex;
-        if(flag) { // all the coefficients are negative
-            matrixStart = ProblemToMatrixTransformation.problemToDualProblemMatrix(mloProblem);
+            simplex = createEngine(mloProblem,flag);
         }
 
-        int nbVariables = matrixStart.getColNum()-matrixStart.getRowNum();
-        simplex = new Simplex(matrixStart,nbVariables,flag, mloProblem.getNotLowerBoundedVariableIndexes());
-
+        simplex.setIterationLimit(iterationLimit);
+        Simplex.RESULT res = Simplex.RESULT.NOT_OPTIMAL;
         while(!quit){
-            Simplex.RESULT res = simplex.compute();
+            res = simplex.compute();
 
-            if(res == Simplex.RESULT.IS_OPTIMAL || res == Simplex.RESULT.UNBOUNDED){
+            if(res == Simplex.RESULT.IS_OPTIMAL || res == Simplex.RESULT.UNBOUNDED || res == Simplex.RESULT.INFEASIBLE){
                 quit = true;
                 System.out.println(simplex.getResult());
+            }else if(res == Simplex.RESULT.ITERATION_LIMIT){
+                quit = true;
+                System.out.println("\n\nIteration limit reached\n");
             }
         }
+        iterationCount = simplex.getIterationCount();
+        return res;
+    }
+
+    /**
+     * Tells if solve works on the dual problem: it does when no coefficient of the objective function is negative,
+     * so that the last row of the starting tableau is already optimal. Only the objective function is parsed.
+     * @param mloProblem The MLO problem.
+     * @return True if the dual problem is solved, else false.
+     */
+    static boolean solvesDual(MLOProblem mloProblem){
+        RationalNumber[] objective = ProblemToMatrixTransformation.parseObjectiveFunction(mloProblem);
+
+        boolean flag = true;
+        for(int i=0;i<objective.length && flag;i++){
+            // a variable that is not lower bounded also takes the opposite coefficient in its second column
+            int sign = objective[i].signum();
+            flag = sign==0 || (sign>0 && !mloProblem.isNotLowerBounded(i));
+        }
+        return flag;
+    }
+
+    /**
+     * Creates the simplex implementation selected for this problem.
+     * RATIONAL solves a tableau whose slack variables' columns are implicit, the other engines a full matrix.
+     * When the dual problem is solved, RATIONAL runs DualSimplex on the primal tableau, the other engines the simplex method on the dual tableau.
+     * @param mloProblem The MLO problem, its bounds given as constraints.
+     * @param isDual True if we are solving the dual problem, false else.
+     * @return The simplex implementation.
+     */
+    private SimplexEngine createEngine(MLOProblem mloProblem, boolean isDual){
+        if(engine==ENGINE.RATIONAL && isDual){
+            return new DualSimplex(mloProblem,storage);
+        }
+        if(engine==ENGINE.RATIONAL){
+            CompactTableau tableauStart = ProblemToMatrixTransformation.problemToCompactProblemMatrix(mloProblem,storage);
+            Simplex simplex = new Simplex(tableauStart,tableauStart.getNbExplicitColumns(),false,mloProblem.getNotLowerBoundedVariableIndexes());
+            simplex.setParallelism(parallelism);
+            simplex.setPricingRule(pricingRule);
+            return simplex;
+        }
+        if(engine==ENGINE.REVISED){
+            return RevisedSimplex.exact(mloProblem);
+        }
+        if(engine==ENGINE.REVISED_DOUBLE){
+            return RevisedSimplex.inDoubles(mloProblem,optimalityTolerance);
+        }
+
+        RationalNumberMatrix matrixStart = isDual ? ProblemToMatrixTransformation.problemToDualProblemMatrix(mloProblem,storage)
+                : ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(mloProblem,storage);
+        int nbVariables = matrixStart.getColNum()-matrixStart.getRowNum();
+        switch(engine){
+            case FRACTION_FREE:
+                return new FractionFreeSimplex(matrixStart,nbVariables,isDual,mloProblem.getNotLowerBoundedVariableIndexes());
+            case DOUBLE:
+                return new DoubleSimplex(matrixStart,nbVariables,isDual,mloProblem.getNotLowerBoundedVariableIndexes(),
+                        feasibilityTolerance,optimalityTolerance);
+            case HYBRID:
+            default:
+                return new HybridSimplex(matrixStart,nbVariables,isDual,mloProblem.getNotLowerBoundedVariableIndexes(),
+                        feasibilityTolerance,optimalityTolerance);
+        }
     }
 
     /**
-     * Checks if the MLO problem given as parameter is feasible.
+     * Checks if the MLO problem given as parameter is feasible, its bounds given as constraints.
      */
     public void checkFeasibility(){
-        MLOProblem mloProblem = this.mloProblem.clone();
-        PhaseOne p = new PhaseOne(mloProblem.getB(),mloProblem.getTypes(),mloProblem.getNbRows(),mloProblem.getNbVar(),ProblemToMatrixTransformation.problemToNormalizedProblemMatrixForPhaseOne(mloProblem));
+        MLOProblem mloProblem = this.mloProblem.withBoundsAsConstraints();
+        RationalNumberMatrix matrixStart = ProblemToMatrixTransformation.problemToNormalizedProblemMatrixForPhaseOne(mloProblem,storage);
+        // a variable that is not lower bounded takes two columns of the matrix
+        int nbVariables = matrixStart.getColNum()-1;
+        PhaseOne p = new PhaseOne(mloProblem.getB(),mloProblem.getTypes(),mloProblem.getNbRows(),nbVariables,matrixStart);
+        p.setPricingRule(pricingRule);
+        p.setIterationLimit(iterationLimit);
         p.compute();
+        iterationCount = p.getIterationCount();
         System.out.println(p.getResult());
     }
 }
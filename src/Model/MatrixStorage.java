@@ -0,0 +1,174 @@
+package Model;
+
+/**
+ * Cell storage behind a RationalNumberMatrix. Cells that were never set hold null.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+abstract class MatrixStorage {
+    protected final int rowNum;
+    protected final int colNum;
+
+    /**
+     * Constructor.
+     * @param rowNum The number of rows.
+     * @param colNum The number of columns.
+     */
+    MatrixStorage(int rowNum, int colNum){
+        this.rowNum = rowNum;
+        this.colNum = colNum;
+    }
+
+    /**
+     * Returns the element at the specified position.
+     * @param row The row index.
+     * @param col The column index.
+     * @return The element, or null if it was never set.
+     */
+    abstract RationalNumber get(int row, int col);
+
+    /**
+     * Sets the element at the specified position.
+     * @param row The row index.
+     * @param col The column index.
+     * @param n The new element.
+     */
+    abstract void set(int row, int col, RationalNumber n);
+
+    /**
+     * Swaps two rows.
+     * @param index1 The index of the first row.
+     * @param index2 The index of the second row.
+     */
+    abstract void swapRows(int index1, int index2);
+
+    /**
+     * Returns a deep copy of this storage.
+     * @return A deep copy of this storage.
+     */
+    abstract MatrixStorage copy();
+
+    /**
+     * Returns the storage mode of this storage.
+     * @return The storage mode of this storage.
+     */
+    abstract RationalNumberMatrix.STORAGE getMode();
+
+    /**
+     * Returns a row. Implementations may return their own array, callers must not modify it.
+     * @param row The row index.
+     * @return The row.
+     */
+    RationalNumber[] getRow(int row){
+        RationalNumber[] res = new RationalNumber[colNum];
+        for(int c=0;c<colNum;c++){
+            res[c] = get(row,c);
+        }
+        return res;
+    }
+
+    /**
+     * Replaces a row. Implementations may keep a reference to the array.
+     * @param row The row index.
+     * @param newRow The new row.
+     */
+    void setRow(int row, RationalNumber[] newRow){
+        for(int c=0;c<colNum;c++){
+            set(row,c,newRow[c]);
+        }
+    }
+
+    /**
+     * Returns the sign of an element.
+     * @param row The row index.
+     * @param col The column index.
+     * @return -1, 0 or 1 as the element is negative, zero or positive.
+     */
+    int signum(int row, int col){
+        return get(row,col).signum();
+    }
+
+    /**
+     * Returns an element as a double.
+     * @param row The row index.
+     * @param col The column index.
+     * @return The element as a double.
+     */
+    double getDouble(int row, int col){
+        return get(row,col).toDouble();
+    }
+
+    /**
+     * Compares two elements of the same row.
+     * @param row The row index.
+     * @param col1 The column index of the first element.
+     * @param col2 The column index of the second element.
+     * @return A negative integer, zero, or a positive integer as the first element is less than, equal to, or greater than the second.
+     */
+    int compareInRow(int row, int col1, int col2){
+        return get(row,col1).compareTo(get(row,col2));
+    }
+
+    /**
+     * Compares the ratios row1[numCol] / row1[denCol] and row2[numCol] / row2[denCol].
+     * Both row1[denCol] and row2[denCol] have to be positive.
+     * @param row1 The index of the first row.
+     * @param row2 The index of the second row.
+     * @param numCol The column of the numerators.
+     * @param denCol The column of the denominators.
+     * @return A negative integer, zero, or a positive integer as the first ratio is less than, equal to, or greater than the second.
+     */
+    int compareRatios(int row1, int row2, int numCol, int denCol){
+        RationalNumber ratio1 = get(row1,numCol).divide(get(row1,denCol));
+        RationalNumber ratio2 = get(row2,numCol).divide(get(row2,denCol));
+        return ratio1.compareTo(ratio2);
+    }
+
+    /**
+     * Multiplies a row by a scalar in place.
+     * @param row The row index.
+     * @param s The scalar.
+     */
+    void scaleRow(int row, RationalNumber s){
+        for(int c=0;c<colNum;c++){
+            if(get(row,c)!=null){
+                set(row,c,get(row,c).multiply(s));
+            }
+        }
+    }
+
+    /**
+     * Fused row update: row[target] -= factor * row[source], each result being reduced once.
+     * @param target The index of the row to update.
+     * @param factor The factor.
+     * @param source The index of the row to subtract.
+     */
+    void subtractMultipleOfRow(int target, RationalNumber factor, int source){
+        RationalAccumulator acc = new RationalAccumulator();
+        for(int c=0;c<colNum;c++){
+            RationalNumber p = get(source,c);
+            if(p.signum()!=0){
+                acc.set(get(target,c));
+                acc.subtractProduct(factor,p);
+                set(target,c,acc.toRationalNumber());
+            }
+        }
+    }
+
+    /**
+     * Fused row update restricted to some columns: row[target][c] -= factor * row[source][c] for each listed column.
+     * The other columns of the source row have to be 0.
+     * @param target The index of the row to update.
+     * @param factor The factor.
+     * @param source The index of the row to subtract.
+     * @param columns The columns where the source row is not 0.
+     */
+    void subtractMultipleOfRow(int target, RationalNumber factor, int source, int[] columns){
+        RationalAccumulator acc = new RationalAccumulator();
+        for(int c : columns){
+            acc.set(get(target,c));
+            acc.subtractProduct(factor,get(source,c));
+            set(target,c,acc.toRationalNumber());
+        }
+    }
+}
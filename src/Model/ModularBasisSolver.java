@@ -0,0 +1,295 @@
+package Model;
+
+import java.math.BigInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Exact solve of the basic solution and of the dual values of a basis, without rational pivots.
+ * The systems are solved modulo several primes below 2^31, the residues are combined with the Chinese remainder theorem,
+ * and each value is recovered with rational reconstruction, then checked on the exact system.
+ * The coefficients never grow past the product of the primes used.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class ModularBasisSolver {
+    // number of primes added between two reconstruction attempts
+    private static final int BATCH_SIZE = 4;
+
+    private RationalNumberMatrix matrix;
+    private int[] basis;
+    private int rows, cols;
+    private boolean parallel = false;
+
+    /**
+     * Constructor.
+     * @param m The beginning matrix, as built by ProblemToMatrixTransformation.
+     * @param basis For each constraint row, the index of its basic column, as given by Simplex.getBasis.
+     * @throws AssertionError The basis has to have a column for each constraint row.
+     */
+    public ModularBasisSolver(RationalNumberMatrix m, int[] basis){
+        assert(basis.length==m.getRowNum()-1):"The basis has to have one entry per constraint row";
+        for(int c : basis){
+            assert(c>=0 && c<m.getColNum()-1):"The basis has to have a column for each constraint row";
+        }
+        matrix = m;
+        this.basis = basis.clone();
+        rows = m.getRowNum();
+        cols = m.getColNum();
+    }
+
+    /**
+     * Sets if the primes are solved in parallel.
+     * @param parallel True to solve the primes of a batch in parallel, else false.
+     */
+    public void setParallel(boolean parallel){
+        this.parallel = parallel;
+    }
+
+    /**
+     * Solves B x = b, where B is made of the basic columns of the constraint rows and b is the right hand side.
+     * @return The basic solution: the value of the column basis[r] is at index r. Null if the basis is singular.
+     */
+    public RationalNumber[] solvePrimal(){
+        int n = rows-1;
+        RationalNumber[][] a = new RationalNumber[n][n+1];
+        for(int i = 0; i < n; i++){
+            for(int j = 0; j < n; j++){
+                a[i][j] = matrix.get(i,basis[j]);
+            }
+            a[i][n] = matrix.get(i,cols-1);
+        }
+        return solve(toIntegerRows(a));
+    }
+
+    /**
+     * Solves B^T y = r, where r holds the last row's values at the basic columns.
+     * The last row of the matrix at this basis is the beginning last row minus y^T times the constraint rows.
+     * @return The dual values, one per constraint row. Null if the basis is singular.
+     */
+    public RationalNumber[] solveDual(){
+        int n = rows-1;
+        RationalNumber[][] a = new RationalNumber[n][n+1];
+        for(int j = 0; j < n; j++){
+            for(int i = 0; i < n; i++){
+                a[j][i] = matrix.get(i,basis[j]);
+            }
+            a[j][n] = matrix.get(rows-1,basis[j]);
+        }
+        return solve(toIntegerRows(a));
+    }
+
+    /**
+     * Scales each row of a rational system by the lcm of its denominators.
+     * @param a The rational system, the last column being the right hand side.
+     * @return The integer system, with the same solution.
+     */
+    private static BigInteger[][] toIntegerRows(RationalNumber[][] a){
+        BigInteger[][] res = new BigInteger[a.length][];
+        for(int i = 0; i < a.length; i++){
+            BigInteger lcm = BigInteger.ONE;
+            for(RationalNumber v : a[i]){
+                BigInteger den = v.getBigDenominator();
+                lcm = lcm.divide(lcm.gcd(den)).multiply(den);
+            }
+            res[i] = new BigInteger[a[i].length];
+            for(int j = 0; j < a[i].length; j++){
+                res[i][j] = a[i][j].getBigNumerator().multiply(lcm.divide(a[i][j].getBigDenominator()));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Solves a square integer system modulo enough primes to recover its rational solution.
+     * @param a The integer system, n rows of n+1 values, the last column being the right hand side.
+     * @return The solution, or null if the system is singular.
+     */
+    private RationalNumber[] solve(BigInteger[][] a){
+        int n = a.length;
+        // Hadamard bound on the numerators and the denominator of Cramer's rule,
+        // the product of the primes has to be above 2 * bound^2 for the reconstruction to be certain
+        double log2Bound = 0;
+        for(BigInteger[] row : a){
+            BigInteger norm2 = BigInteger.ZERO;
+            for(BigInteger v : row){
+                norm2 = norm2.add(v.multiply(v));
+            }
+            log2Bound += norm2.bitLength()/2.0+1;
+        }
+        int maxModulusBits = (int)(2*log2Bound)+2;
+        // a prime dividing the determinant is skipped, there are at most log2(det)/30 of them
+        int maxSkipped = (int)(log2Bound/30)+BATCH_SIZE;
+
+        BigInteger candidate = BigInteger.valueOf(Integer.MAX_VALUE);
+        BigInteger modulus = BigInteger.ONE;
+        BigInteger[] residues = new BigInteger[n];
+        int skipped = 0;
+
+        while(modulus.bitLength() <= maxModulusBits && skipped <= maxSkipped){
+            long[] batch = new long[BATCH_SIZE];
+            for(int k = 0; k < BATCH_SIZE; k++){
+                do{
+                    candidate = candidate.subtract(BigInteger.ONE);
+                }while(!candidate.isProbablePrime(30));
+                batch[k] = candidate.longValue();
+            }
+
+            IntStream indexes = IntStream.range(0,BATCH_SIZE);
+            if(parallel){
+                indexes = indexes.parallel();
+            }
+            long[][] solutions = new long[BATCH_SIZE][];
+            indexes.forEach(k -> solutions[k] = solveModulo(a,batch[k]));
+
+            boolean added = false;
+            for(int k = 0; k < BATCH_SIZE; k++){
+                if(solutions[k] == null){ // the prime divides the determinant
+                    skipped++;
+                }else{
+                    BigInteger p = BigInteger.valueOf(batch[k]);
+                    combine(residues,modulus,solutions[k],p);
+                    modulus = modulus.multiply(p);
+                    added = true;
+                }
+            }
+
+            if(added){
+                RationalNumber[] x = reconstruct(residues,modulus);
+                if(x != null && isSolution(a,x)){
+                    return x;
+                }
+            }
+        }
+
+        return null; // singular
+    }
+
+    /**
+     * Solves a system modulo a prime with Gaussian elimination.
+     * @param a The integer system.
+     * @param p The prime.
+     * @return The solution modulo p, or null if the system is singular modulo p.
+     */
+    private static long[] solveModulo(BigInteger[][] a, long p){
+        int n = a.length;
+        BigInteger bp = BigInteger.valueOf(p);
+        long[][] m = new long[n][n+1];
+        for(int i = 0; i < n; i++){
+            for(int j = 0; j <= n; j++){
+                m[i][j] = a[i][j].mod(bp).longValue();
+            }
+        }
+
+        for(int c = 0; c < n; c++){
+            int pivot = -1;
+            for(int i = c; i < n && pivot==-1; i++){
+                if(m[i][c] != 0){
+                    pivot = i;
+                }
+            }
+            if(pivot == -1){
+                return null;
+            }
+            long[] temp = m[c];
+            m[c] = m[pivot];
+            m[pivot] = temp;
+
+            long inverse = BigInteger.valueOf(m[c][c]).modInverse(bp).longValue();
+            for(int j = c; j <= n; j++){
+                m[c][j] = m[c][j]*inverse%p;
+            }
+            for(int i = 0; i < n; i++){
+                long f = m[i][c];
+                if(i != c && f != 0){
+                    for(int j = c; j <= n; j++){
+                        m[i][j] = Math.floorMod(m[i][j]-f*m[c][j]%p,p);
+                    }
+                }
+            }
+        }
+
+        long[] x = new long[n];
+        for(int i = 0; i < n; i++){
+            x[i] = m[i][n];
+        }
+        return x;
+    }
+
+    /**
+     * Combines residues modulo a modulus with residues modulo a new prime, in place.
+     * @param residues The residues modulo modulus, null at the first prime.
+     * @param modulus The current modulus.
+     * @param x The residues modulo p.
+     * @param p The prime, not dividing modulus.
+     */
+    private static void combine(BigInteger[] residues, BigInteger modulus, long[] x, BigInteger p){
+        BigInteger inverse = modulus.mod(p).modInverse(p);
+        for(int i = 0; i < residues.length; i++){
+            if(residues[i] == null){
+                residues[i] = BigInteger.valueOf(x[i]);
+            }else{
+                // r + modulus * ((x - r) / modulus mod p)
+                BigInteger t = BigInteger.valueOf(x[i]).subtract(residues[i]).multiply(inverse).mod(p);
+                residues[i] = residues[i].add(modulus.multiply(t));
+            }
+        }
+    }
+
+    /**
+     * Recovers the fractions with numerator and denominator below sqrt(modulus/2) from their residues.
+     * @param residues The residues.
+     * @param modulus The modulus.
+     * @return The fractions, or null if a residue has no such fraction.
+     */
+    private static RationalNumber[] reconstruct(BigInteger[] residues, BigInteger modulus){
+        BigInteger bound = modulus.shiftRight(1).sqrt();
+        RationalNumber[] res = new RationalNumber[residues.length];
+        for(int i = 0; i < residues.length; i++){
+            // extended Euclid on (modulus, residue), stopped at the first remainder below the bound
+            BigInteger r0 = modulus, r1 = residues[i];
+            BigInteger s0 = BigInteger.ZERO, s1 = BigInteger.ONE;
+            while(r1.compareTo(bound) > 0){
+                BigInteger[] qr = r0.divideAndRemainder(r1);
+                r0 = r1;
+                r1 = qr[1];
+                BigInteger s = s0.subtract(qr[0].multiply(s1));
+                s0 = s1;
+                s1 = s;
+            }
+            if(s1.signum()==0 || s1.abs().compareTo(bound) > 0 || !r1.gcd(s1).equals(BigInteger.ONE)){
+                return null;
+            }
+            res[i] = new RationalNumber(r1,s1);
+        }
+        return res;
+    }
+
+    /**
+     * Checks a rational solution on the integer system.
+     * @param a The integer system.
+     * @param x The solution.
+     * @return True if a x = b, else false.
+     */
+    private static boolean isSolution(BigInteger[][] a, RationalNumber[] x){
+        int n = a.length;
+        BigInteger lcm = BigInteger.ONE;
+        for(RationalNumber v : x){
+            BigInteger den = v.getBigDenominator();
+            lcm = lcm.divide(lcm.gcd(den)).multiply(den);
+        }
+        BigInteger[] scaled = new BigInteger[n];
+        for(int j = 0; j < n; j++){
+            scaled[j] = x[j].getBigNumerator().multiply(lcm.divide(x[j].getBigDenominator()));
+        }
+        for(int i = 0; i < n; i++){
+            BigInteger sum = BigInteger.ZERO;
+            for(int j = 0; j < n; j++){
+                sum = sum.add(a[i][j].multiply(scaled[j]));
+            }
+            if(!sum.equals(a[i][n].multiply(lcm))){
+                return false;
+            }
+        }
+        return true;
+    }
+}
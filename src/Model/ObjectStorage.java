@@ -0,0 +1,96 @@
+package Model;
+
+/**
+ * Storage keeping one RationalNumber object per cell.
+ * A copy shares the row arrays, a shared row is copied before its first change (copy-on-write).
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+class ObjectStorage extends MatrixStorage {
+    private RationalNumber[][] matrix;
+    // rows also used by a copy
+    private boolean[] shared;
+
+    /**
+     * Constructor.
+     * @param rowNum The number of rows.
+     * @param colNum The number of columns.
+     */
+    ObjectStorage(int rowNum, int colNum){
+        this(rowNum,colNum,true);
+    }
+
+    /**
+     * Constructor.
+     * @param rowNum The number of rows.
+     * @param colNum The number of columns.
+     * @param allocateRows False to leave the rows null, to be filled by copy.
+     */
+    private ObjectStorage(int rowNum, int colNum, boolean allocateRows){
+        super(rowNum,colNum);
+        matrix = allocateRows ? new RationalNumber[rowNum][colNum] : new RationalNumber[rowNum][];
+        shared = new boolean[rowNum];
+    }
+
+    /**
+     * Copies a row before its first change if it is shared.
+     * @param row The row index.
+     */
+    private void ownRow(int row){
+        if(shared[row]){
+            matrix[row] = matrix[row].clone();
+            shared[row] = false;
+        }
+    }
+
+    @Override
+    RationalNumber get(int row, int col){
+        return matrix[row][col];
+    }
+
+    @Override
+    void set(int row, int col, RationalNumber n){
+        ownRow(row);
+        matrix[row][col] = n;
+    }
+
+    @Override
+    RationalNumber[] getRow(int row){
+        // the live row can be changed by the caller
+        ownRow(row);
+        return matrix[row];
+    }
+
+    @Override
+    void setRow(int row, RationalNumber[] newRow){
+        matrix[row] = newRow;
+        shared[row] = false;
+    }
+
+    @Override
+    void swapRows(int index1, int index2){
+        RationalNumber[] temp = matrix[index1];
+        matrix[index1] = matrix[index2];
+        matrix[index2] = temp;
+        boolean tempShared = shared[index1];
+        shared[index1] = shared[index2];
+        shared[index2] = tempShared;
+    }
+
+    @Override
+    MatrixStorage copy(){
+        // RationalNumbers are immutable, sharing the rows is enough
+        ObjectStorage s = new ObjectStorage(rowNum,colNum,false);
+        for(int r=0;r<rowNum;r++){
+            s.matrix[r] = matrix[r];
+            s.shared[r] = true;
+            shared[r] = true;
+        }
+        return s;
+    }
+
+    @Override
+    RationalNumberMatrix.STORAGE getMode(){
+        return RationalNumberMatrix.STORAGE.OBJECT;
+    }
+}
@@ -0,0 +1,398 @@
+package Model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Storage keeping the cells outside of the heap, as fixed-width cells of two longs (numerator and denominator).
+ * The rows are stored in chunks of at most 1 GiB, either direct buffers or buffers mapped on a temporary file.
+ * Direct buffers are limited by -XX:MaxDirectMemorySize, by default the maximum heap size: when they run out,
+ * the chunks are mapped on a temporary file instead, the mode staying OFF_HEAP.
+ * Values that do not fit in longs are kept in a side table on the heap, allocated per row on first use.
+ * A denominator of 0 marks a cell that was never set, a denominator of -1 a cell held in the side table.
+ * A copy shares the chunks, they are copied before the first change (copy-on-write).
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+class OffHeapStorage extends MatrixStorage {
+    private static final long UNSET = 0;
+    private static final long OVERFLOW = -1;
+    // bytes of a cell: the numerator and the denominator
+    private static final int CELL_BYTES = 16;
+    private static final int CHUNK_BYTES = 1<<30;
+
+    private final boolean mapped;
+    // true once the chunks are mapped on a temporary file, because of the mode or because the direct memory ran out
+    private boolean onFile;
+    private final int rowsPerChunk;
+    private ByteBuffer[] chunks;
+    private RationalNumber[][] overflow;
+    // true while the chunks are also used by a copy
+    private volatile boolean shared = false;
+
+    /**
+     * Constructor.
+     * @param rowNum The number of rows.
+     * @param colNum The number of columns.
+     * @param mapped True to map the chunks on a temporary file, false to allocate direct buffers.
+     * @throws AssertionError A row has to fit in a chunk.
+     * @throws UncheckedIOException If the temporary file cannot be created or mapped.
+     */
+    OffHeapStorage(int rowNum, int colNum, boolean mapped){
+        super(rowNum,colNum);
+        assert((long)colNum*CELL_BYTES<=CHUNK_BYTES):"A row has to fit in a chunk";
+        this.mapped = mapped;
+        onFile = mapped;
+        rowsPerChunk = CHUNK_BYTES/(colNum*CELL_BYTES);
+        chunks = allocateChunks();
+        overflow = new RationalNumber[rowNum][];
+    }
+
+    /**
+     * Allocates zeroed chunks for all the rows. Direct buffers that do not fit in the direct memory left are replaced
+     * by buffers mapped on a temporary file.
+     * @return The chunks.
+     */
+    private ByteBuffer[] allocateChunks(){
+        int nbChunks = (rowNum+rowsPerChunk-1)/rowsPerChunk;
+        ByteBuffer[] res = new ByteBuffer[nbChunks];
+        if(!onFile){
+            try{
+                for(int i=0;i<nbChunks;i++){
+                    res[i] = ByteBuffer.allocateDirect(chunkBytes(i)).order(ByteOrder.nativeOrder());
+                }
+                return res;
+            }catch(OutOfMemoryError e){
+                // the direct buffers already allocated are freed with res
+                onFile = true;
+                res = new ByteBuffer[nbChunks];
+            }
+        }
+        try{
+            Path file = Files.createTempFile("mlo_rb",".tableau");
+            // the mappings stay valid once the channel is closed and the file deleted
+            try(FileChannel channel = FileChannel.open(file,StandardOpenOption.READ,StandardOpenOption.WRITE,StandardOpenOption.DELETE_ON_CLOSE)){
+                long position = 0;
+                for(int i=0;i<nbChunks;i++){
+                    res[i] = channel.map(FileChannel.MapMode.READ_WRITE,position,chunkBytes(i)).order(ByteOrder.nativeOrder());
+                    position += chunkBytes(i);
+                }
+            }
+        }catch(IOException e){
+            throw new UncheckedIOException("Cannot map the tableau on a temporary file",e);
+        }
+        return res;
+    }
+
+    /**
+     * Returns the size of a chunk.
+     * @param chunk The chunk index.
+     * @return The size of the chunk in bytes.
+     */
+    private int chunkBytes(int chunk){
+        int rows = Math.min(rowsPerChunk,rowNum-chunk*rowsPerChunk);
+        return rows*colNum*CELL_BYTES;
+    }
+
+    /**
+     * Copies the chunks before the first change if they are shared.
+     */
+    private void own(){
+        if(shared){
+            synchronized(this){
+                if(shared){
+                    ByteBuffer[] copies = allocateChunks();
+                    for(int i=0;i<chunks.length;i++){
+                        copies[i].put(0,chunks[i],0,chunks[i].capacity());
+                    }
+                    chunks = copies;
+                    overflow = overflow.clone();
+                    for(int r=0;r<rowNum;r++){
+                        if(overflow[r]!=null){
+                            overflow[r] = overflow[r].clone();
+                        }
+                    }
+                    shared = false;
+                }
+            }
+        }
+    }
+
+    private ByteBuffer chunk(int row){
+        return chunks[row/rowsPerChunk];
+    }
+
+    /**
+     * Returns the position of a numerator in its chunk, the denominator follows it.
+     * @param row The row index.
+     * @param col The column index.
+     * @return The position in bytes.
+     */
+    private int position(int row, int col){
+        return ((row%rowsPerChunk)*colNum+col)*CELL_BYTES;
+    }
+
+    @Override
+    RationalNumber get(int row, int col){
+        ByteBuffer b = chunk(row);
+        int i = position(row,col);
+        long den = b.getLong(i+8);
+        if(den>0){
+            return RationalNumber.reduced(b.getLong(i),den);
+        }
+        if(den==UNSET){
+            return null;
+        }
+        return overflow[row][col];
+    }
+
+    @Override
+    void set(int row, int col, RationalNumber n){
+        own();
+        ByteBuffer b = chunk(row);
+        int i = position(row,col);
+        if(n==null){
+            b.putLong(i,0);
+            b.putLong(i+8,UNSET);
+            clearOverflow(row,col);
+        }else if(n.fitsInLong()){
+            b.putLong(i,n.getNumerator());
+            b.putLong(i+8,n.getDenominator());
+            clearOverflow(row,col);
+        }else{
+            if(overflow[row]==null){
+                overflow[row] = new RationalNumber[colNum];
+            }
+            overflow[row][col] = n;
+            b.putLong(i,0);
+            b.putLong(i+8,OVERFLOW);
+        }
+    }
+
+    /**
+     * Drops the side table entry of a cell, if any.
+     * @param row The row index.
+     * @param col The column index.
+     */
+    private void clearOverflow(int row, int col){
+        if(overflow[row]!=null){
+            overflow[row][col] = null;
+        }
+    }
+
+    @Override
+    void swapRows(int index1, int index2){
+        own();
+        ByteBuffer b1 = chunk(index1);
+        ByteBuffer b2 = chunk(index2);
+        int o1 = position(index1,0);
+        int o2 = position(index2,0);
+        for(int i=0;i<colNum*CELL_BYTES;i+=8){
+            long temp = b1.getLong(o1+i);
+            b1.putLong(o1+i,b2.getLong(o2+i));
+            b2.putLong(o2+i,temp);
+        }
+        RationalNumber[] temp = overflow[index1];
+        overflow[index1] = overflow[index2];
+        overflow[index2] = temp;
+    }
+
+    @Override
+    MatrixStorage copy(){
+        OffHeapStorage s = new OffHeapStorage(this);
+        shared = true;
+        return s;
+    }
+
+    /**
+     * Copy constructor, the chunks are shared until one of the storages changes.
+     * @param other The storage to copy.
+     */
+    private OffHeapStorage(OffHeapStorage other){
+        super(other.rowNum,other.colNum);
+        mapped = other.mapped;
+        onFile = other.onFile;
+        rowsPerChunk = other.rowsPerChunk;
+        chunks = other.chunks;
+        overflow = other.overflow;
+        shared = true;
+    }
+
+    @Override
+    RationalNumberMatrix.STORAGE getMode(){
+        return mapped ? RationalNumberMatrix.STORAGE.MAPPED : RationalNumberMatrix.STORAGE.OFF_HEAP;
+    }
+
+    @Override
+    int signum(int row, int col){
+        ByteBuffer b = chunk(row);
+        int i = position(row,col);
+        if(b.getLong(i+8)==OVERFLOW){
+            return overflow[row][col].signum();
+        }
+        return Long.signum(b.getLong(i));
+    }
+
+    @Override
+    double getDouble(int row, int col){
+        ByteBuffer b = chunk(row);
+        int i = position(row,col);
+        long den = b.getLong(i+8);
+        if(den==OVERFLOW){
+            return overflow[row][col].toDouble();
+        }
+        return (double)b.getLong(i)/(double)den;
+    }
+
+    @Override
+    int compareInRow(int row, int col1, int col2){
+        ByteBuffer b = chunk(row);
+        int i1 = position(row,col1);
+        int i2 = position(row,col2);
+        long d1 = b.getLong(i1+8);
+        long d2 = b.getLong(i2+8);
+        if(d1==OVERFLOW || d2==OVERFLOW){
+            return super.compareInRow(row,col1,col2);
+        }
+        return RationalNumber.compare(b.getLong(i1),d1,b.getLong(i2),d2);
+    }
+
+    @Override
+    int compareRatios(int row1, int row2, int numCol, int denCol){
+        ByteBuffer b1 = chunk(row1);
+        ByteBuffer b2 = chunk(row2);
+        int n1 = position(row1,numCol);
+        int d1 = position(row1,denCol);
+        int n2 = position(row2,numCol);
+        int d2 = position(row2,denCol);
+        if(b1.getLong(n1+8)!=OVERFLOW && b1.getLong(d1+8)!=OVERFLOW && b2.getLong(n2+8)!=OVERFLOW && b2.getLong(d2+8)!=OVERFLOW){
+            try{
+                // (a/b) / (c/d) = (a*d) / (b*c), the denominators are positive
+                long num1 = Math.multiplyExact(b1.getLong(n1),b1.getLong(d1+8));
+                long den1 = Math.multiplyExact(b1.getLong(n1+8),b1.getLong(d1));
+                long num2 = Math.multiplyExact(b2.getLong(n2),b2.getLong(d2+8));
+                long den2 = Math.multiplyExact(b2.getLong(n2+8),b2.getLong(d2));
+                return RationalNumber.compare(num1,den1,num2,den2);
+            }catch(ArithmeticException e){
+                // overflow, compare with RationalNumbers
+            }
+        }
+        return super.compareRatios(row1,row2,numCol,denCol);
+    }
+
+    @Override
+    void scaleRow(int row, RationalNumber s){
+        own();
+        if(!s.fitsInLong()){
+            super.scaleRow(row,s);
+            return;
+        }
+        long sn = s.getNumerator();
+        long sd = s.getDenominator();
+        RationalAccumulator acc = new RationalAccumulator();
+        ByteBuffer b = chunk(row);
+        for(int c=0;c<colNum;c++){
+            int i = position(row,c);
+            long den = b.getLong(i+8);
+            if(den==OVERFLOW){
+                set(row,c,overflow[row][c].multiply(s));
+            }else if(den!=UNSET){
+                acc.set(b.getLong(i),den);
+                acc.multiply(sn,sd);
+                store(row,c,acc);
+            }
+        }
+    }
+
+    @Override
+    void subtractMultipleOfRow(int target, RationalNumber factor, int source){
+        if(factor.signum()==0){
+            return;
+        }
+        own();
+        if(!factor.fitsInLong()){
+            super.subtractMultipleOfRow(target,factor,source);
+            return;
+        }
+        long fn = factor.getNumerator();
+        long fd = factor.getDenominator();
+        RationalAccumulator acc = new RationalAccumulator();
+        ByteBuffer bt = chunk(target);
+        ByteBuffer bs = chunk(source);
+        int t = position(target,0);
+        int s = position(source,0);
+        for(int c=0;c<colNum;c++){
+            int o = c*CELL_BYTES;
+            long pd = bs.getLong(s+o+8);
+            long pn = bs.getLong(s+o);
+            if(pd>0 && pn==0){
+                continue;
+            }
+            long td = bt.getLong(t+o+8);
+            if(pd==OVERFLOW || td==OVERFLOW){
+                acc.set(get(target,c));
+                acc.subtractProduct(factor,get(source,c));
+            }else{
+                acc.set(bt.getLong(t+o),td);
+                acc.subtractProduct(fn,fd,pn,pd);
+            }
+            store(target,c,acc);
+        }
+    }
+
+    @Override
+    void subtractMultipleOfRow(int target, RationalNumber factor, int source, int[] columns){
+        if(factor.signum()==0){
+            return;
+        }
+        own();
+        if(!factor.fitsInLong()){
+            super.subtractMultipleOfRow(target,factor,source,columns);
+            return;
+        }
+        long fn = factor.getNumerator();
+        long fd = factor.getDenominator();
+        RationalAccumulator acc = new RationalAccumulator();
+        ByteBuffer bt = chunk(target);
+        ByteBuffer bs = chunk(source);
+        int t = position(target,0);
+        int s = position(source,0);
+        for(int c : columns){
+            int o = c*CELL_BYTES;
+            long pd = bs.getLong(s+o+8);
+            long td = bt.getLong(t+o+8);
+            if(pd==OVERFLOW || td==OVERFLOW){
+                acc.set(get(target,c));
+                acc.subtractProduct(factor,get(source,c));
+            }else{
+                acc.set(bt.getLong(t+o),td);
+                acc.subtractProduct(fn,fd,bs.getLong(s+o),pd);
+            }
+            store(target,c,acc);
+        }
+    }
+
+    /**
+     * Stores the value of an accumulator in a cell.
+     * @param row The row index.
+     * @param col The column index.
+     * @param acc The accumulator.
+     */
+    private void store(int row, int col, RationalAccumulator acc){
+        if(acc.fitsInLong()){
+            ByteBuffer b = chunk(row);
+            int i = position(row,col);
+            b.putLong(i,acc.getNumerator());
+            b.putLong(i+8,acc.getDenominator());
+            clearOverflow(row,col);
+        }else{
+            set(row,col,acc.toRationalNumber());
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package Model;
+
+/**
+ * Storage keeping the cells in two flat row-major long arrays (numerators and denominators).
+ * Values that do not fit in longs are kept in a side table, allocated per row on first use.
+ * A denominator of 0 marks a cell that was never set, a denominator of -1 a cell held in the side table.
+ * A copy shares the arrays, they are copied before the first change (copy-on-write).
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+class PackedStorage extends MatrixStorage {
+    private static final long UNSET = 0;
+    private static final long OVERFLOW = -1;
+
+    private long[] numerators;
+    private long[] denominators;
+    private RationalNumber[][] overflow;
+    // true while the arrays are also used by a copy
+    private volatile boolean shared = false;
+
+    /**
+     * Constructor.
+     * @param rowNum The number of rows.
+     * @param colNum The number of columns.
+     */
+    PackedStorage(int rowNum, int colNum){
+        super(rowNum,colNum);
+        numerators = new long[rowNum*colNum];
+        denominators = new long[rowNum*colNum];
+        overflow = new RationalNumber[rowNum][];
+    }
+
+    /**
+     * Copies the arrays before the first change if they are shared.
+     */
+    private void own(){
+        if(shared){
+            synchronized(this){
+                if(shared){
+                    numerators = numerators.clone();
+                    denominators = denominators.clone();
+                    overflow = overflow.clone();
+                    for(int r=0;r<rowNum;r++){
+                        if(overflow[r]!=null){
+                            overflow[r] = overflow[r].clone();
+                        }
+                    }
+                    shared = false;
+                }
+            }
+        }
+    }
+
+    @Override
+    RationalNumber get(int row, int col){
+        int i = row*colNum+col;
+        long den = denominators[i];
+        if(den>0){
+            return RationalNumber.reduced(numerators[i],den);
+        }
+        if(den==UNSET){
+            return null;
+        }
+        return overflow[row][col];
+    }
+
+    @Override
+    void set(int row, int col, RationalNumber n){
+        own();
+        int i = row*colNum+col;
+        if(n==null){
+            numerators[i] = 0;
+            denominators[i] = UNSET;
+            clearOverflow(row,col);
+        }else if(n.fitsInLong()){
+            numerators[i] = n.getNumerator();
+            denominators[i] = n.getDenominator();
+            clearOverflow(row,col);
+        }else{
+            if(overflow[row]==null){
+                overflow[row] = new RationalNumber[colNum];
+            }
+            overflow[row][col] = n;
+            numerators[i] = 0;
+            denominators[i] = OVERFLOW;
+        }
+    }
+
+    /**
+     * Drops the side table entry of a cell, if any.
+     * @param row The row index.
+     * @param col The column index.
+     */
+    private void clearOverflow(int row, int col){
+        if(overflow[row]!=null){
+            overflow[row][col] = null;
+        }
+    }
+
+    @Override
+    void swapRows(int index1, int index2){
+        own();
+        int o1 = index1*colNum;
+        int o2 = index2*colNum;
+        for(int c=0;c<colNum;c++){
+            long temp = numerators[o1+c];
+            numerators[o1+c] = numerators[o2+c];
+            numerators[o2+c] = temp;
+            temp = denominators[o1+c];
+            denominators[o1+c] = denominators[o2+c];
+            denominators[o2+c] = temp;
+        }
+        RationalNumber[] temp = overflow[index1];
+        overflow[index1] = overflow[index2];
+        overflow[index2] = temp;
+    }
+
+    @Override
+    MatrixStorage copy(){
+        PackedStorage s = new PackedStorage(this);
+        shared = true;
+        return s;
+    }
+
+    /**
+     * Copy constructor, the arrays are shared until one of the storages changes.
+     * @param other The storage to copy.
+     */
+    private PackedStorage(PackedStorage other){
+        super(other.rowNum,other.colNum);
+        numerators = other.numerators;
+        denominators = other.denominators;
+        overflow = other.overflow;
+        shared = true;
+    }
+
+    @Override
+    RationalNumberMatrix.STORAGE getMode(){
+        return RationalNumberMatrix.STORAGE.PACKED;
+    }
+
+    @Override
+    int signum(int row, int col){
+        int i = row*colNum+col;
+        if(denominators[i]==OVERFLOW){
+            return overflow[row][col].signum();
+        }
+        return Long.signum(numerators[i]);
+    }
+
+    @Override
+    double getDouble(int row, int col){
+        int i = row*colNum+col;
+        if(denominators[i]==OVERFLOW){
+            return overflow[row][col].toDouble();
+        }
+        return (double)numerators[i]/(double)denominators[i];
+    }
+
+    @Override
+    int compareInRow(int row, int col1, int col2){
+        int i1 = row*colNum+col1;
+        int i2 = row*colNum+col2;
+        if(denominators[i1]==OVERFLOW || denominators[i2]==OVERFLOW){
+            return super.compareInRow(row,col1,col2);
+        }
+        return RationalNumber.compare(numerators[i1],denominators[i1],numerators[i2],denominators[i2]);
+    }
+
+    @Override
+    int compareRatios(int row1, int row2, int numCol, int denCol){
+        int n1 = row1*colNum+numCol;
+        int d1 = row1*colNum+denCol;
+        int n2 = row2*colNum+numCol;
+        int d2 = row2*colNum+denCol;
+        if(denominators[n1]!=OVERFLOW && denominators[d1]!=OVERFLOW && denominators[n2]!=OVERFLOW && denominators[d2]!=OVERFLOW){
+            try{
+                // (a/b) / (c/d) = (a*d) / (b*c), the denominators are positive
+                long num1 = Math.multiplyExact(numerators[n1],denominators[d1]);
+                long den1 = Math.multiplyExact(denominators[n1],numerators[d1]);
+                long num2 = Math.multiplyExact(numerators[n2],denominators[d2]);
+                long den2 = Math.multiplyExact(denominators[n2],numerators[d2]);
+                return RationalNumber.compare(num1,den1,num2,den2);
+            }catch(ArithmeticException e){
+                // overflow, compare with RationalNumbers
+            }
+        }
+        return super.compareRatios(row1,row2,numCol,denCol);
+    }
+
+    @Override
+    void scaleRow(int row, RationalNumber s){
+        own();
+        if(!s.fitsInLong()){
+            super.scaleRow(row,s);
+            return;
+        }
+        long sn = s.getNumerator();
+        long sd = s.getDenominator();
+        RationalAccumulator acc = new RationalAccumulator();
+        int offset = row*colNum;
+        for(int c=0;c<colNum;c++){
+            int i = offset+c;
+            if(denominators[i]==OVERFLOW){
+                set(row,c,overflow[row][c].multiply(s));
+            }else if(denominators[i]!=UNSET){
+                acc.set(numerators[i],denominators[i]);
+                acc.multiply(sn,sd);
+                store(row,c,acc);
+            }
+        }
+    }
+
+    @Override
+    void subtractMultipleOfRow(int target, RationalNumber factor, int source){
+        if(factor.signum()==0){
+            return;
+        }
+        own();
+        if(!factor.fitsInLong()){
+            super.subtractMultipleOfRow(target,factor,source);
+            return;
+        }
+        long fn = factor.getNumerator();
+        long fd = factor.getDenominator();
+        RationalAccumulator acc = new RationalAccumulator();
+        int t = target*colNum;
+        int s = source*colNum;
+        for(int c=0;c<colNum;c++){
+            long pd = denominators[s+c];
+            long pn = numerators[s+c];
+            if(pd>0 && pn==0){
+                continue;
+            }
+            if(pd==OVERFLOW || denominators[t+c]==OVERFLOW){
+                acc.set(get(target,c));
+                acc.subtractProduct(factor,get(source,c));
+            }else{
+                acc.set(numerators[t+c],denominators[t+c]);
+                acc.subtractProduct(fn,fd,pn,pd);
+            }
+            store(target,c,acc);
+        }
+    }
+
+    @Override
+    void subtractMultipleOfRow(int target, RationalNumber factor, int source, int[] columns){
+        if(factor.signum()==0){
+            return;
+        }
+        own();
+        if(!factor.fitsInLong()){
+            super.subtractMultipleOfRow(target,factor,source,columns);
+            return;
+        }
+        long fn = factor.getNumerator();
+        long fd = factor.getDenominator();
+        RationalAccumulator acc = new RationalAccumulator();
+        int t = target*colNum;
+        int s = source*colNum;
+        for(int c : columns){
+            long pd = denominators[s+c];
+            if(pd==OVERFLOW || denominators[t+c]==OVERFLOW){
+                acc.set(get(target,c));
+                acc.subtractProduct(factor,get(source,c));
+            }else{
+                acc.set(numerators[t+c],denominators[t+c]);
+                acc.subtractProduct(fn,fd,numerators[s+c],pd);
+            }
+            store(target,c,acc);
+        }
+    }
+
+    /**
+     * Stores the value of an accumulator in a cell.
+     * @param row The row index.
+     * @param col The column index.
+     * @param acc The accumulator.
+     */
+    private void store(int row, int col, RationalAccumulator acc){
+        if(acc.fitsInLong()){
+            int i = row*colNum+col;
+            numerators[i] = acc.getNumerator();
+            denominators[i] = acc.getDenominator();
+            clearOverflow(row,col);
+        }else{
+            set(row,col,acc.toRationalNumber());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package Model;
+
+/**
+ * Partial pricing with a candidate list, for wide tableaus: only a few columns are priced at each iteration.
+ * A refresh scans the columns segment by segment from where the last one stopped, and keeps up to listSize improving columns.
+ * The next iterations only price the columns of the list and choose the largest improvement among them (multiple pricing),
+ * until none of them is improving anymore.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class PartialPricing implements PricingRule {
+    public static final int DEFAULT_LIST_SIZE = 8;
+    public static final int DEFAULT_SEGMENT_SIZE = 64;
+
+    private final int listSize;
+    private final int segmentSize;
+    private int[] candidates;
+    private int nbCandidates;
+    // the column the next refresh starts from
+    private int next;
+
+    /**
+     * Constructor. Uses the default list and segment sizes.
+     */
+    public PartialPricing(){
+        this(DEFAULT_LIST_SIZE,DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructor.
+     * @param listSize The number of improving columns a refresh keeps.
+     * @param segmentSize The number of columns a refresh scans before it stops if it found an improving column.
+     * @throws AssertionError The sizes have to be at least 1.
+     */
+    public PartialPricing(int listSize, int segmentSize){
+        assert(listSize>=1 && segmentSize>=1):"The sizes have to be at least 1";
+        this.listSize = listSize;
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public void init(PricingTableau tableau){
+        candidates = new int[listSize];
+        nbCandidates = 0;
+        next = 0;
+    }
+
+    @Override
+    public int findEnteringColumn(PricingTableau tableau){
+        int location = bestCandidate(tableau);
+        if(location == -1){
+            refresh(tableau);
+            location = bestCandidate(tableau);
+        }
+        return location;
+    }
+
+    /**
+     * Finds the candidate with the largest improvement, dropping the candidates that are not improving anymore.
+     * @param tableau The tableau.
+     * @return The column index, or -1 if no candidate is improving.
+     */
+    private int bestCandidate(PricingTableau tableau){
+        int location = -1;
+        int kept = 0;
+        for(int i = 0; i < nbCandidates; i++){
+            int c = candidates[i];
+            if(tableau.isImproving(c)){
+                candidates[kept++] = c;
+                if(location == -1 || tableau.compareImprovements(location,c) < 0){
+                    location = c;
+                }
+            }
+        }
+        nbCandidates = kept;
+        return location;
+    }
+
+    /**
+     * Fills the candidate list with the columns scanned from the last stop.
+     * The scan stops at the end of a segment once the list is full or holds a column, or after a full turn.
+     * @param tableau The tableau.
+     */
+    private void refresh(PricingTableau tableau){
+        int cols = tableau.getNbColumns();
+        nbCandidates = 0;
+        for(int scanned = 0; scanned < cols; scanned++){
+            int c = next;
+            next = (next+1)%cols;
+            if(tableau.isImproving(c)){
+                if(nbCandidates < listSize){
+                    candidates[nbCandidates++] = c;
+                }else{
+                    // replace the smallest candidate
+                    int smallest = 0;
+                    for(int i = 1; i < nbCandidates; i++){
+                        if(tableau.compareImprovements(candidates[i],candidates[smallest]) < 0){
+                            smallest = i;
+                        }
+                    }
+                    if(tableau.compareImprovements(candidates[smallest],c) < 0){
+                        candidates[smallest] = c;
+                    }
+                }
+            }
+            if((scanned+1)%segmentSize == 0 && nbCandidates > 0){
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void update(PricingTableau tableau, int pivotRow, int pivotColumn){
+    }
+}
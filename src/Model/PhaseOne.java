@@ -1,5 +1,6 @@
 package Model;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 
 /**
@@ -7,31 +8,40 @@ import java.util.LinkedList;
  * @version 0.3
  */
 public class PhaseOne {
-    private RationalNumberMatrix matrix;
-    private RationalNumberMatrix matrixStart;
+    // the slack, surplus and artificial variables' columns are implicit until their row is pivoted
+    private CompactTableau tableau;
+    // the constraints' coefficients, once all Bi are positive
+    private RationalNumberMatrixView matrixStart;
     private int rows, cols;
     private boolean solutionIsUnbounded = false;
     private int nbVariables;
     private LinkedList<Integer> rowsWithArtificialVar = new LinkedList<>();
     private LinkedList<Integer> colsWithArtificialVar = new LinkedList<>();
-    private LinkedList<Integer> colsInBase = new LinkedList<>();
+    // for each constraint row, its basic column; for each column, its row in the basis, or -1
+    private int[] basis;
+    private int[] rowOfColumn;
     private LinkedList<String> B;
     private LinkedList<Integer> types;
+    // chooses the entering column
+    private PricingRule pricingRule = new DantzigPricing();
+    private int iterationCount = 0;
+    private int iterationLimit = Integer.MAX_VALUE;
+    private boolean iterationLimitReached = false;
+    private int stallThreshold = Simplex.DEFAULT_STALL_THRESHOLD;
 
     /**
      * Constructor.
      * @param B A LinkedList containing the right hand side values of the constraints.
      * @param types A LinkedList containing the types of the constraints (0:<=, 1:=, 2:>=)
      * @param nbRows The number of constraints.
-     * @param nbVar The number of variables.
-     * @param mStart The starting matrix.
+     * @param nbVar The number of variables' columns, a variable that is not lower bounded takes two.
+     * @param mStart The starting matrix, its variables' columns then its right hand side. The matrix of the method uses its storage mode.
      */
     public PhaseOne(LinkedList<String> B, LinkedList<Integer> types, int nbRows, int nbVar, RationalNumberMatrix mStart) {
         this.B = B;
         this.types = types;
         nbVariables = nbVar;
         init(mStart,nbRows);
-        matrixStart = matrix.clone();
     }
 
     /**
@@ -40,19 +50,20 @@ public class PhaseOne {
      * @param nbRows The number of constraints.
      */
     private void init(RationalNumberMatrix mStartP, int nbRows){
+        // the clone shares the rows of mStartP, only the rows multiplied by -1 are copied
         RationalNumberMatrix mStart = mStartP.clone();
 
         // we want to change all the constraints so that all Bi are positive
         for(int i=0;i<B.size();i++){
-            double val = Double.parseDouble(B.get(i));
-            if(val<0){
+            RationalNumber val = new RationalNumber(B.get(i));
+            if(val.signum()<0){
                 mStart.multiplyRowByScalar(i,RationalNumber.MINUS_ONE);
                 if(types.get(i)==0){
                     types.set(i,2);
                 }else if(types.get(i)==2){
                     types.set(i,0);
                 }
-                B.set(i,String.valueOf(-val));
+                B.set(i,val.negate().toString());
             }
         }
 
@@ -69,57 +80,62 @@ public class PhaseOne {
                     break;
             }
         }
-
-        matrix = new RationalNumberMatrix(rowNum,colNum);
         cols = colNum;
         rows = rowNum;
+        basis = new int[nbRows];
+        rowOfColumn = new int[cols-1];
+        Arrays.fill(rowOfColumn,-1);
 
-        RationalNumber[] row;
+        // the matrix only holds the variables and the right hand side
+        RationalNumberMatrix matrix = new RationalNumberMatrix(rowNum,nbVariables+1,mStartP.getStorage());
         // we start to fill the matrix with the constraints coefficients
         for(int r=0;r<nbRows;r++){
             for(int c=0;c<nbVariables;c++){
                 matrix.set(r,c,mStart.get(r,c));
             }
-            row = mStart.getRow(r);
-            matrix.set(r,colNum-1,row[row.length-1]);
+            matrix.set(r,nbVariables,mStart.get(r,mStart.getColNum()-1));
         }
 
         // we add slack, surplus and artificial variables
-        int nbAddedVar = 0;
+        int nbAddedVar = colNum-nbVariables-1;
+        int[] unitRows = new int[nbAddedVar];
+        RationalNumber[] unitValues = new RationalNumber[nbAddedVar];
+        nbAddedVar = 0;
         int r = 0;
         for(int t : types){
             switch (t){
                 case 0: // <=
-                    matrix.set(r, nbVariables +nbAddedVar,RationalNumber.ONE);
+                    unitRows[nbAddedVar] = r;
+                    unitValues[nbAddedVar] = RationalNumber.ONE;
+                    setBasic(r,nbVariables+nbAddedVar);
                     r++;
                     nbAddedVar++;
                     break;
                 case 1: // =
-                    matrix.set(r, nbVariables +nbAddedVar,RationalNumber.ONE);
+                    unitRows[nbAddedVar] = r;
+                    unitValues[nbAddedVar] = RationalNumber.ONE;
                     rowsWithArtificialVar.add(r);
                     colsWithArtificialVar.add(nbVariables +nbAddedVar);
+                    setBasic(r,nbVariables+nbAddedVar);
                     r++;
                     nbAddedVar++;
                     break;
                 case 2: // >=
-                    matrix.set(r, nbVariables +nbAddedVar,RationalNumber.MINUS_ONE);
-                    matrix.set(r, nbVariables +nbAddedVar+1,RationalNumber.ONE);
+                    unitRows[nbAddedVar] = r;
+                    unitValues[nbAddedVar] = RationalNumber.MINUS_ONE;
+                    unitRows[nbAddedVar+1] = r;
+                    unitValues[nbAddedVar+1] = RationalNumber.ONE;
                     rowsWithArtificialVar.add(r);
                     colsWithArtificialVar.add(nbVariables +nbAddedVar+1);
+                    setBasic(r,nbVariables+nbAddedVar+1);
                     r++;
                     nbAddedVar+=2;
                     break;
             }
         }
+        tableau = new CompactTableau(matrix,unitRows,unitValues);
 
-        // replace null with 0
-        for(r=0;r<nbRows;r++){
-            for(int c = nbVariables; c<colNum; c++){
-                if(matrix.get(r,c)==null){
-                    matrix.set(r,c,RationalNumber.ZERO);
-                }
-            }
-        }
+        matrixStart = mStart.subMatrix(0,0,nbRows,nbVariables);
 
         computeLastRows();
     }
@@ -130,235 +146,311 @@ public class PhaseOne {
     public void compute(){
         //System.out.println("Initial matrix:");
         //System.out.println(matrix);
+        PricingTableau pricingView = new PricingView();
+        PricingRule blandRule = new BlandPricing();
+        pricingRule.init(pricingView);
+        // pivots in a row on a right hand side value of 0, Bland's rule chooses the pivots past the stall threshold
+        int degeneratePivots = 0;
         while(!checkOptimality() && !solutionIsUnbounded){
+            if(iterationCount>=iterationLimit){
+                iterationLimitReached = true;
+                break;
+            }
+
             // find the entering column
-            int pivotColumn = findEnteringColumn();
+            boolean isStalling = degeneratePivots>=stallThreshold;
+            int pivotColumn = isStalling ? blandRule.findEnteringColumn(pricingView) : pricingRule.findEnteringColumn(pricingView);
             //System.out.println("Pivot Column: "+pivotColumn);
 
             // find departing value
-            RationalNumber[] ratios = calculateRatios(pivotColumn);
-            int pivotRow = findSmallestPositiveValue(ratios);
+            int pivotRow = findPivotRow(pivotColumn,isStalling);
             //System.out.println("Pivot Row: "+pivotRow);
 
-            if(rowsWithArtificialVar.contains(pivotRow)){
-                deleteArtificialVar(pivotRow,pivotColumn);
-            }
-
             if(solutionIsUnbounded) {
                 System.out.println("UNBOUNDED");
             }else{
                 // form the next matrix
+                boolean isDegenerate = tableau.signum(pivotRow,cols-1)==0;
+                if(!isStalling){
+                    pricingRule.update(pricingView,pivotRow,pivotColumn);
+                }
                 formNextMatrix(pivotRow, pivotColumn);
-
-                if(pivotColumn<nbVariables){
-                    colsInBase.add(pivotColumn);
+                iterationCount++;
+                if(isDegenerate){
+                    degeneratePivots++;
+                }else{
+                    if(isStalling){ // the pricing rule's weights were not updated by Bland's pivots
+                        pricingRule.init(pricingView);
+                    }
+                    degeneratePivots = 0;
                 }
-
             }
         }
     }
 
+    /**
+     * Sets the rule choosing the entering column. The default rule is DantzigPricing.
+     * @param pricingRule The rule.
+     * @throws AssertionError The rule can't be null.
+     */
+    public void setPricingRule(PricingRule pricingRule){
+        assert(pricingRule!=null):"The pricing rule can't be null";
+        this.pricingRule = pricingRule;
+    }
+
+    /**
+     * Sets the number of pivots compute may do. If they are done before the matrix is optimal,
+     * compute stops and the feasibility is only known if the current solution is feasible.
+     * @param iterationLimit The number of pivots, unlimited by default.
+     * @throws AssertionError The limit can't be negative.
+     */
+    public void setIterationLimit(int iterationLimit){
+        assert(iterationLimit>=0):"The iteration limit can't be negative";
+        this.iterationLimit = iterationLimit;
+    }
+
+    /**
+     * Sets the number of degenerate pivots in a row after which Bland's rule chooses the pivots, see Simplex.setStallThreshold.
+     * @param stallThreshold The number of degenerate pivots, Simplex.DEFAULT_STALL_THRESHOLD by default.
+     * @throws AssertionError The threshold can't be negative.
+     */
+    public void setStallThreshold(int stallThreshold){
+        assert(stallThreshold>=0):"The stall threshold can't be negative";
+        this.stallThreshold = stallThreshold;
+    }
+
+    /**
+     * Tells if compute stopped on the iteration limit.
+     * @return True if the iteration limit was reached before the matrix was optimal, else false.
+     */
+    public boolean isIterationLimitReached(){
+        return iterationLimitReached;
+    }
+
+    /**
+     * Returns the number of pivots done by compute.
+     * @return The number of iterations.
+     */
+    public int getIterationCount(){
+        return iterationCount;
+    }
+
     /**
      * Forms a new matrix from precomputed pivot values.
      * @param pivotRow The pivot's row index.
      * @param pivotColumn The pivot's column index.
      */
     private void formNextMatrix(int pivotRow, int pivotColumn){
-        RationalNumber pivotValue = matrix.get(pivotRow,pivotColumn);
-        RationalNumber[] pivotRowVals = new RationalNumber[cols];
-        RationalNumber[] pivotColumnVals = new RationalNumber[rows-3];
-        RationalNumber[] rowNew = new RationalNumber[cols];
-
-        // divide all entries in pivot row by entry inpivot column
-        // get entry in pivot row
-        System.arraycopy(matrix.getRow(pivotRow), 0, pivotRowVals, 0, cols);
+        // the artificial variable of the departing row leaves the basis for good, its column is dropped
+        boolean isArtificialRow = rowsWithArtificialVar.contains(pivotRow);
+        if(isArtificialRow){
+            deleteArtificialVar(pivotRow);
+        }
 
-        // get entry in pivot column
-        for(int i = 0; i < rows-3; i++)
-            pivotColumnVals[i] = matrix.get(i,pivotColumn);
+        // the other implicit columns of the departing row are changed by this pivot, the other ones are not
+        RationalNumberMatrix matrix;
+        for(int c : tableau.materializeRow(pivotRow)){
+            matrix = tableau.getMatrix();
+            int p = tableau.physical(c);
+            // Zj = -(sum over the artificial variables' rows), Cj = 0 since the column is not an artificial variable
+            RationalNumber zj = isArtificialRow ? matrix.get(pivotRow,p).negate() : RationalNumber.ZERO;
+            matrix.set(rows-3,p,zj);
+            matrix.set(rows-1,p,zj);
+        }
+        matrix = tableau.getMatrix();
+        int column = tableau.physical(pivotColumn);
+        RationalNumber pivotValue = matrix.get(pivotRow,column);
 
         // divide values in pivot row by pivot value
-        for(int  i = 0; i < cols; i++)
-            rowNew[i] =  pivotRowVals[i].divide(pivotValue);
-
-        // subtract from each of the other rows
-        for(int i = 0; i < rows-3; i++){
-            if(i != pivotRow){
-                for(int j = 0; j < cols; j++){
-                    RationalNumber c = pivotColumnVals[i];
-                    matrix.set(i,j,matrix.get(i,j).subtract(c.multiply(rowNew[j])));
-                }
+        matrix.multiplyRowByScalar(pivotRow,pivotValue.reciprocal());
+
+        // subtract from each of the other rows, skipping the rows that are 0 in the pivot column
+        // and the columns where the pivot row is 0
+        // the last rows are updated the same way: Zj' = Zj - Zj[pivotColumn] * pivotRow whether the departing row
+        // was an artificial variable's row or not, and the Cj row is 0 in every written column
+        int[] pivotRowNonZeros = matrix.getNonZeroColumns(pivotRow);
+        for(int i = 0; i < rows; i++){
+            if(i != pivotRow && matrix.signum(i,column)!=0){
+                matrix.subtractMultipleOfRow(i,matrix.get(i,column),pivotRow,pivotRowNonZeros);
             }
         }
 
-        // replace the row
-        matrix.setRow(pivotRow,rowNew);
+        rowOfColumn[basis[pivotRow]] = -1;
+        setBasic(pivotRow,pivotColumn);
+    }
 
-        computeLastRows();
+    /**
+     * Puts a column in the basis on a row.
+     * @param row The row index.
+     * @param col The column index.
+     */
+    private void setBasic(int row, int col){
+        basis[row] = col;
+        rowOfColumn[col] = row;
+    }
+
+    /**
+     * Returns the current basis, kept up to date by the pivots.
+     * @return For each constraint row, the index of its basic column.
+     */
+    public int[] getBasis(){
+        return basis.clone();
     }
 
     /**
-     * Compute the last rows of the matrix
+     * Compute the last rows of the starting matrix, the pivots then update them like the other rows.
+     * Only the written columns are computed: an implicit column is 0 in the Zj-Cj row
+     * (a slack variable is not on an artificial variable's row, an artificial variable has Zj = Cj = -1)
+     * or 1 (a surplus variable on an artificial variable's row), it never enters the basis.
+     * The artificial variables are never written, so the Cj row is 0 in every written column.
      */
     private void computeLastRows(){
-        // Zj row
+        RationalNumberMatrix matrix = tableau.getMatrix();
         int rowZj = rows-3;
-        for(int c=0;c<cols;c++){
-            if(!rowsWithArtificialVar.isEmpty()){
-                RationalNumber sum = RationalNumber.ZERO;
-                for(int rowWA : rowsWithArtificialVar){
-                    sum = sum.add(matrix.get(rowWA,c));
-                }
-                matrix.set(rowZj,c,sum.multiply(RationalNumber.MINUS_ONE));
-            }else{
-                matrix.set(rowZj,c,RationalNumber.ZERO);
-            }
-
-        }
-
-        // Cj row
         int rowCj = rowZj+1;
-        for(int colWA : colsWithArtificialVar){
-            matrix.set(rowCj,colWA,RationalNumber.MINUS_ONE);
-        }
-        for(int c=0;c<cols;c++){
-            if(matrix.get(rowCj,c)==null){
-                matrix.set(rowCj,c,RationalNumber.ZERO);
+        int rowZjMinusCj = rowCj+1;
+        for(int c=0;c<matrix.getColNum();c++){
+            // Zj row
+            RationalNumber sum = RationalNumber.ZERO;
+            for(int rowWA : rowsWithArtificialVar){
+                sum = sum.add(matrix.get(rowWA,c));
             }
-        }
+            RationalNumber zj = sum.multiply(RationalNumber.MINUS_ONE);
+            matrix.set(rowZj,c,zj);
 
-        // Zj-Cj row
-        int rowZjMinusCj = rowCj+1;
-        for(int c=0;c<cols;c++){
-            RationalNumber fromZj = matrix.get(rowZj,c);
-            RationalNumber fromCj = matrix.get(rowCj,c);
-            RationalNumber res = fromZj.subtract(fromCj);
-            matrix.set(rowZjMinusCj,c,res);
+            // Cj row
+            matrix.set(rowCj,c,RationalNumber.ZERO);
+
+            // Zj-Cj row
+            matrix.set(rowZjMinusCj,c,zj);
         }
     }
 
     /**
-     * Deletes artificial variables in a column and row.
+     * Deletes the artificial variable of a row when it leaves the basis, and drops its column from the tableau.
+     * The lists of the artificial variables' rows and columns are in the same order.
      * @param pivotRow The row.
-     * @param pivotColumn The column.
      */
-    private void deleteArtificialVar(int pivotRow, int pivotColumn){
+    private void deleteArtificialVar(int pivotRow){
         boolean stop = false;
-        for(int i=0;i<colsWithArtificialVar.size() && !stop;i++){
-            if(colsWithArtificialVar.get(i)==pivotColumn){
-                colsWithArtificialVar.remove(i);
-                stop = true;
-            }
-        }
-
-        stop = false;
         for(int i=0;i<rowsWithArtificialVar.size() && !stop;i++){
             if(rowsWithArtificialVar.get(i)==pivotRow){
                 rowsWithArtificialVar.remove(i);
+                tableau.drop(colsWithArtificialVar.remove(i));
                 stop = true;
             }
         }
     }
 
     /**
-     * Calculates the pivot row ratios
-     * @param column The pivot's column index.
-     * @return The pivot row ratios in an Array.
+     * Finds the departing row with the minimum ratio test.
+     * The ratios are compared in place instead of being built.
+     * @param pivotColumn The pivot's column index.
+     * @param isBland True to break the ties by the smallest basic column (Bland's rule), false to keep the first row.
+     * @return The pivot's row index.
      */
-    private RationalNumber[] calculateRatios(int column){
-        RationalNumber[] positiveEntries = new RationalNumber[rows-3];
-        RationalNumber[] res = new RationalNumber[rows-3];
+    private int findPivotRow(int pivotColumn, boolean isBland){
+        RationalNumberMatrix matrix = tableau.getMatrix();
+        int column = tableau.physical(pivotColumn);
+        int rhs = matrix.getColNum()-1;
+        int location = -1;
+        int firstPositive = -1;
+        int firstZeroRatio = -1;
 
-        int allNegativeCount = 0;
         for(int i = 0; i < rows-3; i++){
-            if(!matrix.get(i,column).isLessThanOrEqualTo(RationalNumber.ZERO)){ //matrix[i][column] > 0
-                positiveEntries[i] = matrix.get(i,column);
-            }
-            else{
-                positiveEntries[i] = RationalNumber.ZERO;
-                allNegativeCount++;
+            if(matrix.signum(i,column)>0){ // matrix[i][column] > 0
+                if(firstPositive==-1){
+                    firstPositive = i;
+                }
+                int rhsSign = matrix.signum(i,rhs);
+                if(rhsSign==0 && (firstZeroRatio==-1 || (isBland && basis[i]<basis[firstZeroRatio]))){
+                    firstZeroRatio = i;
+                }
+                if(rhsSign>0){ // ratio > 0
+                    if(location==-1){
+                        location = i;
+                    }else{
+                        int comparison = matrix.compareRatios(i,location,rhs,column);
+                        if(comparison<0 || (comparison==0 && isBland && basis[i]<basis[location])){ // ratio < minimum
+                            location = i;
+                        }
+                    }
+                }
             }
-            //System.out.println(positiveEntries[i]);
         }
 
-        if(allNegativeCount == rows-3)
+        if(firstPositive==-1){
             this.solutionIsUnbounded = true;
-        else{
-            for(int i = 0;  i < rows-3; i++){
-                RationalNumber val = positiveEntries[i];
-                if(!val.isLessThanOrEqualTo(RationalNumber.ZERO)){ // val > 0
-                    res[i] = matrix.get(i,cols-1).divide(val);
-                }else{
-                    res[i] = RationalNumber.ZERO;
-                }
-            }
+        }else if(firstZeroRatio!=-1){ // a degenerate row is the minimum, a positive ratio would make its value negative
+            location = firstZeroRatio;
+        }else if(location==-1){ // no ratio is positive
+            location = firstPositive;
         }
 
-        return res;
+        return location;
     }
 
     /**
-     * Finds the next entering column.
-     * @return The next entering column index.
+     * Finds the first column with the smallest value in the last row, the entering column of Dantzig's rule.
+     * @return The column index.
      */
-    private int findEnteringColumn(){
-        int location, pos;
-        RationalNumber[] values = new RationalNumber[cols-1];
+    private int findSmallestInLastRow(){
+        int location = 0;
 
-        for(pos = 0; pos < cols-1; pos++){
-            values[pos] = matrix.get(rows-1,pos);
+        // the implicit columns are not negative in the last row, see computeLastRows
+        for(int c = 1; c < cols-1; c++){
+            if(!tableau.isImplicit(c) && tableau.compareInRow(rows-1,c,location)<0){ // matrix[rows-1][c] < minimum
+                location = c;
+            }
         }
 
-        location = findSmallestValue(values);
-
         return location;
     }
 
-
     /**
-     * Finds the smallest value in an array.
-     * @param data The array.
-     * @return The index of the smallest value in the array.
+     * The tableau as the pricing rules see it: the improvement of a column is its value in the Zj-Cj row, negated.
+     * The implicit columns never improve, see computeLastRows.
      */
-    private int findSmallestValue(RationalNumber[] data){
-        RationalNumber minimum ;
-        int c, location = 0;
-        minimum = data[0];
-
-        for(c = 1; c < data.length; c++){
-            if(data[c].isLessThan(minimum)) { //data[c] < minimum
-                minimum = data[c];
-                location = c;
-            }
+    private class PricingView implements PricingTableau {
+        @Override
+        public int getNbRows(){
+            return rows-3;
         }
 
-        return location;
-    }
+        @Override
+        public int getNbColumns(){
+            return cols-1;
+        }
 
-    /**
-     * Finds the smallest positive value in an array.
-     * @param data The array.
-     * @return The index of the smallest positive value in the array.
-     */
-    private int findSmallestPositiveValue(RationalNumber[] data){
-        RationalNumber minimum = null;
-        int c, location=0;
+        @Override
+        public boolean isImproving(int col){
+            return !tableau.isImplicit(col) && tableau.signum(rows-1,col)<0;
+        }
 
-        for(c = 0; c < data.length && minimum==null; c++){
-            if(RationalNumber.ZERO.isLessThan(data[c])){ // 0 < data[c]
-                location = c;
-                minimum = data[c];
-            }
+        @Override
+        public double getImprovement(int col){
+            return -tableau.getDouble(rows-1,col);
         }
 
-        for(c = location; c < data.length; c++){
-            if(RationalNumber.ZERO.isLessThan(data[c]) && data[c].isLessThan(minimum)){ // 0 < data[c] < minimum
-                location = c;
-                minimum = data[c];
-            }
+        @Override
+        public int compareImprovements(int col1, int col2){
+            return tableau.compareInRow(rows-1,col2,col1);
         }
 
-        return location;
+        @Override
+        public int findLargestImprovement(){
+            return findSmallestInLastRow();
+        }
+
+        @Override
+        public double get(int row, int col){
+            return tableau.getDouble(row,col);
+        }
+
+        @Override
+        public int getBasicColumn(int row){
+            return basis[row];
+        }
     }
 
     /**
@@ -366,21 +458,13 @@ public class PhaseOne {
      * @return True if the matrix is optimal, else false.
      */
     public boolean checkOptimality(){
-        boolean isOptimal = false;
-        int vCount = 0;
-
         for(int i = 0; i < cols-1; i++){
-            RationalNumber val = matrix.get(rows-1,i);
-            if(RationalNumber.ZERO.isLessThanOrEqualTo(val)){ // 0 <= val
-                vCount++;
+            if(!tableau.isImplicit(i) && tableau.signum(rows-1,i)<0){ // val < 0
+                return false;
             }
         }
 
-        if(vCount == cols-1){
-            isOptimal = true;
-        }
-
-        return isOptimal;
+        return true;
     }
 
     /**
@@ -395,26 +479,15 @@ public class PhaseOne {
         str.append("\n");
         */
         RationalNumber[] res = new RationalNumber[nbVariables];
-        // variables' values
+        // variables' values: the right hand side value of the row of a basic variable, else 0
         for(int i=0;i<nbVariables;i++){
-            for(int j=0;j<rows-3;j++){
-                if(colsInBase.contains(i)){
-                    if(matrix.get(j,i).equals(RationalNumber.ONE)){
-                        //str.append("Value of var["+i+"] = "+matrix.get(j,cols-1)+"\n");
-                        res[i]=matrix.get(j,cols-1);
-                    }
-                }else{
-                    //str.append("Value of var["+i+"] = 0\n");
-                    j=rows-2;
-                    res[i]=RationalNumber.ZERO;
-                }
-            }
+            res[i] = rowOfColumn[i]!=-1 ? tableau.get(rowOfColumn[i],cols-1) : RationalNumber.ZERO;
         }
 
         // check if all the constraints aren't violated
         boolean flag = false;
         for(int r=0;r<rows-3;r++){
-            RationalNumber b = new RationalNumber(Double.parseDouble(B.get(r)));
+            RationalNumber b = new RationalNumber(B.get(r));
             RationalNumber val = RationalNumber.ZERO;
             for(int v=0;v<nbVariables;v++){
                 val = val.add(matrixStart.get(r,v).multiply(res[v]));
@@ -438,7 +511,9 @@ public class PhaseOne {
             }
         }
 
-        if(flag){
+        if(flag && iterationLimitReached){ // the current solution is not feasible, another one may be
+            str.append("\nThe iteration limit was reached before the feasibility was known.\n");
+        }else if(flag){
             str.append("\nThe problem is infeasible.\n");
         }else{
             str.append("\nThe problem is feasible.\n");
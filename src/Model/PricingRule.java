@@ -0,0 +1,32 @@
+package Model;
+
+/**
+ * Chooses the column entering the basis in Simplex and PhaseOne.
+ * A rule may keep weights between the iterations: the engine calls init before its first iteration,
+ * then update before each pivot, while the tableau still holds the values before the pivot.
+ * The same rule can be used again for another tableau, init starts it over.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public interface PricingRule {
+    /**
+     * Prepares the rule for a tableau.
+     * @param tableau The tableau.
+     */
+    void init(PricingTableau tableau);
+
+    /**
+     * Finds the entering column. Only called when a column is improving.
+     * @param tableau The tableau.
+     * @return The entering column index, an improving column.
+     */
+    int findEnteringColumn(PricingTableau tableau);
+
+    /**
+     * Updates the rule before a pivot.
+     * @param tableau The tableau, before the pivot.
+     * @param pivotRow The pivot's row index.
+     * @param pivotColumn The pivot's column index.
+     */
+    void update(PricingTableau tableau, int pivotRow, int pivotColumn);
+}
@@ -0,0 +1,65 @@
+package Model;
+
+/**
+ * What a pricing rule reads of a simplex tableau. The improvement of a column is its value in the objective row,
+ * with the sign making a positive improvement worth entering the basis: Simplex reads its last row as is,
+ * PhaseOne its Zj-Cj row negated.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public interface PricingTableau {
+    /**
+     * Returns the number of constraint rows.
+     * @return The number of constraint rows.
+     */
+    int getNbRows();
+
+    /**
+     * Returns the number of columns, the right hand side excluded.
+     * @return The number of columns.
+     */
+    int getNbColumns();
+
+    /**
+     * Tells if a column may enter the basis and improves the objective, tested exactly.
+     * @param col The column index.
+     * @return True if the column's improvement is positive, else false.
+     */
+    boolean isImproving(int col);
+
+    /**
+     * Returns the improvement of a column as a double.
+     * @param col The column index.
+     * @return The improvement.
+     */
+    double getImprovement(int col);
+
+    /**
+     * Compares the improvements of two columns exactly.
+     * @param col1 The first column index.
+     * @param col2 The second column index.
+     * @return A negative integer, zero, or a positive integer as the first improvement is less than, equal to, or greater than the second.
+     */
+    int compareImprovements(int col1, int col2);
+
+    /**
+     * Finds the first column with the largest improvement (Dantzig's rule), the way the engine scans it fastest.
+     * @return The column index.
+     */
+    int findLargestImprovement();
+
+    /**
+     * Returns an element of a constraint row as a double.
+     * @param row The row index.
+     * @param col The column index.
+     * @return The element.
+     */
+    double get(int row, int col);
+
+    /**
+     * Returns the basic column of a constraint row.
+     * @param row The row index.
+     * @return The column index, or -1.
+     */
+    int getBasicColumn(int row);
+}
@@ -1,6 +1,7 @@
 package Model;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -10,105 +11,156 @@ import java.util.regex.Pattern;
  * @version 1.0
  */
 public class ProblemToMatrixTransformation {
+    // a coefficient of a row string: an integer or a fraction
+    private static final Pattern COEFFICIENT = Pattern.compile("[-]?[0-9]+([/][-]?[0-9]+)?");
+
     /**
      * Converts the problem to a RationalNumberMatrix.
      * @param mloProblemP The MLO problem.
      * @return The problem converted to a RationalNumberMatrix.
      */
     public static RationalNumberMatrix problemToNormalizedProblemMatrix(MLOProblem mloProblemP){
-        MLOProblem mloProblem = mloProblemP.clone();
-        int numSlackVariables = mloProblem.getNbRows();
-        int rowNum = mloProblem.getNbRows() + 1;
-        int numNotLowerBoundedVariables = 0;
-        if(mloProblem.getNotLowerBoundedVariableIndexes()!=null){
-            numNotLowerBoundedVariables = mloProblem.getNotLowerBoundedVariableIndexes().length;
+        return problemToNormalizedProblemMatrix(mloProblemP,RationalNumberMatrix.STORAGE.PACKED);
+    }
+
+    /**
+     * Converts the problem to a RationalNumberMatrix, built directly in the given storage.
+     * @param mloProblemP The MLO problem.
+     * @param storage How the matrix's cells are stored.
+     * @return The problem converted to a RationalNumberMatrix.
+     */
+    public static RationalNumberMatrix problemToNormalizedProblemMatrix(MLOProblem mloProblemP, RationalNumberMatrix.STORAGE storage){
+        return buildNormalizedMatrix(mloProblemP,true,true,storage);
+    }
+
+    /**
+     * Converts the problem to the same tableau as problemToNormalizedProblemMatrix, with implicit slack variables' columns.
+     * The column of the slack variable of a row of type <= or >= is 1 on that row, the one of a row of type = is filled with 0s.
+     * @param mloProblemP The MLO problem.
+     * @return The problem converted to a CompactTableau.
+     */
+    public static CompactTableau problemToCompactProblemMatrix(MLOProblem mloProblemP){
+        return problemToCompactProblemMatrix(mloProblemP,RationalNumberMatrix.STORAGE.PACKED);
+    }
+
+    /**
+     * Converts the problem to the same tableau as problemToCompactProblemMatrix, built directly in the given storage.
+     * @param mloProblemP The MLO problem.
+     * @param storage How the tableau's cells are stored.
+     * @return The problem converted to a CompactTableau.
+     */
+    public static CompactTableau problemToCompactProblemMatrix(MLOProblem mloProblemP, RationalNumberMatrix.STORAGE storage){
+        RationalNumberMatrix matrix = buildNormalizedMatrix(mloProblemP,false,true,storage);
+        int nbRows = mloProblemP.getNbRows();
+        int[] unitRows = new int[nbRows];
+        RationalNumber[] unitValues = new RationalNumber[nbRows];
+        for(int r=0;r<nbRows;r++){
+            // the rows of type >= changed sign with their slack variable
+            unitRows[r] = mloProblemP.getTypes().get(r)==1 ? -1 : r;
+            unitValues[r] = RationalNumber.ONE;
         }
-        int colNum = mloProblem.getNbVar() + numNotLowerBoundedVariables + 1 + numSlackVariables;
-        RationalNumberMatrix matrix = new RationalNumberMatrix(rowNum,colNum);
+        return new CompactTableau(matrix,unitRows,unitValues);
+    }
 
-        LinkedList<String> sl = new LinkedList<>();
-        Pattern p;
-        Matcher m;
+    /**
+     * Converts the problem to the tableau of BoundedSimplex: one column per variable, the variables that are not lower bounded
+     * are not split, then one implicit slack variable's column per row, 1 on its row.
+     * The slack variable of a row of type = is kept too, BoundedSimplex fixes it to 0.
+     * @param mloProblemP The MLO problem.
+     * @return The problem converted to a CompactTableau.
+     */
+    public static CompactTableau problemToBoundedProblemMatrix(MLOProblem mloProblemP){
+        return problemToBoundedProblemMatrix(mloProblemP,RationalNumberMatrix.STORAGE.PACKED);
+    }
 
-        LinkedList<RationalNumber> rl = new LinkedList<>();
-        int countAddedVar;
+    /**
+     * Converts the problem to the tableau of BoundedSimplex, built directly in the given storage.
+     * @param mloProblemP The MLO problem.
+     * @param storage How the tableau's cells are stored.
+     * @return The problem converted to a CompactTableau.
+     */
+    public static CompactTableau problemToBoundedProblemMatrix(MLOProblem mloProblemP, RationalNumberMatrix.STORAGE storage){
+        return withImplicitSlacks(buildNormalizedMatrix(mloProblemP,false,false,storage));
+    }
 
-        int index = 0;
-        RationalNumber[] row;
+    /**
+     * Converts the problem to the tableau of DualSimplex: the same columns as problemToCompactProblemMatrix,
+     * but the slack variable of a row of type = is kept, DualSimplex fixes it to 0.
+     * The rows of type >= changed sign, their right hand side values are negative in the starting tableau.
+     * @param mloProblemP The MLO problem.
+     * @return The problem converted to a CompactTableau.
+     */
+    public static CompactTableau problemToDualSimplexMatrix(MLOProblem mloProblemP){
+        return problemToDualSimplexMatrix(mloProblemP,RationalNumberMatrix.STORAGE.PACKED);
+    }
+
+    /**
+     * Converts the problem to the tableau of DualSimplex, built directly in the given storage.
+     * @param mloProblemP The MLO problem.
+     * @param storage How the tableau's cells are stored.
+     * @return The problem converted to a CompactTableau.
+     */
+    public static CompactTableau problemToDualSimplexMatrix(MLOProblem mloProblemP, RationalNumberMatrix.STORAGE storage){
+        return withImplicitSlacks(buildNormalizedMatrix(mloProblemP,false,true,storage));
+    }
+
+    /**
+     * Adds an implicit slack variable's column to each row of a normalized matrix, 1 on its row.
+     * @param matrix The normalized matrix, without slack variables' columns.
+     * @return The tableau.
+     */
+    private static CompactTableau withImplicitSlacks(RationalNumberMatrix matrix){
+        int nbRows = matrix.getRowNum()-1;
+        int[] unitRows = new int[nbRows];
+        RationalNumber[] unitValues = new RationalNumber[nbRows];
+        for(int r=0;r<nbRows;r++){
+            unitRows[r] = r;
+            unitValues[r] = RationalNumber.ONE;
+        }
+        return new CompactTableau(matrix,unitRows,unitValues);
+    }
+
+    /**
+     * Builds the normalized matrix of a problem.
+     * @param mloProblemP The MLO problem.
+     * @param withSlacks True to write the slack variables' columns, false to leave them out.
+     * @param splitsFreeVariables True to split the variables that are not lower bounded in two columns, false to keep one column.
+     * @param storage How the matrix's cells are stored.
+     * @return The matrix.
+     */
+    private static RationalNumberMatrix buildNormalizedMatrix(MLOProblem mloProblemP, boolean withSlacks, boolean splitsFreeVariables,
+                                                              RationalNumberMatrix.STORAGE storage){
+        MLOProblem mloProblem = mloProblemP.clone();
+        int numSlackVariables = withSlacks ? mloProblem.getNbRows() : 0;
+        int rowNum = mloProblem.getNbRows() + 1;
+        BitSet notLowerBounded = splitsFreeVariables ? MLOProblem.toIndexSet(mloProblem.getNotLowerBoundedVariableIndexes()) : new BitSet();
+        int numNotLowerBoundedVariables = notLowerBounded.cardinality();
+        int numVariables = mloProblem.getNbVar() + numNotLowerBoundedVariables;
+        int colNum = numVariables + 1 + numSlackVariables;
+        RationalNumberMatrix matrix = new RationalNumberMatrix(rowNum,colNum,storage);
 
         LinkedList<String> toBeConverted = mloProblem.getValues();
         toBeConverted.addLast(mloProblem.getObjFun());
 
+        int index = 0;
         /* row string to matrix */
-        for(String s1 : toBeConverted){
-            rl.clear();
-            sl.clear();
-            countAddedVar=0;
-            // add slack variables
-            if(index<rowNum-1){
-                switch(mloProblem.getTypes().get(index)) {
-                    case 0: // <=
-                        while (countAddedVar < numSlackVariables) {
-                            if (countAddedVar == index)
-                                s1 += " 1";
-                            else
-                                s1 += " 0";
-                            countAddedVar++;
-                        }
-                        break;
-                    case 1: // =
-                        while (countAddedVar < numSlackVariables) {
-                            s1 += " 0";
-                            countAddedVar++;
-                        }
-                        break;
-                    case 2: // >=
-                        while (countAddedVar < numSlackVariables) {
-                            if (countAddedVar == index)
-                                s1 += " -1";
-                            else
-                                s1 += " 0";
-                            countAddedVar++;
-                        }
-                        break;
-                }
-            }else{
-                while (countAddedVar < numSlackVariables) {
-                    s1 += " 0";
-                    countAddedVar++;
-                }
-            }
-
-            /* row string to string list */
-            p = Pattern.compile("[-]?[0-9]+([/][-]?[0-9]+)?");
-            m = p.matcher(s1);
-            while (m.find()){
-                sl.addLast(m.group(0));
-            }
-
-            /* string list to rational number list */
-            int countVar = 0;
-            boolean flag;
-            if(mloProblem.getNotLowerBoundedVariableIndexes()!=null){
-                for(String s2 : sl){
-                    flag = Arrays.asList(mloProblem.getNotLowerBoundedVariableIndexes()).contains(countVar);
-                    rl.addLast(new RationalNumber(s2));
-                    if(flag){
-                        rl.addLast(new RationalNumber(s2).multiply(RationalNumber.MINUS_ONE));
+        for(String s : toBeConverted){
+            RationalNumber[] row = new RationalNumber[colNum];
+            Arrays.fill(row,RationalNumber.ZERO);
+            parseCoefficients(s,notLowerBounded,row);
+
+            if(index<rowNum-1){ // if it's not the last row, we add the slack variable and get the right hand side value
+                if(withSlacks){
+                    switch(mloProblem.getTypes().get(index)){
+                        case 0: // <=
+                            row[numVariables+index] = RationalNumber.ONE;
+                            break;
+                        case 2: // >=
+                            row[numVariables+index] = RationalNumber.MINUS_ONE;
+                            break;
                     }
-                    countVar++;
                 }
-            }else{
-                for(String s2 : sl){
-                    rl.addLast(new RationalNumber(s2));
-                }
-            }
-
-            row = rl.toArray(new RationalNumber[rl.size()+1]);
-            if(index<rowNum-1){ // if it's not the last row, we get the right hand side value
                 row[colNum-1] = new RationalNumber(mloProblem.getB().get(index));
-            }else{
-                row[colNum-1] = RationalNumber.ZERO;
             }
 
             matrix.addRow(row,index);
@@ -130,22 +182,89 @@ public class ProblemToMatrixTransformation {
         return matrix;
     }
 
+    /**
+     * Parses the coefficients of the objective function, one per variable, without building a matrix.
+     * @param mloProblem The MLO problem.
+     * @return The coefficients.
+     */
+    static RationalNumber[] parseObjectiveFunction(MLOProblem mloProblem){
+        RationalNumber[] objective = new RationalNumber[mloProblem.getNbVar()];
+        Arrays.fill(objective,RationalNumber.ZERO);
+        parseCoefficients(mloProblem.getObjFun(),new BitSet(),objective);
+        return objective;
+    }
+
+    /**
+     * Parses the coefficients of a row string. A variable that is not lower bounded takes two columns, the second one negated.
+     * @param s The row string.
+     * @param notLowerBounded The indexes of the variables that are not lower bounded.
+     * @param row The row to fill, from its first column.
+     */
+    private static void parseCoefficients(String s, BitSet notLowerBounded, RationalNumber[] row){
+        Matcher m = COEFFICIENT.matcher(s);
+        int countVar = 0;
+        int col = 0;
+        while(m.find()){
+            RationalNumber v = new RationalNumber(m.group(0));
+            row[col++] = v;
+            if(notLowerBounded.get(countVar)){
+                row[col++] = v.negate();
+            }
+            countVar++;
+        }
+    }
+
     /**
      * Converts the problem to its dual problem's RationalNumberMatrix.
      * @param mloProblemP The MLO problem.
      * @return The problem converted to its dual problem's RationalNumberMatrix.
      */
     public static RationalNumberMatrix problemToDualProblemMatrix(MLOProblem mloProblemP){
-        RationalNumberMatrix primalMatrix = problemToNormalizedProblemMatrix(mloProblemP.clone());
-        MLOProblem mloProblem = mloProblemP.clone();
+        return problemToDualProblemMatrix(mloProblemP,RationalNumberMatrix.STORAGE.PACKED);
+    }
+
+    /**
+     * Converts the problem to its dual problem's RationalNumberMatrix, built directly in the given storage.
+     * @param mloProblemP The MLO problem.
+     * @param storage How the matrix's cells are stored.
+     * @return The problem converted to its dual problem's RationalNumberMatrix.
+     */
+    public static RationalNumberMatrix problemToDualProblemMatrix(MLOProblem mloProblemP, RationalNumberMatrix.STORAGE storage){
+        return buildDualMatrix(mloProblemP,true,storage);
+    }
 
-        // converts <= in primal to >=
-        for(int i=0;i<primalMatrix.getRowNum()-1;i++){
-            primalMatrix.multiplyRowByScalar(i,RationalNumber.MINUS_ONE);
+    /**
+     * Converts the problem to the same tableau as problemToDualProblemMatrix, with implicit slack variables' columns.
+     * @param mloProblemP The MLO problem.
+     * @return The problem converted to its dual problem's CompactTableau.
+     */
+    public static CompactTableau problemToCompactDualProblemMatrix(MLOProblem mloProblemP){
+        RationalNumberMatrix matrix = buildDualMatrix(mloProblemP,false,RationalNumberMatrix.STORAGE.PACKED);
+        int nbCons = matrix.getRowNum()-1;
+        int[] unitRows = new int[nbCons];
+        RationalNumber[] unitValues = new RationalNumber[nbCons];
+        for(int r=0;r<nbCons;r++){
+            unitRows[r] = r;
+            unitValues[r] = RationalNumber.ONE;
         }
+        return new CompactTableau(matrix,unitRows,unitValues);
+    }
 
-        // dual problem data
+    /**
+     * Builds the matrix of the dual problem.
+     * @param mloProblemP The MLO problem.
+     * @param withSlacks True to write the slack variables' columns, false to leave them out.
+     * @param storage How the matrix's cells are stored.
+     * @return The matrix.
+     */
+    private static RationalNumberMatrix buildDualMatrix(MLOProblem mloProblemP, boolean withSlacks, RationalNumberMatrix.STORAGE storage){
+        // the primal's slack variables are not read, its matrix only lives during the build and stays on the heap
+        RationalNumberMatrix primalMatrix = buildNormalizedMatrix(mloProblemP,false,true,RationalNumberMatrix.STORAGE.PACKED);
+        MLOProblem mloProblem = mloProblemP.clone();
+
+        // the constraints are read through a transposed view, negated on the fly to convert <= in primal to >=
         int nbVar = primalMatrix.getRowNum()-1;
+        RationalNumberMatrixView constraints = primalMatrix.subMatrix(0,0,nbVar,primalMatrix.getColNum()).transpose();
 
         int numAddedVariables = 0;
         if(mloProblem.getNotLowerBoundedVariableIndexes()!=null){
@@ -155,23 +274,24 @@ public class ProblemToMatrixTransformation {
 
         int nbVarPrimal = nbCons;
 
-        RationalNumberMatrix matrix = new RationalNumberMatrix(nbCons+1,nbVar+nbCons+1);
+        int numSlackVariables = withSlacks ? nbCons : 0;
+        RationalNumberMatrix matrix = new RationalNumberMatrix(nbCons+1,nbVar+numSlackVariables+1,storage);
 
         // dual problem's contrainsts
         for(int c=0;c<nbVarPrimal;c++){
-            for(int r=0;r<primalMatrix.getRowNum()-1;r++){
-                matrix.set(c,r,primalMatrix.get(r,c));
+            for(int r=0;r<nbVar;r++){
+                matrix.set(c,r,constraints.get(c,r).negate());
             }
         }
 
         // dual problem's objective function
         for(int c=0;c<mloProblem.getNbRows();c++){
-            matrix.set(nbCons,c,primalMatrix.get(c,primalMatrix.getColNum()-1));
+            matrix.set(nbCons,c,constraints.get(primalMatrix.getColNum()-1,c).negate());
         }
 
-        //dual problem's right hand side's values
+        // dual problem's right hand side's values, with the last column multiplied by -1
         for(int r=0;r<nbCons;r++){
-            matrix.set(r,nbVar+nbCons,primalMatrix.get(primalMatrix.getRowNum()-1,r));
+            matrix.set(r,nbVar+numSlackVariables,primalMatrix.get(primalMatrix.getRowNum()-1,r).negate());
         }
 
         // fill the last row with 0s
@@ -190,81 +310,44 @@ public class ProblemToMatrixTransformation {
             }
         }
 
-        // multiply the last column by -1
-        matrix.multiplyColumnByScalar(matrix.getColNum()-1,RationalNumber.MINUS_ONE);
-
         return matrix;
     }
 
     /**
      * Converts the problem to a RationalNumberMatrix to be used in the Phase One simplex algorithm for MLO_RB.
+     * It only holds the variables' columns and the right hand side, PhaseOne adds the slack, surplus and artificial variables' columns.
      * @return The problem converted to a RationalNumberMatrix.
      */
     public static RationalNumberMatrix problemToNormalizedProblemMatrixForPhaseOne(MLOProblem mloProblemP){
+        return problemToNormalizedProblemMatrixForPhaseOne(mloProblemP,RationalNumberMatrix.STORAGE.PACKED);
+    }
+
+    /**
+     * Converts the problem to the same matrix as problemToNormalizedProblemMatrixForPhaseOne, built directly in the given storage.
+     * @param mloProblemP The MLO problem.
+     * @param storage How the matrix's cells are stored.
+     * @return The problem converted to a RationalNumberMatrix.
+     */
+    public static RationalNumberMatrix problemToNormalizedProblemMatrixForPhaseOne(MLOProblem mloProblemP, RationalNumberMatrix.STORAGE storage){
         MLOProblem mloProblem = mloProblemP.clone();
-        int numSlackVariables = mloProblem.getNbRows();
         int rowNum = mloProblem.getNbRows() + 1;
-        int numNotLowerBoundedVariables = 0;
-        if(mloProblem.getNotLowerBoundedVariableIndexes()!=null){
-            numNotLowerBoundedVariables = mloProblem.getNotLowerBoundedVariableIndexes().length;
-        }
-        int colNum = mloProblem.getNbVar() + numNotLowerBoundedVariables + 1 + numSlackVariables;
-        RationalNumberMatrix matrix = new RationalNumberMatrix(rowNum,colNum);
-
-        LinkedList<String> sl = new LinkedList<>();
-        Pattern p;
-        Matcher m;
-
-        LinkedList<RationalNumber> rl = new LinkedList<>();
-        int countAddedVar;
-
-        int index = 0;
-        RationalNumber[] row;
+        BitSet notLowerBounded = MLOProblem.toIndexSet(mloProblem.getNotLowerBoundedVariableIndexes());
+        int numNotLowerBoundedVariables = notLowerBounded.cardinality();
+        int numVariables = mloProblem.getNbVar() + numNotLowerBoundedVariables;
+        int colNum = numVariables + 1;
+        RationalNumberMatrix matrix = new RationalNumberMatrix(rowNum,colNum,storage);
 
         LinkedList<String> toBeConverted = mloProblem.getValues();
         toBeConverted.addLast(mloProblem.getObjFun());
 
+        int index = 0;
         /* row string to matrix */
-        for(String s1 : toBeConverted){
-            rl.clear();
-            sl.clear();
-            countAddedVar=0;
-            while (countAddedVar < numSlackVariables) {
-                if (countAddedVar == index)
-                    s1 += " 1";
-                else
-                    s1 += " 0";
-                countAddedVar++;
-            }
-
-            /* row string to string list */
-            p = Pattern.compile("[-]?[0-9]+([/][-]?[0-9]+)?");
-            m = p.matcher(s1);
-            while (m.find()){
-                sl.addLast(m.group(0));
-            }
-
-            /* string list to rational number list */
-            int countVar = 0;
-            boolean flag;
-            for(String s2 : sl){
-                if(mloProblem.getNotLowerBoundedVariableIndexes()!=null){
-                    flag = Arrays.asList(mloProblem.getNotLowerBoundedVariableIndexes()).contains(countVar);
-                    rl.addLast(new RationalNumber(s2));
-                    if(flag){
-                        rl.addLast(new RationalNumber(s2).multiply(RationalNumber.MINUS_ONE));
-                    }
-                    countVar++;
-                }else{
-                    rl.addLast(new RationalNumber(s2));
-                }
-            }
-
-            row = rl.toArray(new RationalNumber[rl.size()+1]);
+        for(String s : toBeConverted){
+            RationalNumber[] row = new RationalNumber[colNum];
+            Arrays.fill(row,RationalNumber.ZERO);
+            parseCoefficients(s,notLowerBounded,row);
             if(index<rowNum-1){
                 row[colNum-1] = new RationalNumber(mloProblem.getB().get(index));
-            }else{
-                row[colNum-1] = RationalNumber.ZERO;
             }
 
             matrix.addRow(row,index);
@@ -279,4 +362,63 @@ public class ProblemToMatrixTransformation {
 
         return matrix;
     }
+
+    /**
+     * Converts the problem to the same matrix as problemToNormalizedProblemMatrix, stored as a SparseRationalNumberMatrix.
+     * Only the nonzero elements are built, the slack variables' columns are not written as strings.
+     * @param mloProblemP The MLO problem.
+     * @return The problem converted to a SparseRationalNumberMatrix.
+     */
+    public static SparseRationalNumberMatrix problemToNormalizedProblemSparseMatrix(MLOProblem mloProblemP){
+        MLOProblem mloProblem = mloProblemP.clone();
+        int numSlackVariables = mloProblem.getNbRows();
+        int rowNum = mloProblem.getNbRows() + 1;
+        BitSet notLowerBounded = MLOProblem.toIndexSet(mloProblem.getNotLowerBoundedVariableIndexes());
+        int numNotLowerBoundedVariables = notLowerBounded.cardinality();
+        int numVariables = mloProblem.getNbVar() + numNotLowerBoundedVariables;
+        int colNum = numVariables + 1 + numSlackVariables;
+        SparseRationalNumberMatrix matrix = new SparseRationalNumberMatrix(rowNum,colNum);
+
+        // the coefficients of a row string, then its nonzero elements
+        RationalNumber[] row = new RationalNumber[numVariables];
+        int[] columns = new int[colNum];
+        RationalNumber[] values = new RationalNumber[colNum];
+
+        LinkedList<String> toBeConverted = mloProblem.getValues();
+        toBeConverted.addLast(mloProblem.getObjFun());
+
+        int index = 0;
+        for(String s : toBeConverted){
+            boolean isObjective = index==rowNum-1;
+            // rows of type >= and the objective function change sign
+            boolean negate = isObjective || mloProblem.getTypes().get(index)==2;
+            int count = 0;
+
+            /* row string to nonzero elements */
+            Arrays.fill(row,RationalNumber.ZERO);
+            parseCoefficients(s,notLowerBounded,row);
+            for(int col=0;col<numVariables;col++){
+                if(row[col].signum()!=0){
+                    columns[count] = col;
+                    values[count++] = negate ? row[col].negate() : row[col];
+                }
+            }
+
+            if(!isObjective){
+                // slack variable, 1 for <= and >= (after the change of sign), none for =
+                if(mloProblem.getTypes().get(index)!=1){
+                    columns[count] = numVariables+index;
+                    values[count++] = RationalNumber.ONE;
+                }
+                RationalNumber b = new RationalNumber(mloProblem.getB().get(index));
+                columns[count] = colNum-1;
+                values[count++] = negate ? b.negate() : b;
+            }
+
+            matrix.setRow(index,Arrays.copyOf(columns,count),Arrays.copyOf(values,count));
+            index++;
+        }
+
+        return matrix;
+    }
 }
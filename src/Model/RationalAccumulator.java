@@ -0,0 +1,192 @@
+package Model;
+
+import java.math.BigInteger;
+
+/**
+ * Mutable rational number used by the row kernels. Intermediate products are not reduced,
+ * the result is reduced once per operation. Moves to BigInteger on overflow and back to longs when the result fits.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+final class RationalAccumulator {
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private long numerator, denominator;
+    // only set when the value does not fit in the long fields
+    private BigInteger bigNumerator, bigDenominator;
+
+    /**
+     * Sets the value from a reduced fraction whose denominator is positive.
+     * @param numer The numerator.
+     * @param denom The denominator.
+     */
+    void set(long numer, long denom){
+        numerator = numer;
+        denominator = denom;
+        bigNumerator = null;
+        bigDenominator = null;
+    }
+
+    /**
+     * Sets the value.
+     * @param n The new value.
+     */
+    void set(RationalNumber n){
+        if(n.fitsInLong()){
+            set(n.getNumerator(),n.getDenominator());
+        }else{
+            bigNumerator = n.getBigNumerator();
+            bigDenominator = n.getBigDenominator();
+        }
+    }
+
+    /**
+     * Checks if the value fits in longs.
+     * @return True if getNumerator() and getDenominator() can be used, else false.
+     */
+    boolean fitsInLong(){
+        return bigNumerator==null;
+    }
+
+    /**
+     * Returns the numerator. Only valid when fitsInLong() is true.
+     * @return The numerator.
+     */
+    long getNumerator(){
+        return numerator;
+    }
+
+    /**
+     * Returns the denominator. Only valid when fitsInLong() is true.
+     * @return The denominator.
+     */
+    long getDenominator(){
+        return denominator;
+    }
+
+    /**
+     * Returns the value as a RationalNumber.
+     * @return The value as a RationalNumber.
+     */
+    RationalNumber toRationalNumber(){
+        if(bigNumerator==null){
+            return RationalNumber.reduced(numerator,denominator);
+        }
+        return new RationalNumber(bigNumerator,bigDenominator);
+    }
+
+    /**
+     * Fused multiply-subtract: this -= (fn/fd) * (pn/pd). The denominators have to be positive.
+     * @param fn The numerator of the first factor.
+     * @param fd The denominator of the first factor.
+     * @param pn The numerator of the second factor.
+     * @param pd The denominator of the second factor.
+     */
+    void subtractProduct(long fn, long fd, long pn, long pd){
+        if(bigNumerator==null){
+            try{
+                long productNumer = Math.multiplyExact(fn,pn);
+                long productDenom = Math.multiplyExact(fd,pd);
+                long numer, denom;
+                if(productDenom==denominator){
+                    numer = Math.subtractExact(numerator,productNumer);
+                    denom = denominator;
+                }else{
+                    numer = Math.subtractExact(Math.multiplyExact(numerator,productDenom),Math.multiplyExact(productNumer,denominator));
+                    denom = Math.multiplyExact(denominator,productDenom);
+                }
+                if(numer!=Long.MIN_VALUE){
+                    setReduced(numer,denom);
+                    return;
+                }
+            }catch(ArithmeticException e){
+                // overflow, use the arbitrary precision path below
+            }
+        }
+        subtractProduct(BigInteger.valueOf(fn),BigInteger.valueOf(fd),BigInteger.valueOf(pn),BigInteger.valueOf(pd));
+    }
+
+    /**
+     * Fused multiply-subtract: this -= f * p.
+     * @param f The first factor.
+     * @param p The second factor.
+     */
+    void subtractProduct(RationalNumber f, RationalNumber p){
+        if(f.fitsInLong() && p.fitsInLong()){
+            subtractProduct(f.getNumerator(),f.getDenominator(),p.getNumerator(),p.getDenominator());
+        }else{
+            subtractProduct(f.getBigNumerator(),f.getBigDenominator(),p.getBigNumerator(),p.getBigDenominator());
+        }
+    }
+
+    /**
+     * Multiplies this value by sn/sd. The denominator has to be positive.
+     * @param sn The numerator of the scalar.
+     * @param sd The denominator of the scalar.
+     */
+    void multiply(long sn, long sd){
+        if(bigNumerator==null){
+            try{
+                long numer = Math.multiplyExact(numerator,sn);
+                long denom = Math.multiplyExact(denominator,sd);
+                if(numer!=Long.MIN_VALUE){
+                    setReduced(numer,denom);
+                    return;
+                }
+            }catch(ArithmeticException e){
+                // overflow, use the arbitrary precision path below
+            }
+        }
+        setReduced(getBigNumerator().multiply(BigInteger.valueOf(sn)),getBigDenominator().multiply(BigInteger.valueOf(sd)));
+    }
+
+    /**
+     * Arbitrary precision version of the fused multiply-subtract.
+     */
+    private void subtractProduct(BigInteger fn, BigInteger fd, BigInteger pn, BigInteger pd){
+        BigInteger productDenom = fd.multiply(pd);
+        BigInteger numer = getBigNumerator().multiply(productDenom).subtract(fn.multiply(pn).multiply(getBigDenominator()));
+        BigInteger denom = getBigDenominator().multiply(productDenom);
+        setReduced(numer,denom);
+    }
+
+    private BigInteger getBigNumerator(){
+        return bigNumerator!=null ? bigNumerator : BigInteger.valueOf(numerator);
+    }
+
+    private BigInteger getBigDenominator(){
+        return bigNumerator!=null ? bigDenominator : BigInteger.valueOf(denominator);
+    }
+
+    /**
+     * Reduces and stores a fraction whose denominator is positive and whose numerator is not Long.MIN_VALUE.
+     */
+    private void setReduced(long numer, long denom){
+        if(numer==0){
+            set(0,1);
+            return;
+        }
+        long common = RationalNumber.gcd(Math.abs(numer),denom);
+        set(numer/common,denom/common);
+    }
+
+    /**
+     * Reduces and stores a fraction whose denominator is positive, moving back to longs when it fits.
+     */
+    private void setReduced(BigInteger numer, BigInteger denom){
+        if(numer.signum()==0){
+            set(0,1);
+            return;
+        }
+        BigInteger common = numer.gcd(denom);
+        numer = numer.divide(common);
+        denom = denom.divide(common);
+        if(numer.compareTo(LONG_MIN)>0 && numer.compareTo(LONG_MAX)<=0 && denom.compareTo(LONG_MAX)<=0){
+            set(numer.longValue(),denom.longValue());
+        }else{
+            bigNumerator = numer;
+            bigDenominator = denom;
+        }
+    }
+}
@@ -3,14 +3,24 @@ package Model;
 //  RationalNumber.java       Author: Lewis/Loftus
 //
 //  Represents one rational number with a numerator and denominator.
+//  Values are kept in a pair of longs and only move to BigInteger
+//  when an operation would overflow.
 //********************************************************************
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public class RationalNumber
+public class RationalNumber implements Comparable<RationalNumber>
 {
-    private int numerator, denominator;
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private long numerator, denominator;
+    // only set when the reduced value does not fit in the long fields
+    private BigInteger bigNumerator, bigDenominator;
     public static RationalNumber ZERO = new RationalNumber(0,1);
     public static RationalNumber ONE = new RationalNumber(1,1);
     public static RationalNumber MINUS_ONE = new RationalNumber(-1,1);
@@ -19,8 +29,14 @@ public class RationalNumber
     //  Constructor: Sets up the rational number by ensuring a nonzero
     //  denominator and making only the numerator signed.
     //-----------------------------------------------------------------
-    public RationalNumber (int numer, int denom)
+    public RationalNumber (long numer, long denom)
     {
+        if (numer == Long.MIN_VALUE || denom == Long.MIN_VALUE)
+        {
+            setBig(BigInteger.valueOf(numer), BigInteger.valueOf(denom));
+            return;
+        }
+
         if (numer == 0)
             denom = 1;
 
@@ -40,15 +56,22 @@ public class RationalNumber
         reduce();
     }
 
+    //-----------------------------------------------------------------
+    //  Constructor: Sets up the rational number from arbitrary
+    //  precision values. The result is stored in longs when it fits.
+    //-----------------------------------------------------------------
+    public RationalNumber (BigInteger numer, BigInteger denom)
+    {
+        setBig(numer, denom);
+    }
+
     public RationalNumber (double d){
-        denominator = 1;
-        while(d%1!=0){
-            d*=10;
-            denominator *= 10;
+        BigDecimal value = BigDecimal.valueOf(d);
+        if(value.scale()>0){
+            setBig(value.unscaledValue(), BigInteger.TEN.pow(value.scale()));
+        }else{
+            setBig(value.toBigIntegerExact(), BigInteger.ONE);
         }
-        numerator = (int)d;
-
-        reduce();
     }
 
     public RationalNumber(String s){
@@ -57,60 +80,144 @@ public class RationalNumber
         p = Pattern.compile("[-]?[0-9]+");
         m = p.matcher(s);
         int count = 0;
+        BigInteger numer = BigInteger.ZERO;
+        BigInteger denom = BigInteger.ONE;
         while (m.find()){
             if(s.contains("/")){
                 if(count%2==0){
-                    numerator = Integer.parseInt(m.group(0));
+                    numer = new BigInteger(m.group(0));
                 }else{
-                    denominator = Integer.parseInt(m.group(0));
+                    denom = new BigInteger(m.group(0));
                 }
                 count++;
             }else{
-                numerator = Integer.parseInt(m.group(0));
-                denominator = 1;
+                numer = new BigInteger(m.group(0));
+                denom = BigInteger.ONE;
             }
         }
 
-        reduce();
+        setBig(numer, denom);
+    }
+
+    //-----------------------------------------------------------------
+    //  Used by the fast paths and the packed matrix storage, whose
+    //  values are already reduced.
+    //-----------------------------------------------------------------
+    private RationalNumber ()
+    {
+    }
+
+    static RationalNumber reduced (long numer, long denom)
+    {
+        RationalNumber result = new RationalNumber();
+        result.numerator = numer;
+        result.denominator = denom;
+        return result;
     }
 
     //-----------------------------------------------------------------
     //  Returns the numerator of this rational number.
+    //  Throws ArithmeticException if it does not fit in a long.
     //-----------------------------------------------------------------
-    public int getNumerator ()
+    public long getNumerator ()
     {
+        if (bigNumerator != null)
+            throw new ArithmeticException("Numerator does not fit in a long, use getBigNumerator()");
         return numerator;
     }
 
     //-----------------------------------------------------------------
     //  Returns the denominator of this rational number.
+    //  Throws ArithmeticException if it does not fit in a long.
     //-----------------------------------------------------------------
-    public int getDenominator ()
+    public long getDenominator ()
     {
+        if (bigNumerator != null)
+            throw new ArithmeticException("Denominator does not fit in a long, use getBigDenominator()");
         return denominator;
     }
 
+    //-----------------------------------------------------------------
+    //  Returns the numerator of this rational number as a BigInteger.
+    //-----------------------------------------------------------------
+    public BigInteger getBigNumerator ()
+    {
+        return bigNumerator != null ? bigNumerator : BigInteger.valueOf(numerator);
+    }
+
+    //-----------------------------------------------------------------
+    //  Returns the denominator of this rational number as a BigInteger.
+    //-----------------------------------------------------------------
+    public BigInteger getBigDenominator ()
+    {
+        return bigNumerator != null ? bigDenominator : BigInteger.valueOf(denominator);
+    }
+
+    //-----------------------------------------------------------------
+    //  Returns true if both the numerator and the denominator fit in
+    //  a long.
+    //-----------------------------------------------------------------
+    public boolean fitsInLong ()
+    {
+        return bigNumerator == null;
+    }
+
+    //-----------------------------------------------------------------
+    //  Returns -1, 0 or 1 as this rational number is negative, zero
+    //  or positive.
+    //-----------------------------------------------------------------
+    public int signum ()
+    {
+        if (bigNumerator != null)
+            return bigNumerator.signum();
+        return Long.signum(numerator);
+    }
+
     //-----------------------------------------------------------------
     //  Returns the reciprocal of this rational number.
     //-----------------------------------------------------------------
     public RationalNumber reciprocal ()
     {
+        if (bigNumerator != null)
+            return new RationalNumber (bigDenominator, bigNumerator);
         return new RationalNumber (denominator, numerator);
     }
 
+    //-----------------------------------------------------------------
+    //  Returns the opposite of this rational number.
+    //-----------------------------------------------------------------
+    public RationalNumber negate ()
+    {
+        if (bigNumerator != null)
+            return new RationalNumber (bigNumerator.negate(), bigDenominator);
+        return reduced (-numerator, denominator);
+    }
+
     //-----------------------------------------------------------------
     //  Adds this rational number to the one passed as a parameter.
-    //  A common denominator is found by multiplying the individual
-    //  denominators.
+    //  The denominators' gcd is divided out first so that the result
+    //  is reduced without a full gcd on the products. Falls back to
+    //  BigInteger arithmetic on overflow.
     //-----------------------------------------------------------------
     public RationalNumber add (RationalNumber op2)
     {
-        int commonDenominator = denominator * op2.getDenominator();
-        int numerator1 = numerator * op2.getDenominator();
-        int numerator2 = op2.getNumerator() * denominator;
-        int sum = numerator1 + numerator2;
+        if (bigNumerator == null && op2.bigNumerator == null)
+        {
+            try
+            {
+                return addExact (numerator, denominator, op2.numerator, op2.denominator);
+            }
+            catch (ArithmeticException e)
+            {
+                // overflow, use the arbitrary precision path below
+            }
+        }
+
+        BigInteger b = getBigDenominator();
+        BigInteger d = op2.getBigDenominator();
+        BigInteger sum = getBigNumerator().multiply(d).add(op2.getBigNumerator().multiply(b));
 
-        return new RationalNumber (sum, commonDenominator);
+        return new RationalNumber (sum, b.multiply(d));
     }
 
     //-----------------------------------------------------------------
@@ -119,22 +226,46 @@ public class RationalNumber
     //-----------------------------------------------------------------
     public RationalNumber subtract (RationalNumber op2)
     {
-        int commonDenominator = denominator * op2.getDenominator();
-        int numerator1 = numerator * op2.getDenominator();
-        int numerator2 = op2.getNumerator() * denominator;
-        int difference = numerator1 - numerator2;
+        if (bigNumerator == null && op2.bigNumerator == null)
+        {
+            try
+            {
+                return addExact (numerator, denominator, -op2.numerator, op2.denominator);
+            }
+            catch (ArithmeticException e)
+            {
+                // overflow, use the arbitrary precision path below
+            }
+        }
 
-        return new RationalNumber (difference, commonDenominator);
+        BigInteger b = getBigDenominator();
+        BigInteger d = op2.getBigDenominator();
+        BigInteger difference = getBigNumerator().multiply(d).subtract(op2.getBigNumerator().multiply(b));
+
+        return new RationalNumber (difference, b.multiply(d));
     }
 
     //-----------------------------------------------------------------
     //  Multiplies this rational number by the one passed as a
-    //  parameter.
+    //  parameter. Common factors are cancelled crosswise before
+    //  multiplying, so the result is already reduced.
     //-----------------------------------------------------------------
     public RationalNumber multiply (RationalNumber op2)
     {
-        int numer = numerator * op2.getNumerator();
-        int denom = denominator * op2.getDenominator();
+        if (bigNumerator == null && op2.bigNumerator == null)
+        {
+            try
+            {
+                return multiplyExact (numerator, denominator, op2.numerator, op2.denominator);
+            }
+            catch (ArithmeticException e)
+            {
+                // overflow, use the arbitrary precision path below
+            }
+        }
+
+        BigInteger numer = getBigNumerator().multiply(op2.getBigNumerator());
+        BigInteger denom = getBigDenominator().multiply(op2.getBigDenominator());
 
         return new RationalNumber (numer, denom);
     }
@@ -154,8 +285,12 @@ public class RationalNumber
     //-----------------------------------------------------------------
     public boolean equals (RationalNumber op2)
     {
-        return ( numerator == op2.getNumerator() &&
-                denominator == op2.getDenominator() );
+        if (bigNumerator == null && op2.bigNumerator == null)
+            return ( numerator == op2.numerator &&
+                    denominator == op2.denominator );
+
+        return ( getBigNumerator().equals(op2.getBigNumerator()) &&
+                getBigDenominator().equals(op2.getBigDenominator()) );
     }
 
     //-----------------------------------------------------------------
@@ -165,6 +300,10 @@ public class RationalNumber
     {
         String result;
 
+        if (bigNumerator != null)
+            result = bigDenominator.equals(BigInteger.ONE) ? bigNumerator.toString()
+                    : bigNumerator + "/" + bigDenominator;
+        else
         if (numerator == 0)
             result = "0";
         else
@@ -184,7 +323,7 @@ public class RationalNumber
     {
         if (numerator != 0)
         {
-            int common = gcd (Math.abs(numerator), denominator);
+            long common = gcd (Math.abs(numerator), denominator);
 
             numerator = numerator / common;
             denominator = denominator / common;
@@ -192,59 +331,204 @@ public class RationalNumber
     }
 
     //-----------------------------------------------------------------
-    //  Computes and returns the greatest common divisor of the two
-    //  positive parameters. Uses Euclid's algorithm.
+    //  Normalizes and reduces an arbitrary precision value, keeping
+    //  it in the long fields whenever it fits.
     //-----------------------------------------------------------------
-    private int gcd (int num1, int num2)
+    private void setBig (BigInteger numer, BigInteger denom)
     {
-        while (num1 != num2)
-            if (num1 > num2)
-                num1 = num1 - num2;
-            else
-                num2 = num2 - num1;
+        if (numer.signum() == 0)
+        {
+            numerator = 0;
+            denominator = 1;
+            return;
+        }
+
+        if (denom.signum() == 0)
+            denom = BigInteger.ONE;
+
+        if (denom.signum() < 0)
+        {
+            numer = numer.negate();
+            denom = denom.negate();
+        }
+
+        BigInteger common = numer.gcd(denom);
+        if (!common.equals(BigInteger.ONE))
+        {
+            numer = numer.divide(common);
+            denom = denom.divide(common);
+        }
 
-        return num1;
+        if (fitsInLongRange(numer) && fitsInLongRange(denom))
+        {
+            numerator = numer.longValue();
+            denominator = denom.longValue();
+            bigNumerator = null;
+            bigDenominator = null;
+        }
+        else
+        {
+            bigNumerator = numer;
+            bigDenominator = denom;
+        }
     }
 
-    public boolean isLessThanOrEqualTo(RationalNumber op2){
-        boolean res = false;
-        if(this.numerator<0 && op2.numerator>=0)
-            res = true;
-        if(this.numerator>=0 && op2.numerator>=0 || this.numerator<=0 && op2.numerator<=0){
-            int numerator1 = this.numerator*op2.denominator;
-            int numerator2 = op2.numerator*this.denominator;
-            res = numerator1<=numerator2;
+    //-----------------------------------------------------------------
+    //  Long.MIN_VALUE is excluded so that negation and Math.abs never
+    //  overflow on the fast paths.
+    //-----------------------------------------------------------------
+    private static boolean fitsInLongRange (BigInteger value)
+    {
+        return value.compareTo(LONG_MIN) > 0 && value.compareTo(LONG_MAX) <= 0;
+    }
+
+    //-----------------------------------------------------------------
+    //  Computes a/b + c/d on longs. Throws ArithmeticException on
+    //  overflow. Both operands are expected to be reduced.
+    //-----------------------------------------------------------------
+    static RationalNumber addExact (long a, long b, long c, long d)
+    {
+        if (a == 0)
+            return reduced (c, d);
+        if (c == 0)
+            return reduced (a, b);
+
+        long g = gcd (b, d);
+        long numer, denom;
+        if (g == 1)
+        {
+            numer = Math.addExact(Math.multiplyExact(a, d), Math.multiplyExact(c, b));
+            denom = Math.multiplyExact(b, d);
         }
+        else
+        {
+            long t = Math.addExact(Math.multiplyExact(a, d / g), Math.multiplyExact(c, b / g));
+            if (t == Long.MIN_VALUE)
+                throw new ArithmeticException("long overflow");
+            long g2 = gcd (Math.abs(t), g);
+            numer = t / g2;
+            denom = Math.multiplyExact(b / g, d / g2);
+        }
+
+        if (numer == 0)
+            return reduced (0, 1);
+        if (numer == Long.MIN_VALUE)
+            throw new ArithmeticException("long overflow");
 
-        return res;
+        return reduced (numer, denom);
     }
 
-    public boolean isLessThan(RationalNumber op2){
-        boolean res = false;
-        if(this.numerator<0 && op2.numerator>=0)
-            res = true;
-        if(this.numerator>=0 && op2.numerator>=0 || this.numerator<=0 && op2.numerator<=0){
-            int numerator1 = this.numerator*op2.denominator;
-            int numerator2 = op2.numerator*this.denominator;
-            res = numerator1<numerator2;
+    //-----------------------------------------------------------------
+    //  Computes (a/b) * (c/d) on longs. Throws ArithmeticException on
+    //  overflow. Both operands are expected to be reduced.
+    //-----------------------------------------------------------------
+    static RationalNumber multiplyExact (long a, long b, long c, long d)
+    {
+        if (a == 0 || c == 0)
+            return reduced (0, 1);
+
+        long g1 = gcd (Math.abs(a), d);
+        long g2 = gcd (Math.abs(c), b);
+        long numer = Math.multiplyExact(a / g1, c / g2);
+        long denom = Math.multiplyExact(b / g2, d / g1);
+
+        if (numer == Long.MIN_VALUE)
+            throw new ArithmeticException("long overflow");
+
+        return reduced (numer, denom);
+    }
+
+    //-----------------------------------------------------------------
+    //  Computes and returns the greatest common divisor of the two
+    //  non-negative parameters. Uses the binary (Stein) algorithm.
+    //-----------------------------------------------------------------
+    static long gcd (long num1, long num2)
+    {
+        if (num1 == 0)
+            return num2;
+        if (num2 == 0)
+            return num1;
+
+        int shift = Long.numberOfTrailingZeros(num1 | num2);
+        num1 >>= Long.numberOfTrailingZeros(num1);
+        do
+        {
+            num2 >>= Long.numberOfTrailingZeros(num2);
+            if (num1 > num2)
+            {
+                long temp = num2;
+                num2 = num1;
+                num1 = temp;
+            }
+            num2 = num2 - num1;
         }
+        while (num2 != 0);
+
+        return num1 << shift;
+    }
+
+    //-----------------------------------------------------------------
+    //  Compares this rational number with the one passed as a
+    //  parameter. The long path compares the 128-bit cross products
+    //  without allocating.
+    //-----------------------------------------------------------------
+    @Override
+    public int compareTo (RationalNumber op2)
+    {
+        int sign1 = signum();
+        int sign2 = op2.signum();
+        if (sign1 != sign2)
+            return Integer.compare(sign1, sign2);
+        if (sign1 == 0)
+            return 0;
+
+        if (bigNumerator == null && op2.bigNumerator == null)
+            return compare (numerator, denominator, op2.numerator, op2.denominator);
+
+        return getBigNumerator().multiply(op2.getBigDenominator())
+                .compareTo(op2.getBigNumerator().multiply(getBigDenominator()));
+    }
+
+    //-----------------------------------------------------------------
+    //  Compares a/b with c/d, both denominators being positive.
+    //-----------------------------------------------------------------
+    static int compare (long a, long b, long c, long d)
+    {
+        if (b == d)
+            return Long.compare(a, c);
+
+        long high1 = Math.multiplyHigh(a, d);
+        long high2 = Math.multiplyHigh(c, b);
+        if (high1 != high2)
+            return Long.compare(high1, high2);
+
+        return Long.compareUnsigned(a * d, c * b);
+    }
 
-        return res;
+    public boolean isLessThanOrEqualTo(RationalNumber op2){
+        return compareTo(op2) <= 0;
+    }
+
+    public boolean isLessThan(RationalNumber op2){
+        return compareTo(op2) < 0;
     }
 
     public RationalNumber absoluteValue(){
-        int newNum = numerator;
-        if(newNum<0)
-            newNum *= -1;
-        return new RationalNumber(newNum,denominator);
+        if(signum()<0)
+            return negate();
+        return clone();
     }
 
     @Override
     public RationalNumber clone(){
-        return new RationalNumber(numerator,denominator);
+        if(bigNumerator!=null)
+            return new RationalNumber(bigNumerator,bigDenominator);
+        return reduced(numerator,denominator);
     }
 
     public double toDouble(){
+        if(bigNumerator!=null)
+            return new BigDecimal(bigNumerator).divide(new BigDecimal(bigDenominator), MathContext.DECIMAL64).doubleValue();
         return (double)numerator/(double)denominator;
     }
-}
\ No newline at end of file
+}
@@ -1,25 +1,98 @@
 package Model;
 
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
 /**
  * @author Raphaël Bagat
- * @version 1.1
+ * @version 1.2
  */
 public class RationalNumberMatrix {
-    private RationalNumber[][] matrix;
+    // tile size of multiply
+    private static final int BLOCK_SIZE = 32;
+    // number of operations above which add, substract and multiply run in parallel
+    private static final int PARALLEL_THRESHOLD = 1<<15;
+
+    private MatrixStorage matrix;
     private int rowNum;
     private int colNum;
 
     /**
-     * Constructor.
+     * How the cells of a matrix are stored.
+     * OBJECT keeps one RationalNumber per cell.
+     * PACKED keeps the cells in flat long arrays and only keeps objects for values that do not fit in longs.
+     * ROW_DENOMINATOR keeps each row as integer numerators over one row denominator, divided by their content after each row operation.
+     * OFF_HEAP keeps the cells like PACKED but in direct buffers, outside of the heap. The direct buffers are limited by
+     * -XX:MaxDirectMemorySize, the cells are mapped on a temporary file like MAPPED once it is reached.
+     * MAPPED keeps the cells like OFF_HEAP in buffers mapped on a temporary file, for matrices larger than the memory.
+     */
+    public enum STORAGE{
+        OBJECT,
+        PACKED,
+        ROW_DENOMINATOR,
+        OFF_HEAP,
+        MAPPED
+    };
+
+    /**
+     * Constructor. The matrix uses the PACKED storage.
      * @param rowNum The matrix's number of rows.
      * @param colNum The matrix's number of columns.
      * @throws AssertionError Both parameters have to be positive.
      */
     public RationalNumberMatrix(int rowNum, int colNum){
+        this(rowNum,colNum,STORAGE.PACKED);
+    }
+
+    /**
+     * Constructor.
+     * @param rowNum The matrix's number of rows.
+     * @param colNum The matrix's number of columns.
+     * @param storage How the cells are stored.
+     * @throws AssertionError Both parameters have to be positive.
+     */
+    public RationalNumberMatrix(int rowNum, int colNum, STORAGE storage){
         assert(rowNum>0 && colNum>0):"Row and column numbers have to be greater than 0";
-        matrix = new RationalNumber[rowNum][colNum];
         this.rowNum = rowNum;
         this.colNum = colNum;
+        matrix = createStorage(rowNum,colNum,storage);
+    }
+
+    private RationalNumberMatrix(MatrixStorage storage){
+        this.rowNum = storage.rowNum;
+        this.colNum = storage.colNum;
+        matrix = storage;
+    }
+
+    /**
+     * Creates an empty storage.
+     * @param rowNum The number of rows.
+     * @param colNum The number of columns.
+     * @param storage The storage mode.
+     * @return The new storage.
+     */
+    private static MatrixStorage createStorage(int rowNum, int colNum, STORAGE storage){
+        switch(storage){
+            case OBJECT:
+                return new ObjectStorage(rowNum,colNum);
+            case ROW_DENOMINATOR:
+                return new RowDenominatorStorage(rowNum,colNum);
+            case OFF_HEAP:
+                return new OffHeapStorage(rowNum,colNum,false);
+            case MAPPED:
+                return new OffHeapStorage(rowNum,colNum,true);
+            case PACKED:
+            default:
+                return new PackedStorage(rowNum,colNum);
+        }
+    }
+
+    /**
+     * Returns how the cells of this matrix are stored.
+     * @return How the cells of this matrix are stored.
+     */
+    public STORAGE getStorage(){
+        return matrix.getMode();
     }
 
     /**
@@ -32,67 +105,177 @@ public class RationalNumberMatrix {
     public void addRow(RationalNumber[] newRow, int rowIndex){
         assert(newRow.length==colNum):"New row's length has to be equal to the matrix's rows' length";
         assert(rowIndex<rowNum):"Row index out of bounds";
-        matrix[rowIndex]=newRow.clone();
+        matrix.setRow(rowIndex,newRow.clone());
     }
 
     /**
-     * Addition operation.
+     * Addition operation. Large matrices are added in parallel, row by row.
      * @param other The other matrix to add to this matrix.
      * @return The result of the addition of the two matrices.
      * @throws AssertionError The two matrices must have the same dimensions.
      */
     public RationalNumberMatrix add(RationalNumberMatrix other){
         assert(rowNum==other.rowNum && colNum==other.colNum):"The two matrices must have the same dimensions";
-        RationalNumberMatrix newMatrix = new RationalNumberMatrix(rowNum,colNum);
-        RationalNumber[] newRow = new RationalNumber[colNum];
-        for(int i = 0; i<rowNum; i++){
+        RationalNumberMatrix newMatrix = new RationalNumberMatrix(rowNum,colNum,getStorage());
+        rows((long)rowNum*colNum).forEach(i -> {
             for(int j = 0; j<colNum; j++){
-                newRow[j] = matrix[i][j].add(other.matrix[i][j]);
+                newMatrix.matrix.set(i,j,matrix.get(i,j).add(other.matrix.get(i,j)));
             }
-            newMatrix.addRow(newRow,i);
-        }
+        });
         return newMatrix;
     }
 
     /**
-     * Substracting operation.
+     * Substracting operation. Large matrices are substracted in parallel, row by row.
      * @param other The other matrix to substract to this matrix.
      * @return The result of the substraction of the two matrices (C = this - other).
      * @throws AssertionError The two matrices must have the same dimensions.
      */
     public RationalNumberMatrix substract(RationalNumberMatrix other){
         assert(rowNum==other.rowNum && colNum==other.colNum):"The two matrices must have the same dimensions";
-        RationalNumberMatrix newMatrix = new RationalNumberMatrix(rowNum,colNum);
-        RationalNumber[] newRow = new RationalNumber[colNum];
-        for(int i = 0; i<rowNum; i++){
+        RationalNumberMatrix newMatrix = new RationalNumberMatrix(rowNum,colNum,getStorage());
+        rows((long)rowNum*colNum).forEach(i -> {
             for(int j = 0; j<colNum; j++){
-                newRow[j] = matrix[i][j].subtract(other.matrix[i][j]);
+                newMatrix.matrix.set(i,j,matrix.get(i,j).subtract(other.matrix.get(i,j)));
             }
-            newMatrix.addRow(newRow,i);
-        }
+        });
         return newMatrix;
     }
 
     /**
-     * Matrix product.
+     * Factorizes this square matrix with the fraction-free Bareiss elimination.
+     * Keep the factorization to solve several systems against this matrix.
+     * @return The factorization.
+     * @throws AssertionError This matrix has to be square.
+     */
+    public BareissLU factorize(){
+        return new BareissLU(this);
+    }
+
+    /**
+     * Returns the determinant of this square matrix, computed exactly.
+     * @return The determinant.
+     * @throws AssertionError This matrix has to be square.
+     */
+    public RationalNumber determinant(){
+        return factorize().determinant();
+    }
+
+    /**
+     * Solves this . x = b exactly.
+     * @param b The right hand side.
+     * @return x.
+     * @throws AssertionError This matrix has to be square and nonsingular, and b has to have one element per row.
+     */
+    public RationalNumber[] solve(RationalNumber[] b){
+        return factorize().solve(b);
+    }
+
+    /**
+     * Solves this . X = B exactly, with one factorization for all the right hand sides.
+     * @param b The right hand sides, one per column.
+     * @return X.
+     * @throws AssertionError This matrix has to be square and nonsingular, and b has to have one row per row of this matrix.
+     */
+    public RationalNumberMatrix solve(RationalNumberMatrix b){
+        return factorize().solve(b);
+    }
+
+    /**
+     * Returns the inverse of this square matrix, computed exactly.
+     * @return The inverse.
+     * @throws AssertionError This matrix has to be square and nonsingular.
+     */
+    public RationalNumberMatrix inverse(){
+        return factorize().inverse();
+    }
+
+    /**
+     * Matrix product. The loops run in i-k-j order, so the other matrix is read row by row,
+     * over tiles of BLOCK_SIZE x BLOCK_SIZE elements. Each result row sums in its own accumulators, one reduction per element.
+     * Large products are computed in parallel, by blocks of rows.
      * @param other The other matrix to multiply to this matrix.
      * @return The result of the product of the two matrices. (C = this . other)
      * @throws AssertionError This matrix's number of columns has to be equal to the other matrix's number of rows.
      */
     public RationalNumberMatrix multiply(RationalNumberMatrix other){
         assert(colNum==other.rowNum):"This matrix's number of columns has to be equal to the other matrix's number of rows";
-        RationalNumberMatrix newMatrix = new RationalNumberMatrix(rowNum,other.colNum);
-        RationalNumber[] newRow = new RationalNumber[other.colNum];
-        for(int i=0;i<rowNum;i++){
-            initZero(newRow);
-            for(int j=0;j<other.colNum;j++){
-                for(int k=0;k<colNum;k++){
-                    newRow[j] = newRow[j].add(matrix[i][k].multiply(other.matrix[k][j]));
+        RationalNumberMatrix newMatrix = new RationalNumberMatrix(rowNum,other.colNum,getStorage());
+        int blocks = (rowNum+BLOCK_SIZE-1)/BLOCK_SIZE;
+        IntStream rowBlocks = IntStream.range(0,blocks);
+        if((long)rowNum*colNum*other.colNum>=PARALLEL_THRESHOLD){
+            rowBlocks = rowBlocks.parallel();
+        }
+        rowBlocks.forEach(block -> multiplyRowBlock(other,newMatrix,block*BLOCK_SIZE,Math.min(rowNum,(block+1)*BLOCK_SIZE)));
+        return newMatrix;
+    }
+
+    /**
+     * Computes rows of a matrix product.
+     * @param other The right matrix.
+     * @param result The result matrix.
+     * @param fromRow The first row to compute.
+     * @param toRow The row after the last one.
+     */
+    private void multiplyRowBlock(RationalNumberMatrix other, RationalNumberMatrix result, int fromRow, int toRow){
+        int n = other.colNum;
+        RationalAccumulator[][] acc = new RationalAccumulator[toRow-fromRow][n];
+        for(RationalAccumulator[] row : acc){
+            for(int j=0;j<n;j++){
+                row[j] = new RationalAccumulator();
+                row[j].set(0,1);
+            }
+        }
+        // tile of this matrix, negated: acc - (-a) * b = acc + a * b. Both tiles hold null for 0
+        RationalNumber[][] minusA = new RationalNumber[toRow-fromRow][BLOCK_SIZE];
+        RationalNumber[][] tileB = new RationalNumber[BLOCK_SIZE][BLOCK_SIZE];
+
+        for(int kk=0;kk<colNum;kk+=BLOCK_SIZE){
+            int kEnd = Math.min(colNum,kk+BLOCK_SIZE);
+            for(int i=fromRow;i<toRow;i++){
+                for(int k=kk;k<kEnd;k++){
+                    minusA[i-fromRow][k-kk] = matrix.signum(i,k)!=0 ? matrix.get(i,k).negate() : null;
+                }
+            }
+            for(int jj=0;jj<n;jj+=BLOCK_SIZE){
+                int jEnd = Math.min(n,jj+BLOCK_SIZE);
+                for(int k=kk;k<kEnd;k++){
+                    for(int j=jj;j<jEnd;j++){
+                        tileB[k-kk][j-jj] = other.matrix.signum(k,j)!=0 ? other.matrix.get(k,j) : null;
+                    }
+                }
+                for(int i=fromRow;i<toRow;i++){
+                    RationalAccumulator[] accRow = acc[i-fromRow];
+                    for(int k=kk;k<kEnd;k++){
+                        RationalNumber a = minusA[i-fromRow][k-kk];
+                        if(a!=null){
+                            RationalNumber[] rowB = tileB[k-kk];
+                            for(int j=jj;j<jEnd;j++){
+                                if(rowB[j-jj]!=null){
+                                    accRow[j].subtractProduct(a,rowB[j-jj]);
+                                }
+                            }
+                        }
+                    }
                 }
             }
-            newMatrix.addRow(newRow,i);
         }
-        return newMatrix;
+
+        for(int i=fromRow;i<toRow;i++){
+            for(int j=0;j<n;j++){
+                result.matrix.set(i,j,acc[i-fromRow][j].toRationalNumber());
+            }
+        }
+    }
+
+    /**
+     * Returns the row indexes, as a parallel stream if the operation is large enough.
+     * @param cells The number of cells the operation touches.
+     * @return The row indexes.
+     */
+    private IntStream rows(long cells){
+        IntStream rows = IntStream.range(0,rowNum);
+        return cells>=PARALLEL_THRESHOLD ? rows.parallel() : rows;
     }
 
     /**
@@ -104,12 +287,65 @@ public class RationalNumberMatrix {
      */
     public RationalNumber get(int row,int col){
         assert(row<rowNum && col<colNum):"";
-        return matrix[row][col];
+        return matrix.get(row,col);
     }
 
     public void set(int row,int col, RationalNumber n){
         assert(row<rowNum && col<colNum):"";
-        matrix[row][col] = n;
+        matrix.set(row,col,n);
+    }
+
+    /**
+     * Returns the sign of an element without building it.
+     * @param row The row index of the element.
+     * @param col The column index of the element.
+     * @return -1, 0 or 1 as the element is negative, zero or positive.
+     * @throws AssertionError If the index is out of range.
+     */
+    public int signum(int row, int col){
+        assert(row<rowNum && col<colNum):"";
+        return matrix.signum(row,col);
+    }
+
+    /**
+     * Returns an element as a double without building it.
+     * @param row The row index of the element.
+     * @param col The column index of the element.
+     * @return The closest double to the element, within a few ulps.
+     * @throws AssertionError If the index is out of range.
+     */
+    public double getDouble(int row, int col){
+        assert(row<rowNum && col<colNum):"";
+        return matrix.getDouble(row,col);
+    }
+
+    /**
+     * Compares two elements of the same row. With the ROW_DENOMINATOR storage this is an integer comparison.
+     * @param row The row index of the elements.
+     * @param col1 The column index of the first element.
+     * @param col2 The column index of the second element.
+     * @return A negative integer, zero, or a positive integer as the first element is less than, equal to, or greater than the second.
+     * @throws AssertionError If an index is out of range.
+     */
+    public int compareInRow(int row, int col1, int col2){
+        assert(row<rowNum && col1<colNum && col2<colNum):"";
+        return matrix.compareInRow(row,col1,col2);
+    }
+
+    /**
+     * Compares the ratios row1[numCol] / row1[denCol] and row2[numCol] / row2[denCol] without building them.
+     * @param row1 The index of the first row.
+     * @param row2 The index of the second row.
+     * @param numCol The column of the numerators.
+     * @param denCol The column of the denominators.
+     * @return A negative integer, zero, or a positive integer as the first ratio is less than, equal to, or greater than the second.
+     * @throws AssertionError If an index is out of range.
+     * @throws AssertionError row1[denCol] and row2[denCol] have to be positive.
+     */
+    public int compareRatios(int row1, int row2, int numCol, int denCol){
+        assert(row1<rowNum && row2<rowNum && numCol<colNum && denCol<colNum):"";
+        assert(matrix.signum(row1,denCol)>0 && matrix.signum(row2,denCol)>0):"The denominators have to be positive";
+        return matrix.compareRatios(row1,row2,numCol,denCol);
     }
 
     /**
@@ -120,7 +356,7 @@ public class RationalNumberMatrix {
         double[][] result = new double[rowNum][colNum];
         for(int i = 0; i<rowNum; i++){
             for(int j = 0; j<colNum; j++){
-                result[i][j]=(double)matrix[i][j].getNumerator()/matrix[i][j].getDenominator();
+                result[i][j]=matrix.getDouble(i,j);
             }
         }
 
@@ -132,7 +368,7 @@ public class RationalNumberMatrix {
         StringBuilder strb = new StringBuilder();
         for(int i = 0; i<rowNum; i++){
             for(int j = 0; j<colNum; j++){
-                strb.append(matrix[i][j]+" ");
+                strb.append(matrix.get(i,j)+" ");
             }
             strb.deleteCharAt(strb.length()-1);
             strb.append("\n");
@@ -142,21 +378,58 @@ public class RationalNumberMatrix {
     }
 
     /**
-     * Initialize each elements of the parameter to zero.
-     * @param row The array to initialize.
+     * Returns a copy of this matrix using the same storage mode.
+     * The copy shares the cells with this matrix, they are copied row by row (the whole array with PACKED)
+     * before the first change of either matrix, so the two matrices stay independent.
+     * @return A copy of this matrix.
      */
-    private void initZero(RationalNumber[] row){
-        for(int i=0;i<row.length;i++){
-            row[i] = new RationalNumber(0,1);
-        }
-    }
-
     @Override
     public RationalNumberMatrix clone(){
-        RationalNumberMatrix m = new RationalNumberMatrix(rowNum,colNum);
+        return new RationalNumberMatrix(matrix.copy());
+    }
+
+    /**
+     * Returns a view of the whole matrix. No cell is copied, the view sees the later changes of this matrix.
+     * @return The view.
+     */
+    public RationalNumberMatrixView view(){
+        return new RationalNumberMatrixView(this,0,0,rowNum,colNum,false);
+    }
+
+    /**
+     * Returns the transpose of this matrix as a view. No cell is copied, the view sees the later changes of this matrix.
+     * @return The transposed view.
+     */
+    public RationalNumberMatrixView transpose(){
+        return view().transpose();
+    }
+
+    /**
+     * Returns a block of this matrix as a view. No cell is copied, the view sees the later changes of this matrix.
+     * @param fromRow The index of the block's first row.
+     * @param fromCol The index of the block's first column.
+     * @param rowNum The block's number of rows.
+     * @param colNum The block's number of columns.
+     * @return The view of the block.
+     * @throws AssertionError The block has to be inside the matrix and not empty.
+     */
+    public RationalNumberMatrixView subMatrix(int fromRow, int fromCol, int rowNum, int colNum){
+        return view().subMatrix(fromRow,fromCol,rowNum,colNum);
+    }
+
+    /**
+     * Returns a deep copy of this matrix using another storage mode.
+     * @param storage The storage mode of the copy.
+     * @return A deep copy of this matrix.
+     */
+    public RationalNumberMatrix copy(STORAGE storage){
+        if(storage==getStorage()){
+            return clone();
+        }
+        RationalNumberMatrix m = new RationalNumberMatrix(rowNum,colNum,storage);
         for(int r=0;r<rowNum;r++){
             for(int c=0;c<colNum;c++){
-                m.matrix[r][c] = matrix[r][c].clone();
+                m.matrix.set(r,c,matrix.get(r,c));
             }
         }
         return m;
@@ -173,7 +446,7 @@ public class RationalNumberMatrix {
         boolean res = true;
         for(int i=0;i<rowNum && res;i++){
             for(int j=0;j<colNum && res;j++){
-                res = matrix[i][j].isLessThanOrEqualTo(other.matrix[i][j]);
+                res = matrix.get(i,j).isLessThanOrEqualTo(other.matrix.get(i,j));
             }
         }
 
@@ -188,9 +461,7 @@ public class RationalNumberMatrix {
      */
     public void swapRows(int index1, int index2){
         assert(index1<rowNum && index2<rowNum && index1>=0 && index2>=0):"The indexes have to be between 0 and rowNum-1";
-        RationalNumber[] temp = matrix[index1];
-        matrix[index1] = matrix[index2];
-        matrix[index2] = temp;
+        matrix.swapRows(index1,index2);
     }
 
     /**
@@ -203,12 +474,30 @@ public class RationalNumberMatrix {
         assert(index1<colNum && index2<colNum && index1>=0 && index2>=0):"The indexes have to be between 0 and colNum-1";
         RationalNumber temp;
         for(int i=0;i<rowNum;i++){
-            temp = matrix[i][index1];
-            matrix[i][index1] = matrix[i][index2];
-            matrix[i][index2] = temp;
+            temp = matrix.get(i,index1);
+            matrix.set(i,index1,matrix.get(i,index2));
+            matrix.set(i,index2,temp);
         }
     }
 
+    /**
+     * Returns the columns where a row is not 0.
+     * @param index The row index.
+     * @return The columns where the row is not 0, in increasing order.
+     * @throws AssertionError The index has to be between 0 and rowNum-1.
+     */
+    public int[] getNonZeroColumns(int index){
+        assert(index>=0 && index<rowNum):"The index has to be between 0 and rowNum-1";
+        int[] columns = new int[colNum];
+        int count = 0;
+        for(int c=0;c<colNum;c++){
+            if(matrix.signum(index,c)!=0){
+                columns[count++] = c;
+            }
+        }
+        return Arrays.copyOf(columns,count);
+    }
+
     /**
      * Multiplies a row by a scalar.
      * @param index The index of the row to multiply.
@@ -217,9 +506,35 @@ public class RationalNumberMatrix {
      */
     public void multiplyRowByScalar(int index, RationalNumber s){
         assert(index>=0 && index<rowNum):"The index has to be between 0 and rowNum-1";
-        for(int i=0;i<colNum;i++){
-            matrix[index][i] = matrix[index][i].multiply(s);
-        }
+        matrix.scaleRow(index,s);
+    }
+
+    /**
+     * Subtracts a multiple of a row from another row (row[targetRow] -= factor * row[sourceRow]).
+     * The product and the difference are fused and each result is reduced once.
+     * @param targetRow The index of the row to update.
+     * @param factor The factor.
+     * @param sourceRow The index of the row to subtract.
+     * @throws AssertionError The indexes have to be between 0 and rowNum-1 and different.
+     */
+    public void subtractMultipleOfRow(int targetRow, RationalNumber factor, int sourceRow){
+        assert(targetRow>=0 && targetRow<rowNum && sourceRow>=0 && sourceRow<rowNum):"The indexes have to be between 0 and rowNum-1";
+        assert(targetRow!=sourceRow):"The target row and the source row have to be different";
+        matrix.subtractMultipleOfRow(targetRow,factor,sourceRow);
+    }
+
+    /**
+     * Subtracts a multiple of a row from another row, touching only the columns where the source row is not 0.
+     * @param targetRow The index of the row to update.
+     * @param factor The factor.
+     * @param sourceRow The index of the row to subtract.
+     * @param columns The columns where the source row is not 0, as given by getNonZeroColumns.
+     * @throws AssertionError The indexes have to be between 0 and rowNum-1 and different.
+     */
+    public void subtractMultipleOfRow(int targetRow, RationalNumber factor, int sourceRow, int[] columns){
+        assert(targetRow>=0 && targetRow<rowNum && sourceRow>=0 && sourceRow<rowNum):"The indexes have to be between 0 and rowNum-1";
+        assert(targetRow!=sourceRow):"The target row and the source row have to be different";
+        matrix.subtractMultipleOfRow(targetRow,factor,sourceRow,columns);
     }
 
     /**
@@ -231,7 +546,7 @@ public class RationalNumberMatrix {
     public void multiplyColumnByScalar(int index, RationalNumber s){
         assert(index>=0 && index<colNum):"The index has to be between 0 and colNum-1";
         for(int i=0;i<rowNum;i++){
-            matrix[i][index] = matrix[i][index].multiply(s);
+            matrix.set(i,index,matrix.get(i,index).multiply(s));
         }
     }
 
@@ -252,14 +567,15 @@ public class RationalNumberMatrix {
     }
 
     /**
-     * Returns a row of the matrix.
+     * Returns a row of the matrix. With the OBJECT storage the returned array is the row itself,
+     * with the PACKED storage it is a copy.
      * @param index The index of the row.
      * @return The row of the matrix at the index.
      * @throws AssertionError The index has to be between 0 and rowNum-1.
      */
     public RationalNumber[] getRow(int index){
         assert(index>=0 && index<rowNum):"The index has to be between 0 and rowNum-1";
-        return matrix[index];
+        return matrix.getRow(index);
     }
 
     /**
@@ -270,7 +586,7 @@ public class RationalNumberMatrix {
      */
     public void setRow(int index, RationalNumber[] newRow){
         assert(index>=0 && index<rowNum):"The index has to be between 0 and rowNum-1";
-        matrix[index] = newRow;
+        matrix.setRow(index,newRow);
     }
 
     /**
@@ -284,9 +600,10 @@ public class RationalNumberMatrix {
         int countOne=0;
         int countZero=0;
         for(int r=0;r<rowNum;r++){
-            if(matrix[r][index].equals(RationalNumber.ONE)){
+            RationalNumber n = matrix.get(r,index);
+            if(n.equals(RationalNumber.ONE)){
                 countOne++;
-            }else if(matrix[r][index].equals(RationalNumber.ZERO)){
+            }else if(n.equals(RationalNumber.ZERO)){
                 countZero++;
             }
         }
@@ -0,0 +1,128 @@
+package Model;
+
+/**
+ * Read-only window on a RationalNumberMatrix: a block of it, possibly transposed.
+ * No cell is copied, the view reads the matrix it was made from and sees its later changes.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class RationalNumberMatrixView {
+    private final RationalNumberMatrix source;
+    // position of the view's first cell in the source
+    private final int fromRow, fromCol;
+    private final int rowNum, colNum;
+    // true if the view's rows are columns of the source
+    private final boolean transposed;
+
+    /**
+     * Constructor.
+     * @param source The matrix read by the view.
+     * @param fromRow The source row of the view's first cell.
+     * @param fromCol The source column of the view's first cell.
+     * @param rowNum The view's number of rows.
+     * @param colNum The view's number of columns.
+     * @param transposed True if the view's rows are columns of the source.
+     */
+    RationalNumberMatrixView(RationalNumberMatrix source, int fromRow, int fromCol, int rowNum, int colNum, boolean transposed){
+        this.source = source;
+        this.fromRow = fromRow;
+        this.fromCol = fromCol;
+        this.rowNum = rowNum;
+        this.colNum = colNum;
+        this.transposed = transposed;
+    }
+
+    /**
+     * Returns the element at the specified position in this view.
+     * @param row The row index of the element to return.
+     * @param col The column index of the element to return.
+     * @return The element at the specified position in this view.
+     * @throws AssertionError If the index is out of range.
+     */
+    public RationalNumber get(int row, int col){
+        assert(row>=0 && row<rowNum && col>=0 && col<colNum):"The index is out of the view";
+        return transposed ? source.get(fromRow+col,fromCol+row) : source.get(fromRow+row,fromCol+col);
+    }
+
+    /**
+     * Returns the sign of an element without building it.
+     * @param row The row index of the element.
+     * @param col The column index of the element.
+     * @return -1, 0 or 1 as the element is negative, zero or positive.
+     * @throws AssertionError If the index is out of range.
+     */
+    public int signum(int row, int col){
+        assert(row>=0 && row<rowNum && col>=0 && col<colNum):"The index is out of the view";
+        return transposed ? source.signum(fromRow+col,fromCol+row) : source.signum(fromRow+row,fromCol+col);
+    }
+
+    /**
+     * Returns the view's number of rows.
+     * @return The view's number of rows.
+     */
+    public int getRowNum(){
+        return rowNum;
+    }
+
+    /**
+     * Returns the view's number of columns.
+     * @return The view's number of columns.
+     */
+    public int getColNum(){
+        return colNum;
+    }
+
+    /**
+     * Returns the transpose of this view, reading the same matrix.
+     * @return The transposed view.
+     */
+    public RationalNumberMatrixView transpose(){
+        return new RationalNumberMatrixView(source,fromRow,fromCol,colNum,rowNum,!transposed);
+    }
+
+    /**
+     * Returns a block of this view, reading the same matrix.
+     * @param fromRow The index of the block's first row in this view.
+     * @param fromCol The index of the block's first column in this view.
+     * @param rowNum The block's number of rows.
+     * @param colNum The block's number of columns.
+     * @return The view of the block.
+     * @throws AssertionError The block has to be inside this view and not empty.
+     */
+    public RationalNumberMatrixView subMatrix(int fromRow, int fromCol, int rowNum, int colNum){
+        assert(fromRow>=0 && fromCol>=0 && rowNum>0 && colNum>0
+                && fromRow+rowNum<=this.rowNum && fromCol+colNum<=this.colNum):"The block has to be inside the view and not empty";
+        if(transposed){
+            return new RationalNumberMatrixView(source,this.fromRow+fromCol,this.fromCol+fromRow,rowNum,colNum,true);
+        }
+        return new RationalNumberMatrixView(source,this.fromRow+fromRow,this.fromCol+fromCol,rowNum,colNum,false);
+    }
+
+    /**
+     * Copies the view into a new matrix, using the storage mode of the matrix it reads.
+     * @return The new matrix.
+     */
+    public RationalNumberMatrix toMatrix(){
+        RationalNumberMatrix m = new RationalNumberMatrix(rowNum,colNum,source.getStorage());
+        for(int r=0;r<rowNum;r++){
+            for(int c=0;c<colNum;c++){
+                m.set(r,c,get(r,c));
+            }
+        }
+        return m;
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder strb = new StringBuilder();
+        for(int i = 0; i<rowNum; i++){
+            for(int j = 0; j<colNum; j++){
+                strb.append(get(i,j)+" ");
+            }
+            strb.deleteCharAt(strb.length()-1);
+            strb.append("\n");
+        }
+        strb.deleteCharAt(strb.length()-1);
+        return strb.toString();
+    }
+}
@@ -0,0 +1,532 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Revised simplex method: the constraint matrix is never changed, only its basis is factorized.
+ * Each iteration solves B^T y = c_B (BTRAN) to price the columns and B alpha = a_q (FTRAN) to get the entering column,
+ * so it costs about the number of nonzero elements instead of rows*cols. The basis is kept as an LU factorization
+ * with product form etas, and factorized again every few iterations (see BasisFactorization).
+ * It starts from the same basis and makes the same choices as Simplex on the same tableau: the first column with the largest
+ * value in the last row enters, the first row with the smallest positive ratio departs. In exact arithmetic it gives
+ * the same results as Simplex, in double arithmetic it tests signs against a tolerance.
+ * @param <T> The type of the numbers, RationalNumber or Double.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class RevisedSimplex<T> implements SimplexEngine {
+    public static final int DEFAULT_REFACTORIZATION_INTERVAL = 64;
+
+    private final Arithmetic<T> arithmetic;
+    private int rows, cols;
+    // constraint rows of the starting tableau, compressed sparse columns
+    private int[] colStart;
+    private int[] rowIndexes;
+    private T[] values;
+    // last row and right hand side of the starting tableau
+    private T[] cost;
+    private T[] rhs;
+    private T objectiveRhs;
+    // for each constraint row, its basic column, or -1 for the unit column of that row which is not in the tableau
+    private int[] basis;
+    // for each column, its row in the basis, or -1
+    private int[] positionOfColumn;
+    private BasisFactorization<T> factorization;
+    private int refactorizationInterval = DEFAULT_REFACTORIZATION_INTERVAL;
+    // values of the basic variables, by row
+    private T[] basicValues;
+    // last row of the current tableau, null when the basis changed since it was computed
+    private T[] reducedCosts;
+    private T[] duals;
+    private boolean solutionIsUnbounded = false;
+    private int nbVariables;
+    private boolean isDual;
+    // the variables that are not lower bounded, split in two columns
+    private BitSet notLowerBounded;
+    private int iterationCount = 0;
+    private int iterationLimit = Integer.MAX_VALUE;
+    private int stallThreshold = Simplex.DEFAULT_STALL_THRESHOLD;
+    // pivots in a row on a basic value of 0, which left the objective value unchanged
+    private int degeneratePivots = 0;
+
+    /**
+     * Returns a revised simplex in exact arithmetic for a problem, giving the same results as MLO_RB.solve.
+     * @param mloProblem The MLO problem, it has to be feasible.
+     * @return The revised simplex.
+     */
+    public static RevisedSimplex<RationalNumber> exact(MLOProblem mloProblem){
+        return create(mloProblem,Arithmetic.RATIONAL);
+    }
+
+    /**
+     * Returns a revised simplex in double arithmetic for a problem. Its numbers are boxed Doubles, see Arithmetic.
+     * @param mloProblem The MLO problem, it has to be feasible.
+     * @param tolerance The values within this tolerance of 0 are taken as 0.
+     * @return The revised simplex.
+     * @throws AssertionError The tolerance has to be positive.
+     */
+    public static RevisedSimplex<Double> inDoubles(MLOProblem mloProblem, double tolerance){
+        return create(mloProblem,Arithmetic.doubles(tolerance));
+    }
+
+    /**
+     * Builds the starting tableau of a problem, or of its dual problem when MLO_RB.solve would solve it.
+     * The bounds of the variables are given as constraints.
+     */
+    private static <T> RevisedSimplex<T> create(MLOProblem mloProblemP, Arithmetic<T> arithmetic){
+        MLOProblem mloProblem = mloProblemP.withBoundsAsConstraints();
+        boolean isDual = MLO_RB.solvesDual(mloProblem);
+        CompactTableau tableau = isDual ? ProblemToMatrixTransformation.problemToCompactDualProblemMatrix(mloProblem)
+                : ProblemToMatrixTransformation.problemToCompactProblemMatrix(mloProblem);
+        return new RevisedSimplex<>(tableau,tableau.getNbExplicitColumns(),isDual,mloProblem.getNotLowerBoundedVariableIndexes(),arithmetic);
+    }
+
+    /**
+     * Constructor.
+     * @param tableau The beginning tableau of the method, it is not changed.
+     * @param nbVariables The number of variables in the problem.
+     * @param isDual True if we are solving the dual method, false else.
+     * @param notLowerBoundedVariableIndexes The indexes of the variables that are not lower bounded, or null.
+     * @param arithmetic The arithmetic to compute with.
+     * @throws ArithmeticException The starting basis is singular within the tolerance of the arithmetic.
+     */
+    RevisedSimplex(CompactTableau tableau, int nbVariables, boolean isDual, Integer[] notLowerBoundedVariableIndexes, Arithmetic<T> arithmetic){
+        this.arithmetic = arithmetic;
+        rows = tableau.getRowNum();
+        cols = tableau.getColNum();
+        this.nbVariables = nbVariables;
+        this.isDual = isDual;
+        notLowerBounded = MLOProblem.toIndexSet(notLowerBoundedVariableIndexes);
+        readTableau(tableau);
+
+        // the columns filled with a single 1 and 0s start in the basis, the slack variables' ones first like in Simplex
+        basis = new int[rows-1];
+        Arrays.fill(basis,-1);
+        positionOfColumn = new int[cols-1];
+        Arrays.fill(positionOfColumn,-1);
+        for(int k=0;k<cols-1;k++){
+            int c = (tableau.getNbExplicitColumns()+k)%(cols-1);
+            if(colStart[c+1]-colStart[c]==1 && arithmetic.compare(values[colStart[c]],arithmetic.one())==0 && arithmetic.signum(cost[c])==0){
+                int r = rowIndexes[colStart[c]];
+                if(basis[r]==-1){
+                    basis[r] = c;
+                    positionOfColumn[c] = r;
+                }
+            }
+        }
+
+        factorization = new BasisFactorization<>(arithmetic,rows-1);
+        refactorize();
+    }
+
+    /**
+     * Reads the constraint matrix, the last row and the right hand side of the starting tableau.
+     * @param tableau The starting tableau.
+     */
+    private void readTableau(CompactTableau tableau){
+        int nbExplicit = tableau.getNbExplicitColumns();
+        SparseRationalNumberMatrix explicit = SparseRationalNumberMatrix.fromDense(tableau.getMatrix());
+        colStart = new int[cols];
+        int count = 0;
+        for(int c=0;c<cols-1;c++){
+            if(c<nbExplicit){
+                for(int r : explicit.getRowIndexesOfColumn(c)){
+                    if(r<rows-1){
+                        count++;
+                    }
+                }
+            }else if(tableau.getUnitRow(c)!=-1){
+                count++;
+            }
+            colStart[c+1] = count;
+        }
+
+        rowIndexes = new int[count];
+        values = arithmetic.newArray(count);
+        int index = 0;
+        for(int c=0;c<cols-1;c++){
+            if(c<nbExplicit){
+                int[] colRows = explicit.getRowIndexesOfColumn(c);
+                RationalNumber[] colValues = explicit.getValuesOfColumn(c);
+                for(int e=0;e<colRows.length;e++){
+                    if(colRows[e]<rows-1){
+                        rowIndexes[index] = colRows[e];
+                        values[index++] = arithmetic.fromRational(colValues[e]);
+                    }
+                }
+            }else if(tableau.getUnitRow(c)!=-1){
+                int r = tableau.getUnitRow(c);
+                rowIndexes[index] = r;
+                values[index++] = arithmetic.fromRational(tableau.get(r,c));
+            }
+        }
+
+        cost = arithmetic.newArray(cols-1);
+        for(int c=0;c<cols-1;c++){
+            cost[c] = arithmetic.fromRational(tableau.get(rows-1,c));
+        }
+        rhs = arithmetic.newArray(rows-1);
+        for(int r=0;r<rows-1;r++){
+            rhs[r] = arithmetic.fromRational(tableau.get(r,cols-1));
+        }
+        objectiveRhs = arithmetic.fromRational(tableau.get(rows-1,cols-1));
+    }
+
+    /**
+     * Sets the number of basis changes after which the basis is factorized again.
+     * @param refactorizationInterval The number of basis changes.
+     * @throws AssertionError The interval has to be at least 1.
+     */
+    public void setRefactorizationInterval(int refactorizationInterval){
+        assert(refactorizationInterval>=1):"The interval has to be at least 1";
+        this.refactorizationInterval = refactorizationInterval;
+    }
+
+    /**
+     * Factorizes the basis and computes the values of the basic variables from the right hand side.
+     * In exact arithmetic the basis is never singular, in double arithmetic a pivot within the tolerance of 0 makes it so.
+     * @throws ArithmeticException The basis is singular, the previous factorization is lost.
+     */
+    private void refactorize(){
+        int[][] columnRows = new int[rows-1][];
+        @SuppressWarnings("unchecked")
+        T[][] columnValues = (T[][])new Object[rows-1][];
+        for(int r=0;r<rows-1;r++){
+            int c = basis[r];
+            if(c==-1){
+                columnRows[r] = new int[]{r};
+                columnValues[r] = arithmetic.newArray(1);
+                columnValues[r][0] = arithmetic.one();
+            }else{
+                columnRows[r] = Arrays.copyOfRange(rowIndexes,colStart[c],colStart[c+1]);
+                columnValues[r] = Arrays.copyOfRange(values,colStart[c],colStart[c+1]);
+            }
+        }
+        if(!factorization.factorize(columnRows,columnValues)){
+            throw new ArithmeticException("The basis is singular");
+        }
+
+        basicValues = factorization.ftran(rhs.clone());
+        reducedCosts = null;
+    }
+
+    /**
+     * Computes the last row of the current tableau: y = B^-T c_B, then c - y A column by column.
+     */
+    private void price(){
+        T[] basicCosts = arithmetic.newArray(rows-1);
+        for(int r=0;r<rows-1;r++){
+            basicCosts[r] = basis[r]==-1 ? arithmetic.zero() : cost[basis[r]];
+        }
+        duals = factorization.btran(basicCosts);
+
+        reducedCosts = arithmetic.newArray(cols-1);
+        for(int c=0;c<cols-1;c++){
+            reducedCosts[c] = positionOfColumn[c]!=-1 ? arithmetic.zero() : reducedCost(c);
+        }
+    }
+
+    /**
+     * Computes the value of a column in the last row of the current tableau.
+     * @param col The column index.
+     * @return The value.
+     */
+    private T reducedCost(int col){
+        T value = cost[col];
+        for(int e=colStart[col];e<colStart[col+1];e++){
+            value = arithmetic.subtract(value,arithmetic.multiply(duals[rowIndexes[e]],values[e]));
+        }
+        return value;
+    }
+
+    /**
+     * Computes the constraint rows of a column of the current tableau: B^-1 a.
+     * @param col The column index.
+     * @return The column, indexed by row.
+     */
+    private T[] column(int col){
+        T[] a = arithmetic.zeros(rows-1);
+        for(int e=colStart[col];e<colStart[col+1];e++){
+            a[rowIndexes[e]] = values[e];
+        }
+        return factorization.ftran(a);
+    }
+
+    /**
+     * Sets the number of pivots compute may do. Once they are done, compute returns ITERATION_LIMIT
+     * unless the matrix is optimal.
+     * @param iterationLimit The number of pivots, unlimited by default.
+     * @throws AssertionError The limit can't be negative.
+     */
+    @Override
+    public void setIterationLimit(int iterationLimit){
+        assert(iterationLimit>=0):"The iteration limit can't be negative";
+        this.iterationLimit = iterationLimit;
+    }
+
+    /**
+     * Sets the number of degenerate pivots in a row after which Bland's rule chooses the pivots, see Simplex.setStallThreshold.
+     * @param stallThreshold The number of degenerate pivots, Simplex.DEFAULT_STALL_THRESHOLD by default.
+     * @throws AssertionError The threshold can't be negative.
+     */
+    public void setStallThreshold(int stallThreshold){
+        assert(stallThreshold>=0):"The stall threshold can't be negative";
+        this.stallThreshold = stallThreshold;
+    }
+
+    /**
+     * Returns the number of pivots done by compute.
+     * @return The number of iterations.
+     */
+    @Override
+    public int getIterationCount(){
+        return iterationCount;
+    }
+
+    /**
+     * Computes the next iteration.
+     * @return IS_OPTIMAL if the solution is optimal, UNBOUNDED if the solution is unbounded,
+     * ITERATION_LIMIT if the iteration limit is reached, else NOT_OPTIMAL.
+     * @throws ArithmeticException The basis factorized again is singular within the tolerance of the arithmetic.
+     */
+    @Override
+    public Simplex.RESULT compute(){
+        // step 1
+        if(checkOptimality()){
+            return Simplex.RESULT.IS_OPTIMAL; // solution is optimal
+        }
+        if(iterationCount>=iterationLimit){
+            return Simplex.RESULT.ITERATION_LIMIT;
+        }
+
+        // step 2
+        // find the entering column
+        boolean isStalling = degeneratePivots>=stallThreshold;
+        int pivotColumn = findEnteringColumn(isStalling);
+
+        // step 3
+        // find departing value
+        T[] alpha = column(pivotColumn);
+        int pivotRow = findPivotRow(alpha,isStalling);
+        if(solutionIsUnbounded){
+            return Simplex.RESULT.UNBOUNDED;
+        }
+
+        // step 4
+        // change the basis
+        boolean isDegenerate = arithmetic.signum(basicValues[pivotRow])==0;
+        changeBasis(pivotRow,pivotColumn,alpha);
+        iterationCount++;
+        degeneratePivots = isDegenerate ? degeneratePivots+1 : 0;
+
+        return Simplex.RESULT.NOT_OPTIMAL;
+    }
+
+    /**
+     * Replaces the basic column of a row by the entering column.
+     * @param pivotRow The pivot's row index.
+     * @param pivotColumn The pivot's column index.
+     * @param alpha The entering column of the current tableau.
+     */
+    private void changeBasis(int pivotRow, int pivotColumn, T[] alpha){
+        T step = arithmetic.divide(basicValues[pivotRow],alpha[pivotRow]);
+        for(int r=0;r<rows-1;r++){
+            if(r!=pivotRow && arithmetic.signum(alpha[r])!=0){
+                basicValues[r] = arithmetic.subtract(basicValues[r],arithmetic.multiply(alpha[r],step));
+            }
+        }
+        basicValues[pivotRow] = step;
+
+        if(basis[pivotRow]!=-1){
+            positionOfColumn[basis[pivotRow]] = -1;
+        }
+        basis[pivotRow] = pivotColumn;
+        positionOfColumn[pivotColumn] = pivotRow;
+        reducedCosts = null;
+
+        if(factorization.getNbUpdates()+1>=refactorizationInterval){
+            refactorize();
+        }else{
+            factorization.update(pivotRow,alpha);
+        }
+    }
+
+    /**
+     * Finds the departing row with the minimum ratio test.
+     * @param alpha The entering column of the current tableau.
+     * @param isBland True to break the ties by the smallest basic column (Bland's rule), false to keep the first row.
+     * @return The pivot's row index.
+     */
+    private int findPivotRow(T[] alpha, boolean isBland){
+        int firstPositive = -1;
+        int firstZeroRatio = -1;
+        int location = -1;
+        T minimum = null;
+
+        for(int i = 0; i < rows-1; i++){
+            if(arithmetic.signum(alpha[i])>0){ // alpha[i] > 0
+                if(firstPositive==-1){
+                    firstPositive = i;
+                }
+                int valueSign = arithmetic.signum(basicValues[i]);
+                if(valueSign==0 && (firstZeroRatio==-1 || (isBland && basis[i]<basis[firstZeroRatio]))){
+                    firstZeroRatio = i;
+                }
+                if(valueSign>0){ // ratio > 0
+                    T ratio = arithmetic.divide(basicValues[i],alpha[i]);
+                    int comparison = location==-1 ? -1 : arithmetic.compare(ratio,minimum);
+                    if(comparison<0 || (comparison==0 && isBland && basis[i]<basis[location])){ // ratio < minimum
+                        minimum = ratio;
+                        location = i;
+                    }
+                }
+            }
+        }
+
+        if(firstPositive==-1){
+            this.solutionIsUnbounded = true;
+            return -1;
+        }
+        if(firstZeroRatio!=-1){ // a degenerate row is the minimum
+            return firstZeroRatio;
+        }
+
+        if(location==-1){ // no ratio is positive
+            location = firstPositive;
+        }
+
+        return location;
+    }
+
+    /**
+     * Finds the next entering column, the first one with the largest value in the last row.
+     * @param isBland True to take the first column with a positive value instead (Bland's rule).
+     * @return The next entering column index.
+     */
+    private int findEnteringColumn(boolean isBland){
+        int location = 0;
+        if(isBland){
+            while(arithmetic.signum(reducedCosts[location])<=0){
+                location++;
+            }
+            return location;
+        }
+        for(int c = 1; c < cols-1; c++){
+            if(arithmetic.compare(reducedCosts[location],reducedCosts[c])<0){ // maximum < value
+                location = c;
+            }
+        }
+
+        return location;
+    }
+
+    /**
+     * Checks if the current basis is optimal.
+     * @return True if the basis is optimal, else false.
+     */
+    @Override
+    public boolean checkOptimality(){
+        if(reducedCosts==null){
+            price();
+        }
+        for(int c = 0; c < cols-1; c++){
+            if(arithmetic.signum(reducedCosts[c])>0){ // val > 0
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the basis: for each constraint row, the index of its basic column, or -1.
+     * @return The basis.
+     */
+    public int[] getBasis(){
+        return basis.clone();
+    }
+
+    /**
+     * Returns the value of the last row in the right hand side column of the current tableau.
+     * @return The value.
+     */
+    private T objectiveValue(){
+        T value = objectiveRhs;
+        for(int r=0;r<rows-1;r++){
+            if(basis[r]!=-1){
+                value = arithmetic.subtract(value,arithmetic.multiply(cost[basis[r]],basicValues[r]));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns an element of the last row of the current tableau, the right hand side column included.
+     * @param col The column index.
+     * @return The element.
+     */
+    private T lastRow(int col){
+        return col<cols-1 ? reducedCosts[col] : objectiveValue();
+    }
+
+    /**
+     * Get the result in a String. Use it only when done computing.
+     * @return The result in a String.
+     */
+    @Override
+    public String getResult(){
+        StringBuilder str = new StringBuilder();
+        if(reducedCosts==null){
+            price();
+        }
+
+        if(!isDual){
+            if(!solutionIsUnbounded){
+                str.append("\n\nValue of objective function: ");
+                str.append(arithmetic.format(objectiveValue()));
+                str.append("\n");
+                T[] res = arithmetic.newArray(nbVariables);
+                // variables' values
+                for(int i=0;i<nbVariables;i++){
+                    res[i] = positionOfColumn[i]!=-1 ? basicValues[positionOfColumn[i]] : arithmetic.zero();
+                }
+                int countVar = 0;
+                for(int i=0;i<nbVariables;i++){
+                    if(notLowerBounded.get(countVar)){
+                        str.append("Value of var["+countVar+"] = "+arithmetic.format(arithmetic.subtract(res[i],res[i+1]))+"\n");
+                        i++;
+                    }else{
+                        str.append("Value of var["+countVar+"] = "+arithmetic.format(res[i])+"\n");
+                    }
+                    countVar++;
+                }
+            }else{ // solution is unbounded
+                str.append("\n\nSolution is unbounded\n");
+            }
+        }else{ // isDual = true
+            if(solutionIsUnbounded){
+                str.append("\n\nThe problem is infeasible\n");
+            }else{
+                str.append("\n\nValue of objective function: ");
+                str.append(arithmetic.format(arithmetic.negate(objectiveValue())));
+                str.append("\n");
+
+                int count = 0;
+                // variables' values
+                for(int i=nbVariables;count<rows-1;i++){
+                    if(notLowerBounded.get(count)){
+                        str.append("Value of var["+count+"] = "+arithmetic.format(arithmetic.negate(arithmetic.subtract(lastRow(i),lastRow(i+1))))+"\n");
+                        i++;
+                    }else{
+                        str.append("Value of var["+count+"] = "+arithmetic.format(arithmetic.negate(lastRow(i)))+"\n");
+                    }
+
+                    count++;
+                }
+            }
+        }
+
+        return str.toString();
+    }
+}
@@ -0,0 +1,417 @@
+package Model;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Storage keeping each row as integer numerators over one positive row denominator.
+ * After each row operation the integer content of the row (gcd of the numerators and the denominator)
+ * is divided out. A row moves to BigInteger when it overflows and back to longs when it fits again.
+ * Cells in the same row compare as plain integers.
+ * A copy shares the rows, a shared row is copied before its first change (copy-on-write).
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+class RowDenominatorStorage extends MatrixStorage {
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private long[][] numerators;
+    private long[] denominators;
+    // only set for the rows that do not fit in longs
+    private BigInteger[][] bigNumerators;
+    private BigInteger[] bigDenominators;
+    // cells that were never set, null once the whole row is set
+    private BitSet[] unset;
+    // rows also used by a copy, the BigInteger rows are never changed in place and are not tracked
+    private boolean[] shared;
+
+    /**
+     * Constructor.
+     * @param rowNum The number of rows.
+     * @param colNum The number of columns.
+     */
+    RowDenominatorStorage(int rowNum, int colNum){
+        this(rowNum,colNum,true);
+        for(int r=0;r<rowNum;r++){
+            denominators[r] = 1;
+            unset[r] = new BitSet(colNum);
+            unset[r].set(0,colNum);
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param rowNum The number of rows.
+     * @param colNum The number of columns.
+     * @param allocateRows False to leave the rows null, to be filled by copy.
+     */
+    private RowDenominatorStorage(int rowNum, int colNum, boolean allocateRows){
+        super(rowNum,colNum);
+        numerators = allocateRows ? new long[rowNum][colNum] : new long[rowNum][];
+        denominators = new long[rowNum];
+        bigNumerators = new BigInteger[rowNum][];
+        bigDenominators = new BigInteger[rowNum];
+        unset = new BitSet[rowNum];
+        shared = new boolean[rowNum];
+    }
+
+    /**
+     * Copies a row before its first change if it is shared.
+     * @param row The row index.
+     */
+    private void ownRow(int row){
+        if(shared[row]){
+            numerators[row] = numerators[row].clone();
+            if(unset[row]!=null){
+                unset[row] = (BitSet)unset[row].clone();
+            }
+            shared[row] = false;
+        }
+    }
+
+    @Override
+    RationalNumber get(int row, int col){
+        if(unset[row]!=null && unset[row].get(col)){
+            return null;
+        }
+        if(bigNumerators[row]!=null){
+            return new RationalNumber(bigNumerators[row][col],bigDenominators[row]);
+        }
+        return new RationalNumber(numerators[row][col],denominators[row]);
+    }
+
+    @Override
+    void set(int row, int col, RationalNumber n){
+        ownRow(row);
+        if(n==null){
+            if(unset[row]==null){
+                unset[row] = new BitSet(colNum);
+            }
+            unset[row].set(col);
+            n = RationalNumber.ZERO;
+        }else if(unset[row]!=null){
+            unset[row].clear(col);
+            if(unset[row].isEmpty()){
+                unset[row] = null;
+            }
+        }
+
+        if(bigNumerators[row]==null && n.fitsInLong()){
+            long[] nums = numerators[row];
+            long den = denominators[row];
+            long cellDen = n.getDenominator();
+            try{
+                // bring the row to the lcm of both denominators
+                long mult = cellDen/RationalNumber.gcd(den,cellDen);
+                if(mult!=1){
+                    long[] scaled = new long[colNum];
+                    for(int c=0;c<colNum;c++){
+                        scaled[c] = Math.multiplyExact(nums[c],mult);
+                    }
+                    den = Math.multiplyExact(den,mult);
+                    nums = scaled;
+                }
+                long cellNum = Math.multiplyExact(n.getNumerator(),den/cellDen);
+                if(cellNum!=Long.MIN_VALUE){
+                    nums[col] = cellNum;
+                    numerators[row] = nums;
+                    denominators[row] = den;
+                    return;
+                }
+            }catch(ArithmeticException e){
+                // overflow, use the arbitrary precision path below
+            }
+        }
+
+        BigInteger[] nums = getBigRow(row);
+        BigInteger den = getBigDenominator(row);
+        BigInteger cellDen = n.getBigDenominator();
+        BigInteger mult = cellDen.divide(den.gcd(cellDen));
+        if(!mult.equals(BigInteger.ONE)){
+            for(int c=0;c<colNum;c++){
+                nums[c] = nums[c].multiply(mult);
+            }
+            den = den.multiply(mult);
+        }
+        nums[col] = n.getBigNumerator().multiply(den.divide(cellDen));
+        setBigRow(row,nums,den);
+    }
+
+    @Override
+    void swapRows(int index1, int index2){
+        long[] temp = numerators[index1];
+        numerators[index1] = numerators[index2];
+        numerators[index2] = temp;
+        long tempDen = denominators[index1];
+        denominators[index1] = denominators[index2];
+        denominators[index2] = tempDen;
+        BigInteger[] tempBig = bigNumerators[index1];
+        bigNumerators[index1] = bigNumerators[index2];
+        bigNumerators[index2] = tempBig;
+        BigInteger tempBigDen = bigDenominators[index1];
+        bigDenominators[index1] = bigDenominators[index2];
+        bigDenominators[index2] = tempBigDen;
+        BitSet tempUnset = unset[index1];
+        unset[index1] = unset[index2];
+        unset[index2] = tempUnset;
+        boolean tempShared = shared[index1];
+        shared[index1] = shared[index2];
+        shared[index2] = tempShared;
+    }
+
+    @Override
+    MatrixStorage copy(){
+        RowDenominatorStorage s = new RowDenominatorStorage(rowNum,colNum,false);
+        System.arraycopy(denominators,0,s.denominators,0,rowNum);
+        System.arraycopy(bigNumerators,0,s.bigNumerators,0,rowNum);
+        System.arraycopy(bigDenominators,0,s.bigDenominators,0,rowNum);
+        System.arraycopy(numerators,0,s.numerators,0,rowNum);
+        System.arraycopy(unset,0,s.unset,0,rowNum);
+        Arrays.fill(s.shared,true);
+        Arrays.fill(shared,true);
+        return s;
+    }
+
+    @Override
+    RationalNumberMatrix.STORAGE getMode(){
+        return RationalNumberMatrix.STORAGE.ROW_DENOMINATOR;
+    }
+
+    @Override
+    int signum(int row, int col){
+        if(bigNumerators[row]!=null){
+            return bigNumerators[row][col].signum();
+        }
+        return Long.signum(numerators[row][col]);
+    }
+
+    @Override
+    double getDouble(int row, int col){
+        if(bigNumerators[row]!=null){
+            return new RationalNumber(bigNumerators[row][col],bigDenominators[row]).toDouble();
+        }
+        return (double)numerators[row][col]/(double)denominators[row];
+    }
+
+    @Override
+    int compareInRow(int row, int col1, int col2){
+        if(bigNumerators[row]!=null){
+            return bigNumerators[row][col1].compareTo(bigNumerators[row][col2]);
+        }
+        return Long.compare(numerators[row][col1],numerators[row][col2]);
+    }
+
+    @Override
+    int compareRatios(int row1, int row2, int numCol, int denCol){
+        // the row denominators cancel out
+        if(bigNumerators[row1]==null && bigNumerators[row2]==null){
+            return RationalNumber.compare(numerators[row1][numCol],numerators[row1][denCol],numerators[row2][numCol],numerators[row2][denCol]);
+        }
+        BigInteger[] r1 = getBigRow(row1);
+        BigInteger[] r2 = getBigRow(row2);
+        return r1[numCol].multiply(r2[denCol]).compareTo(r2[numCol].multiply(r1[denCol]));
+    }
+
+    @Override
+    void scaleRow(int row, RationalNumber s){
+        ownRow(row);
+        if(bigNumerators[row]==null && s.fitsInLong()){
+            long sn = s.getNumerator();
+            long sd = s.getDenominator();
+            long[] nums = numerators[row];
+            long g = RationalNumber.gcd(Math.abs(sn),denominators[row]);
+            long mult = sn/g;
+            int c = 0;
+            try{
+                long den = Math.multiplyExact(denominators[row]/g,sd);
+                for(;c<colNum;c++){
+                    nums[c] = exact(Math.multiplyExact(nums[c],mult));
+                }
+                denominators[row] = den;
+                normalize(row);
+                return;
+            }catch(ArithmeticException e){
+                // overflow, the cells before c are already scaled
+                BigInteger bigMult = BigInteger.valueOf(mult);
+                BigInteger[] big = new BigInteger[colNum];
+                for(int i=0;i<colNum;i++){
+                    big[i] = i<c ? BigInteger.valueOf(nums[i]) : BigInteger.valueOf(nums[i]).multiply(bigMult);
+                }
+                setBigRow(row,big,BigInteger.valueOf(denominators[row]/g).multiply(BigInteger.valueOf(sd)));
+                return;
+            }
+        }
+
+        BigInteger[] nums = getBigRow(row);
+        BigInteger sn = s.getBigNumerator();
+        BigInteger g = sn.abs().gcd(getBigDenominator(row));
+        BigInteger mult = sn.divide(g);
+        for(int c=0;c<colNum;c++){
+            nums[c] = nums[c].multiply(mult);
+        }
+        setBigRow(row,nums,getBigDenominator(row).divide(g).multiply(s.getBigDenominator()));
+    }
+
+    @Override
+    void subtractMultipleOfRow(int target, RationalNumber factor, int source){
+        if(factor.signum()==0){
+            return;
+        }
+        ownRow(target);
+        // target = nt/dt - (fn/fd) * ns/ds = (nt * (fd*ds)/g - fn * (dt/g) * ns) / lcm(dt, fd*ds)
+        if(bigNumerators[target]==null && bigNumerators[source]==null && factor.fitsInLong()){
+            long fn = factor.getNumerator();
+            long fd = factor.getDenominator();
+            long dt = denominators[target];
+            long[] nt = numerators[target];
+            long[] ns = numerators[source];
+            int c = 0;
+            try{
+                long a = Math.multiplyExact(fd,denominators[source]);
+                long g = RationalNumber.gcd(dt,a);
+                long targetMult = a/g;
+                long sourceMult = Math.multiplyExact(fn,dt/g);
+                long den = Math.multiplyExact(dt,targetMult);
+                for(;c<colNum;c++){
+                    long v = Math.multiplyExact(nt[c],targetMult);
+                    if(ns[c]!=0){
+                        v = Math.subtractExact(v,Math.multiplyExact(sourceMult,ns[c]));
+                    }
+                    nt[c] = exact(v);
+                }
+                denominators[target] = den;
+                normalize(target);
+                return;
+            }catch(ArithmeticException e){
+                // overflow, the cells before c already hold their new value
+                BigInteger a = BigInteger.valueOf(fd).multiply(BigInteger.valueOf(denominators[source]));
+                BigInteger bigDt = BigInteger.valueOf(dt);
+                BigInteger g = bigDt.gcd(a);
+                BigInteger targetMult = a.divide(g);
+                BigInteger sourceMult = BigInteger.valueOf(fn).multiply(bigDt.divide(g));
+                BigInteger[] big = new BigInteger[colNum];
+                for(int i=0;i<colNum;i++){
+                    big[i] = BigInteger.valueOf(nt[i]);
+                    if(i>=c){
+                        big[i] = big[i].multiply(targetMult).subtract(sourceMult.multiply(BigInteger.valueOf(ns[i])));
+                    }
+                }
+                setBigRow(target,big,bigDt.multiply(targetMult));
+                return;
+            }
+        }
+
+        BigInteger[] nt = getBigRow(target);
+        BigInteger[] ns = bigNumerators[source]!=null ? bigNumerators[source] : getBigRow(source);
+        BigInteger dt = getBigDenominator(target);
+        BigInteger a = factor.getBigDenominator().multiply(getBigDenominator(source));
+        BigInteger g = dt.gcd(a);
+        BigInteger targetMult = a.divide(g);
+        BigInteger sourceMult = factor.getBigNumerator().multiply(dt.divide(g));
+        for(int c=0;c<colNum;c++){
+            nt[c] = nt[c].multiply(targetMult);
+            if(ns[c].signum()!=0){
+                nt[c] = nt[c].subtract(sourceMult.multiply(ns[c]));
+            }
+        }
+        setBigRow(target,nt,dt.multiply(targetMult));
+    }
+
+    /**
+     * The whole target row is updated: a change of its common denominator rescales every cell.
+     */
+    @Override
+    void subtractMultipleOfRow(int target, RationalNumber factor, int source, int[] columns){
+        subtractMultipleOfRow(target,factor,source);
+    }
+
+    /**
+     * Rejects Long.MIN_VALUE so that Math.abs never overflows.
+     */
+    private static long exact(long v){
+        if(v==Long.MIN_VALUE){
+            throw new ArithmeticException("long overflow");
+        }
+        return v;
+    }
+
+    /**
+     * Divides a long row by its integer content.
+     * @param row The row index.
+     */
+    private void normalize(int row){
+        long[] nums = numerators[row];
+        long g = denominators[row];
+        for(int c=0;c<colNum && g!=1;c++){
+            if(nums[c]!=0){
+                g = RationalNumber.gcd(g,Math.abs(nums[c]));
+            }
+        }
+        if(g>1){
+            for(int c=0;c<colNum;c++){
+                nums[c] /= g;
+            }
+            denominators[row] /= g;
+        }
+    }
+
+    /**
+     * Stores a row in BigInteger form, divides it by its integer content and moves it back to longs when it fits.
+     * @param row The row index.
+     * @param nums The numerators.
+     * @param den The positive denominator.
+     */
+    private void setBigRow(int row, BigInteger[] nums, BigInteger den){
+        BigInteger g = den;
+        for(int c=0;c<colNum && !g.equals(BigInteger.ONE);c++){
+            if(nums[c].signum()!=0){
+                g = g.gcd(nums[c]);
+            }
+        }
+        if(!g.equals(BigInteger.ONE)){
+            for(int c=0;c<colNum;c++){
+                nums[c] = nums[c].divide(g);
+            }
+            den = den.divide(g);
+        }
+
+        boolean fits = den.compareTo(LONG_MAX)<=0;
+        for(int c=0;c<colNum && fits;c++){
+            fits = nums[c].compareTo(LONG_MIN)>0 && nums[c].compareTo(LONG_MAX)<=0;
+        }
+        if(fits){
+            long[] longs = numerators[row];
+            for(int c=0;c<colNum;c++){
+                longs[c] = nums[c].longValue();
+            }
+            denominators[row] = den.longValue();
+            bigNumerators[row] = null;
+            bigDenominators[row] = null;
+        }else{
+            bigNumerators[row] = nums;
+            bigDenominators[row] = den;
+        }
+    }
+
+    /**
+     * Returns a row in BigInteger form. The array can be modified by the caller.
+     * @param row The row index.
+     * @return The numerators of the row.
+     */
+    private BigInteger[] getBigRow(int row){
+        if(bigNumerators[row]!=null){
+            return bigNumerators[row].clone();
+        }
+        BigInteger[] nums = new BigInteger[colNum];
+        for(int c=0;c<colNum;c++){
+            nums[c] = BigInteger.valueOf(numerators[row][c]);
+        }
+        return nums;
+    }
+
+    private BigInteger getBigDenominator(int row){
+        return bigNumerators[row]!=null ? bigDenominators[row] : BigInteger.valueOf(denominators[row]);
+    }
+}
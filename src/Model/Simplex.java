@@ -1,18 +1,50 @@
 package Model;
 
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 /**
  * @author Raphaël Bagat
  * @version 0.6
  */
-public class Simplex {
-    private RationalNumberMatrix matrix;
+public class Simplex implements SimplexEngine {
+    // relative error allowed between a value and its double approximation, far above the real error of a few ulps
+    private static final double SHADOW_ERROR = 1e-12;
+    // number of cells an operation has to touch to be split across threads
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 50000;
+    // number of degenerate pivots in a row after which Bland's rule chooses the pivots
+    public static final int DEFAULT_STALL_THRESHOLD = 50;
+
+    // the slack variables' columns may be implicit
+    private CompactTableau tableau;
+    // double approximations of the last row, and of the ratios of the current ratio test
+    private double[] objectiveShadow;
+    private double[] ratioShadow;
     private int rows, cols;
+    // for each constraint row, its basic column, or -1; for each column, its row in the basis, or -1
+    private int[] basis;
+    private int[] rowOfColumn;
     private boolean solutionIsUnbounded = false;
     private int nbVariables;
     private boolean isDual;
-    private Integer[] notLowerBoundedVariableIndexes;
+    // the variables that are not lower bounded, split in two columns
+    private BitSet notLowerBounded;
+    // null when solving on one thread
+    private ForkJoinPool pool = null;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    // chooses the entering column, initialized before the first pivot it chooses
+    private PricingRule pricingRule = new DantzigPricing();
+    private boolean isPricingInitialized = false;
+    private final PricingTableau pricingView = new PricingView();
+    private int iterationCount = 0;
+    private int iterationLimit = Integer.MAX_VALUE;
+    private int stallThreshold = DEFAULT_STALL_THRESHOLD;
+    // pivots in a row on a right hand side value of 0, which left the objective value unchanged
+    private int degeneratePivots = 0;
+    private final PricingRule blandRule = new BlandPricing();
 
     /**
      * Constructor.
@@ -21,46 +53,232 @@ public class Simplex {
      * @param isDual True if we are solving the dual method, false else.
      */
     public Simplex(RationalNumberMatrix m, int nbVariables, boolean isDual, Integer[] notLowerBoundedVariableIndexes){
-        matrix = m.clone();
-        rows = m.getRowNum();
-        cols = m.getColNum();
+        this(new CompactTableau(m.clone()),nbVariables,isDual,notLowerBoundedVariableIndexes);
+    }
+
+    /**
+     * Constructor, for a tableau built by ProblemToMatrixTransformation.problemToCompactProblemMatrix or problemToCompactDualProblemMatrix.
+     * The slack variables' columns stay implicit until they leave the basis.
+     * @param tableau The beginning tableau of the method, it is changed by the method.
+     * @param nbVariables The number of variables in the problem.
+     * @param isDual True if we are solving the dual method, false else.
+     */
+    Simplex(CompactTableau tableau, int nbVariables, boolean isDual, Integer[] notLowerBoundedVariableIndexes){
+        this.tableau = tableau;
+        rows = tableau.getRowNum();
+        cols = tableau.getColNum();
         this.nbVariables = nbVariables;
         this.isDual = isDual;
-        this.notLowerBoundedVariableIndexes = notLowerBoundedVariableIndexes;
+        notLowerBounded = MLOProblem.toIndexSet(notLowerBoundedVariableIndexes);
+        objectiveShadow = new double[cols];
+        ratioShadow = new double[rows];
+        updateObjectiveShadow();
+        initBasis();
+    }
+
+    /**
+     * Finds the starting basis: the columns filled with a single 1 and 0s.
+     * The slack variables' columns are taken first, so a variable whose column happens to be a unit column
+     * only starts in the basis on a row without a slack variable.
+     */
+    private void initBasis(){
+        basis = new int[rows-1];
+        Arrays.fill(basis,-1);
+        rowOfColumn = new int[cols-1];
+        Arrays.fill(rowOfColumn,-1);
+        for(int k = 0; k < cols-1; k++){
+            int c = (nbVariables+k)%(cols-1);
+            if(tableau.doesColumnContainOneOnly(c)){
+                for(int r = 0; r < rows-1; r++){
+                    if(basis[r]==-1 && tableau.signum(r,c)!=0){
+                        basis[r] = c;
+                        rowOfColumn[c] = r;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a pivot in the basis.
+     * @param pivotRow The pivot's row index.
+     * @param pivotColumn The pivot's column index, it enters the basis on the pivot's row.
+     */
+    private void updateBasis(int pivotRow, int pivotColumn){
+        if(basis[pivotRow]!=-1){
+            rowOfColumn[basis[pivotRow]] = -1;
+        }
+        if(rowOfColumn[pivotColumn]!=-1){
+            basis[rowOfColumn[pivotColumn]] = -1;
+        }
+        basis[pivotRow] = pivotColumn;
+        rowOfColumn[pivotColumn] = pivotRow;
     }
 
     public enum RESULT{
         NOT_OPTIMAL,
         IS_OPTIMAL,
-        UNBOUNDED
+        UNBOUNDED,
+        ITERATION_LIMIT,
+        INFEASIBLE // only returned by BoundedSimplex and DualSimplex, which start from an infeasible basis
     };
 
+    /**
+     * Sets the number of threads used by the row elimination and the scans of the last row.
+     * The rows are independent, so each thread updates its own rows. The pool is shut down when the computation ends.
+     * @param parallelism The number of threads, 1 to solve on the calling thread only.
+     * @throws AssertionError The parallelism has to be at least 1.
+     */
+    public void setParallelism(int parallelism){
+        assert(parallelism>=1):"The parallelism has to be at least 1";
+        shutdownPool();
+        if(parallelism>1){
+            pool = new ForkJoinPool(parallelism);
+        }
+    }
+
+    /**
+     * Sets the number of cells an operation has to touch to be split across threads.
+     * Below it, the operation stays on the calling thread.
+     * @param parallelThreshold The number of cells.
+     */
+    public void setParallelThreshold(int parallelThreshold){
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Sets the rule choosing the entering column. The default rule is DantzigPricing.
+     * @param pricingRule The rule.
+     * @throws AssertionError The rule can't be null.
+     */
+    public void setPricingRule(PricingRule pricingRule){
+        assert(pricingRule!=null):"The pricing rule can't be null";
+        this.pricingRule = pricingRule;
+        isPricingInitialized = false;
+    }
+
+    /**
+     * Sets the number of pivots compute may do. Once they are done, compute returns ITERATION_LIMIT
+     * until the matrix is optimal, which it is not.
+     * @param iterationLimit The number of pivots, unlimited by default.
+     * @throws AssertionError The limit can't be negative.
+     */
+    public void setIterationLimit(int iterationLimit){
+        assert(iterationLimit>=0):"The iteration limit can't be negative";
+        this.iterationLimit = iterationLimit;
+    }
+
+    /**
+     * Sets the number of degenerate pivots in a row after which the pivots stall: the pricing rule then gives way to Bland's rule,
+     * which can't cycle, until a pivot changes the objective value.
+     * @param stallThreshold The number of degenerate pivots, DEFAULT_STALL_THRESHOLD by default, 0 to always use Bland's rule.
+     * @throws AssertionError The threshold can't be negative.
+     */
+    public void setStallThreshold(int stallThreshold){
+        assert(stallThreshold>=0):"The stall threshold can't be negative";
+        this.stallThreshold = stallThreshold;
+    }
+
+    /**
+     * Returns the number of pivots done by compute.
+     * @return The number of iterations.
+     */
+    public int getIterationCount(){
+        return iterationCount;
+    }
+
+    /**
+     * Shuts the thread pool down, the next operations run on the calling thread.
+     */
+    private void shutdownPool(){
+        if(pool!=null){
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Tells if an operation is split across threads.
+     * @param cells The number of cells the operation touches.
+     * @return True if the operation runs in the pool, else false.
+     */
+    private boolean isParallel(long cells){
+        return pool!=null && cells>=parallelThreshold;
+    }
+
+    /**
+     * Runs an action for each index of a range, in the pool if the operation is large enough.
+     * @param from The first index.
+     * @param to The index after the last one.
+     * @param cells The number of cells the operation touches.
+     * @param action The action, it has to be safe to run on different indexes at the same time.
+     */
+    private void forEach(int from, int to, long cells, IntConsumer action){
+        if(isParallel(cells)){
+            pool.submit(() -> IntStream.range(from,to).parallel().forEach(action)).join();
+        }else{
+            for(int i = from; i < to; i++){
+                action.accept(i);
+            }
+        }
+    }
+
     /**
      * Computes the current matrix.
-     * @return IS_OPTIMAL if the solution is optimal, UNBOUNDED if the solution is unbounded, else NOT_OPTIMAL.
+     * @return IS_OPTIMAL if the solution is optimal, UNBOUNDED if the solution is unbounded,
+     * ITERATION_LIMIT if the iteration limit is reached, else NOT_OPTIMAL.
      */
     public RESULT compute(){
         // step 1
         if(checkOptimality()){
+            shutdownPool();
             return RESULT.IS_OPTIMAL; // solution is optimal
         }
+        if(iterationCount>=iterationLimit){
+            shutdownPool();
+            return RESULT.ITERATION_LIMIT;
+        }
 
         // step 2
         // find the entering column
-        int pivotColumn = findEnteringColumn();
+        boolean isStalling = degeneratePivots>=stallThreshold;
+        int pivotColumn;
+        if(isStalling){
+            pivotColumn = blandRule.findEnteringColumn(pricingView);
+        }else{
+            if(!isPricingInitialized){
+                pricingRule.init(pricingView);
+                isPricingInitialized = true;
+            }
+            pivotColumn = pricingRule.findEnteringColumn(pricingView);
+        }
         //System.out.println("Pivot Column: "+pivotColumn);
 
         // step 3
         // find departing value
-        RationalNumber[] ratios = calculateRatios(pivotColumn);
-        if(solutionIsUnbounded)
+        int pivotRow = findPivotRow(pivotColumn,isStalling);
+        if(solutionIsUnbounded){
+            shutdownPool();
             return RESULT.UNBOUNDED;
-        int pivotRow = findSmallestValue(ratios);
+        }
         //System.out.println("Pivot row: "+ pivotRow);
 
         // step 4
         // form the next matrix
+        boolean isDegenerate = tableau.signum(pivotRow,cols-1)==0;
+        if(!isStalling){
+            pricingRule.update(pricingView,pivotRow,pivotColumn);
+        }
         formNextMatrix(pivotRow, pivotColumn);
+        iterationCount++;
+        if(isDegenerate){
+            degeneratePivots++;
+        }else{
+            if(isStalling){ // the pricing rule's weights were not updated by Bland's pivots
+                isPricingInitialized = false;
+            }
+            degeneratePivots = 0;
+        }
 
         //System.out.println("-------");System.out.println(matrix);
 
@@ -74,114 +292,162 @@ public class Simplex {
      * @param pivotColumn The pivot's column index.
      */
     private void formNextMatrix(int pivotRow, int pivotColumn){
-        RationalNumber pivotValue = matrix.get(pivotRow,pivotColumn);
-        RationalNumber[] pivotRowVals = new RationalNumber[cols];
-        RationalNumber[] pivotColumnVals = new RationalNumber[cols];
-        RationalNumber[] rowNew = new RationalNumber[cols];
-
-        // divide all entries in pivot row by entry inpivot column
-        // get entry in pivot row
-        System.arraycopy(matrix.getRow(pivotRow), 0, pivotRowVals, 0, cols);
-
-        // get entry in pivot column
-        for(int i = 0; i < rows; i++)
-            pivotColumnVals[i] = matrix.get(i,pivotColumn);
-
-        // divide values in pivot row by pivot value
-        for(int  i = 0; i < cols; i++)
-            rowNew[i] =  pivotRowVals[i].divide(pivotValue);
-
-        // subtract from each of the other rows
-        for(int i = 0; i < rows; i++){
-            if(i != pivotRow){
-                for(int j = 0; j < cols; j++){
-                    RationalNumber c = pivotColumnVals[i];
-                    matrix.set(i,j,matrix.get(i,j).subtract(c.multiply(rowNew[j])));
+        // the other rows are updated in the pool if the pivot is large enough
+        tableau.pivot(pivotRow,pivotColumn,this::forEach);
+
+        updateBasis(pivotRow,pivotColumn);
+        updateObjectiveShadow();
+    }
+
+    /**
+     * Pivots the matrix onto a basis, for example the final basis of a DoubleSimplex run.
+     * A basic column is pivoted in on the row given with it, or on another row not pivoted yet if that entry is 0.
+     * @param basis For each constraint row, the index of its basic column, or -1.
+     * @return True if every column of the basis was pivoted in and the basic solution is feasible, else false.
+     * @throws AssertionError The basis has to have one entry per constraint row.
+     */
+    boolean moveToBasis(int[] basis){
+        assert(basis.length==rows-1):"The basis has to have one entry per constraint row";
+        boolean[] pivoted = new boolean[rows-1];
+        for(int r = 0; r < rows-1; r++){
+            int column = basis[r];
+            if(column != -1){
+                int pivotRow = -1;
+                if(!pivoted[r] && tableau.signum(r,column)!=0){
+                    pivotRow = r;
+                }
+                for(int i = 0; i < rows-1 && pivotRow==-1; i++){
+                    if(!pivoted[i] && tableau.signum(i,column)!=0){
+                        pivotRow = i;
+                    }
                 }
+                if(pivotRow == -1){ // the columns of the basis are not independent
+                    return false;
+                }
+                formNextMatrix(pivotRow,column);
+                pivoted[pivotRow] = true;
+            }
+        }
+        // the pricing rule's weights were for the previous basis
+        isPricingInitialized = false;
+
+        for(int i = 0; i < rows-1; i++){
+            if(tableau.signum(i,cols-1)<0){ // primal infeasible
+                return false;
             }
         }
+        return true;
+    }
 
-        // replace the row
-        matrix.setRow(pivotRow,rowNew);
+    /**
+     * Recomputes the double approximations of the last row from the exact values.
+     */
+    private void updateObjectiveShadow(){
+        forEach(0,cols,cols,c -> objectiveShadow[c] = tableau.getDouble(rows-1,c));
     }
 
     /**
-     * Calculates the pivot row ratios
+     * Checks if two double approximations are too close to be ordered without the exact values.
+     * @param a The first approximation.
+     * @param b The second approximation.
+     * @return True if the exact values may be in either order, else false.
+     */
+    private static boolean isWithinError(double a, double b){
+        return Math.abs(a-b) <= SHADOW_ERROR*(Math.abs(a)+Math.abs(b));
+    }
+
+    /**
+     * Finds the departing row with the minimum ratio test.
+     * The ratios are first compared as doubles. Only the ratios too close to the minimum to be ordered that way
+     * are then compared exactly, in place instead of being built.
      * @param column The pivot's column index.
-     * @return The pivot row ratios in an Array.
+     * @param isBland True to break the ties by the smallest basic column (Bland's rule), false to keep the first row.
+     * @return The pivot's row index.
      */
-    private RationalNumber[] calculateRatios(int column){
-        RationalNumber[] positiveEntries = new RationalNumber[rows-1];
-        RationalNumber[] res = new RationalNumber[rows-1];
+    private int findPivotRow(int column, boolean isBland){
+        int firstPositive = -1;
+        int firstZeroRatio = -1;
+        double minimum = Double.POSITIVE_INFINITY;
+        boolean exactOnly = false; // an approximation overflowed or underflowed
 
-        int allNegativeCount = 0;
         for(int i = 0; i < rows-1; i++){
-            if(RationalNumber.ZERO.isLessThan(matrix.get(i,column))){ //0 < matrix[i][column]
-                positiveEntries[i] = matrix.get(i,column);
-            }
-            else{
-                positiveEntries[i] = RationalNumber.ZERO;
-                allNegativeCount++;
+            ratioShadow[i] = -1; // not a candidate
+            if(tableau.signum(i,column)>0){ // matrix[i][column] > 0
+                if(firstPositive==-1){
+                    firstPositive = i;
+                }
+                int rhsSign = tableau.signum(i,cols-1);
+                if(rhsSign==0 && (firstZeroRatio==-1 || (isBland && basis[i]<basis[firstZeroRatio]))){
+                    firstZeroRatio = i;
+                }
+                if(rhsSign>0){ // ratio > 0
+                    double ratio = tableau.getDouble(i,cols-1)/tableau.getDouble(i,column);
+                    ratioShadow[i] = ratio;
+                    if(!Double.isFinite(ratio) || ratio==0){
+                        exactOnly = true;
+                    }else if(ratio < minimum){
+                        minimum = ratio;
+                    }
+                }
             }
         }
 
-        if(allNegativeCount == rows-1){
+        if(firstPositive==-1){
             this.solutionIsUnbounded = true;
+            return -1;
+        }
+        if(firstZeroRatio!=-1){ // a degenerate row is the minimum, a positive ratio would make its value negative
+            return firstZeroRatio;
         }
 
-        else{
-            for(int i = 0;  i < rows-1; i++){
-                RationalNumber val = positiveEntries[i];
-                if(!val.isLessThanOrEqualTo(RationalNumber.ZERO)){ // val > 0
-                    res[i] = matrix.get(i,cols-1).divide(val);
+        int location = -1;
+        for(int i = 0; i < rows-1; i++){
+            double ratio = ratioShadow[i];
+            if(ratio != -1 && (exactOnly || ratio <= minimum || isWithinError(ratio,minimum))){
+                if(location==-1){
+                    location = i;
                 }else{
-                    res[i] = RationalNumber.ZERO;
+                    int comparison = tableau.compareRatios(i,location,cols-1,column);
+                    if(comparison<0 || (comparison==0 && isBland && basis[i]<basis[location])){ // ratio < minimum
+                        location = i;
+                    }
                 }
             }
         }
 
-        return res;
-    }
-
-    /**
-     * Finds the next entering column.
-     * @return The next entering column index.
-     */
-    private int findEnteringColumn(){
-        int location, pos;
-        RationalNumber[] values = new RationalNumber[cols-1];
-
-        for(pos = 0; pos < cols-1; pos++){
-            values[pos] = matrix.get(rows-1,pos);
+        if(location==-1){ // no ratio is positive
+            location = firstPositive;
         }
 
-        location = findLargestValue(values);
-
         return location;
     }
 
-
     /**
-     * Finds the smallest positive value in an array.
-     * @param data The array.
-     * @return The index of the smallest positive value in the array.
+     * Finds the first column with the largest value in the last row, the entering column of Dantzig's rule.
+     * The values are first compared as doubles. Only the values too close to the maximum to be ordered that way
+     * are then compared exactly.
+     * @return The column index.
      */
-    private int findSmallestValue(RationalNumber[] data){
-        RationalNumber minimum=null;
-        int c, location = 0;
-
-        for(c=0;c<data.length && minimum==null;c++){
-            if(!data[c].isLessThanOrEqualTo(RationalNumber.ZERO)){ //data[c] > 0
-                minimum = data[c];
-                location  = c;
+    private int findLargestInLastRow(){
+        double maximum;
+        if(isParallel(cols)){
+            maximum = pool.submit(() -> IntStream.range(0,cols-1).parallel().mapToDouble(c -> objectiveShadow[c]).max().getAsDouble()).join();
+        }else{
+            maximum = objectiveShadow[0];
+            for(int c = 1; c < cols-1; c++){
+                if(objectiveShadow[c] > maximum){
+                    maximum = objectiveShadow[c];
+                }
             }
         }
-
-        for(c = location; c < data.length; c++){
-            if(!data[c].isLessThanOrEqualTo(RationalNumber.ZERO)){ //data[c] > 0
-                if(data[c].isLessThan(minimum)){ //data[c] < minimum
-                    minimum = data[c];
-                    location  = c;
+        boolean exactOnly = !Double.isFinite(maximum);
+
+        int location = -1;
+        for(int c = 0; c < cols-1; c++){
+            double value = objectiveShadow[c];
+            if(exactOnly || value >= maximum || isWithinError(value,maximum)){
+                if(location==-1 || tableau.compareInRow(rows-1,location,c)<0){ //maximum < matrix[rows-1][c]
+                    location = c;
                 }
             }
         }
@@ -190,44 +456,97 @@ public class Simplex {
     }
 
     /**
-     * Finds the index of the largest value in an array.
-     * @param data The array.
-     * @return The index of the largest value in the array.
+     * Checks if the matrix is optimal.
+     * A double approximation has the sign of its value unless it underflows to 0.
+     * @return True if the matrix is optimal, else false.
      */
-    private int findLargestValue(RationalNumber[] data){
-        int c, location = 0;
-        RationalNumber maximum = data[0];
-
-        for(c = 1; c < data.length; c++){
-            if(maximum.isLessThan(data[c])){ //maximum < data[c]
-                maximum = data[c];
-                location  = c;
+    public boolean checkOptimality(){
+        if(isParallel(cols)){
+            return !pool.submit(() -> IntStream.range(0,cols-1).parallel().anyMatch(this::isPositiveInLastRow)).join();
+        }
+        for(int i = 0; i < cols-1; i++){
+            if(isPositiveInLastRow(i)){
+                return false;
             }
         }
 
-        return location;
+        return true;
     }
 
     /**
-     * Checks if the matrix is optimal.
-     * @return True if the matrix is optimal, else false.
+     * Checks if a value of the last row is positive.
+     * @param col The column index.
+     * @return True if the value is positive, else false.
      */
-    public boolean checkOptimality(){
-        boolean isOptimal = false;
-        int vCount = 0;
+    private boolean isPositiveInLastRow(int col){
+        double value = objectiveShadow[col];
+        return value > 0 || (value == 0 && tableau.signum(rows-1,col)>0); // val > 0
+    }
 
-        for(int i = 0; i < cols-1; i++){
-            RationalNumber val = matrix.get(rows-1,i);
-            if(val.isLessThanOrEqualTo(RationalNumber.ZERO)){ // val <= 0
-                vCount++;
+    /**
+     * The tableau as the pricing rules see it: the improvement of a column is its value in the last row.
+     */
+    private class PricingView implements PricingTableau {
+        @Override
+        public int getNbRows(){
+            return rows-1;
+        }
+
+        @Override
+        public int getNbColumns(){
+            return cols-1;
+        }
+
+        @Override
+        public boolean isImproving(int col){
+            return isPositiveInLastRow(col);
+        }
+
+        @Override
+        public double getImprovement(int col){
+            return objectiveShadow[col];
+        }
+
+        @Override
+        public int compareImprovements(int col1, int col2){
+            double value1 = objectiveShadow[col1];
+            double value2 = objectiveShadow[col2];
+            if(Double.isFinite(value1) && Double.isFinite(value2) && !isWithinError(value1,value2)){
+                return Double.compare(value1,value2);
             }
+            return tableau.compareInRow(rows-1,col1,col2);
+        }
+
+        @Override
+        public int findLargestImprovement(){
+            return findLargestInLastRow();
         }
 
-        if(vCount == cols-1){
-            isOptimal = true;
+        @Override
+        public double get(int row, int col){
+            return tableau.getDouble(row,col);
         }
 
-        return isOptimal;
+        @Override
+        public int getBasicColumn(int row){
+            return basis[row];
+        }
+    }
+
+    /**
+     * Returns the current basis, kept up to date by the pivots.
+     * @return For each constraint row, the index of its basic column, or -1.
+     */
+    public int[] getBasis(){
+        return basis.clone();
+    }
+
+    /**
+     * Returns the row of each basic column, the inverse of getBasis.
+     * @return For each column, its row in the basis, or -1 if it is not basic.
+     */
+    public int[] getRowsOfColumns(){
+        return rowOfColumn.clone();
     }
 
     /**
@@ -244,36 +563,18 @@ public class Simplex {
         if(!isDual){
             if(!solutionIsUnbounded){
                 str.append("\n\nValue of objective function: ");
-                str.append(matrix.get(rows-1,cols-1));
+                str.append(tableau.get(rows-1,cols-1));
                 str.append("\n");
                 RationalNumber[] res = new RationalNumber[nbVariables];
-                // variables' values
-                boolean flag;
+                // variables' values: the right hand side value of the row of a basic variable, else 0
                 for(int i=0;i<nbVariables;i++){
-                    flag = false;
-                    if(matrix.doesColumnContainOneOnly(i)){
-                        for(int j=0;j<rows;j++){
-                            if(matrix.get(j,i).equals(RationalNumber.ONE)){
-                                //str.append("Value of var["+i+"] = "+matrix.get(j,cols-1))+"\n");
-                                res[i] = matrix.get(j,cols-1);
-                                flag = true;
-                            }
-                        }
-                    }
-                    if(!flag){
-                        //str.append("Value of var["+i+"] = 0\n");
-                        res[i] = RationalNumber.ZERO;
-                    }
+                    res[i] = rowOfColumn[i]!=-1 ? tableau.get(rowOfColumn[i],cols-1) : RationalNumber.ZERO;
                 }
                 int countVar = 0;
                 for(int i=0;i<nbVariables;i++){
-                    if(notLowerBoundedVariableIndexes!=null){
-                        if(Arrays.asList(notLowerBoundedVariableIndexes).contains(countVar)){
-                            str.append("Value of var["+countVar+"] = "+res[i].subtract(res[i+1])+"\n");
-                            i++;
-                        }else{
-                            str.append("Value of var["+countVar+"] = "+res[i]+"\n");
-                        }
+                    if(notLowerBounded.get(countVar)){
+                        str.append("Value of var["+countVar+"] = "+res[i].subtract(res[i+1])+"\n");
+                        i++;
                     }else{
                         str.append("Value of var["+countVar+"] = "+res[i]+"\n");
                     }
@@ -287,21 +588,17 @@ public class Simplex {
                 str.append("\n\nThe problem is infeasible\n");
             }else{
                 str.append("\n\nValue of objective function: ");
-                str.append(matrix.get(rows-1,cols-1).multiply(RationalNumber.MINUS_ONE));
+                str.append(tableau.get(rows-1,cols-1).multiply(RationalNumber.MINUS_ONE));
                 str.append("\n");
 
                 int count = 0;
                 // variables' values
                 for(int i=nbVariables;count<rows-1;i++){
-                    if(notLowerBoundedVariableIndexes!=null){
-                        if(Arrays.asList(notLowerBoundedVariableIndexes).contains(count)){
-                            str.append("Value of var["+count+"] = "+matrix.get(rows-1,i).subtract(matrix.get(rows-1,i+1)).multiply(RationalNumber.MINUS_ONE)+"\n");
-                            i++;
-                        }else{
-                            str.append("Value of var["+count+"] = "+matrix.get(rows-1,i).multiply(RationalNumber.MINUS_ONE)+"\n");
-                        }
+                    if(notLowerBounded.get(count)){
+                        str.append("Value of var["+count+"] = "+tableau.get(rows-1,i).subtract(tableau.get(rows-1,i+1)).multiply(RationalNumber.MINUS_ONE)+"\n");
+                        i++;
                     }else{
-                        str.append("Value of var["+count+"] = "+matrix.get(rows-1,i).multiply(RationalNumber.MINUS_ONE)+"\n");
+                        str.append("Value of var["+count+"] = "+tableau.get(rows-1,i).multiply(RationalNumber.MINUS_ONE)+"\n");
                     }
 
                     count++;
@@ -0,0 +1,42 @@
+package Model;
+
+/**
+ * A simplex implementation working on a matrix built by ProblemToMatrixTransformation.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public interface SimplexEngine {
+    /**
+     * Computes the next iteration.
+     * @return IS_OPTIMAL if the solution is optimal, UNBOUNDED if the solution is unbounded,
+     * INFEASIBLE if an engine starting from an infeasible basis, BoundedSimplex or DualSimplex, found the problem infeasible,
+     * ITERATION_LIMIT if the iteration limit is reached, else NOT_OPTIMAL.
+     */
+    Simplex.RESULT compute();
+
+    /**
+     * Sets the number of pivots compute may do. Once they are done, compute returns ITERATION_LIMIT
+     * unless the current matrix is optimal.
+     * @param iterationLimit The number of pivots, unlimited by default.
+     * @throws AssertionError The limit can't be negative.
+     */
+    void setIterationLimit(int iterationLimit);
+
+    /**
+     * Returns the number of pivots done by compute.
+     * @return The number of iterations.
+     */
+    int getIterationCount();
+
+    /**
+     * Checks if the current matrix is optimal.
+     * @return True if the matrix is optimal, else false.
+     */
+    boolean checkOptimality();
+
+    /**
+     * Get the result in a String. Use it only when done computing.
+     * @return The result in a String.
+     */
+    String getResult();
+}
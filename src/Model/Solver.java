@@ -3,7 +3,6 @@ package Model;
 import lpsolve.LpSolve;
 import lpsolve.LpSolveException;
 
-import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -27,6 +26,8 @@ public class Solver {
      * Solves the MLO problem using LP_Solve and prints the results in the standard output.
      */
     public void solveUsingLPSolve(){
+        // the bounds of the variables are given as constraints, like to the engines that only know variables >= 0
+        MLOProblem mloProblem = this.mloProblem.withBoundsAsConstraints();
         try {
             // Create a problem with 4 variables and 0 constraints
             int numAddedVariables = 0;
@@ -56,11 +57,11 @@ public class Solver {
                 // get the right hand side value
                 RationalNumber b = new RationalNumber(mloProblem.getB().get(i));
 
-                solver.strAddConstraint(getRowWithAddedVariables(i,false),consType, b.toDouble());
+                solver.strAddConstraint(getRowWithAddedVariables(mloProblem,i,false),consType, b.toDouble());
             }
 
             // set objective function
-            solver.strSetObjFn(getRowWithAddedVariables(0,true));
+            solver.strSetObjFn(getRowWithAddedVariables(mloProblem,0,true));
 
             // solve the problem
             solver.solve();
@@ -80,7 +81,7 @@ public class Solver {
         }
     }
 
-    private String getRowWithAddedVariables(int index, boolean isObjectiveFunction){
+    private static String getRowWithAddedVariables(MLOProblem mloProblem, int index, boolean isObjectiveFunction){
         StringBuilder str = new StringBuilder();
         Matcher m;
         Pattern p;
@@ -101,20 +102,12 @@ public class Solver {
         }
         /* string list to rational number list */
         int countVar = 0;
-        boolean flag;
-        if(mloProblem.getNotLowerBoundedVariableIndexes()!=null){
-            for(String s2 : sl){
-                flag = Arrays.asList(mloProblem.getNotLowerBoundedVariableIndexes()).contains(countVar);
-                rl.addLast(new RationalNumber(s2));
-                if(flag){
-                    rl.addLast(new RationalNumber(s2).multiply(RationalNumber.MINUS_ONE));
-                }
-                countVar++;
-            }
-        }else{
-            for(String s2 : sl){
-                rl.addLast(new RationalNumber(s2));
+        for(String s2 : sl){
+            rl.addLast(new RationalNumber(s2));
+            if(mloProblem.isNotLowerBounded(countVar)){
+                rl.addLast(new RationalNumber(s2).multiply(RationalNumber.MINUS_ONE));
             }
+            countVar++;
         }
         for(RationalNumber n : rl){
             str.append(n.toDouble()+" ");
@@ -132,6 +125,15 @@ public class Solver {
         mlo_rb.solve();
     }
 
+    /**
+     * Solves the MLO problem using MLO_RB with a given simplex implementation and prints the results in the standard output.
+     * @param engine The simplex implementation to solve with.
+     */
+    public void solveUsingMLO_RB(MLO_RB.ENGINE engine){
+        MLO_RB mlo_rb = new MLO_RB(mloProblem,engine);
+        mlo_rb.solve();
+    }
+
     /**
      * Check if the MLO problem is feasible using MLO_RB and prints the result in the standard output.
      */
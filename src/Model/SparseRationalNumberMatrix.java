@@ -0,0 +1,484 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Matrix of rational numbers storing only its nonzero elements.
+ * The elements are kept row by row (compressed sparse rows): the columns and values of row i are at the indexes
+ * rowStart[i] to rowStart[i+1]-1, sorted by column. A column by column copy (compressed sparse columns) is built
+ * on the first column access and dropped on the next change.
+ * Memory and operations scale with the number of nonzero elements instead of rowNum*colNum.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class SparseRationalNumberMatrix {
+    private int rowNum, colNum;
+
+    // compressed sparse rows
+    private int[] rowStart;
+    private int[] colIndexes;
+    private RationalNumber[] values;
+    private int nonZeroCount;
+
+    // compressed sparse columns, null until needed
+    private int[] colStart;
+    private int[] rowIndexes;
+    private RationalNumber[] colValues;
+
+    /**
+     * Constructor. All the elements are 0.
+     * @param rowNum The number of rows.
+     * @param colNum The number of columns.
+     */
+    public SparseRationalNumberMatrix(int rowNum, int colNum){
+        this.rowNum = rowNum;
+        this.colNum = colNum;
+        rowStart = new int[rowNum+1];
+        colIndexes = new int[Math.max(rowNum,4)];
+        values = new RationalNumber[colIndexes.length];
+    }
+
+    /**
+     * Builds a sparse matrix from a dense one.
+     * @param m The dense matrix.
+     * @return The sparse matrix.
+     */
+    public static SparseRationalNumberMatrix fromDense(RationalNumberMatrix m){
+        SparseRationalNumberMatrix res = new SparseRationalNumberMatrix(m.getRowNum(),m.getColNum());
+        int[] columns = new int[m.getColNum()];
+        RationalNumber[] rowValues = new RationalNumber[m.getColNum()];
+        for(int i=0;i<m.getRowNum();i++){
+            int count = 0;
+            for(int j=0;j<m.getColNum();j++){
+                if(m.signum(i,j)!=0){
+                    columns[count] = j;
+                    rowValues[count] = m.get(i,j);
+                    count++;
+                }
+            }
+            res.setRow(i,Arrays.copyOf(columns,count),Arrays.copyOf(rowValues,count));
+        }
+        return res;
+    }
+
+    /**
+     * Returns this matrix as a dense matrix.
+     * @return The dense matrix.
+     */
+    public RationalNumberMatrix toDense(){
+        RationalNumberMatrix m = new RationalNumberMatrix(rowNum,colNum);
+        RationalNumber[] row = new RationalNumber[colNum];
+        for(int i=0;i<rowNum;i++){
+            Arrays.fill(row,RationalNumber.ZERO);
+            for(int k=rowStart[i];k<rowStart[i+1];k++){
+                row[colIndexes[k]] = values[k];
+            }
+            m.addRow(row,i);
+        }
+        return m;
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    public int getRowNum(){
+        return rowNum;
+    }
+
+    /**
+     * @return The number of columns.
+     */
+    public int getColNum(){
+        return colNum;
+    }
+
+    /**
+     * @return The number of nonzero elements.
+     */
+    public int getNonZeroCount(){
+        return nonZeroCount;
+    }
+
+    /**
+     * Finds the position of an element in the row arrays.
+     * @param row The row index.
+     * @param col The column index.
+     * @return The position of the element, or -(insertion point)-1 if the element is 0.
+     */
+    private int find(int row, int col){
+        return Arrays.binarySearch(colIndexes,rowStart[row],rowStart[row+1],col);
+    }
+
+    /**
+     * Returns the element at the specified position in this matrix.
+     * @param row The row index of the element to return.
+     * @param col The column index of the element to return.
+     * @return The element at the specified position in this matrix.
+     * @throws AssertionError If the index is out of range.
+     */
+    public RationalNumber get(int row, int col){
+        assert(row<rowNum && col<colNum):"";
+        int k = find(row,col);
+        return k>=0 ? values[k] : RationalNumber.ZERO;
+    }
+
+    /**
+     * Sets the element at the specified position in this matrix. Inserting or removing a nonzero element moves
+     * the elements of the following rows.
+     * @param row The row index of the element.
+     * @param col The column index of the element.
+     * @param n The new value.
+     * @throws AssertionError If the index is out of range.
+     */
+    public void set(int row, int col, RationalNumber n){
+        assert(row<rowNum && col<colNum):"";
+        int k = find(row,col);
+        if(k>=0){
+            if(n.signum()!=0){
+                values[k] = n;
+            }else{
+                move(k+1,k);
+                for(int i=row+1;i<=rowNum;i++){
+                    rowStart[i]--;
+                }
+            }
+        }else if(n.signum()!=0){
+            k = -k-1;
+            move(k,k+1);
+            colIndexes[k] = col;
+            values[k] = n;
+            for(int i=row+1;i<=rowNum;i++){
+                rowStart[i]++;
+            }
+        }
+        colStart = null;
+    }
+
+    /**
+     * Moves the elements from a position to the end, growing the arrays if needed, and updates the number of nonzero elements.
+     * @param from The position of the first element to move.
+     * @param to Its new position.
+     */
+    private void move(int from, int to){
+        int length = nonZeroCount-from;
+        int newCount = nonZeroCount+to-from;
+        if(newCount>colIndexes.length){
+            int capacity = Math.max(newCount,colIndexes.length*2);
+            colIndexes = Arrays.copyOf(colIndexes,capacity);
+            values = Arrays.copyOf(values,capacity);
+        }
+        System.arraycopy(colIndexes,from,colIndexes,to,length);
+        System.arraycopy(values,from,values,to,length);
+        if(newCount<nonZeroCount){
+            Arrays.fill(values,newCount,nonZeroCount,null);
+        }
+        nonZeroCount = newCount;
+    }
+
+    /**
+     * Replaces a row with its nonzero elements. Filling the rows in order only appends.
+     * @param index The row index.
+     * @param columns The columns of the nonzero elements, in increasing order.
+     * @param newValues The nonzero elements.
+     * @throws AssertionError The row index has to be less than rowNum.
+     * @throws AssertionError The columns and the values must have the same length.
+     */
+    public void setRow(int index, int[] columns, RationalNumber[] newValues){
+        assert(index<rowNum):"Row index out of bounds";
+        assert(columns.length==newValues.length):"The columns and the values must have the same length";
+        int start = rowStart[index];
+        int end = rowStart[index+1];
+        int count = 0;
+        for(RationalNumber n : newValues){
+            if(n.signum()!=0){
+                count++;
+            }
+        }
+        move(end,start+count);
+        int k = start;
+        for(int j=0;j<columns.length;j++){
+            if(newValues[j].signum()!=0){
+                assert(columns[j]<colNum && (k==start || colIndexes[k-1]<columns[j])):"The columns have to be increasing";
+                colIndexes[k] = columns[j];
+                values[k] = newValues[j];
+                k++;
+            }
+        }
+        int delta = start+count-end;
+        for(int i=index+1;i<=rowNum;i++){
+            rowStart[i] += delta;
+        }
+        colStart = null;
+    }
+
+    /**
+     * Adds a row in the matrix.
+     * @param newRow The row to add in the matrix.
+     * @param rowIndex The row index to add the new row.
+     * @throws AssertionError rowIndex has to be less than rowNum.
+     * @throws AssertionError New row's length has to be equal to the matrix's rows' length.
+     */
+    public void addRow(RationalNumber[] newRow, int rowIndex){
+        assert(newRow.length==colNum):"New row's length has to be equal to the matrix's rows' length";
+        int[] columns = new int[colNum];
+        for(int j=0;j<colNum;j++){
+            columns[j] = j;
+        }
+        setRow(rowIndex,columns,newRow);
+    }
+
+    /**
+     * Returns a row.
+     * @param index The row index.
+     * @return A copy of the row, with its zeros.
+     */
+    public RationalNumber[] getRow(int index){
+        RationalNumber[] row = new RationalNumber[colNum];
+        Arrays.fill(row,RationalNumber.ZERO);
+        for(int k=rowStart[index];k<rowStart[index+1];k++){
+            row[colIndexes[k]] = values[k];
+        }
+        return row;
+    }
+
+    /**
+     * @param row The row index.
+     * @return The columns of the nonzero elements of the row, in increasing order.
+     */
+    public int[] getColumnIndexesOfRow(int row){
+        return Arrays.copyOfRange(colIndexes,rowStart[row],rowStart[row+1]);
+    }
+
+    /**
+     * @param row The row index.
+     * @return The nonzero elements of the row, in the order of getColumnIndexesOfRow.
+     */
+    public RationalNumber[] getValuesOfRow(int row){
+        return Arrays.copyOfRange(values,rowStart[row],rowStart[row+1]);
+    }
+
+    /**
+     * @param col The column index.
+     * @return The rows of the nonzero elements of the column, in increasing order.
+     */
+    public int[] getRowIndexesOfColumn(int col){
+        buildColumns();
+        return Arrays.copyOfRange(rowIndexes,colStart[col],colStart[col+1]);
+    }
+
+    /**
+     * @param col The column index.
+     * @return The nonzero elements of the column, in the order of getRowIndexesOfColumn.
+     */
+    public RationalNumber[] getValuesOfColumn(int col){
+        buildColumns();
+        return Arrays.copyOfRange(colValues,colStart[col],colStart[col+1]);
+    }
+
+    /**
+     * Builds the compressed sparse columns if they are not up to date.
+     */
+    private void buildColumns(){
+        if(colStart!=null){
+            return;
+        }
+        int[] start = new int[colNum+1];
+        for(int k=0;k<nonZeroCount;k++){
+            start[colIndexes[k]+1]++;
+        }
+        for(int j=0;j<colNum;j++){
+            start[j+1] += start[j];
+        }
+        int[] next = Arrays.copyOf(start,colNum);
+        rowIndexes = new int[nonZeroCount];
+        colValues = new RationalNumber[nonZeroCount];
+        for(int i=0;i<rowNum;i++){
+            for(int k=rowStart[i];k<rowStart[i+1];k++){
+                int p = next[colIndexes[k]]++;
+                rowIndexes[p] = i;
+                colValues[p] = values[k];
+            }
+        }
+        colStart = start;
+    }
+
+    /**
+     * Checks if a column is filled with a single 1 and 0s.
+     * @param index The index of the column.
+     * @return True if the column is filled with a single 1 and 0s, else false.
+     */
+    public boolean doesColumnContainOneOnly(int index){
+        assert(index>=0 && index<colNum):"The index has to be between 0 and colNum-1";
+        buildColumns();
+        return colStart[index+1]-colStart[index]==1 && colValues[colStart[index]].equals(RationalNumber.ONE);
+    }
+
+    /**
+     * Returns the transposed matrix, built from the compressed sparse columns.
+     * @return The transposed matrix.
+     */
+    public SparseRationalNumberMatrix transpose(){
+        buildColumns();
+        SparseRationalNumberMatrix res = new SparseRationalNumberMatrix(colNum,rowNum);
+        res.rowStart = colStart.clone();
+        res.colIndexes = rowIndexes.length>0 ? rowIndexes.clone() : new int[4];
+        res.values = colValues.length>0 ? colValues.clone() : new RationalNumber[4];
+        res.nonZeroCount = nonZeroCount;
+        return res;
+    }
+
+    /**
+     * Addition operation. Only the nonzero elements are visited.
+     * @param other The other matrix to add to this matrix.
+     * @return The result of the addition of the two matrices.
+     * @throws AssertionError The two matrices must have the same dimensions.
+     */
+    public SparseRationalNumberMatrix add(SparseRationalNumberMatrix other){
+        assert(rowNum==other.rowNum && colNum==other.colNum):"The two matrices must have the same dimensions";
+        return merge(other,false);
+    }
+
+    /**
+     * Substracting operation. Only the nonzero elements are visited.
+     * @param other The other matrix to substract to this matrix.
+     * @return The result of the substraction of the two matrices (C = this - other).
+     * @throws AssertionError The two matrices must have the same dimensions.
+     */
+    public SparseRationalNumberMatrix substract(SparseRationalNumberMatrix other){
+        assert(rowNum==other.rowNum && colNum==other.colNum):"The two matrices must have the same dimensions";
+        return merge(other,true);
+    }
+
+    /**
+     * Merges the rows of two matrices of the same dimensions.
+     * @param other The other matrix.
+     * @param subtract True to compute this - other, false to compute this + other.
+     * @return The result.
+     */
+    private SparseRationalNumberMatrix merge(SparseRationalNumberMatrix other, boolean subtract){
+        SparseRationalNumberMatrix res = new SparseRationalNumberMatrix(rowNum,colNum);
+        int[] columns = new int[colNum];
+        RationalNumber[] rowValues = new RationalNumber[colNum];
+        for(int i=0;i<rowNum;i++){
+            int a = rowStart[i], aEnd = rowStart[i+1];
+            int b = other.rowStart[i], bEnd = other.rowStart[i+1];
+            int count = 0;
+            while(a<aEnd || b<bEnd){
+                int ca = a<aEnd ? colIndexes[a] : colNum;
+                int cb = b<bEnd ? other.colIndexes[b] : colNum;
+                RationalNumber v;
+                if(ca<cb){
+                    v = values[a++];
+                }else if(cb<ca){
+                    v = subtract ? other.values[b++].negate() : other.values[b++];
+                }else{
+                    v = subtract ? values[a++].subtract(other.values[b++]) : values[a++].add(other.values[b++]);
+                }
+                if(v.signum()!=0){
+                    columns[count] = Math.min(ca,cb);
+                    rowValues[count] = v;
+                    count++;
+                }
+            }
+            res.setRow(i,Arrays.copyOf(columns,count),Arrays.copyOf(rowValues,count));
+        }
+        return res;
+    }
+
+    /**
+     * Matrix product, row by row: each nonzero this[i][k] adds this[i][k] times the nonzero elements of other's row k.
+     * @param other The other matrix to multiply to this matrix.
+     * @return The result of the product of the two matrices. (C = this . other)
+     * @throws AssertionError This matrix's number of columns has to be equal to the other matrix's number of rows.
+     */
+    public SparseRationalNumberMatrix multiply(SparseRationalNumberMatrix other){
+        assert(colNum==other.rowNum):"This matrix's number of columns has to be equal to the other matrix's number of rows";
+        SparseRationalNumberMatrix res = new SparseRationalNumberMatrix(rowNum,other.colNum);
+        RationalNumber[] accumulator = new RationalNumber[other.colNum];
+        int[] touched = new int[other.colNum];
+        for(int i=0;i<rowNum;i++){
+            int count = 0;
+            for(int k=rowStart[i];k<rowStart[i+1];k++){
+                RationalNumber a = values[k];
+                int r = colIndexes[k];
+                for(int l=other.rowStart[r];l<other.rowStart[r+1];l++){
+                    int j = other.colIndexes[l];
+                    RationalNumber product = a.multiply(other.values[l]);
+                    if(accumulator[j]==null){
+                        accumulator[j] = product;
+                        touched[count++] = j;
+                    }else{
+                        accumulator[j] = accumulator[j].add(product);
+                    }
+                }
+            }
+            Arrays.sort(touched,0,count);
+            int[] columns = new int[count];
+            RationalNumber[] rowValues = new RationalNumber[count];
+            for(int t=0;t<count;t++){
+                columns[t] = touched[t];
+                rowValues[t] = accumulator[touched[t]];
+                accumulator[touched[t]] = null;
+            }
+            res.setRow(i,columns,rowValues);
+        }
+        return res;
+    }
+
+    /**
+     * Factorizes this square matrix with the fraction-free Bareiss elimination.
+     * Keep the factorization to solve several systems against this matrix.
+     * @return The factorization.
+     * @throws AssertionError This matrix has to be square.
+     */
+    public BareissLU factorize(){
+        return new BareissLU(this);
+    }
+
+    /**
+     * Returns the determinant of this square matrix, computed exactly.
+     * @return The determinant.
+     * @throws AssertionError This matrix has to be square.
+     */
+    public RationalNumber determinant(){
+        return factorize().determinant();
+    }
+
+    /**
+     * Solves this . x = b exactly.
+     * @param b The right hand side.
+     * @return x.
+     * @throws AssertionError This matrix has to be square and nonsingular, and b has to have one element per row.
+     */
+    public RationalNumber[] solve(RationalNumber[] b){
+        return factorize().solve(b);
+    }
+
+    /**
+     * Returns the inverse of this square matrix, computed exactly.
+     * @return The inverse, without its zero elements.
+     * @throws AssertionError This matrix has to be square and nonsingular.
+     */
+    public SparseRationalNumberMatrix inverse(){
+        return fromDense(factorize().inverse());
+    }
+
+    /**
+     * Returns a deep copy of this matrix.
+     * @return A deep copy of this matrix.
+     */
+    @Override
+    public SparseRationalNumberMatrix clone(){
+        SparseRationalNumberMatrix res = new SparseRationalNumberMatrix(rowNum,colNum);
+        res.rowStart = rowStart.clone();
+        res.colIndexes = colIndexes.clone();
+        res.values = values.clone();
+        res.nonZeroCount = nonZeroCount;
+        return res;
+    }
+
+    @Override
+    public String toString(){
+        return toDense().toString();
+    }
+}
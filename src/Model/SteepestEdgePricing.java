@@ -0,0 +1,67 @@
+package Model;
+
+/**
+ * Steepest edge rule (Goldfarb and Reid): the column with the largest improvement^2 / weight enters, where the weight
+ * of a nonbasic column is 1 + the sum of the squares of its constraint rows, the squared length of the edge it moves along.
+ * The weights are exact: they are computed once, then each pivot updates the ones of the columns that are not 0 in the pivot row,
+ * from the dot products of their column with the pivot column.
+ * @author Raphaël Bagat
+ * @version 1.0
+ */
+public class SteepestEdgePricing implements PricingRule {
+    private double[] weights;
+    private double[] pivotColumnValues;
+
+    @Override
+    public void init(PricingTableau tableau){
+        int rows = tableau.getNbRows();
+        weights = new double[tableau.getNbColumns()];
+        pivotColumnValues = new double[rows];
+        for(int c = 0; c < weights.length; c++){
+            double weight = 1;
+            for(int r = 0; r < rows; r++){
+                double value = tableau.get(r,c);
+                weight += value*value;
+            }
+            weights[c] = weight;
+        }
+    }
+
+    @Override
+    public int findEnteringColumn(PricingTableau tableau){
+        return DevexPricing.findLargestScore(tableau,weights);
+    }
+
+    @Override
+    public void update(PricingTableau tableau, int pivotRow, int pivotColumn){
+        int rows = tableau.getNbRows();
+        for(int r = 0; r < rows; r++){
+            pivotColumnValues[r] = tableau.get(r,pivotColumn);
+        }
+        double pivot = pivotColumnValues[pivotRow];
+        double weight = weights[pivotColumn];
+        int leaving = tableau.getBasicColumn(pivotRow);
+
+        // gamma_j' = gamma_j - 2 * ratio * (a_j . a_q) + ratio^2 * gamma_q, with ratio = a_pj / a_pq
+        for(int c = 0; c < weights.length; c++){
+            if(c != pivotColumn){
+                double alpha = tableau.get(pivotRow,c);
+                if(alpha != 0){
+                    double ratio = alpha/pivot;
+                    double dot = 0;
+                    for(int r = 0; r < rows; r++){
+                        if(pivotColumnValues[r] != 0){
+                            dot += tableau.get(r,c)*pivotColumnValues[r];
+                        }
+                    }
+                    // the new column still has ratio on the pivot row, rounding can't take the weight below 1 + ratio^2
+                    weights[c] = Math.max(weights[c]-2*ratio*dot+ratio*ratio*weight,1+ratio*ratio);
+                }
+            }
+        }
+        if(leaving != -1){
+            weights[leaving] = Math.max(weight/(pivot*pivot),1);
+        }
+        weights[pivotColumn] = 1;
+    }
+}
@@ -0,0 +1,76 @@
+package test;
+
+import Model.BareissLU;
+import Model.RationalNumber;
+import Model.RationalNumberMatrix;
+import Model.SparseRationalNumberMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BareissLUTest {
+    private static RationalNumberMatrix matrix(){
+        RationalNumberMatrix matrix = new RationalNumberMatrix(3,3);
+        RationalNumber[] arr0 = {RationalNumber.ZERO,new RationalNumber(2,3),new RationalNumber(1,1)};
+        RationalNumber[] arr1 = {new RationalNumber(1,2),new RationalNumber(-1,1),RationalNumber.ZERO};
+        RationalNumber[] arr2 = {new RationalNumber(3,1),RationalNumber.ZERO,new RationalNumber(-4,5)};
+        matrix.addRow(arr0,0);
+        matrix.addRow(arr1,1);
+        matrix.addRow(arr2,2);
+        return matrix;
+    }
+
+    @Test
+    public void testDeterminant(){
+        // 0*(4/5) - 2/3*(-2/5) + 1*(3) = 4/15 + 3
+        assertEquals(matrix().determinant().toString(),"49/15");
+
+        RationalNumberMatrix singular = matrix();
+        singular.setRow(2,new RationalNumber[]{new RationalNumber(1,1),new RationalNumber(-4,3),new RationalNumber(1,1)});
+        BareissLU lu = singular.factorize();
+        assertEquals(lu.isSingular(),true);
+        assertEquals(lu.determinant().toString(),"0");
+    }
+
+    @Test
+    public void testSolve(){
+        RationalNumberMatrix matrix = matrix();
+        RationalNumber[] b = {new RationalNumber(1,1),new RationalNumber(-1,2),new RationalNumber(7,3)};
+        RationalNumber[] x = matrix.solve(b);
+        for(int r=0;r<3;r++){
+            RationalNumber sum = RationalNumber.ZERO;
+            for(int c=0;c<3;c++){
+                sum = sum.add(matrix.get(r,c).multiply(x[c]));
+            }
+            assertEquals(sum.toString(),b[r].toString());
+        }
+    }
+
+    @Test
+    public void testInverse(){
+        Random random = new Random(11);
+        for(int size=1;size<7;size++){
+            RationalNumberMatrix matrix = new RationalNumberMatrix(size,size);
+            for(int r=0;r<size;r++){
+                for(int c=0;c<size;c++){
+                    matrix.set(r,c,random.nextInt(3)==0 ? RationalNumber.ZERO : new RationalNumber(random.nextInt(21)-10,1+random.nextInt(6)));
+                }
+            }
+            if(matrix.factorize().isSingular()){
+                continue;
+            }
+            RationalNumberMatrix product = matrix.multiply(matrix.inverse());
+            for(int r=0;r<size;r++){
+                for(int c=0;c<size;c++){
+                    assertEquals(product.get(r,c).toString(),r==c ? "1" : "0");
+                }
+            }
+
+            SparseRationalNumberMatrix sparse = SparseRationalNumberMatrix.fromDense(matrix);
+            assertEquals(sparse.determinant().toString(),matrix.determinant().toString());
+            assertEquals(sparse.inverse().toString(),matrix.inverse().toString());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package test;
+
+import Model.BoundedSimplex;
+import Model.MLOProblem;
+import Model.ProblemToMatrixTransformation;
+import Model.RationalNumberMatrix;
+import Model.Simplex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BoundedSimplexTest {
+    private static String solve(BoundedSimplex simplex){
+        while(simplex.compute()==Simplex.RESULT.NOT_OPTIMAL);
+        return simplex.getResult();
+    }
+
+    @Test
+    public void testUpperBounds(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.LE, "4");
+        p.setBounds(0,"0","3");
+        p.setBounds(1,"0","3");
+        p.setObjFun("-2 -1");
+
+        // x0 stops on its upper bound without a pivot, then x1 enters the basis
+        BoundedSimplex simplex = new BoundedSimplex(p);
+        assertEquals(solve(simplex),"\n\nValue of objective function: -7\nValue of var[0] = 3\nValue of var[1] = 1\n");
+        assertEquals(simplex.getIterationCount(),2);
+    }
+
+    @Test
+    public void testFreeVariable(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 -1", MLOProblem.LE, "2");
+        p.addConstraint("-1 -1", MLOProblem.LE, "4");
+        p.setBounds(0,null,null);
+        p.setBounds(1,"0","1");
+        p.setObjFun("1 0");
+
+        assertEquals(solve(new BoundedSimplex(p)),"\n\nValue of objective function: -5\nValue of var[0] = -5\nValue of var[1] = 1\n");
+    }
+
+    @Test
+    public void testLowerBoundsAndEquality(){
+        // the starting basis is infeasible: the phase one works without artificial variables
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.GE, "3");
+        p.addConstraint("1 -1", MLOProblem.EQ, "1");
+        p.setBounds(1,"1",null);
+        p.setObjFun("1 2");
+
+        assertEquals(solve(new BoundedSimplex(p)),"\n\nValue of objective function: 4\nValue of var[0] = 2\nValue of var[1] = 1\n");
+    }
+
+    @Test
+    public void testInfeasible(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.GE, "5");
+        p.setBounds(0,"0","2");
+        p.setBounds(1,"0","2");
+        p.setObjFun("1 1");
+
+        BoundedSimplex simplex = new BoundedSimplex(p);
+        assertEquals(solve(simplex),"\n\nThe problem is infeasible\n");
+        assertEquals(simplex.compute(),Simplex.RESULT.INFEASIBLE);
+    }
+
+    @Test
+    public void testUnbounded(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 -1", MLOProblem.LE, "2");
+        p.setBounds(1,null,"5");
+        p.setObjFun("0 -1");
+
+        assertEquals(solve(new BoundedSimplex(p)),"\n\nValue of objective function: -5\nValue of var[0] = 0\nValue of var[1] = 5\n");
+        p.setBounds(1,null,null);
+        p.setObjFun("-1 0");
+        assertEquals(solve(new BoundedSimplex(p)),"\n\nSolution is unbounded\n");
+    }
+
+    @Test
+    public void testSameAsBoundsAsConstraints(){
+        // the bounds written as rows keep a feasible starting basis, so Simplex solves them without a phase one
+        MLOProblem p = new MLOProblem(3);
+        p.addConstraint("-9 1 8", MLOProblem.LE, "40");
+        p.addConstraint("3 -2 4", MLOProblem.LE, "35");
+        p.setBounds(0,"-10","10");
+        p.setBounds(1,"-5","10");
+        p.setBounds(2,"0","10");
+        p.setObjFun("1 -3 -2");
+
+        MLOProblem rows = p.withBoundsAsConstraints();
+        RationalNumberMatrix matrix = ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(rows);
+        Simplex simplex = new Simplex(matrix,matrix.getColNum()-matrix.getRowNum(),false,rows.getNotLowerBoundedVariableIndexes());
+        while(simplex.compute()==Simplex.RESULT.NOT_OPTIMAL);
+
+        assertEquals(solve(new BoundedSimplex(p)),simplex.getResult());
+    }
+}
@@ -0,0 +1,76 @@
+package test;
+
+import Model.CompactTableau;
+import Model.MLOProblem;
+import Model.ProblemToMatrixTransformation;
+import Model.RationalNumber;
+import Model.RationalNumberMatrix;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompactTableauTest {
+    private static MLOProblem problem(){
+        MLOProblem p = new MLOProblem(3);
+        p.addConstraint("1 2/3 -1", MLOProblem.LE, "4");
+        p.addConstraint("2 0 1", MLOProblem.EQ, "3");
+        p.addConstraint("-1 1 5", MLOProblem.GE, "1/2");
+        p.setObjFun("3 -2 1");
+        return p;
+    }
+
+    @Test
+    public void testCompactProblemMatrix(){
+        CompactTableau tableau = ProblemToMatrixTransformation.problemToCompactProblemMatrix(problem());
+        RationalNumberMatrix full = ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(problem());
+
+        assertEquals(tableau.getNbExplicitColumns(),3);
+        assertEquals(tableau.getColNum(),full.getColNum());
+        assertEquals(tableau.isImplicit(3),true);
+        assertEquals(tableau.toMatrix().toString(),full.toString());
+    }
+
+    @Test
+    public void testCompactDualProblemMatrix(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 2", MLOProblem.LE, "4");
+        p.addConstraint("3 1", MLOProblem.LE, "6");
+        p.setObjFun("-1 -1");
+
+        CompactTableau tableau = ProblemToMatrixTransformation.problemToCompactDualProblemMatrix(p);
+        RationalNumberMatrix full = ProblemToMatrixTransformation.problemToDualProblemMatrix(p);
+
+        assertEquals(tableau.toMatrix().toString(),full.toString());
+    }
+
+    @Test
+    public void testBuiltInStorage(){
+        RationalNumberMatrix full = ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(problem());
+        for(RationalNumberMatrix.STORAGE storage : RationalNumberMatrix.STORAGE.values()){
+            RationalNumberMatrix matrix = ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(problem(),storage);
+            CompactTableau tableau = ProblemToMatrixTransformation.problemToCompactProblemMatrix(problem(),storage);
+
+            assertEquals(matrix.getStorage(),storage);
+            assertEquals(matrix.toString(),full.toString());
+            assertEquals(tableau.toMatrix().getStorage(),storage);
+            assertEquals(tableau.toMatrix().toString(),full.toString());
+        }
+    }
+
+    @Test
+    public void testImplicitColumns(){
+        RationalNumberMatrix matrix = new RationalNumberMatrix(2,2);
+        RationalNumber[] arr0 = {new RationalNumber(2,1),new RationalNumber(4,1)};
+        RationalNumber[] arr1 = {new RationalNumber(-3,1),RationalNumber.ZERO};
+        matrix.addRow(arr0,0);
+        matrix.addRow(arr1,1);
+        CompactTableau tableau = new CompactTableau(matrix,new int[]{0,-1},new RationalNumber[]{RationalNumber.ONE,RationalNumber.ONE});
+
+        assertEquals(tableau.toMatrix().toString(),"2 1 0 4\n-3 0 0 0");
+        assertEquals(tableau.doesColumnContainOneOnly(1),true);
+        assertEquals(tableau.doesColumnContainOneOnly(2),false);
+        assertEquals(tableau.signum(0,1),1);
+        assertEquals(tableau.compareInRow(0,1,0)<0,true);
+        assertEquals(tableau.copy(RationalNumberMatrix.STORAGE.OBJECT).toMatrix().toString(),"2 1 0 4\n-3 0 0 0");
+    }
+}
@@ -0,0 +1,47 @@
+package test;
+
+import Model.DoubleKernel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DoubleKernelTest {
+    private final DoubleKernel scalar = DoubleKernel.getScalar();
+    private final DoubleKernel kernel = DoubleKernel.getInstance();
+
+    @Test
+    public void testSubtractMultiple(){
+        double[] row = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11};
+        double[] source = {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 0};
+        double[] expected = {-1, 0, 1, 2, 3, 4, 5, 6, 7, 8, 11};
+        kernel.subtractMultiple(row,2,source,1e-12);
+        assertArrayEquals(expected,row);
+
+        // values below the zero tolerance become 0
+        double[] small = {1e-3, 2e-3, 3e-3};
+        kernel.subtractMultiple(small,1e-3,new double[]{1, 2, 3 - 1e-10},1e-9);
+        assertArrayEquals(new double[]{0, 0, 0},small);
+    }
+
+    @Test
+    public void testScansMatchScalar(){
+        Random random = new Random(7);
+        for(int length=1;length<40;length++){
+            double[] alpha = new double[length];
+            double[] rhs = new double[length];
+            double[] values = new double[length];
+            for(int i=0;i<length;i++){
+                alpha[i] = random.nextInt(5)-2;
+                rhs[i] = random.nextInt(10);
+                values[i] = random.nextInt(6)-3;
+            }
+            double min = scalar.minRatio(alpha,rhs,length,1e-9,1e-9);
+            assertEquals(min,kernel.minRatio(alpha,rhs,length,1e-9,1e-9));
+            assertEquals(scalar.largestPivotWithin(alpha,rhs,length,1e-9,min),kernel.largestPivotWithin(alpha,rhs,length,1e-9,min));
+            assertEquals(scalar.indexOfMax(values,length),kernel.indexOfMax(values,length));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package test;
+
+import Model.DoubleSimplex;
+import Model.MLOProblem;
+import Model.MLO_RB;
+import Model.ProblemToMatrixTransformation;
+import Model.RationalNumberMatrix;
+import Model.Simplex;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DoubleSimplexTest {
+    private static DoubleSimplex create(MLOProblem p, boolean isDual){
+        RationalNumberMatrix m = isDual ? ProblemToMatrixTransformation.problemToDualProblemMatrix(p)
+                : ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(p);
+        return new DoubleSimplex(m,m.getColNum()-m.getRowNum(),isDual,p.getNotLowerBoundedVariableIndexes());
+    }
+
+    private static Simplex.RESULT run(DoubleSimplex simplex){
+        Simplex.RESULT res;
+        do{
+            res = simplex.compute();
+        }while(res == Simplex.RESULT.NOT_OPTIMAL);
+        return res;
+    }
+
+    @Test
+    public void testDegenerate(){
+        // Beale's example, every right hand side value of the first two rows is 0
+        MLOProblem p = new MLOProblem(4);
+        p.addConstraint("1/4 -8 -1 9", MLOProblem.LE, "0");
+        p.addConstraint("1/2 -12 -1/2 3", MLOProblem.LE, "0");
+        p.addConstraint("0 0 1 0", MLOProblem.LE, "1");
+        p.setObjFun("-3/4 20 -1/2 6");
+
+        DoubleSimplex simplex = create(p,false);
+        simplex.setIterationLimit(100);
+        assertEquals(run(simplex),Simplex.RESULT.IS_OPTIMAL);
+        assertEquals(simplex.getResult(),"\n\nValue of objective function: -1.25\nValue of var[0] = 1.0\nValue of var[1] = 0.0\nValue of var[2] = 1.0\nValue of var[3] = 0.0\n");
+    }
+
+    @Test
+    public void testHarrisRatioTest(){
+        // the ratios of var[0] are 1 and 1+1e-13, within the feasibility tolerance: the larger pivot, 1000, departs
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 0", MLOProblem.LE, "1");
+        p.addConstraint("1000 1", MLOProblem.LE, "10000000000001/10000000000");
+        p.setObjFun("-1 0");
+
+        DoubleSimplex simplex = create(p,false);
+        assertEquals(simplex.compute(),Simplex.RESULT.NOT_OPTIMAL);
+        assertEquals(simplex.getBasis()[1],0);
+        assertEquals(simplex.getBasis()[0],2);
+        // the slack variable of the first row is 1e-13 below 0, within the feasibility tolerance
+        assertEquals(simplex.compute(),Simplex.RESULT.IS_OPTIMAL);
+    }
+
+    @Test
+    public void testDualThroughMLO_RB(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.GE, "4");
+        p.addConstraint("1 3", MLOProblem.GE, "6");
+        p.addConstraint("1 0", MLOProblem.LE, "3");
+        p.setObjFun("2 3");
+
+        DoubleSimplex simplex = create(p,true);
+        assertEquals(run(simplex),Simplex.RESULT.IS_OPTIMAL);
+        String expected = simplex.getResult();
+        assertEquals(expected.startsWith("\n\nValue of objective function: 9.0\n"),true);
+
+        // no coefficient of the objective function is negative, MLO_RB solves the dual problem
+        PrintStream out = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed));
+        try{
+            assertEquals(new MLO_RB(p,MLO_RB.ENGINE.DOUBLE).solve(),Simplex.RESULT.IS_OPTIMAL);
+        }finally{
+            System.setOut(out);
+        }
+        assertEquals(printed.toString(),expected+System.lineSeparator());
+    }
+}
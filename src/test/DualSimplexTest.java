@@ -0,0 +1,84 @@
+package test;
+
+import Model.DualSimplex;
+import Model.MLOProblem;
+import Model.Simplex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DualSimplexTest {
+    private static String solve(DualSimplex simplex){
+        while(simplex.compute()==Simplex.RESULT.NOT_OPTIMAL);
+        return simplex.getResult();
+    }
+
+    private static MLOProblem diet(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.GE, "4");
+        p.addConstraint("1 3", MLOProblem.GE, "6");
+        p.addConstraint("1 0", MLOProblem.LE, "3");
+        p.setObjFun("2 3");
+        return p;
+    }
+
+    @Test
+    public void testGreaterThanRows(){
+        DualSimplex simplex = new DualSimplex(diet());
+        assertEquals(solve(simplex),"\n\nValue of objective function: 9\nValue of var[0] = 3\nValue of var[1] = 1\n");
+        assertEquals(simplex.compute(),Simplex.RESULT.IS_OPTIMAL);
+    }
+
+    @Test
+    public void testEqualityRow(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.EQ, "2");
+        p.setObjFun("1 3");
+
+        assertEquals(solve(new DualSimplex(p)),"\n\nValue of objective function: 2\nValue of var[0] = 2\nValue of var[1] = 0\n");
+    }
+
+    @Test
+    public void testInfeasible(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.GE, "5");
+        p.addConstraint("1 1", MLOProblem.LE, "3");
+        p.setObjFun("1 1");
+
+        DualSimplex simplex = new DualSimplex(p);
+        assertEquals(solve(simplex),"\n\nThe problem is infeasible\n");
+        assertEquals(simplex.compute(),Simplex.RESULT.INFEASIBLE);
+    }
+
+    @Test
+    public void testBounds(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.GE, "3");
+        p.setBounds(0,"2",null);
+        p.setObjFun("3 1");
+
+        // the lower bound of var[0] is a row of type >=
+        assertEquals(solve(new DualSimplex(p)),"\n\nValue of objective function: 7\nValue of var[0] = 2\nValue of var[1] = 1\n");
+    }
+
+    @Test
+    public void testChangeRightHandSide(){
+        DualSimplex simplex = new DualSimplex(diet());
+        solve(simplex);
+        int iterations = simplex.getIterationCount();
+
+        // the optimal basis of the previous right hand side values is the starting point, one pivot is left
+        simplex.changeRightHandSide(0,"5");
+        assertEquals(solve(simplex),"\n\nValue of objective function: 12\nValue of var[0] = 3\nValue of var[1] = 2\n");
+        assertEquals(simplex.getIterationCount(),iterations+1);
+
+        MLOProblem p = diet();
+        p.getB().set(0,"5");
+        assertEquals(solve(new DualSimplex(p)),"\n\nValue of objective function: 12\nValue of var[0] = 3\nValue of var[1] = 2\n");
+
+        simplex.changeRightHandSide(2,"-1");
+        assertEquals(solve(simplex),"\n\nThe problem is infeasible\n");
+        simplex.changeRightHandSide(2,"1");
+        assertEquals(solve(simplex),"\n\nValue of objective function: 14\nValue of var[0] = 1\nValue of var[1] = 4\n");
+    }
+}
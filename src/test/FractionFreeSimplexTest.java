@@ -0,0 +1,81 @@
+package test;
+
+import Model.FractionFreeSimplex;
+import Model.MLOProblem;
+import Model.ProblemToMatrixTransformation;
+import Model.RationalNumberMatrix;
+import Model.Simplex;
+import Model.SimplexEngine;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FractionFreeSimplexTest {
+    private static String solve(SimplexEngine simplex){
+        Simplex.RESULT res;
+        do{
+            res = simplex.compute();
+        }while(res == Simplex.RESULT.NOT_OPTIMAL);
+        return simplex.getResult();
+    }
+
+    private static RationalNumberMatrix matrix(MLOProblem p, boolean isDual){
+        return isDual ? ProblemToMatrixTransformation.problemToDualProblemMatrix(p)
+                : ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(p);
+    }
+
+    // solves the problem with FractionFreeSimplex and checks the result against Simplex on the same matrix
+    private static String solveAndCompare(MLOProblem p, boolean isDual){
+        RationalNumberMatrix m = matrix(p,isDual);
+        int nbVariables = m.getColNum()-m.getRowNum();
+        String res = solve(new FractionFreeSimplex(m,nbVariables,isDual,p.getNotLowerBoundedVariableIndexes()));
+        assertEquals(res,solve(new Simplex(matrix(p,isDual),nbVariables,isDual,p.getNotLowerBoundedVariableIndexes())));
+        return res;
+    }
+
+    @Test
+    public void testNormalizedProblem(){
+        MLOProblem p = new MLOProblem(3);
+        p.addConstraint("1 2 -1", MLOProblem.LE, "4");
+        p.addConstraint("2 0 1", MLOProblem.LE, "3");
+        p.addConstraint("-1 1 5", MLOProblem.LE, "7");
+        p.setObjFun("-3 -2 1");
+
+        solveAndCompare(p,false);
+    }
+
+    @Test
+    public void testRowScaledFractions(){
+        // each row is scaled by another lcm of its denominators
+        MLOProblem p = new MLOProblem(3);
+        p.addConstraint("1/2 1/3 0", MLOProblem.LE, "5/6");
+        p.addConstraint("2/7 3/4 1/5", MLOProblem.LE, "3");
+        p.addConstraint("1/9 0 7/8", MLOProblem.LE, "3/2");
+        p.setObjFun("-1/3 -5/2 -2/11");
+
+        solveAndCompare(p,false);
+    }
+
+    @Test
+    public void testDualProblem(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.GE, "4");
+        p.addConstraint("1/2 3", MLOProblem.GE, "6");
+        p.addConstraint("1 0", MLOProblem.LE, "3");
+        p.setObjFun("2 5/3");
+
+        solveAndCompare(p,true);
+    }
+
+    @Test
+    public void testNotLowerBoundedVariable(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.LE, "4");
+        p.addConstraint("-1 1", MLOProblem.LE, "2");
+        p.setBounds(0,null,null);
+        p.setObjFun("2 -1");
+
+        // var[0] is split in two columns and ends negative
+        assertEquals(solveAndCompare(p,false),"\n\nValue of objective function: -4\nValue of var[0] = -2\nValue of var[1] = 0\n");
+    }
+}
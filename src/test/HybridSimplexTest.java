@@ -0,0 +1,60 @@
+package test;
+
+import Model.DoubleSimplex;
+import Model.HybridSimplex;
+import Model.MLOProblem;
+import Model.ProblemToMatrixTransformation;
+import Model.RationalNumberMatrix;
+import Model.Simplex;
+import Model.SimplexEngine;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HybridSimplexTest {
+    private static String solve(SimplexEngine simplex){
+        Simplex.RESULT res;
+        do{
+            res = simplex.compute();
+        }while(res == Simplex.RESULT.NOT_OPTIMAL);
+        return simplex.getResult();
+    }
+
+    private static String solveWithSimplex(MLOProblem p){
+        RationalNumberMatrix matrix = ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(p);
+        return solve(new Simplex(matrix,matrix.getColNum()-matrix.getRowNum(),false,p.getNotLowerBoundedVariableIndexes()));
+    }
+
+    @Test
+    public void testBasisRecovered(){
+        MLOProblem p = new MLOProblem(3);
+        p.addConstraint("1 2/3 -1", MLOProblem.LE, "4");
+        p.addConstraint("2 0 1", MLOProblem.LE, "3");
+        p.addConstraint("-1 1 5", MLOProblem.LE, "7/2");
+        p.setObjFun("-3 -2 1");
+
+        RationalNumberMatrix matrix = ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(p);
+        HybridSimplex simplex = new HybridSimplex(matrix,matrix.getColNum()-matrix.getRowNum(),false,null);
+        assertEquals(solve(simplex),solveWithSimplex(p));
+        assertEquals(simplex.isBasisRecovered(),true);
+        // the basis of the double run is optimal, no exact pivot is left
+        assertEquals(simplex.getIterationCount(),0);
+    }
+
+    @Test
+    public void testRestart(){
+        // with a feasibility tolerance of 1, the double run lets the slack variable of the first row go to -1/1000
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 0", MLOProblem.LE, "1");
+        p.addConstraint("1000 1", MLOProblem.LE, "1001");
+        p.setObjFun("-1 0");
+
+        RationalNumberMatrix matrix = ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(p);
+        HybridSimplex simplex = new HybridSimplex(matrix,matrix.getColNum()-matrix.getRowNum(),false,null,1,DoubleSimplex.DEFAULT_OPTIMALITY_TOLERANCE);
+        assertEquals(solve(simplex),solveWithSimplex(p));
+        assertEquals(simplex.isBasisRecovered(),false);
+        // the exact run started over from the beginning matrix
+        assertEquals(simplex.getIterationCount(),1);
+        assertEquals(simplex.getResult(),"\n\nValue of objective function: -1\nValue of var[0] = 1\nValue of var[1] = 0\n");
+    }
+}
@@ -0,0 +1,72 @@
+package test;
+
+import Model.MLOProblem;
+import Model.MLO_RB;
+import Model.Simplex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MLO_RBTest {
+    // the engines counting every pivot, HYBRID only counts the exact pivots after its double run
+    private static final MLO_RB.ENGINE[] ENGINES = {MLO_RB.ENGINE.RATIONAL,MLO_RB.ENGINE.FRACTION_FREE,MLO_RB.ENGINE.DOUBLE,
+            MLO_RB.ENGINE.REVISED,MLO_RB.ENGINE.REVISED_DOUBLE,MLO_RB.ENGINE.BOUNDED};
+
+    // one pivot reaches the optimum
+    private static MLOProblem onePivot(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.LE, "4");
+        p.setObjFun("-2 -1");
+        return p;
+    }
+
+    // Beale's example, Dantzig's rule cycles on it when the first tied row departs
+    private static MLOProblem beale(){
+        MLOProblem p = new MLOProblem(4);
+        p.addConstraint("1/4 -8 -1 9", MLOProblem.LE, "0");
+        p.addConstraint("1/2 -12 -1/2 3", MLOProblem.LE, "0");
+        p.addConstraint("0 0 1 0", MLOProblem.LE, "1");
+        p.setObjFun("-3/4 20 -1/2 6");
+        return p;
+    }
+
+    @Test
+    public void testCyclingProblem(){
+        for(MLO_RB.ENGINE engine : ENGINES){
+            MLO_RB mlo = new MLO_RB(beale(),engine);
+            // far more pivots than Bland's rule needs once the stall threshold is passed
+            mlo.setIterationLimit(1000);
+            assertEquals(mlo.solve(),Simplex.RESULT.IS_OPTIMAL);
+        }
+    }
+
+    @Test
+    public void testIterationLimitReachingTheOptimum(){
+        for(MLO_RB.ENGINE engine : ENGINES){
+            MLO_RB mlo = new MLO_RB(onePivot(),engine);
+            mlo.setIterationLimit(1);
+            assertEquals(mlo.solve(),Simplex.RESULT.IS_OPTIMAL);
+            assertEquals(mlo.getIterationCount(),1);
+        }
+    }
+
+    @Test
+    public void testIterationLimitZero(){
+        for(MLO_RB.ENGINE engine : ENGINES){
+            MLO_RB mlo = new MLO_RB(onePivot(),engine);
+            mlo.setIterationLimit(0);
+            assertEquals(mlo.solve(),Simplex.RESULT.ITERATION_LIMIT);
+            assertEquals(mlo.getIterationCount(),0);
+        }
+    }
+
+    @Test
+    public void testIterationLimitOnOptimalStart(){
+        MLOProblem p = onePivot();
+        p.setObjFun("2 1");
+        MLO_RB mlo = new MLO_RB(p);
+        mlo.setIterationLimit(0);
+        assertEquals(mlo.solve(),Simplex.RESULT.IS_OPTIMAL);
+        assertEquals(mlo.getIterationCount(),0);
+    }
+}
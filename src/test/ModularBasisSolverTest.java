@@ -0,0 +1,60 @@
+package test;
+
+import Model.ModularBasisSolver;
+import Model.RationalNumber;
+import Model.RationalNumberMatrix;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModularBasisSolverTest {
+    @Test
+    public void testSolve(){
+        RationalNumberMatrix m = new RationalNumberMatrix(3,5);
+        m.addRow(new RationalNumber[]{new RationalNumber(2,1),RationalNumber.ONE,RationalNumber.ONE,RationalNumber.ZERO,new RationalNumber(4,1)},0);
+        m.addRow(new RationalNumber[]{RationalNumber.ONE,new RationalNumber(3,1),RationalNumber.ZERO,RationalNumber.ONE,new RationalNumber(6,1)},1);
+        m.addRow(new RationalNumber[]{new RationalNumber(3,1),new RationalNumber(2,1),RationalNumber.ZERO,RationalNumber.ZERO,RationalNumber.ZERO},2);
+
+        ModularBasisSolver solver = new ModularBasisSolver(m,new int[]{0,1});
+        RationalNumber[] x = solver.solvePrimal();
+        assertEquals(x[0].toString(),"6/5");
+        assertEquals(x[1].toString(),"8/5");
+        RationalNumber[] y = solver.solveDual();
+        assertEquals(y[0].toString(),"7/5");
+        assertEquals(y[1].toString(),"1/5");
+
+        // columns 2 and 3 are the same up to a factor: singular
+        m.set(0,3,new RationalNumber(2,1));
+        m.set(1,3,RationalNumber.ZERO);
+        assertEquals(new ModularBasisSolver(m,new int[]{2,3}).solvePrimal(),null);
+    }
+
+    @Test
+    public void testSeveralPrimes(){
+        // Hilbert matrix, its inverse has large entries
+        int n = 8;
+        RationalNumberMatrix m = new RationalNumberMatrix(n+1,n+1);
+        for(int i=0;i<=n;i++){
+            for(int j=0;j<=n;j++){
+                m.set(i,j,i<n && j<n ? new RationalNumber(1,i+j+1) : RationalNumber.ONE);
+            }
+        }
+        int[] basis = new int[n];
+        for(int i=0;i<n;i++){
+            basis[i] = i;
+        }
+        ModularBasisSolver solver = new ModularBasisSolver(m,basis);
+        solver.setParallel(true);
+        RationalNumber[] x = solver.solvePrimal();
+        for(int i=0;i<n;i++){
+            RationalNumber sum = RationalNumber.ZERO;
+            for(int j=0;j<n;j++){
+                sum = sum.add(m.get(i,j).multiply(x[j]));
+            }
+            assertTrue(sum.equals(RationalNumber.ONE));
+        }
+        // first entry of the solution of H x = 1 is (-1)^(n+1) n
+        assertEquals(x[0].toString(),"-8");
+    }
+}
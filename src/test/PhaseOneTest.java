@@ -0,0 +1,92 @@
+package test;
+
+import Model.MLOProblem;
+import Model.PhaseOne;
+import Model.ProblemToMatrixTransformation;
+import Model.RationalNumberMatrix;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PhaseOneTest {
+    private static String feasibility(MLOProblem p){
+        return feasibility(p,Integer.MAX_VALUE);
+    }
+
+    private static String feasibility(MLOProblem p, int iterationLimit){
+        RationalNumberMatrix matrixStart = ProblemToMatrixTransformation.problemToNormalizedProblemMatrixForPhaseOne(p);
+        PhaseOne phaseOne = new PhaseOne(p.getB(),p.getTypes(),p.getNbRows(),p.getNbVar(),matrixStart);
+        phaseOne.setIterationLimit(iterationLimit);
+        phaseOne.compute();
+        return phaseOne.getResult();
+    }
+
+    @Test
+    public void testFeasible(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.GE, "2");
+        p.addConstraint("1 -1", MLOProblem.EQ, "1");
+        p.addConstraint("1 2", MLOProblem.LE, "8");
+        p.setObjFun("1 1");
+
+        assertEquals(feasibility(p),"\nThe problem is feasible.\n");
+    }
+
+    @Test
+    public void testStartingMatrix(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.GE, "2");
+        p.addConstraint("1 -1", MLOProblem.LE, "-1");
+        p.setObjFun("1 1");
+
+        // no slack variable's column, PhaseOne adds them
+        assertEquals(ProblemToMatrixTransformation.problemToNormalizedProblemMatrixForPhaseOne(p).toString(),"1 1 2\n1 -1 -1\n-1 -1 0");
+        assertEquals(feasibility(p),"\nThe problem is feasible.\n");
+    }
+
+    @Test
+    public void testInfeasible(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.GE, "5");
+        p.addConstraint("1 1", MLOProblem.LE, "3");
+        p.setObjFun("1 1");
+
+        assertEquals(feasibility(p),"\nThe problem is infeasible.\n");
+    }
+
+    @Test
+    public void testArtificialVariablesLeavingTheBasis(){
+        // artificial variables leave the basis, getResult used to read their variables as null
+        MLOProblem p = new MLOProblem(3);
+        p.addConstraint("4 2 -2", MLOProblem.GE, "27");
+        p.addConstraint("-1 0 0", MLOProblem.EQ, "24");
+        p.setObjFun("-4 -2 0");
+        assertEquals(feasibility(p),"\nThe problem is infeasible.\n");
+
+        p = new MLOProblem(3);
+        p.addConstraint("-1/3 -3 3", MLOProblem.EQ, "31");
+        p.addConstraint("0 2 1", MLOProblem.LE, "44");
+        p.addConstraint("1 0 0", MLOProblem.GE, "43");
+        p.addConstraint("0 4 4", MLOProblem.GE, "50");
+        p.setObjFun("0 4 4");
+        assertEquals(feasibility(p),"\nThe problem is feasible.\n");
+
+        p = new MLOProblem(3);
+        p.addConstraint("0 0 -1", MLOProblem.EQ, "6");
+        p.addConstraint("0 1/2 -2", MLOProblem.EQ, "14");
+        p.addConstraint("2 1 -1", MLOProblem.EQ, "11");
+        p.setObjFun("-1 -1 -1");
+        assertEquals(feasibility(p),"\nThe problem is infeasible.\n");
+    }
+
+    @Test
+    public void testIterationLimit(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.GE, "2");
+        p.addConstraint("1 -1", MLOProblem.EQ, "1");
+        p.setObjFun("1 1");
+
+        assertEquals(feasibility(p.clone(),0),"\nThe iteration limit was reached before the feasibility was known.\n");
+        assertEquals(feasibility(p.clone(),2),"\nThe problem is feasible.\n");
+    }
+}
@@ -0,0 +1,87 @@
+package test;
+
+import Model.DantzigPricing;
+import Model.DevexPricing;
+import Model.MLOProblem;
+import Model.PartialPricing;
+import Model.PhaseOne;
+import Model.PricingRule;
+import Model.ProblemToMatrixTransformation;
+import Model.RationalNumberMatrix;
+import Model.Simplex;
+import Model.SteepestEdgePricing;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PricingRuleTest {
+    private static PricingRule[] rules(){
+        return new PricingRule[]{new DevexPricing(),new SteepestEdgePricing(),new PartialPricing(2,3)};
+    }
+
+    private static MLOProblem kleeMinty(){
+        MLOProblem p = new MLOProblem(6);
+        p.addConstraint("1 0 0 0 0 0", MLOProblem.LE, "5");
+        p.addConstraint("4 1 0 0 0 0", MLOProblem.LE, "25");
+        p.addConstraint("8 4 1 0 0 0", MLOProblem.LE, "125");
+        p.addConstraint("16 8 4 1 0 0", MLOProblem.LE, "625");
+        p.addConstraint("32 16 8 4 1 0", MLOProblem.LE, "3125");
+        p.addConstraint("64 32 16 8 4 1", MLOProblem.LE, "15625");
+        p.setObjFun("-32 -16 -8 -4 -2 -1");
+        return p;
+    }
+
+    private static Simplex simplex(MLOProblem p, PricingRule rule){
+        RationalNumberMatrix matrix = ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(p);
+        Simplex simplex = new Simplex(matrix,matrix.getColNum()-matrix.getRowNum(),false,p.getNotLowerBoundedVariableIndexes());
+        simplex.setPricingRule(rule);
+        Simplex.RESULT res;
+        do{
+            res = simplex.compute();
+        }while(res == Simplex.RESULT.NOT_OPTIMAL);
+        return simplex;
+    }
+
+    private static String feasibility(MLOProblem p, PricingRule rule){
+        RationalNumberMatrix matrixStart = ProblemToMatrixTransformation.problemToNormalizedProblemMatrixForPhaseOne(p);
+        PhaseOne phaseOne = new PhaseOne(p.getB(),p.getTypes(),p.getNbRows(),p.getNbVar(),matrixStart);
+        phaseOne.setPricingRule(rule);
+        phaseOne.compute();
+        return phaseOne.getResult();
+    }
+
+    @Test
+    public void testSameOptimumAsDantzig(){
+        String expected = simplex(kleeMinty(),new DantzigPricing()).getResult();
+        for(PricingRule rule : rules()){
+            assertEquals(simplex(kleeMinty(),rule).getResult(),expected);
+        }
+    }
+
+    @Test
+    public void testIterationCount(){
+        int dantzig = simplex(kleeMinty(),new DantzigPricing()).getIterationCount();
+        assertEquals(dantzig,63);
+        assertTrue(simplex(kleeMinty(),new SteepestEdgePricing()).getIterationCount() < dantzig);
+        assertTrue(simplex(kleeMinty(),new DevexPricing()).getIterationCount() < dantzig);
+    }
+
+    @Test
+    public void testPhaseOne(){
+        MLOProblem feasible = new MLOProblem(2);
+        feasible.addConstraint("1 1", MLOProblem.GE, "2");
+        feasible.addConstraint("1 -1", MLOProblem.EQ, "1");
+        feasible.addConstraint("1 2", MLOProblem.LE, "8");
+        feasible.setObjFun("1 1");
+        MLOProblem infeasible = new MLOProblem(2);
+        infeasible.addConstraint("1 1", MLOProblem.GE, "5");
+        infeasible.addConstraint("1 1", MLOProblem.LE, "3");
+        infeasible.setObjFun("1 1");
+
+        for(PricingRule rule : rules()){
+            assertEquals(feasibility(feasible.clone(),rule),"\nThe problem is feasible.\n");
+            assertEquals(feasibility(infeasible.clone(),rule),"\nThe problem is infeasible.\n");
+        }
+    }
+}
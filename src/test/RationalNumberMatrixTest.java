@@ -2,8 +2,11 @@ package test;
 
 import Model.RationalNumber;
 import Model.RationalNumberMatrix;
+import Model.RationalNumberMatrixView;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class RationalNumberMatrixTest {
@@ -139,4 +142,157 @@ class RationalNumberMatrixTest {
         assertEquals(result1.toString(),expected1);
         assertEquals(result2.toString(),expected2);
     }
-}
\ No newline at end of file
+
+    // a random matrix of small fractions, a quarter of its cells being 0
+    private static RationalNumberMatrix random(Random random, int rowNum, int colNum, RationalNumberMatrix.STORAGE storage){
+        RationalNumberMatrix matrix = new RationalNumberMatrix(rowNum,colNum,storage);
+        for(int r=0;r<rowNum;r++){
+            RationalNumber[] row = new RationalNumber[colNum];
+            for(int c=0;c<colNum;c++){
+                row[c] = random.nextInt(4)==0 ? RationalNumber.ZERO : new RationalNumber(random.nextInt(19)-9,1+random.nextInt(6));
+            }
+            matrix.addRow(row,r);
+        }
+        return matrix;
+    }
+
+    @Test
+    public void testLargeOperations(){
+        // 70 x 45 times 45 x 50: the tiles of 32 do not divide the sizes and the 157500 multiply-adds go above the parallel threshold
+        // 190 x 180 cells are added and substracted in parallel too
+        RationalNumberMatrix[] expected = null;
+        for(RationalNumberMatrix.STORAGE storage : RationalNumberMatrix.STORAGE.values()){
+            Random random = new Random(7);
+            RationalNumberMatrix a = random(random,70,45,storage);
+            RationalNumberMatrix b = random(random,45,50,storage);
+            RationalNumberMatrix c = random(random,190,180,storage);
+            RationalNumberMatrix d = random(random,190,180,storage);
+            RationalNumberMatrix[] results = {a.multiply(b),c.add(d),c.substract(d)};
+
+            if(expected==null){
+                // the OBJECT result, the product checked against the sums of products of its definition
+                assertEquals(storage,RationalNumberMatrix.STORAGE.OBJECT);
+                expected = results;
+                for(int i=0;i<70;i++){
+                    for(int j=0;j<50;j++){
+                        RationalNumber sum = RationalNumber.ZERO;
+                        for(int k=0;k<45;k++){
+                            sum = sum.add(a.get(i,k).multiply(b.get(k,j)));
+                        }
+                        assertEquals(expected[0].get(i,j).toString(),sum.toString());
+                    }
+                }
+                for(int i=0;i<190;i++){
+                    for(int j=0;j<180;j++){
+                        assertEquals(expected[1].get(i,j).toString(),c.get(i,j).add(d.get(i,j)).toString());
+                        assertEquals(expected[2].get(i,j).toString(),c.get(i,j).subtract(d.get(i,j)).toString());
+                    }
+                }
+            }
+            for(int i=0;i<results.length;i++){
+                assertEquals(results[i].getStorage(),storage);
+                assertEquals(results[i].toString(),expected[i].toString());
+            }
+        }
+    }
+
+    @Test
+    public void testPackedStorage(){
+        RationalNumberMatrix packed = new RationalNumberMatrix(2,2);
+        RationalNumberMatrix object = new RationalNumberMatrix(2,2,RationalNumberMatrix.STORAGE.OBJECT);
+        RationalNumber big = new RationalNumber(Long.MAX_VALUE,1).add(RationalNumber.ONE);
+        RationalNumber[] arr0 = {new RationalNumber(12,5),big};
+        RationalNumber[] arr1 = {new RationalNumber(-4,6),RationalNumber.ZERO};
+        packed.addRow(arr0,0);
+        packed.addRow(arr1,1);
+        object.addRow(arr0,0);
+        object.addRow(arr1,1);
+
+        String expected =
+                "12/5 9223372036854775808\n" +
+                "-2/3 0"
+                ;
+        assertEquals(packed.toString(),expected);
+        assertEquals(object.toString(),expected);
+        assertEquals(packed.getStorage(),RationalNumberMatrix.STORAGE.PACKED);
+
+        packed.set(0,1,new RationalNumber(1,3));
+        assertEquals(packed.get(0,1).toString(),"1/3");
+        assertEquals(packed.copy(RationalNumberMatrix.STORAGE.OBJECT).toString(),"12/5 1/3\n-2/3 0");
+        assertEquals(new RationalNumberMatrix(1,1).get(0,0),null);
+    }
+
+    @Test
+    public void testSubtractMultipleOfRow(){
+        for(RationalNumberMatrix.STORAGE storage : RationalNumberMatrix.STORAGE.values()){
+            RationalNumberMatrix matrix = new RationalNumberMatrix(2,3,storage);
+            RationalNumber[] arr0 = {new RationalNumber(12,5),new RationalNumber(20,3),new RationalNumber(Long.MAX_VALUE,2)};
+            RationalNumber[] arr1 = {new RationalNumber(8,7),new RationalNumber(-4,6),new RationalNumber(3,1)};
+            matrix.addRow(arr0,0);
+            matrix.addRow(arr1,1);
+
+            matrix.subtractMultipleOfRow(0,new RationalNumber(7,2),1);
+            matrix.multiplyRowByScalar(1,new RationalNumber(-3,4));
+
+            String expected =
+                    "-8/5 9 4611686018427387893\n" +
+                    "-6/7 1/2 -9/4"
+                    ;
+            assertEquals(matrix.toString(),expected);
+
+            // only the columns where the source row is not 0
+            matrix.set(1,1,RationalNumber.ZERO);
+            int[] columns = matrix.getNonZeroColumns(1);
+            assertEquals(columns.length,2);
+            matrix.subtractMultipleOfRow(0,new RationalNumber(2,1),1,columns);
+            assertEquals(matrix.toString(),"4/35 9 9223372036854775795/2\n-6/7 0 -9/4");
+        }
+    }
+
+    @Test
+    public void testCompare(){
+        for(RationalNumberMatrix.STORAGE storage : RationalNumberMatrix.STORAGE.values()){
+            RationalNumberMatrix matrix = new RationalNumberMatrix(2,3,storage);
+            RationalNumber[] arr0 = {new RationalNumber(12,5),new RationalNumber(7,3),new RationalNumber(-1,6)};
+            RationalNumber[] arr1 = {new RationalNumber(8,7),new RationalNumber(2,1),new RationalNumber(3,4)};
+            matrix.addRow(arr0,0);
+            matrix.addRow(arr1,1);
+
+            assertEquals(matrix.compareInRow(0,0,1)>0,true);
+            assertEquals(matrix.compareInRow(1,1,0)>0,true);
+            assertEquals(matrix.signum(0,2),-1);
+            // 7/3 / 12/5 = 35/36 > 2 / 8/7 = 7/4 is false
+            assertEquals(matrix.compareRatios(0,1,1,0)<0,true);
+        }
+    }
+
+    @Test
+    public void testCloneAndViews(){
+        for(RationalNumberMatrix.STORAGE storage : RationalNumberMatrix.STORAGE.values()){
+            RationalNumberMatrix matrix = new RationalNumberMatrix(2,3,storage);
+            RationalNumber[] arr0 = {new RationalNumber(12,5),new RationalNumber(20,3),new RationalNumber(31,23)};
+            RationalNumber[] arr1 = {new RationalNumber(8,7),new RationalNumber(-4,6),new RationalNumber(-5,8)};
+            matrix.addRow(arr0,0);
+            matrix.addRow(arr1,1);
+
+            // the clone and the matrix change independently
+            RationalNumberMatrix clone = matrix.clone();
+            clone.multiplyRowByScalar(0,RationalNumber.MINUS_ONE);
+            matrix.subtractMultipleOfRow(1,RationalNumber.ONE,0);
+            assertEquals(clone.toString(),"-12/5 -20/3 -31/23\n8/7 -2/3 -5/8");
+            assertEquals(matrix.toString(),"12/5 20/3 31/23\n-44/35 -22/3 -363/184");
+
+            RationalNumberMatrixView transposed = clone.transpose();
+            assertEquals(transposed.getRowNum(),3);
+            assertEquals(transposed.toString(),"-12/5 8/7\n-20/3 -2/3\n-31/23 -5/8");
+            RationalNumberMatrixView block = transposed.subMatrix(1,0,2,2).transpose();
+            assertEquals(block.toString(),clone.subMatrix(0,1,2,2).toString());
+            assertEquals(block.signum(1,0),-1);
+
+            // a view sees the later changes of its matrix
+            clone.set(0,1,RationalNumber.ONE);
+            assertEquals(block.get(0,0).toString(),"1");
+            assertEquals(block.toMatrix().getStorage(),storage);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package test;
+
+import Model.RationalNumber;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RationalNumberTest {
+    @Test
+    public void testReduce(){
+        assertEquals(new RationalNumber(64,16).toString(),"4");
+        assertEquals(new RationalNumber(1,-6).toString(),"-1/6");
+        assertEquals(new RationalNumber(-4,6).toString(),"-2/3");
+        assertEquals(new RationalNumber(0,-7).toString(),"0");
+        assertEquals(new RationalNumber("12/-18").toString(),"-2/3");
+        assertEquals(new RationalNumber(0.125).toString(),"1/8");
+    }
+
+    @Test
+    public void testOverflowMovesToBigInteger(){
+        RationalNumber big = new RationalNumber(Long.MAX_VALUE,1);
+        RationalNumber sum = big.add(big);
+        assertEquals(sum.toString(),"18446744073709551614");
+        assertTrue(!sum.fitsInLong());
+
+        RationalNumber product = new RationalNumber(Long.MAX_VALUE,3).multiply(new RationalNumber(5,Long.MAX_VALUE-1));
+        RationalNumber expected = new RationalNumber(
+                BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(5)),
+                BigInteger.valueOf(3).multiply(BigInteger.valueOf(Long.MAX_VALUE-1)));
+        assertTrue(product.equals(expected));
+    }
+
+    @Test
+    public void testBackToLong(){
+        RationalNumber big = new RationalNumber(Long.MAX_VALUE,1).add(RationalNumber.ONE);
+        RationalNumber back = big.subtract(new RationalNumber(2,1));
+        assertTrue(back.fitsInLong());
+        assertEquals(back.getNumerator(),Long.MAX_VALUE-1);
+    }
+
+    @Test
+    public void testCompare(){
+        RationalNumber a = new RationalNumber(Long.MAX_VALUE-1,Long.MAX_VALUE);
+        RationalNumber b = new RationalNumber(Long.MAX_VALUE-2,Long.MAX_VALUE-1);
+        assertTrue(b.isLessThan(a));
+        assertTrue(!a.isLessThanOrEqualTo(b));
+        assertTrue(new RationalNumber(-3,4).isLessThan(RationalNumber.ZERO));
+        assertTrue(new RationalNumber(-3,4).isLessThan(new RationalNumber(-2,3)));
+        assertTrue(RationalNumber.ONE.isLessThanOrEqualTo(new RationalNumber(7,7)));
+    }
+}
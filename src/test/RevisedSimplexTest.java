@@ -0,0 +1,106 @@
+package test;
+
+import Model.MLOProblem;
+import Model.RationalNumber;
+import Model.RevisedSimplex;
+import Model.Simplex;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RevisedSimplexTest {
+    // a feasible problem with 2 to 7 variables and constraints, small integer coefficients
+    private static MLOProblem randomProblem(Random random){
+        int nbVar = 2+random.nextInt(6);
+        MLOProblem p = new MLOProblem(nbVar);
+        for(int r=0;r<2+random.nextInt(6);r++){
+            StringBuilder row = new StringBuilder();
+            for(int v=0;v<nbVar;v++){
+                row.append(random.nextInt(9)-2).append(" ");
+            }
+            p.addConstraint(row.toString().trim(), MLOProblem.LE, ""+(1+random.nextInt(20)));
+        }
+        StringBuilder objective = new StringBuilder();
+        for(int v=0;v<nbVar;v++){
+            objective.append(-1-random.nextInt(8)).append(" ");
+        }
+        p.setObjFun(objective.toString().trim());
+        return p;
+    }
+
+    @Test
+    public void testBounds(){
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.LE, "4");
+        p.setBounds(0,"0","1");
+        p.setObjFun("-2 -1");
+
+        // the upper bound of var[0] is a third row of the tableau
+        RevisedSimplex<RationalNumber> simplex = RevisedSimplex.exact(p);
+        while(simplex.compute()==Simplex.RESULT.NOT_OPTIMAL);
+        assertEquals(simplex.getBasis().length,2);
+        assertEquals(simplex.getResult(),"\n\nValue of objective function: -5\nValue of var[0] = 1\nValue of var[1] = 3\n");
+    }
+
+    @Test
+    public void testEtaUpdatesSameAsRefactorization(){
+        // with the default interval every basis change is an eta, with an interval of 1 the basis is factorized again instead
+        Random random = new Random(3);
+        for(int k=0;k<20;k++){
+            MLOProblem p = randomProblem(random);
+            for(int interval=1;interval<=3;interval++){
+                RevisedSimplex<RationalNumber> refactorized = RevisedSimplex.exact(p);
+                refactorized.setRefactorizationInterval(interval);
+                RevisedSimplex<RationalNumber> etas = RevisedSimplex.exact(p);
+                Simplex.RESULT res;
+                do{
+                    res = etas.compute();
+                    assertEquals(refactorized.compute(),res);
+                    assertArrayEquals(refactorized.getBasis(),etas.getBasis());
+                }while(res == Simplex.RESULT.NOT_OPTIMAL);
+                assertEquals(refactorized.getIterationCount(),etas.getIterationCount());
+                assertEquals(refactorized.getResult(),etas.getResult());
+                // the basis was never factorized again
+                assertEquals(etas.getIterationCount()<RevisedSimplex.DEFAULT_REFACTORIZATION_INTERVAL,true);
+            }
+        }
+    }
+
+    @Test
+    public void testDoublesSameBasesAsExact(){
+        // on small integer coefficients no sign is within the tolerance, both arithmetics make the same choices
+        Random random = new Random(5);
+        for(int k=0;k<20;k++){
+            MLOProblem p = randomProblem(random);
+            RevisedSimplex<RationalNumber> exact = RevisedSimplex.exact(p);
+            RevisedSimplex<Double> inDoubles = RevisedSimplex.inDoubles(p,1e-9);
+            inDoubles.setRefactorizationInterval(2);
+            Simplex.RESULT res;
+            do{
+                res = exact.compute();
+                assertEquals(inDoubles.compute(),res);
+                assertArrayEquals(inDoubles.getBasis(),exact.getBasis());
+            }while(res == Simplex.RESULT.NOT_OPTIMAL);
+        }
+    }
+
+    @Test
+    public void testTolerance(){
+        // the objective coefficient of var[0] is -1e-12: 0 within a tolerance of 1e-9, not within 1e-15
+        MLOProblem p = new MLOProblem(2);
+        p.addConstraint("1 1", MLOProblem.LE, "1");
+        p.setObjFun("-1/1000000000000 0");
+
+        RevisedSimplex<Double> coarse = RevisedSimplex.inDoubles(p,1e-9);
+        assertEquals(coarse.compute(),Simplex.RESULT.IS_OPTIMAL);
+        assertEquals(coarse.getIterationCount(),0);
+
+        RevisedSimplex<Double> fine = RevisedSimplex.inDoubles(p,1e-15);
+        assertEquals(fine.compute(),Simplex.RESULT.NOT_OPTIMAL);
+        assertEquals(fine.compute(),Simplex.RESULT.IS_OPTIMAL);
+        assertArrayEquals(fine.getBasis(),new int[]{0});
+    }
+}
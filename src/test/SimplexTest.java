@@ -0,0 +1,97 @@
+package test;
+
+import Model.MLOProblem;
+import Model.ProblemToMatrixTransformation;
+import Model.RationalNumberMatrix;
+import Model.Simplex;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SimplexTest {
+    // Beale's example, Dantzig's rule cycles on it when the first tied row departs
+    private static Simplex beale(){
+        MLOProblem p = new MLOProblem(4);
+        p.addConstraint("1/4 -8 -1 9", MLOProblem.LE, "0");
+        p.addConstraint("1/2 -12 -1/2 3", MLOProblem.LE, "0");
+        p.addConstraint("0 0 1 0", MLOProblem.LE, "1");
+        p.setObjFun("-3/4 20 -1/2 6");
+        RationalNumberMatrix matrix = ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(p);
+        return new Simplex(matrix,matrix.getColNum()-matrix.getRowNum(),false,p.getNotLowerBoundedVariableIndexes());
+    }
+
+    private static Simplex.RESULT run(Simplex simplex){
+        Simplex.RESULT res;
+        do{
+            res = simplex.compute();
+        }while(res == Simplex.RESULT.NOT_OPTIMAL);
+        return res;
+    }
+
+    @Test
+    public void testIterationLimit(){
+        Simplex simplex = beale();
+        simplex.setStallThreshold(Integer.MAX_VALUE);
+        simplex.setIterationLimit(100);
+        assertEquals(run(simplex),Simplex.RESULT.ITERATION_LIMIT);
+        assertEquals(simplex.getIterationCount(),100);
+    }
+
+    // a random problem whose rows are of type <= with nonnegative right hand side values, var[0] is not lower bounded
+    private static MLOProblem random(Random random){
+        int nbVar = 4+random.nextInt(5);
+        MLOProblem p = new MLOProblem(nbVar);
+        for(int r=0;r<4+random.nextInt(5);r++){
+            StringBuilder row = new StringBuilder();
+            for(int v=0;v<nbVar;v++){
+                row.append(random.nextInt(9)-2).append("/").append(1+random.nextInt(4)).append(" ");
+            }
+            p.addConstraint(row.toString().trim(), MLOProblem.LE, ""+(1+random.nextInt(20)));
+        }
+        p.addConstraint("-1"+" 1".repeat(nbVar-1), MLOProblem.LE, "5");
+        p.setBounds(0,null,null);
+        StringBuilder objective = new StringBuilder();
+        for(int v=0;v<nbVar;v++){
+            objective.append(-1-random.nextInt(8)).append(" ");
+        }
+        p.setObjFun(objective.toString().trim());
+        return p;
+    }
+
+    // solves the problem and returns the result, the number of pivots and the final basis
+    private static String solve(Simplex simplex){
+        Simplex.RESULT res = run(simplex);
+        return res+simplex.getResult()+simplex.getIterationCount()+Arrays.toString(simplex.getBasis());
+    }
+
+    @Test
+    public void testParallelSameAsSequential(){
+        Random random = new Random(5);
+        for(int k=0;k<10;k++){
+            MLOProblem p = random(random);
+            for(RationalNumberMatrix.STORAGE storage : RationalNumberMatrix.STORAGE.values()){
+                String[] results = new String[2];
+                for(int parallelism=1;parallelism<=4;parallelism+=3){
+                    RationalNumberMatrix matrix = ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(p,storage);
+                    Simplex simplex = new Simplex(matrix,matrix.getColNum()-matrix.getRowNum(),false,p.getNotLowerBoundedVariableIndexes());
+                    // every operation is split across the threads
+                    simplex.setParallelism(parallelism);
+                    simplex.setParallelThreshold(0);
+                    results[parallelism/4] = solve(simplex);
+                }
+                assertEquals(results[1],results[0]);
+            }
+        }
+    }
+
+    @Test
+    public void testBlandFallback(){
+        Simplex simplex = beale();
+        simplex.setStallThreshold(5);
+        assertEquals(run(simplex),Simplex.RESULT.IS_OPTIMAL);
+        assertEquals(simplex.getResult(),"\n\nValue of objective function: -5/4\nValue of var[0] = 1\nValue of var[1] = 0\nValue of var[2] = 1\nValue of var[3] = 0\n");
+    }
+}
@@ -0,0 +1,80 @@
+package test;
+
+import Model.MLOProblem;
+import Model.ProblemToMatrixTransformation;
+import Model.RationalNumber;
+import Model.RationalNumberMatrix;
+import Model.SparseRationalNumberMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SparseRationalNumberMatrixTest {
+    /**
+     * Builds a dense matrix with about one nonzero element out of four.
+     */
+    private static RationalNumberMatrix randomMatrix(Random random, int rowNum, int colNum){
+        RationalNumberMatrix m = new RationalNumberMatrix(rowNum,colNum);
+        for(int i=0;i<rowNum;i++){
+            for(int j=0;j<colNum;j++){
+                m.set(i,j,random.nextInt(4)==0 ? new RationalNumber(random.nextInt(19)-9,1+random.nextInt(5)) : RationalNumber.ZERO);
+            }
+        }
+        return m;
+    }
+
+    @Test
+    public void testSetAndGet(){
+        SparseRationalNumberMatrix m = new SparseRationalNumberMatrix(3,4);
+        m.set(1,2,new RationalNumber(3,4));
+        m.set(0,3,RationalNumber.ONE);
+        m.set(2,0,new RationalNumber(-2,1));
+        m.set(1,0,new RationalNumber(5,1));
+        assertEquals(m.getNonZeroCount(),4);
+        assertEquals(m.toString(),"0 0 0 1\n5 0 3/4 0\n-2 0 0 0");
+
+        m.set(1,2,RationalNumber.ZERO);
+        assertEquals(m.getNonZeroCount(),3);
+        assertEquals(m.get(1,2).toString(),"0");
+        assertEquals(m.getRowIndexesOfColumn(0).length,2);
+        assertTrue(m.doesColumnContainOneOnly(3));
+        assertEquals(m.transpose().toString(),"0 5 -2\n0 0 0\n0 0 0\n1 0 0");
+    }
+
+    @Test
+    public void testOperationsMatchDense(){
+        Random random = new Random(11);
+        for(int t=0;t<20;t++){
+            RationalNumberMatrix a = randomMatrix(random,5,7);
+            RationalNumberMatrix b = randomMatrix(random,5,7);
+            RationalNumberMatrix c = randomMatrix(random,7,3);
+            SparseRationalNumberMatrix sa = SparseRationalNumberMatrix.fromDense(a);
+            SparseRationalNumberMatrix sb = SparseRationalNumberMatrix.fromDense(b);
+            SparseRationalNumberMatrix sc = SparseRationalNumberMatrix.fromDense(c);
+
+            assertEquals(sa.toString(),a.toString());
+            assertEquals(sa.add(sb).toString(),a.add(b).toString());
+            assertEquals(sa.substract(sb).toString(),a.substract(b).toString());
+            assertEquals(sa.multiply(sc).toString(),a.multiply(c).toString());
+            assertEquals(sa.substract(sa).getNonZeroCount(),0);
+        }
+    }
+
+    @Test
+    public void testProblemToSparseMatrix(){
+        MLOProblem mloProblem = new MLOProblem(3);
+        mloProblem.setNotLowerBoundedVariableIndexes(1);
+        mloProblem.addConstraint("-9 1 8",MLOProblem.GE,"4");
+        mloProblem.addConstraint("3 -2 4",MLOProblem.LE,"35");
+        mloProblem.addConstraint("1 0 1/2",MLOProblem.EQ,"10");
+        mloProblem.addConstraint("0 1 0",MLOProblem.GE,"-10");
+        mloProblem.setObjFun("1 3 -2");
+
+        SparseRationalNumberMatrix sparse = ProblemToMatrixTransformation.problemToNormalizedProblemSparseMatrix(mloProblem);
+        RationalNumberMatrix dense = ProblemToMatrixTransformation.problemToNormalizedProblemMatrix(mloProblem);
+        assertEquals(sparse.toString(),dense.toString());
+    }
+}